@@ -1,6 +1,8 @@
 package com.shopping;
 
+import com.shopping.config.ApplicationContext;
 import com.shopping.controller.MainController;
+import com.shopping.util.Constants;
 
 /**
  * 쇼핑몰 애플리케이션의 진입점
@@ -16,10 +18,23 @@ public class Main {
      * @param args 명령행 인자 (사용하지 않음)
      */
     public static void main(String[] args) {
+        // 애플리케이션 컨텍스트 구성 (공유 객체 그래프)
+        ApplicationContext context = new ApplicationContext();
+
+        // 저장소를 백그라운드에서 병렬로 적재 (메뉴는 기다리지 않고 바로 표시)
+        if (Constants.STARTUP_WARM_UP_ENABLED) {
+            context.warmUp();
+        }
+
         // 메인 컨트롤러 인스턴스 생성
-        MainController mainController = new MainController();
+        MainController mainController = new MainController(context);
         
-        // 애플리케이션 시작
-        mainController.start();
+        // 애플리케이션 시작 (종료 메뉴를 선택하면 반환)
+        try {
+            mainController.start();
+        } finally {
+            // 스레드 풀과 열린 파일 정리
+            context.close();
+        }
     }
 }
\ No newline at end of file
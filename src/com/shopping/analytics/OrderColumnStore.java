@@ -0,0 +1,357 @@
+// ===============================================
+// OrderColumnStore.java - 분석용 컬럼형 주문 저장소
+// ===============================================
+package com.shopping.analytics;
+
+import com.shopping.model.Order;
+import com.shopping.persistence.OrderCursor;
+import com.shopping.repository.OrderRepository;
+import com.shopping.util.IntIntMap;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 주문 이력을 컬럼(열) 단위 기본형 배열로 보관하는 분석 전용 저장소
+ *
+ * List&lt;Order&gt;와 비교:
+ * - Order 객체 헤더, Date/String 참조가 없음 → 주문당 약 40바이트
+ * - userId는 사전(dictionary) 인코딩된 int 코드로 저장
+ * - 집계는 배열을 순서대로 훑는 단순 루프 (캐시 친화적)
+ *
+ * 주문 로그를 읽은 위치를 기억하므로 refresh()는 새로 추가된 주문만 읽음
+ * (마지막 적재 이후 주문 취소가 있었다면 취소분을 빼기 위해 처음부터 다시 적재)
+ */
+public class OrderColumnStore {
+
+    // 초기 배열 크기
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // 상품 ID가 이 값 이하면 배열로 집계, 넘으면 HashMap으로 집계
+    private static final int DENSE_PRODUCT_LIMIT = 1 << 24;
+
+    // 날짜 경계 계산용 시간대
+    private final ZoneId zone;
+
+    // ===== 컬럼 =====
+    private int size;
+    private int[] orderIds = new int[INITIAL_CAPACITY];
+    private int[] productIds = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];   // timestamps에서 파생 (일별 집계용)
+    private int[] userCodes = new int[INITIAL_CAPACITY];   // userDictionary 인덱스
+
+    // ===== userId 사전 =====
+    private final List<String> codeToUser = new ArrayList<>();
+    private final IntIntMap userKeyToCode = new IntIntMap(-1);   // 주문의 사용자 키 → 사전 코드
+
+    // 가장 큰 상품 ID (집계 배열 크기 결정용)
+    private int maxProductId;
+
+    // 주문 로그에서 여기까지 읽었음
+    private long loadedOffset;
+
+    // 마지막 적재 시점의 취소 건수
+    private int loadedCancelledCount;
+
+    // 마지막 적재 시점의 주문 로그 압축 횟수 (압축되면 읽은 위치가 달라지므로 다시 적재)
+    private long loadedCompactionCount;
+
+    public OrderColumnStore() {
+        this(ZoneId.systemDefault());
+    }
+
+    public OrderColumnStore(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * 주문 로그 전체로 컬럼 저장소 생성
+     * @param orderRepository 주문 Repository
+     * @return 적재된 컬럼 저장소
+     */
+    public static OrderColumnStore load(OrderRepository orderRepository) {
+        OrderColumnStore store = new OrderColumnStore();
+        store.refresh(orderRepository);
+        return store;
+    }
+
+    /**
+     * 마지막으로 읽은 위치 이후의 새 주문만 적재
+     * @param orderRepository 주문 Repository
+     * @return 새로 적재한 주문 수
+     */
+    public synchronized int refresh(OrderRepository orderRepository) {
+        int cancelledCount = orderRepository.getCancelledCount();
+        long compactionCount = orderRepository.getCompactionCount();
+        if (cancelledCount != loadedCancelledCount || compactionCount != loadedCompactionCount) {
+            reset();
+            loadedCancelledCount = cancelledCount;
+            loadedCompactionCount = compactionCount;
+        }
+
+        int before = size;
+        try (OrderCursor cursor = orderRepository.openCursor(loadedOffset)) {
+            for (Order order : cursor) {
+                if (!order.isCancelled()) {
+                    append(order);
+                }
+            }
+            loadedOffset = cursor.validLength();
+        }
+        return size - before;
+    }
+
+    /**
+     * 주문 한 건 추가
+     * @param order 추가할 주문
+     */
+    public synchronized void append(Order order) {
+        if (size == orderIds.length) {
+            grow();
+        }
+
+        int row = size;
+        orderIds[row] = order.getOrderId();
+        productIds[row] = order.getProductId();
+        quantities[row] = order.getQuantity();
+        amounts[row] = order.getTotalPrice();
+        timestamps[row] = order.getOrderTimestamp();
+        epochDays[row] = (int) Instant.ofEpochMilli(order.getOrderTimestamp())
+                .atZone(zone).toLocalDate().toEpochDay();
+        userCodes[row] = encodeUser(order.getUserKey(), order.getUserId());
+        maxProductId = Math.max(maxProductId, order.getProductId());
+        size = row + 1;
+    }
+
+    /**
+     * 저장된 주문 수
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 서로 다른 사용자 수
+     */
+    public synchronized int userCount() {
+        return codeToUser.size();
+    }
+
+    /**
+     * 상품별 매출 합계
+     * @return 상품 ID → 매출
+     */
+    public Map<Integer, Double> revenueByProduct() {
+        int n;
+        int[] products;
+        double[] amountColumn;
+        int maxId;
+        synchronized (this) {
+            n = size;
+            products = productIds;
+            amountColumn = amounts;
+            maxId = maxProductId;
+        }
+
+        Map<Integer, Double> result = new HashMap<>();
+        if (maxId >= 0 && maxId <= DENSE_PRODUCT_LIMIT) {
+            // 상품 ID를 인덱스로 쓰는 밀집 배열 집계
+            double[] sums = new double[maxId + 1];
+            boolean[] seen = new boolean[maxId + 1];
+            for (int i = 0; i < n; i++) {
+                int p = products[i];
+                if (p >= 0) {
+                    sums[p] += amountColumn[i];
+                    seen[p] = true;
+                }
+            }
+            for (int p = 0; p <= maxId; p++) {
+                if (seen[p]) {
+                    result.put(p, sums[p]);
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                result.merge(products[i], amountColumn[i], Double::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 사용자별 매출 합계
+     * @return 사용자 ID → 매출
+     */
+    public Map<String, Double> revenueByUser() {
+        int n;
+        int[] users;
+        double[] amountColumn;
+        String[] dictionary;
+        synchronized (this) {
+            n = size;
+            users = userCodes;
+            amountColumn = amounts;
+            dictionary = codeToUser.toArray(new String[0]);
+        }
+
+        double[] sums = new double[dictionary.length];
+        for (int i = 0; i < n; i++) {
+            sums[users[i]] += amountColumn[i];
+        }
+
+        Map<String, Double> result = new HashMap<>(dictionary.length * 2);
+        for (int code = 0; code < dictionary.length; code++) {
+            result.put(dictionary[code], sums[code]);
+        }
+        return result;
+    }
+
+    /**
+     * 일별 매출 합계
+     * @return 날짜 → 매출 (날짜 순)
+     */
+    public SortedMap<LocalDate, Double> revenueByDay() {
+        int n;
+        int[] days;
+        double[] amountColumn;
+        synchronized (this) {
+            n = size;
+            days = epochDays;
+            amountColumn = amounts;
+        }
+
+        SortedMap<LocalDate, Double> result = new TreeMap<>();
+        if (n == 0) {
+            return result;
+        }
+
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minDay = Math.min(minDay, days[i]);
+            maxDay = Math.max(maxDay, days[i]);
+        }
+
+        // 기간 길이만큼의 배열에 누적
+        double[] sums = new double[maxDay - minDay + 1];
+        boolean[] seen = new boolean[sums.length];
+        for (int i = 0; i < n; i++) {
+            int d = days[i] - minDay;
+            sums[d] += amountColumn[i];
+            seen[d] = true;
+        }
+        for (int d = 0; d < sums.length; d++) {
+            if (seen[d]) {
+                result.put(LocalDate.ofEpochDay(minDay + d), sums[d]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 현재 시점의 읽기 전용 스냅샷
+     * 배열은 복사하지 않고 참조만 넘김 (이후 추가는 size 뒤쪽에만 기록되므로 안전)
+     * @return 스냅샷
+     */
+    synchronized Snapshot snapshot() {
+        return new Snapshot(size, productIds, quantities, amounts, epochDays, userCodes,
+                codeToUser.toArray(new String[0]));
+    }
+
+    /**
+     * 컬럼 배열과 사전이 차지하는 대략적인 메모리 (바이트)
+     * 배열 여유 공간 포함, 사전 문자열은 UserIdDictionary와 공유하므로 제외
+     */
+    public synchronized long estimatedBytes() {
+        long perRowBytes = 4L + 4 + 4 + 8 + 8 + 4 + 4;
+        long columns = perRowBytes * orderIds.length;
+        long dictionary = codeToUser.size() * (4L + 16);   // 사전 목록 칸 + IntIntMap 칸(용량 여유 포함 근사)
+        return columns + dictionary;
+    }
+
+    /**
+     * 사용자 키 → 사전 코드 (처음 보는 키면 새 코드 발급)
+     * 문자열 해시/비교 없이 int 키로 찾고, 사전에는 주문이 공유하는 문자열을 그대로 둠
+     */
+    private int encodeUser(int userKey, String userId) {
+        int code = userKeyToCode.get(userKey);
+        if (code < 0) {
+            code = codeToUser.size();
+            codeToUser.add(userId);
+            userKeyToCode.put(userKey, code);
+        }
+        return code;
+    }
+
+    /**
+     * 컬럼 전체 비우기 (새 배열로 교체하므로 기존 스냅샷은 그대로 유효)
+     * 사용자 사전은 코드가 바뀌지 않도록 유지
+     */
+    private void reset() {
+        size = 0;
+        maxProductId = 0;
+        loadedOffset = 0;
+        orderIds = new int[INITIAL_CAPACITY];
+        productIds = new int[INITIAL_CAPACITY];
+        quantities = new int[INITIAL_CAPACITY];
+        amounts = new double[INITIAL_CAPACITY];
+        timestamps = new long[INITIAL_CAPACITY];
+        epochDays = new int[INITIAL_CAPACITY];
+        userCodes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * 컬럼 배열 용량 2배 확장
+     * 새 배열로 교체하므로 이전 배열을 들고 있는 집계 작업은 영향을 받지 않음
+     */
+    private void grow() {
+        int capacity = orderIds.length * 2;
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        productIds = Arrays.copyOf(productIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        userCodes = Arrays.copyOf(userCodes, capacity);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("OrderColumnStore[orders=%d, users=%d, ~%dKB]",
+                size, codeToUser.size(), estimatedBytes() / 1024);
+    }
+
+    /**
+     * 집계 엔진에 넘기는 컬럼 스냅샷 (0 ~ size-1 행만 유효)
+     */
+    static final class Snapshot {
+        final int size;
+        final int[] productIds;
+        final int[] quantities;
+        final double[] amounts;
+        final int[] epochDays;
+        final int[] userCodes;
+        final String[] users;
+
+        Snapshot(int size, int[] productIds, int[] quantities, double[] amounts,
+                 int[] epochDays, int[] userCodes, String[] users) {
+            this.size = size;
+            this.productIds = productIds;
+            this.quantities = quantities;
+            this.amounts = amounts;
+            this.epochDays = epochDays;
+            this.userCodes = userCodes;
+            this.users = users;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.shopping.analytics;
+
+/**
+ * 매출 리포트의 한 행 (그룹 키 + 집계값)
+ *
+ * 키 타입은 그룹 기준에 따라 다름:
+ * - PRODUCT: Integer (상품 ID)
+ * - USER: String (사용자 ID)
+ * - DAY: LocalDate (주문 일자)
+ */
+public class ReportRow {
+
+    // 그룹 키
+    private final Object key;
+
+    // 그룹 집계값
+    private final SalesAggregate aggregate;
+
+    public ReportRow(Object key, SalesAggregate aggregate) {
+        this.key = key;
+        this.aggregate = aggregate;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public long getOrderCount() {
+        return aggregate.getOrderCount();
+    }
+
+    public long getQuantity() {
+        return aggregate.getQuantity();
+    }
+
+    public double getRevenue() {
+        return aggregate.getRevenue();
+    }
+
+    public double getAverageRevenue() {
+        return aggregate.getAverageRevenue();
+    }
+
+    public double getAverageQuantity() {
+        return aggregate.getAverageQuantity();
+    }
+
+    SalesAggregate toAggregate() {
+        return aggregate;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportRow[key=" + key + ", " + aggregate + "]";
+    }
+}
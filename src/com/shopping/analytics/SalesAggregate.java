@@ -0,0 +1,70 @@
+// ===============================================
+// SalesAggregate.java - 병합 가능한 매출 누적기
+// ===============================================
+package com.shopping.analytics;
+
+/**
+ * 주문 건수 / 판매 수량 / 매출 합계를 누적하는 가변 누적기
+ *
+ * 병렬 집계에서 각 작업이 자기 누적기를 채운 뒤 merge()로 합침
+ * (합계와 건수만 보관하므로 평균은 병합 후에도 정확하게 계산됨)
+ */
+public class SalesAggregate {
+
+    private long orderCount;
+    private long quantity;
+    private double revenue;
+
+    /**
+     * 주문 한 건 누적
+     */
+    void add(int orderQuantity, double amount) {
+        orderCount++;
+        quantity += orderQuantity;
+        revenue += amount;
+    }
+
+    /**
+     * 다른 누적기 합치기
+     * @param other 합칠 누적기
+     * @return this
+     */
+    SalesAggregate merge(SalesAggregate other) {
+        orderCount += other.orderCount;
+        quantity += other.quantity;
+        revenue += other.revenue;
+        return this;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * 주문당 평균 매출 (평균 장바구니 금액)
+     */
+    public double getAverageRevenue() {
+        return orderCount == 0 ? 0 : revenue / orderCount;
+    }
+
+    /**
+     * 주문당 평균 수량 (평균 장바구니 크기)
+     */
+    public double getAverageQuantity() {
+        return orderCount == 0 ? 0 : (double) quantity / orderCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("orders=%d, quantity=%d, revenue=%.2f, avg=%.2f",
+                orderCount, quantity, revenue, getAverageRevenue());
+    }
+}
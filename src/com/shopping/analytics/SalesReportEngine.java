@@ -0,0 +1,254 @@
+// ===============================================
+// SalesReportEngine.java - 병렬 매출 리포트 엔진
+// ===============================================
+package com.shopping.analytics;
+
+import com.shopping.repository.OrderRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 주문 이력을 구간(partition)으로 나눠 ForkJoinPool에서 병렬 집계하는 리포트 엔진
+ *
+ * 동작 방식:
+ * 1. OrderColumnStore를 최신 상태로 갱신한 뒤 스냅샷을 얻음
+ * 2. 행 범위를 반씩 나눠 각 작업이 자기 SalesAggregate 맵을 채움
+ * 3. 작업 결과를 merge()로 합쳐 최종 그룹별 집계를 만듦
+ *
+ * 지원 질의: 상품 / 사용자 / 일자별 그룹 집계 (건수, 수량, 매출, 평균)
+ */
+public class SalesReportEngine {
+
+    /**
+     * 그룹 기준
+     */
+    public enum GroupBy {
+        PRODUCT,
+        USER,
+        DAY
+    }
+
+    /**
+     * 정렬 기준 지표
+     */
+    public enum Metric {
+        REVENUE,
+        QUANTITY,
+        ORDER_COUNT,
+        AVERAGE_REVENUE
+    }
+
+    // 한 작업이 직접 처리하는 최대 행 수 (이보다 크면 분할)
+    private static final int PARTITION_SIZE = 64 * 1024;
+
+    private final OrderColumnStore store;
+    private final OrderRepository orderRepository;
+    private final ForkJoinPool pool;
+
+    /**
+     * SalesReportEngine 생성자 (공용 ForkJoinPool 사용)
+     * @param store 컬럼형 주문 저장소
+     * @param orderRepository 새 주문을 읽어올 Repository
+     */
+    public SalesReportEngine(OrderColumnStore store, OrderRepository orderRepository) {
+        this(store, orderRepository, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * SalesReportEngine 생성자
+     * @param store 컬럼형 주문 저장소
+     * @param orderRepository 새 주문을 읽어올 Repository (null이면 갱신하지 않음)
+     * @param pool 집계 작업을 실행할 ForkJoinPool
+     */
+    public SalesReportEngine(OrderColumnStore store, OrderRepository orderRepository, ForkJoinPool pool) {
+        this.store = store;
+        this.orderRepository = orderRepository;
+        this.pool = pool;
+    }
+
+    /**
+     * 그룹별 집계
+     *
+     * @param groupBy 그룹 기준
+     * @param from 시작일 (포함, null이면 제한 없음)
+     * @param to 종료일 (포함, null이면 제한 없음)
+     * @return 키 순으로 정렬된 집계 행 목록
+     */
+    public List<ReportRow> aggregate(GroupBy groupBy, LocalDate from, LocalDate to) {
+        OrderColumnStore.Snapshot snapshot = prepare();
+        Map<Integer, SalesAggregate> groups = pool.invoke(
+                new GroupTask(snapshot, groupBy, toDay(from, Integer.MIN_VALUE), toDay(to, Integer.MAX_VALUE),
+                        0, snapshot.size));
+
+        List<ReportRow> rows = new ArrayList<>(groups.size());
+        groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> rows.add(new ReportRow(decodeKey(snapshot, groupBy, e.getKey()), e.getValue())));
+        return rows;
+    }
+
+    /**
+     * 상위 N개 그룹 (예: 매출 상위 고객, 판매량 상위 상품)
+     *
+     * @param groupBy 그룹 기준
+     * @param metric 정렬 지표 (내림차순)
+     * @param limit 최대 행 수
+     * @param from 시작일 (포함, null이면 제한 없음)
+     * @param to 종료일 (포함, null이면 제한 없음)
+     * @return 상위 집계 행 목록
+     */
+    public List<ReportRow> top(GroupBy groupBy, Metric metric, int limit, LocalDate from, LocalDate to) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("조회 개수는 양수여야 합니다: " + limit);
+        }
+
+        List<ReportRow> rows = aggregate(groupBy, from, to);
+        rows.sort(comparator(metric).reversed());
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    /**
+     * 기간 전체 집계 (평균 장바구니 금액/수량 등)
+     *
+     * @param from 시작일 (포함, null이면 제한 없음)
+     * @param to 종료일 (포함, null이면 제한 없음)
+     * @return 전체 집계
+     */
+    public SalesAggregate total(LocalDate from, LocalDate to) {
+        SalesAggregate total = new SalesAggregate();
+        for (ReportRow row : aggregate(GroupBy.DAY, from, to)) {
+            total.merge(row.toAggregate());
+        }
+        return total;
+    }
+
+    /**
+     * 저장소 갱신 후 스냅샷 획득
+     */
+    private OrderColumnStore.Snapshot prepare() {
+        if (orderRepository != null) {
+            store.refresh(orderRepository);
+        }
+        return store.snapshot();
+    }
+
+    /**
+     * 정렬 지표별 Comparator
+     */
+    private static Comparator<ReportRow> comparator(Metric metric) {
+        switch (metric) {
+            case QUANTITY:
+                return Comparator.comparingLong(ReportRow::getQuantity);
+            case ORDER_COUNT:
+                return Comparator.comparingLong(ReportRow::getOrderCount);
+            case AVERAGE_REVENUE:
+                return Comparator.comparingDouble(ReportRow::getAverageRevenue);
+            case REVENUE:
+            default:
+                return Comparator.comparingDouble(ReportRow::getRevenue);
+        }
+    }
+
+    /**
+     * 내부 int 키 → 리포트 키 (상품 ID / 사용자 ID / 날짜)
+     */
+    private static Object decodeKey(OrderColumnStore.Snapshot snapshot, GroupBy groupBy, int key) {
+        switch (groupBy) {
+            case USER:
+                return snapshot.users[key];
+            case DAY:
+                return LocalDate.ofEpochDay(key);
+            case PRODUCT:
+            default:
+                return key;
+        }
+    }
+
+    private static int toDay(LocalDate date, int defaultValue) {
+        return date == null ? defaultValue : (int) date.toEpochDay();
+    }
+
+    /**
+     * 행 범위 [from, to)를 그룹별로 집계하는 작업
+     */
+    private static class GroupTask extends RecursiveTask<Map<Integer, SalesAggregate>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final OrderColumnStore.Snapshot snapshot;
+        private final GroupBy groupBy;
+        private final int fromDay;
+        private final int toDay;
+        private final int from;
+        private final int to;
+
+        GroupTask(OrderColumnStore.Snapshot snapshot, GroupBy groupBy,
+                  int fromDay, int toDay, int from, int to) {
+            this.snapshot = snapshot;
+            this.groupBy = groupBy;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, SalesAggregate> compute() {
+            if (to - from > PARTITION_SIZE) {
+                int mid = (from + to) >>> 1;
+                GroupTask left = new GroupTask(snapshot, groupBy, fromDay, toDay, from, mid);
+                GroupTask right = new GroupTask(snapshot, groupBy, fromDay, toDay, mid, to);
+                left.fork();
+                Map<Integer, SalesAggregate> rightResult = right.compute();
+                return mergeInto(left.join(), rightResult);
+            }
+
+            int[] keys = keyColumn();
+            int[] days = snapshot.epochDays;
+            int[] quantities = snapshot.quantities;
+            double[] amounts = snapshot.amounts;
+
+            Map<Integer, SalesAggregate> result = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                int day = days[i];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                result.computeIfAbsent(keys[i], k -> new SalesAggregate())
+                        .add(quantities[i], amounts[i]);
+            }
+            return result;
+        }
+
+        private int[] keyColumn() {
+            switch (groupBy) {
+                case USER:
+                    return snapshot.userCodes;
+                case DAY:
+                    return snapshot.epochDays;
+                case PRODUCT:
+                default:
+                    return snapshot.productIds;
+            }
+        }
+
+        /**
+         * 작은 맵을 큰 맵에 병합
+         */
+        private static Map<Integer, SalesAggregate> mergeInto(Map<Integer, SalesAggregate> a,
+                                                              Map<Integer, SalesAggregate> b) {
+            Map<Integer, SalesAggregate> target = a.size() >= b.size() ? a : b;
+            Map<Integer, SalesAggregate> source = (target == a) ? b : a;
+            for (Map.Entry<Integer, SalesAggregate> entry : source.entrySet()) {
+                target.merge(entry.getKey(), entry.getValue(), SalesAggregate::merge);
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+// ===============================================
+// ApplicationContext.java - 애플리케이션 의존성 컨테이너
+// ===============================================
+package com.shopping.config;
+
+import com.shopping.analytics.OrderColumnStore;
+import com.shopping.analytics.SalesReportEngine;
+import com.shopping.repository.LedgerRepository;
+import com.shopping.repository.OrderRepository;
+import com.shopping.repository.ProductRepository;
+import com.shopping.repository.UserRepository;
+import com.shopping.service.OrderExportService;
+import com.shopping.service.OrderService;
+import com.shopping.service.ProductImportService;
+import com.shopping.service.ProductService;
+import com.shopping.service.UserService;
+import com.shopping.util.Constants;
+import com.shopping.util.Lazy;
+import com.shopping.util.PasswordHasher;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 애플리케이션 전체에서 공유하는 객체 그래프를 구성하는 컨테이너
+ *
+ * 역할:
+ * - Repository / Service / Scanner를 프로세스당 하나씩만 생성
+ * - 각 컴포넌트는 처음 요청될 때 생성 (지연 초기화)
+ * - 컨트롤러는 직접 new 하지 않고 컨테이너에서 주입받음
+ *
+ * 이렇게 하면 캐시나 인덱스 같은 상태를 가진 계층이
+ * 여러 벌로 복제되지 않고 하나의 인스턴스로 일관되게 유지된다.
+ *
+ * warmUp()을 호출하면 사용자/상품/주문/잔액 원장 저장소를 백그라운드 스레드에서 동시에 적재.
+ * 적재 중인 저장소를 요청한 스레드는 같은 Lazy 홀더에서 적재가 끝날 때까지만 기다림
+ *
+ * 컨테이너가 만든 스레드 풀과 열린 파일은 close()에서 정리
+ */
+public class ApplicationContext {
+
+    // ===== Repository 계층 =====
+    private final Lazy<UserRepository> userRepository = Lazy.of(UserRepository::new);
+    private final Lazy<ProductRepository> productRepository = Lazy.of(ProductRepository::new);
+    private final Lazy<OrderRepository> orderRepository =
+            Lazy.of(() -> new OrderRepository(getUserRepository().getUserIdDictionary()));
+    private final Lazy<LedgerRepository> ledgerRepository = Lazy.of(LedgerRepository::new);
+
+    // ===== 공용 스레드 풀 (컨테이너가 생성하고 close()에서 종료) =====
+    private final Lazy<ThreadPoolExecutor> passwordHashExecutor = Lazy.of(() ->
+            PasswordHasher.newExecutor(Constants.PASSWORD_VERIFY_THREADS, Constants.PASSWORD_VERIFY_QUEUE_SIZE));
+
+    // ===== Service 계층 (Repository를 주입받아 생성) =====
+    private final Lazy<UserService> userService =
+            Lazy.of(() -> new UserService(getUserRepository(), getLedgerRepository(),
+                    new PasswordHasher(Constants.PASSWORD_HASH_ITERATIONS), passwordHashExecutor.get()));
+    private final Lazy<ProductService> productService =
+            Lazy.of(() -> new ProductService(getProductRepository()));
+    private final Lazy<OrderService> orderService =
+            Lazy.of(this::createOrderService);
+    private final Lazy<ProductImportService> productImportService =
+            Lazy.of(() -> new ProductImportService(getProductRepository()));
+    private final Lazy<OrderExportService> orderExportService =
+            Lazy.of(() -> new OrderExportService(getOrderRepository()));
+
+    // ===== 분석 계층 (주문 로그 전체를 읽으므로 처음 사용할 때 적재) =====
+    private final Lazy<OrderColumnStore> orderColumnStore =
+            Lazy.of(() -> OrderColumnStore.load(getOrderRepository()));
+    private final Lazy<SalesReportEngine> salesReportEngine =
+            Lazy.of(() -> new SalesReportEngine(getOrderColumnStore(), getOrderRepository()));
+
+    // ===== 표준 입력 (System.in은 하나의 Scanner로만 읽어야 버퍼가 꼬이지 않음) =====
+    private final Lazy<Scanner> scanner = Lazy.of(() -> new Scanner(System.in));
+
+    // ===== 시작 시 예열 =====
+    private final long createdAtNanos = System.nanoTime();
+    private final Map<String, Long> warmUpMillis = new ConcurrentHashMap<>();
+    private CompletableFuture<Void> warmUp;
+
+    // 컨텍스트 생성부터 모든 저장소 적재까지 걸린 시간 (완료 전에는 -1)
+    private volatile long startupMillis = -1;
+
+    public UserRepository getUserRepository() {
+        return userRepository.get();
+    }
+
+    public ProductRepository getProductRepository() {
+        return productRepository.get();
+    }
+
+    public OrderRepository getOrderRepository() {
+        return orderRepository.get();
+    }
+
+    public LedgerRepository getLedgerRepository() {
+        return ledgerRepository.get();
+    }
+
+    public UserService getUserService() {
+        return userService.get();
+    }
+
+    public ProductService getProductService() {
+        return productService.get();
+    }
+
+    public OrderService getOrderService() {
+        return orderService.get();
+    }
+
+    public ProductImportService getProductImportService() {
+        return productImportService.get();
+    }
+
+    public OrderExportService getOrderExportService() {
+        return orderExportService.get();
+    }
+
+    public OrderColumnStore getOrderColumnStore() {
+        return orderColumnStore.get();
+    }
+
+    public SalesReportEngine getSalesReportEngine() {
+        return salesReportEngine.get();
+    }
+
+    public Scanner getScanner() {
+        return scanner.get();
+    }
+
+    /**
+     * 저장소 예열 시작 (백그라운드에서 병렬 적재, 여러 번 호출해도 한 번만 실행)
+     *
+     * 예열이 실패한 저장소는 처음 요청될 때 요청한 스레드에서 다시 생성을 시도하므로
+     * 오류는 그때 호출자에게 전달됨
+     *
+     * @return 모든 저장소 적재가 끝나면 완료되는 Future
+     */
+    public synchronized CompletableFuture<Void> warmUp() {
+        if (warmUp != null) {
+            return warmUp;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Constants.STARTUP_WARM_UP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "warm-up-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("사용자", this::getUserRepository);
+        tasks.put("상품", () -> getProductRepository().ensureInitialized());
+        tasks.put("주문", this::getOrderRepository);
+        tasks.put("잔액 원장", this::getLedgerRepository);
+
+        CompletableFuture<?>[] futures = tasks.entrySet().stream()
+                .map(task -> CompletableFuture.runAsync(() -> {
+                    long start = System.nanoTime();
+                    task.getValue().run();
+                    warmUpMillis.put(task.getKey(), (System.nanoTime() - start) / 1_000_000);
+                }, executor).exceptionally(e -> {
+                    System.err.println("[ApplicationContext] " + task.getKey() + " 저장소 예열 실패: "
+                            + e.getMessage());
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        warmUp = CompletableFuture.allOf(futures).thenRun(() -> {
+            executor.shutdown();
+            startupMillis = (System.nanoTime() - createdAtNanos) / 1_000_000;
+
+            StringBuilder detail = new StringBuilder();
+            for (String name : tasks.keySet()) {
+                Long millis = warmUpMillis.get(name);
+                detail.append(detail.length() > 0 ? ", " : "")
+                        .append(name).append(' ').append(millis != null ? millis + "ms" : "실패");
+            }
+            System.out.println("[ApplicationContext] 저장소 예열 완료: " + startupMillis + "ms (" + detail + ")");
+        });
+        return warmUp;
+    }
+
+    /**
+     * 컨텍스트 생성부터 저장소 예열 완료까지 걸린 시간 (밀리초)
+     * @return 예열이 끝나지 않았으면 -1
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    /**
+     * 저장소별 예열 시간 (밀리초, 실패한 저장소는 빠짐)
+     * @return 저장소 이름 → 적재 시간
+     */
+    public Map<String, Long> getWarmUpMillis() {
+        return new LinkedHashMap<>(warmUpMillis);
+    }
+
+    /**
+     * 컨테이너가 만든 자원 정리 (프로그램 종료 시 한 번 호출)
+     * - 시퀀서 모드였다면 남은 주문을 처리하고 쓰기 스레드 종료
+     * - 해시 계산 풀 종료 (진행 중인 계산은 끝까지 기다림)
+     * - 변경 기록 / 주문 로그 / 잔액 원장 파일 닫기
+     * 생성되지 않은 컴포넌트는 건드리지 않음
+     */
+    public void close() {
+        if (orderService.isInitialized()) {
+            orderService.get().disableSequencer();
+        }
+
+        if (passwordHashExecutor.isInitialized()) {
+            ThreadPoolExecutor executor = passwordHashExecutor.get();
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(Constants.PASSWORD_HASH_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (userRepository.isInitialized()) {
+            userRepository.get().close();
+        }
+        if (productRepository.isInitialized()) {
+            productRepository.get().close();
+        }
+        if (orderRepository.isInitialized()) {
+            orderRepository.get().close();
+        }
+        if (ledgerRepository.isInitialized()) {
+            ledgerRepository.get().close();
+        }
+        System.out.println("[ApplicationContext] 자원 정리 완료");
+    }
+
+    /**
+     * OrderService 생성 (설정에 따라 시퀀서 모드 활성화)
+     */
+    private OrderService createOrderService() {
+        OrderService service = new OrderService(getOrderRepository(), getProductService(), getUserService());
+        if (Constants.ORDER_SEQUENCER_ENABLED) {
+            service.enableSequencer();
+        }
+        return service;
+    }
+}
@@ -1,5 +1,7 @@
 package com.shopping.controller;
 
+import com.shopping.config.ApplicationContext;
+import com.shopping.util.Lazy;
 import com.shopping.util.SessionManager;
 import com.shopping.model.User;
 import java.util.Scanner;
@@ -10,23 +12,36 @@ import java.util.Scanner;
  */
 public class MainController {
     
-    // 다른 컨트롤러들에 대한 참조
-    private UserController userController;
-    private ProductController productController;
-    private OrderController orderController;
+    // 다른 컨트롤러들에 대한 참조 (메뉴를 처음 열 때 생성 → 저장소 적재를 기다리는 것도 그때)
+    private final Lazy<UserController> userController;
+    private final Lazy<ProductController> productController;
+    private final Lazy<OrderController> orderController;
     
     // 사용자 입력을 받기 위한 Scanner
     private Scanner scanner;
     
     /**
      * MainController 생성자
-     * 필요한 컨트롤러들과 Scanner를 초기화
+     * 기본 ApplicationContext로 객체 그래프를 구성
      */
     public MainController() {
-        this.userController = new UserController();
-        this.productController = new ProductController();
-        this.orderController = new OrderController();
-        this.scanner = new Scanner(System.in);
+        this(new ApplicationContext());
+    }
+
+    /**
+     * MainController 생성자
+     * ApplicationContext에서 공유 서비스와 Scanner를 주입받아 컨트롤러들을 초기화
+     * 컨트롤러는 해당 메뉴를 처음 선택할 때 생성되므로 저장소 예열 중에도 메뉴는 바로 표시됨
+     * @param context 애플리케이션 컨텍스트
+     */
+    public MainController(ApplicationContext context) {
+        this.scanner = context.getScanner();
+        this.userController = Lazy.of(() -> new UserController(context.getUserService(), scanner));
+        this.productController = Lazy.of(() -> new ProductController(
+                context.getProductService(), context.getProductImportService(), scanner));
+        this.orderController = Lazy.of(() -> new OrderController(
+                context.getOrderService(), context.getProductService(),
+                context.getOrderExportService(), scanner));
     }
     
     /**
@@ -46,17 +61,17 @@ public class MainController {
             switch (choice) {
                 case "1":
                     // 사용자 관리 메뉴로 이동
-                    userController.showUserMenu();
+                    userController.get().showUserMenu();
                     break;
                     
                 case "2":
                     // 상품 보기 메뉴로 이동
-                    productController.showProductMenu();
+                    productController.get().showProductMenu();
                     break;
                     
                 case "3":
                     // 주문 관리 메뉴로 이동
-                    orderController.showOrderMenu();
+                    orderController.get().showOrderMenu();
                     break;
                     
                 case "0":
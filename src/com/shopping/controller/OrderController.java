@@ -3,35 +3,51 @@
 // ===============================================
 package com.shopping.controller;
 
+import com.shopping.service.OrderExportService;
 import com.shopping.service.OrderService;
 import com.shopping.service.ProductService;
 import com.shopping.model.Order;
+import com.shopping.model.Page;
 import com.shopping.model.Product;
+import com.shopping.model.Reservation;
+import com.shopping.model.UserOrderSummary;
+import com.shopping.util.Constants;
 import com.shopping.util.SessionManager;
 import com.shopping.util.InputValidator;
-import java.util.List;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Scanner;
+import java.util.UUID;
 
 /**
  * 주문 관련 UI를 담당하는 컨트롤러
- * 주문 생성, 주문 내역 조회 등을 처리
+ * 주문 생성, 주문 내역 조회, 주문 취소 등을 처리
  */
 public class OrderController {
 
     // 비즈니스 로직 처리를 위한 서비스들
     private OrderService orderService;
     private ProductService productService;
+    private OrderExportService orderExportService;
 
     // 사용자 입력을 받기 위한 Scanner
     private Scanner scanner;
 
     /**
      * OrderController 생성자
+     * @param orderService 공유 주문 서비스
+     * @param productService 공유 상품 서비스
+     * @param orderExportService 주문 내보내기 서비스
+     * @param scanner 공유 입력 Scanner
      */
-    public OrderController() {
-        this.orderService = new OrderService();
-        this.productService = new ProductService();
-        this.scanner = new Scanner(System.in);
+    public OrderController(OrderService orderService, ProductService productService,
+                           OrderExportService orderExportService, Scanner scanner) {
+        this.orderService = orderService;
+        this.productService = productService;
+        this.orderExportService = orderExportService;
+        this.scanner = scanner;
     }
 
     /**
@@ -48,6 +64,8 @@ public class OrderController {
             System.out.println("\n=== 주문 메뉴 ===");
             System.out.println("1. 상품 주문하기");
             System.out.println("2. 내 주문 내역");
+            System.out.println("3. 내 주문 내역 내보내기");
+            System.out.println("4. 주문 취소");
             System.out.println("0. 돌아가기");
             System.out.print("선택: ");
 
@@ -60,6 +78,12 @@ public class OrderController {
                 case "2":
                     showMyOrders();    // 주문 내역 조회
                     break;
+                case "3":
+                    exportMyOrders();  // 주문 내역 파일로 내보내기
+                    break;
+                case "4":
+                    cancelOrder();     // 주문 취소
+                    break;
                 case "0":
                     return;           // 메인 메뉴로 돌아가기
                 default:
@@ -75,19 +99,20 @@ public class OrderController {
         System.out.println("\n=== 상품 주문 ===");
 
         // 구매 가능한 상품 목록 표시
+        // 구매 가능한 상품 첫 페이지만 표시 (나머지는 상품 메뉴의 목록에서 확인)
         System.out.println("\n[구매 가능한 상품]");
-        List<Product> products = productService.getAllProducts();
-
-        for (Product product : products) {
-            // 재고가 있는 상품만 표시
-            if (product.getStock() > 0) {
-                System.out.printf("%d. %s (%.0f원, 재고: %d개)%n",
-                        product.getId(),
-                        product.getName(),
-                        product.getPrice(),
-                        product.getStock()
-                );
-            }
+        Page<Product> products = productService.getAvailableProducts(null, Constants.PAGE_SIZE);
+
+        for (Product product : products.getItems()) {
+            System.out.printf("%d. %s (%.0f원, 재고: %d개)%n",
+                    product.getId(),
+                    product.getName(),
+                    product.getPrice(),
+                    product.getStock()
+            );
+        }
+        if (products.hasNext()) {
+            System.out.println("... (전체 목록은 상품 메뉴에서 확인)");
         }
 
         // 상품 ID 입력 받기
@@ -118,28 +143,46 @@ public class OrderController {
             Product product = productService.getProduct(productId);
             double totalPrice = product.getPrice() * quantity;
 
-            // 주문 확인
-            System.out.printf("\n주문 확인: %s %d개, 총 %.0f원%n",
-                    product.getName(), quantity, totalPrice);
-            System.out.print("주문하시겠습니까? (y/n): ");
+            // 확인하는 동안 재고를 잡아둠
+            // (시퀀서 모드에서는 재고를 시퀀서가 관리하므로 예약 없이 확인 후 바로 게시)
+            String userId = SessionManager.getCurrentUser().getId();
+            Reservation reservation = orderService.isSequencerEnabled() ? null
+                    : productService.reserveStock(userId, productId, quantity, Constants.RESERVATION_HOLD_SECONDS);
 
-            String confirm = scanner.nextLine();
+            try {
+                // 주문 확인
+                if (reservation != null) {
+                    System.out.printf("\n주문 확인: %s %d개, 총 %.0f원 (%d초 동안 재고 확보)%n",
+                            product.getName(), quantity, totalPrice, reservation.getRemainingSeconds());
+                } else {
+                    System.out.printf("\n주문 확인: %s %d개, 총 %.0f원%n", product.getName(), quantity, totalPrice);
+                }
+                System.out.print("주문하시겠습니까? (y/n): ");
 
-            if (confirm.equalsIgnoreCase("y")) {
-                // 주문 처리 - SessionManager에서 현재 사용자 정보 가져오기
-                Order order = orderService.createOrder(
-                        SessionManager.getCurrentUser().getId(),
-                        productId,
-                        quantity
-                );
+                String confirm = scanner.nextLine();
+
+                if (confirm.equalsIgnoreCase("y")) {
+                    // 주문 처리 - SessionManager에서 현재 사용자 정보 가져오기
+                    // (확인 한 번당 주문 키 하나, 재시도에도 같은 키 → 요청이 두 번 처리되어도 주문은 한 건)
+                    Order order = placeOrder(UUID.randomUUID().toString(), userId, productId, quantity, reservation);
+                    if (order == null) {
+                        System.out.println("주문이 취소되었습니다.");
+                        return;
+                    }
 
-                // 성공 메시지
-                System.out.println("✅ 주문이 완료되었습니다!");
-                System.out.println("   주문번호: " + order.getOrderId());
-                System.out.println("   결제금액: " + order.getTotalPrice() + "원");
+                    // 성공 메시지
+                    System.out.println("✅ 주문이 완료되었습니다!");
+                    System.out.println("   주문번호: " + order.getOrderId());
+                    System.out.println("   결제금액: " + order.getTotalPrice() + "원");
 
-            } else {
-                System.out.println("주문이 취소되었습니다.");
+                } else {
+                    System.out.println("주문이 취소되었습니다.");
+                }
+            } finally {
+                // 확정되지 않은 예약은 바로 반납 (이미 확정/만료되었으면 아무 일도 없음)
+                if (reservation != null) {
+                    productService.releaseReservation(reservation.getReservationId(), userId);
+                }
             }
 
         } catch (Exception e) {
@@ -148,41 +191,158 @@ public class OrderController {
     }
 
     /**
-     * 내 주문 내역 표시
+     * 주문 확정 (실패하면 사용자가 원할 때까지 같은 주문 키로 재시도)
+     * 앞선 시도가 실제로는 처리되었더라도 같은 키이므로 주문이 중복되지 않음
+     *
+     * @param idempotencyKey 이 주문 확인에 발급한 키
+     * @param userId 주문하는 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 수량
+     * @param reservation 확정할 재고 예약 (시퀀서 모드면 null → 시퀀서로 게시)
+     * @return 생성된 주문 (재시도하지 않으면 null)
+     */
+    private Order placeOrder(String idempotencyKey, String userId, int productId, int quantity,
+                             Reservation reservation) {
+        while (true) {
+            try {
+                if (reservation != null) {
+                    return orderService.createOrder(idempotencyKey, userId, reservation);
+                }
+                return orderService.createOrder(idempotencyKey, userId, productId, quantity);
+            } catch (RuntimeException e) {
+                System.out.println("❌ 주문 실패: " + e.getMessage());
+                System.out.print("다시 시도하시겠습니까? (y/n): ");
+                if (!scanner.nextLine().equalsIgnoreCase("y")) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * 내 주문 내역 표시 (최신순, 페이지 단위)
      */
     private void showMyOrders() {
         System.out.println("\n=== 내 주문 내역 ===");
 
-        // 현재 사용자의 주문 내역 조회
+        // 현재 사용자의 주문 내역 첫 페이지 조회
         String userId = SessionManager.getCurrentUser().getId();
-        List<Order> orders = orderService.getUserOrders(userId);
+        Page<Order> page = orderService.getUserOrders(userId, null, Constants.PAGE_SIZE);
 
-        if (orders.isEmpty()) {
+        if (page.isEmpty()) {
             System.out.println("주문 내역이 없습니다.");
             return;
         }
 
         // 테이블 헤더
-        System.out.println("주문번호 | 상품ID | 수량 | 총액 | 주문일시");
-        System.out.println("-".repeat(60));
-
-        // 각 주문 정보 출력
-        for (Order order : orders) {
-            System.out.printf("%d | %d | %d개 | %.0f원 | %s%n",
-                    order.getOrderId(),
-                    order.getProductId(),
-                    order.getQuantity(),
-                    order.getTotalPrice(),
-                    order.getOrderDate()
-            );
+        System.out.println("주문번호 | 상품ID | 수량 | 총액 | 주문일시 | 상태");
+        System.out.println("-".repeat(70));
+
+        while (true) {
+            // 각 주문 정보 출력
+            for (Order order : page.getItems()) {
+                System.out.printf("%d | %d | %d개 | %.0f원 | %s | %s%n",
+                        order.getOrderId(),
+                        order.getProductId(),
+                        order.getQuantity(),
+                        order.getTotalPrice(),
+                        Constants.DATE_FORMATTER.format(Instant.ofEpochMilli(order.getOrderTimestamp())),
+                        order.getStatus().getDisplayName()
+                );
+            }
+
+            if (!page.hasNext()) {
+                break;
+            }
+            System.out.print("다음 페이지를 보시겠습니까? (y/n): ");
+            if (!scanner.nextLine().equalsIgnoreCase("y")) {
+                break;
+            }
+            page = orderService.getUserOrders(userId, page.getNextCursor(), Constants.PAGE_SIZE);
+        }
+
+        // 누적 통계는 미리 계산된 주문 요약에서 읽음 (취소 주문 제외)
+        UserOrderSummary summary = orderService.getOrderSummary(userId);
+        System.out.println("\n총 주문 건수: " + summary.getOrderCount() + "건");
+        System.out.printf("총 주문 금액: %.0f원%n", summary.getTotalSpent());
+        if (summary.hasOrders()) {
+            System.out.println("마지막 주문: "
+                    + Constants.DATE_FORMATTER.format(Instant.ofEpochMilli(summary.getLastOrderTimestamp())));
+            System.out.printf("최다 구매 상품: %d번 (%d개)%n",
+                    summary.getMostBoughtProductId(), summary.getMostBoughtQuantity());
+        }
+    }
+
+    /**
+     * 주문 취소
+     */
+    private void cancelOrder() {
+        System.out.println("\n=== 주문 취소 ===");
+        System.out.print("취소할 주문번호: ");
+        String orderIdStr = scanner.nextLine();
+
+        if (!InputValidator.isValidNumber(orderIdStr)) {
+            System.out.println("❌ 올바른 주문번호를 입력하세요.");
+            return;
+        }
+
+        System.out.print("정말 취소하시겠습니까? (y/n): ");
+        if (!scanner.nextLine().equalsIgnoreCase("y")) {
+            return;
+        }
+
+        try {
+            orderService.cancelOrder(Integer.parseInt(orderIdStr),
+                    SessionManager.getCurrentUser().getId());
+            System.out.println("✅ 주문이 취소되었습니다. 결제 금액이 환불되었습니다.");
+        } catch (Exception e) {
+            System.out.println("❌ 주문 취소 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 내 주문 내역을 CSV / JSON Lines 파일로 내보내기
+     */
+    private void exportMyOrders() {
+        System.out.println("\n=== 주문 내역 내보내기 ===");
+        System.out.print("형식 (1. CSV, 2. JSON Lines): ");
+        String formatChoice = scanner.nextLine().trim();
+
+        OrderExportService.Format format;
+        if (formatChoice.equals("1")) {
+            format = OrderExportService.Format.CSV;
+        } else if (formatChoice.equals("2")) {
+            format = OrderExportService.Format.JSON_LINES;
+        } else {
+            System.out.println("❌ 잘못된 선택입니다.");
+            return;
+        }
+
+        System.out.print("시작일 (yyyy-MM-dd, 엔터=전체): ");
+        String fromStr = scanner.nextLine().trim();
+        System.out.print("종료일 (yyyy-MM-dd, 엔터=전체): ");
+        String toStr = scanner.nextLine().trim();
+        System.out.print("저장할 파일 경로: ");
+        String path = scanner.nextLine().trim();
+
+        if (path.isEmpty()) {
+            System.out.println("❌ 파일 경로를 입력하세요.");
+            return;
         }
 
-        // 총 주문 금액 계산
-        double totalAmount = orders.stream()
-                .mapToDouble(Order::getTotalPrice)
-                .sum();
+        try {
+            LocalDate from = fromStr.isEmpty() ? null : LocalDate.parse(fromStr);
+            LocalDate to = toStr.isEmpty() ? null : LocalDate.parse(toStr);
+
+            long count = orderExportService.exportToFile(
+                    Paths.get(path), format, SessionManager.getCurrentUser().getId(), from, to);
 
-        System.out.println("\n총 주문 건수: " + orders.size() + "건");
-        System.out.println("총 주문 금액: " + totalAmount + "원");
+            System.out.println("✅ " + count + "건의 주문을 내보냈습니다: " + path);
+
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ 날짜 형식이 올바르지 않습니다. (예: 2024-01-31)");
+        } catch (Exception e) {
+            System.out.println("❌ 내보내기 실패: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
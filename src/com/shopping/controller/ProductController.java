@@ -1,9 +1,13 @@
 package com.shopping.controller;
 
+import com.shopping.service.ProductImportService;
 import com.shopping.service.ProductService;
+import com.shopping.model.Page;
 import com.shopping.model.Product;
+import com.shopping.util.Constants;
 import com.shopping.util.InputValidator;
-import java.util.List;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -14,16 +18,23 @@ public class ProductController {
     
     // 비즈니스 로직 처리를 위한 서비스
     private ProductService productService;
+    private ProductImportService productImportService;
     
     // 사용자 입력을 받기 위한 Scanner
     private Scanner scanner;
     
     /**
      * ProductController 생성자
+     * @param productService 공유 상품 서비스
+     * @param productImportService 상품 일괄 등록 서비스
+     * @param scanner 공유 입력 Scanner
      */
-    public ProductController() {
-        this.productService = new ProductService();
-        this.scanner = new Scanner(System.in);
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             Scanner scanner) {
+        this.productService = productService;
+        this.productImportService = productImportService;
+        this.scanner = scanner;
     }
     
     /**
@@ -34,6 +45,7 @@ public class ProductController {
             System.out.println("\n=== 상품 메뉴 ===");
             System.out.println("1. 상품 목록 보기");
             System.out.println("2. 상품 상세 보기");
+            System.out.println("3. 상품 일괄 등록 (CSV/TSV)");
             System.out.println("0. 돌아가기");
             System.out.print("선택: ");
             
@@ -46,6 +58,9 @@ public class ProductController {
                 case "2":
                     showProductDetail();  // 특정 상품 상세 정보
                     break;
+                case "3":
+                    importProducts();     // 파일로 상품 일괄 등록
+                    break;
                 case "0":
                     return;              // 메인 메뉴로 돌아가기
                 default:
@@ -55,7 +70,7 @@ public class ProductController {
     }
     
     /**
-     * 전체 상품 목록 표시
+     * 전체 상품 목록 표시 (ID 순, 페이지 단위)
      */
     private void showAllProducts() {
         System.out.println("\n=== 상품 목록 ===");
@@ -64,20 +79,33 @@ public class ProductController {
         System.out.println("ID | 상품명 | 가격 | 재고");
         System.out.println("-".repeat(40));
         
-        // 서비스에서 상품 목록 가져오기
-        List<Product> products = productService.getAllProducts();
+        // 서비스에서 상품 목록 첫 페이지 가져오기
+        Page<Product> page = productService.getAllProducts(null, Constants.PAGE_SIZE);
+        int shown = 0;
         
-        // 각 상품 정보 출력
-        for (Product product : products) {
-            System.out.printf("%d | %s | %.0f원 | %d개%n",
-                product.getId(),
-                product.getName(),
-                product.getPrice(),
-                product.getStock()
-            );
+        while (true) {
+            // 각 상품 정보 출력
+            for (Product product : page.getItems()) {
+                System.out.printf("%d | %s | %.0f원 | %d개%n",
+                    product.getId(),
+                    product.getName(),
+                    product.getPrice(),
+                    product.getStock()
+                );
+            }
+            shown += page.getItems().size();
+            
+            if (!page.hasNext()) {
+                break;
+            }
+            System.out.print("다음 페이지를 보시겠습니까? (y/n): ");
+            if (!scanner.nextLine().equalsIgnoreCase("y")) {
+                break;
+            }
+            page = productService.getAllProducts(page.getNextCursor(), Constants.PAGE_SIZE);
         }
         
-        System.out.println("\n총 " + products.size() + "개의 상품이 있습니다.");
+        System.out.println("\n" + shown + "개의 상품을 표시했습니다.");
     }
     
     /**
@@ -116,4 +144,35 @@ public class ProductController {
             System.out.println("❌ " + e.getMessage());
         }
     }
+    
+    /**
+     * CSV/TSV 파일로 상품 일괄 등록
+     */
+    private void importProducts() {
+        System.out.print("파일 경로 (id,name,price,stock): ");
+        String input = scanner.nextLine().trim();
+        
+        if (input.isEmpty()) {
+            System.out.println("❌ 파일 경로를 입력하세요.");
+            return;
+        }
+        
+        try {
+            Path file = Paths.get(input);
+            ProductImportService.ImportResult result = productImportService.importFile(file);
+            
+            System.out.println("✅ 일괄 등록 완료!");
+            System.out.println("   처리 행: " + result.getTotalLines() + "행");
+            System.out.println("   등록 상품: " + result.getImported() + "개 (중복 " + result.getDuplicates() + "건)");
+            System.out.println("   오류 행: " + result.getRejected() + "행");
+            System.out.println("   소요 시간: " + result.getElapsedMillis() + "ms");
+            
+            for (String error : result.getErrors()) {
+                System.out.println("   - " + error);
+            }
+            
+        } catch (Exception e) {
+            System.out.println("❌ 일괄 등록 실패: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.shopping.controller;
 
 import com.shopping.service.UserService;
+import com.shopping.model.LedgerEntry;
 import com.shopping.model.User;
+import com.shopping.model.UserOrderSummary;
+import com.shopping.util.Constants;
 import com.shopping.util.SessionManager;
 import com.shopping.util.InputValidator;
+import java.time.Instant;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -20,10 +25,12 @@ public class UserController {
     
     /**
      * UserController 생성자
+     * @param userService 공유 사용자 서비스
+     * @param scanner 공유 입력 Scanner
      */
-    public UserController() {
-        this.userService = new UserService();
-        this.scanner = new Scanner(System.in);
+    public UserController(UserService userService, Scanner scanner) {
+        this.userService = userService;
+        this.scanner = scanner;
     }
     
     /**
@@ -36,6 +43,7 @@ public class UserController {
             System.out.println("2. 로그인");
             System.out.println("3. 로그아웃");
             System.out.println("4. 내 정보 보기");
+            System.out.println("5. 잔액 거래 내역");
             System.out.println("0. 돌아가기");
             System.out.print("선택: ");
             
@@ -55,6 +63,9 @@ public class UserController {
                 case "4":
                     showMyInfo(); // 내 정보 보기
                     break;
+                case "5":
+                    showBalanceHistory(); // 잔액 거래 내역
+                    break;
                 case "0":
                     return;      // 메인 메뉴로 돌아가기
                 default:
@@ -171,5 +182,36 @@ public class UserController {
         
         // 최신 잔액 정보는 서비스에서 가져오기
         System.out.println("잔액: " + userService.getBalance(user.getId()) + "원");
+
+        // 누적 주문 통계 (주문 요약에서 바로 읽음)
+        UserOrderSummary summary = userService.getOrderSummary(user.getId());
+        System.out.println("총 주문: " + summary.getOrderCount() + "건");
+        System.out.printf("누적 결제 금액: %.0f원%n", summary.getTotalSpent());
+    }
+
+    /**
+     * 잔액 거래 내역 보기
+     */
+    private void showBalanceHistory() {
+        if (!SessionManager.isLoggedIn()) {
+            System.out.println("❌ 로그인이 필요합니다.");
+            return;
+        }
+
+        User user = SessionManager.getCurrentUser();
+        List<LedgerEntry> history = userService.getBalanceHistory(user.getId());
+
+        System.out.println("\n=== 잔액 거래 내역 ===");
+        if (history.isEmpty()) {
+            System.out.println("거래 내역이 없습니다.");
+            return;
+        }
+
+        System.out.printf("%-6s %-20s %-8s %12s %12s  %s%n", "번호", "일시", "구분", "금액", "잔액", "내용");
+        for (LedgerEntry entry : history) {
+            System.out.printf("%-6d %-20s %-8s %+12.0f %12.0f  %s%n",
+                    entry.getEntryId(), Constants.DATE_FORMATTER.format(Instant.ofEpochMilli(entry.getTimestamp())),
+                    entry.getType().getDisplayName(), entry.getAmount(), entry.getBalanceAfter(), entry.getMemo());
+        }
     }
-}
\ No newline at end of file
+}
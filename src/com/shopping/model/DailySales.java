@@ -0,0 +1,58 @@
+package com.shopping.model;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 매출 집계 정보를 담는 값 클래스
+ * 주문이 저장될 때마다 증분으로 갱신된 집계의 스냅샷
+ */
+public class DailySales {
+
+    // 집계 일자
+    private final LocalDate date;
+
+    // 주문 건수
+    private final long orderCount;
+
+    // 판매 수량 합계
+    private final long totalQuantity;
+
+    // 매출 합계
+    private final double revenue;
+
+    /**
+     * DailySales 생성자
+     * @param date 집계 일자
+     * @param orderCount 주문 건수
+     * @param totalQuantity 판매 수량 합계
+     * @param revenue 매출 합계
+     */
+    public DailySales(LocalDate date, long orderCount, long totalQuantity, double revenue) {
+        this.date = date;
+        this.orderCount = orderCount;
+        this.totalQuantity = totalQuantity;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DailySales[date=%s, orders=%d, quantity=%d, revenue=%.2f]",
+            date, orderCount, totalQuantity, revenue);
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopping.model;
+
+/**
+ * 잔액 원장의 거래 한 건 (변경 불가)
+ *
+ * amount는 부호 있는 변화량 (출금은 음수, 입금/환불은 양수)
+ * balanceAfter는 이 거래가 반영된 직후의 잔액
+ */
+public class LedgerEntry {
+
+    // 원장 내 일련번호 (1부터 증가)
+    private final long entryId;
+
+    // 사용자 ID
+    private final String userId;
+
+    // 거래 종류
+    private final LedgerEntryType type;
+
+    // 잔액 변화량
+    private final double amount;
+
+    // 거래 후 잔액
+    private final double balanceAfter;
+
+    // 거래 시각 (epoch 밀리초)
+    private final long timestamp;
+
+    // 거래 설명 (예: "주문 #12")
+    private final String memo;
+
+    /**
+     * LedgerEntry 생성자
+     */
+    public LedgerEntry(long entryId, String userId, LedgerEntryType type, double amount,
+                       double balanceAfter, long timestamp, String memo) {
+        this.entryId = entryId;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.timestamp = timestamp;
+        this.memo = memo == null ? "" : memo;
+    }
+
+    /**
+     * 아직 원장에 기록되지 않은 거래 요청 생성 (일련번호/거래 후 잔액은 기록 시 결정)
+     * @param userId 사용자 ID
+     * @param type 거래 종류
+     * @param amount 잔액 변화량 (출금은 음수)
+     * @param memo 거래 설명
+     * @return 기록 전 거래
+     */
+    public static LedgerEntry pending(String userId, LedgerEntryType type, double amount, String memo) {
+        return new LedgerEntry(0, userId, type, amount, 0, 0, memo);
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public LedgerEntryType getType() {
+        return type;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMemo() {
+        return memo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LedgerEntry[id=%d, user=%s, type=%s, amount=%.2f, balance=%.2f, memo=%s]",
+                entryId, userId, type, amount, balanceAfter, memo);
+    }
+}
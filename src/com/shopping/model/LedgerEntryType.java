@@ -0,0 +1,30 @@
+package com.shopping.model;
+
+/**
+ * 잔액 원장 거래 종류
+ */
+public enum LedgerEntryType {
+
+    // 출금 (주문 결제 등)
+    DEBIT("출금"),
+
+    // 입금 (충전, 가입 시 초기 잔액 등)
+    CREDIT("입금"),
+
+    // 환불 (주문 취소)
+    REFUND("환불"),
+
+    // 잔액 직접 조정 (관리 기능)
+    ADJUSTMENT("잔액 조정");
+
+    // 화면 표시용 이름
+    private final String displayName;
+
+    LedgerEntryType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
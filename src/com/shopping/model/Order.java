@@ -1,34 +1,70 @@
 package com.shopping.model;
 
+import com.shopping.util.Constants;
+import com.shopping.util.UserIdDictionary;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Date;
 
 /**
  * 주문 정보를 담는 엔티티 클래스
  * Serializable을 구현하여 파일 저장이 가능하도록 함
+ *
+ * 불변 값 클래스: 모든 필드가 final이고 상태 변경은 withStatus로 새 객체를 만듦
+ * (주문 일시는 Date 객체 대신 epoch 밀리초 long으로 보관, 표시할 때만 Constants.DATE_FORMATTER로 변환)
+ *
+ * 저장소에서 읽은 주문은 사용자 ID로 UserIdDictionary의 공유 문자열을 가리키고, 사용자별 비교용 정수 키를 함께 보관
+ * (같은 사용자의 주문 수만큼 ID 문자열이 복제되지 않음, 사전 없이 만든 주문은 받은 문자열 그대로 + NO_KEY)
+ *
+ * 직렬화 형식은 구버전과 호환: 쓸 때는 orderTimestamp만 기록하고,
+ * 구버전 orders.dat처럼 주문 일시가 Date orderDate 필드로만 들어 있으면 읽을 때 epoch 밀리초로 변환
  */
-public class Order implements Serializable {
+public final class Order implements Serializable {
     
     // 직렬화 버전 UID
     private static final long serialVersionUID = 1L;
     
     // 주문 ID (Primary Key 역할)
-    private int orderId;
+    private final int orderId;
     
-    // 주문한 사용자 ID (Foreign Key - User)
-    private String userId;
+    // 주문한 사용자 ID (Foreign Key - User, 사전의 공유 문자열)
+    private final String userId;
+
+    // 사용자 키 (읽은 저장소의 UserIdDictionary 기준, 프로세스마다 다르므로 저장하지 않음)
+    private final transient int userKey;
     
     // 주문한 상품 ID (Foreign Key - Product)
-    private int productId;
+    private final int productId;
     
     // 주문 수량
-    private int quantity;
+    private final int quantity;
     
     // 총 주문 금액
-    private double totalPrice;
+    private final double totalPrice;
+    
+    // 주문 일시 (epoch 밀리초)
+    private final long orderTimestamp;
     
-    // 주문 일시
-    private Date orderDate;
+    // 주문 상태
+    private final OrderStatus status;
+
+    // 역직렬화한 값으로 만든 주문 (readObject → readResolve 전달용)
+    private transient Order deserialized;
+
+    // 직렬화 필드 (구버전의 orderDate는 기록하지 않음, 읽을 때는 스트림에 있으면 사용)
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("orderId", int.class),
+        new ObjectStreamField("userId", String.class),
+        new ObjectStreamField("productId", int.class),
+        new ObjectStreamField("quantity", int.class),
+        new ObjectStreamField("totalPrice", double.class),
+        new ObjectStreamField("orderTimestamp", long.class),
+        new ObjectStreamField("status", OrderStatus.class)
+    };
     
     /**
      * Order 생성자
@@ -40,12 +76,54 @@ public class Order implements Serializable {
      */
     public Order(int orderId, String userId, int productId, 
                  int quantity, double totalPrice) {
+        this(orderId, userId, productId, quantity, totalPrice, System.currentTimeMillis());  // 현재 시간으로 설정
+    }
+    
+    /**
+     * Order 생성자 (주문 일시 지정)
+     * 저장소에서 읽어 복원할 때 사용
+     * @param orderId 주문 ID
+     * @param userId 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 주문 수량
+     * @param totalPrice 총 금액
+     * @param orderTimestamp 주문 일시 (epoch 밀리초)
+     */
+    public Order(int orderId, String userId, int productId,
+                 int quantity, double totalPrice, long orderTimestamp) {
+        this(orderId, userId, UserIdDictionary.NO_KEY, productId, quantity, totalPrice, orderTimestamp,
+                OrderStatus.ORDERED);
+    }
+
+    /**
+     * Order 생성자 (사용자 ID 사전 사용)
+     * 주문 로그를 읽을 때 사용: 사전에 있는 사용자면 사전의 공유 문자열과 키를 쓰고,
+     * 없으면 받은 문자열 그대로 둠 (읽기만으로 사전에 키를 만들지 않음)
+     *
+     * @param dictionary 사용자 ID 사전
+     */
+    public Order(int orderId, String userId, int productId, int quantity,
+                 double totalPrice, long orderTimestamp, UserIdDictionary dictionary) {
+        this(orderId, userId, dictionary.find(userId), productId, quantity, totalPrice, orderTimestamp,
+                OrderStatus.ORDERED, dictionary);
+    }
+
+    private Order(int orderId, String userId, int userKey, int productId, int quantity,
+                  double totalPrice, long orderTimestamp, OrderStatus status, UserIdDictionary dictionary) {
+        this(orderId, userKey == UserIdDictionary.NO_KEY ? userId : dictionary.userIdOf(userKey), userKey,
+                productId, quantity, totalPrice, orderTimestamp, status);
+    }
+
+    private Order(int orderId, String userId, int userKey, int productId, int quantity,
+                  double totalPrice, long orderTimestamp, OrderStatus status) {
         this.orderId = orderId;
+        this.userKey = userKey;
         this.userId = userId;
         this.productId = productId;
         this.quantity = quantity;
         this.totalPrice = totalPrice;
-        this.orderDate = new Date();  // 현재 시간으로 설정
+        this.orderTimestamp = orderTimestamp;
+        this.status = status;
     }
     
     // Getter 메소드들
@@ -56,6 +134,14 @@ public class Order implements Serializable {
     public String getUserId() {
         return userId;
     }
+
+    /**
+     * 사용자 키 (같은 저장소에서 읽은 주문끼리 같은 사용자인지 비교할 때 문자열 대신 사용)
+     * @return 읽은 저장소의 UserIdDictionary 키 (사전 없이 만든 주문이면 NO_KEY)
+     */
+    public int getUserKey() {
+        return userKey;
+    }
     
     public int getProductId() {
         return productId;
@@ -69,15 +155,72 @@ public class Order implements Serializable {
         return totalPrice;
     }
     
-    public Date getOrderDate() {
-        return orderDate;
+    public long getOrderTimestamp() {
+        return orderTimestamp;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * 취소된 주문인지 확인
+     * @return 취소 여부
+     */
+    public boolean isCancelled() {
+        return status == OrderStatus.CANCELLED;
+    }
+    
+    /**
+     * 상태만 바꾼 새 Order 반환 (원본은 변경하지 않음)
+     * @param newStatus 새 상태
+     * @return 상태가 바뀐 Order
+     */
+    public Order withStatus(OrderStatus newStatus) {
+        return new Order(orderId, userId, userKey, productId, quantity, totalPrice, orderTimestamp, newStatus);
     }
     
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("orderId", orderId);
+        fields.put("userId", userId);
+        fields.put("productId", productId);
+        fields.put("quantity", quantity);
+        fields.put("totalPrice", totalPrice);
+        fields.put("orderTimestamp", orderTimestamp);
+        fields.put("status", status);
+        out.writeFields();
+    }
+
+    /**
+     * 역직렬화 (구버전 orderDate 필드는 epoch 밀리초로 변환, 상태가 없으면 ORDERED)
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        long timestamp = fields.get("orderTimestamp", 0L);
+        if (fields.defaulted("orderTimestamp")) {
+            Date orderDate = (Date) fields.get("orderDate", null);
+            timestamp = orderDate != null ? orderDate.getTime() : 0L;
+        }
+        OrderStatus savedStatus = (OrderStatus) fields.get("status", null);
+        deserialized = new Order(fields.get("orderId", 0), (String) fields.get("userId", null),
+                UserIdDictionary.NO_KEY, fields.get("productId", 0), fields.get("quantity", 0), fields.get("totalPrice", 0.0),
+                timestamp, savedStatus != null ? savedStatus : OrderStatus.ORDERED);
+    }
+
+    /**
+     * 역직렬화 결과를 생성자로 만든 주문으로 교체 (final 필드)
+     */
+    private Object readResolve() {
+        return deserialized;
+    }
+
     @Override
     public String toString() {
         return String.format(
-            "Order[orderId=%d, userId=%s, productId=%d, quantity=%d, totalPrice=%.2f, orderDate=%s]",
-            orderId, userId, productId, quantity, totalPrice, orderDate
+            "Order[orderId=%d, userId=%s, productId=%d, quantity=%d, totalPrice=%.2f, orderDate=%s, status=%s]",
+            orderId, userId, productId, quantity, totalPrice,
+            Constants.DATE_FORMATTER.format(Instant.ofEpochMilli(orderTimestamp)), status
         );
     }
 }
\ No newline at end of file
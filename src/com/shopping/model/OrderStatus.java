@@ -0,0 +1,24 @@
+package com.shopping.model;
+
+/**
+ * 주문 상태
+ */
+public enum OrderStatus {
+
+    // 주문 완료 (결제 및 재고 차감 완료)
+    ORDERED("주문완료"),
+
+    // 주문 취소 (재고 및 잔액 복구 완료)
+    CANCELLED("취소됨");
+
+    // 화면 표시용 이름
+    private final String displayName;
+
+    OrderStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,56 @@
+package com.shopping.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 커서 기반 페이지 조회 결과를 담는 값 클래스
+ *
+ * 다음 페이지는 nextCursor를 그대로 넘겨 요청 (마지막 페이지면 null)
+ * 커서는 마지막 항목의 ID이므로, 페이지 사이에 항목이 추가/삭제되어도 건너뛰거나 중복되지 않음
+ *
+ * @param <T> 항목 타입
+ */
+public class Page<T> {
+
+    // 이 페이지의 항목
+    private final List<T> items;
+
+    // 다음 페이지 커서 (없으면 null)
+    private final Integer nextCursor;
+
+    /**
+     * Page 생성자
+     * @param items 이 페이지의 항목
+     * @param nextCursor 다음 페이지 커서 (마지막 페이지면 null)
+     */
+    public Page(List<T> items, Integer nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * 다음 페이지가 있는지 확인
+     * @return 있으면 true
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page[items=%d, nextCursor=%s]", items.size(), nextCursor);
+    }
+}
@@ -0,0 +1,85 @@
+package com.shopping.model;
+
+/**
+ * 재고 예약(홀드) 정보를 담는 값 클래스
+ *
+ * 예약된 수량은 만료 시각까지 다른 주문이 가져갈 수 없으며,
+ * 확정(confirm)하면 실제 재고에서 차감되고 해제(release)나 만료 시 다시 판매 가능해짐
+ * 확정/해제는 예약한 사용자(ownerId)만 할 수 있음
+ */
+public class Reservation {
+
+    // 예약 ID
+    private final long reservationId;
+
+    // 예약한 사용자 ID
+    private final String ownerId;
+
+    // 예약 상품 ID
+    private final int productId;
+
+    // 예약 수량
+    private final int quantity;
+
+    // 예약 시각 (epoch 밀리초)
+    private final long createdAt;
+
+    // 만료 시각 (epoch 밀리초)
+    private final long expiresAt;
+
+    /**
+     * Reservation 생성자
+     * @param reservationId 예약 ID
+     * @param ownerId 예약한 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 예약 수량
+     * @param createdAt 예약 시각 (epoch 밀리초)
+     * @param expiresAt 만료 시각 (epoch 밀리초)
+     */
+    public Reservation(long reservationId, String ownerId, int productId, int quantity,
+                       long createdAt, long expiresAt) {
+        this.reservationId = reservationId;
+        this.ownerId = ownerId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 만료까지 남은 시간 (초, 이미 지났으면 0)
+     */
+    public long getRemainingSeconds() {
+        return Math.max(0, (expiresAt - System.currentTimeMillis()) / 1000);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Reservation[id=%d, owner=%s, productId=%d, quantity=%d, expiresAt=%d]",
+                reservationId, ownerId, productId, quantity, expiresAt);
+    }
+}
@@ -1,5 +1,6 @@
 package com.shopping.model;
 
+import com.shopping.util.PasswordHasher;
 import java.io.Serializable;
 
 /**
@@ -19,7 +20,7 @@ public class User implements Serializable {
     // 사용자 ID (Primary Key 역할, 변경 불가)
     private String id;
 
-    // 사용자 비밀번호 (변경 가능)
+    // 사용자 비밀번호 (PBKDF2 해시 문자열, 이전 버전 데이터는 평문일 수 있음)
     private String password;
 
     // 사용자 이름 (변경 가능)
@@ -28,12 +29,15 @@ public class User implements Serializable {
     // 사용자 잔액 (초기값: 10000원)
     private double balance;
 
+    // 주문 요약 (주문 생성/취소 시 갱신, 이전 버전 데이터에는 없을 수 있음)
+    private UserOrderSummary orderSummary;
+
     // ===== 생성자 =====
 
     /**
      * User 생성자
      * @param id 사용자 ID
-     * @param password 비밀번호
+     * @param password 비밀번호 (해시 문자열)
      * @param name 사용자 이름
      */
     public User(String id, String password, String name) {
@@ -77,6 +81,17 @@ public class User implements Serializable {
         return balance;
     }
 
+    /**
+     * 주문 요약 반환 (없으면 빈 요약 생성)
+     * @return 주문 요약
+     */
+    public UserOrderSummary getOrderSummary() {
+        if (orderSummary == null) {
+            orderSummary = new UserOrderSummary();
+        }
+        return orderSummary;
+    }
+
     // ===== Setter 메소드들 =====
 
     /**
@@ -239,6 +254,6 @@ public class User implements Serializable {
      * @return 일치 여부
      */
     public boolean matchPassword(String inputPassword) {
-        return this.password != null && this.password.equals(inputPassword);
+        return PasswordHasher.matches(inputPassword, this.password);
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+// ===============================================
+// UserOrderSummary.java - 사용자별 주문 요약 (구체화된 집계)
+// ===============================================
+package com.shopping.model;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 사용자별 주문 통계를 미리 계산해 두는 요약 객체
+ *
+ * 주문 생성/취소 시 증분 갱신되고 User와 함께 저장되므로
+ * 화면에서는 주문 목록을 다시 합산하지 않고 바로 읽을 수 있음
+ *
+ * 보관 정보: 주문 건수, 누적 결제 금액, 마지막 주문 시각, 상품별 구매 수량
+ */
+public class UserOrderSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 유효한(취소되지 않은) 주문 건수
+    private int orderCount;
+
+    // 누적 결제 금액
+    private double totalSpent;
+
+    // 마지막 주문 시각 (epoch 밀리초, 주문이 없으면 0)
+    private long lastOrderTimestamp;
+
+    // 상품 ID → 누적 구매 수량
+    private final Map<Integer, Integer> productQuantities = new HashMap<>();
+
+    // 가장 많이 산 상품 ID (없으면 -1)
+    private int mostBoughtProductId = -1;
+
+    /**
+     * 주문 반영
+     * @param order 새로 생성된 주문
+     */
+    public void apply(Order order) {
+        orderCount++;
+        totalSpent += order.getTotalPrice();
+        lastOrderTimestamp = Math.max(lastOrderTimestamp, order.getOrderTimestamp());
+
+        int quantity = productQuantities.merge(order.getProductId(), order.getQuantity(), Integer::sum);
+        if (mostBoughtProductId < 0 || quantity > getMostBoughtQuantity()) {
+            mostBoughtProductId = order.getProductId();
+        }
+    }
+
+    /**
+     * 주문 취소 반영
+     * 마지막 주문 시각은 "마지막으로 주문한 시각"이므로 그대로 유지
+     *
+     * @param order 취소된 주문
+     */
+    public void revert(Order order) {
+        orderCount = Math.max(0, orderCount - 1);
+        totalSpent = Math.max(0, totalSpent - order.getTotalPrice());
+
+        Integer quantity = productQuantities.get(order.getProductId());
+        if (quantity != null) {
+            int remaining = quantity - order.getQuantity();
+            if (remaining > 0) {
+                productQuantities.put(order.getProductId(), remaining);
+            } else {
+                productQuantities.remove(order.getProductId());
+            }
+        }
+
+        if (order.getProductId() == mostBoughtProductId) {
+            recomputeMostBought();
+        }
+    }
+
+    /**
+     * 최다 구매 상품 다시 계산 (취소로 수량이 줄었을 때만 호출)
+     */
+    private void recomputeMostBought() {
+        mostBoughtProductId = -1;
+        int best = 0;
+        for (Map.Entry<Integer, Integer> entry : productQuantities.entrySet()) {
+            if (entry.getValue() > best) {
+                best = entry.getValue();
+                mostBoughtProductId = entry.getKey();
+            }
+        }
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    public long getLastOrderTimestamp() {
+        return lastOrderTimestamp;
+    }
+
+    /**
+     * 가장 많이 산 상품 ID
+     * @return 상품 ID (주문이 없으면 -1)
+     */
+    public int getMostBoughtProductId() {
+        return mostBoughtProductId;
+    }
+
+    /**
+     * 가장 많이 산 상품의 누적 수량
+     */
+    public int getMostBoughtQuantity() {
+        return productQuantities.getOrDefault(mostBoughtProductId, 0);
+    }
+
+    public boolean hasOrders() {
+        return orderCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserOrderSummary[orders=%d, spent=%.2f, lastOrder=%d, mostBought=%d]",
+                orderCount, totalSpent, lastOrderTimestamp, mostBoughtProductId);
+    }
+}
@@ -0,0 +1,293 @@
+// ===============================================
+// BalanceLedger.java - 잔액 거래 원장 (추가 전용 로그)
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.LedgerEntry;
+import com.shopping.model.LedgerEntryType;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 잔액 거래를 한 건씩 이어 붙여 저장하는 원장 파일
+ *
+ * 잔액을 바꿀 때 사용자 파일 전체를 다시 쓰지 않고 작은 레코드 하나만 추가
+ * 기록된 거래는 수정하지 않으므로 그대로 감사(audit) 이력이 됨
+ *
+ * 기록 방식 (그룹 커밋):
+ * - 파일은 처음 기록할 때 한 번 열어 계속 사용 (close() 전까지)
+ * - 레코드 인코딩은 호출 스레드에서 잠금 없이 수행
+ * - 동시에 들어온 기록은 대기열에 모였다가, 먼저 온 스레드 하나가 한 번의 write로 묶어 기록
+ *   (기록 중에도 다른 스레드는 대기열에 추가만 하고 기다림 → 파일 쓰기 횟수가 동시 요청 수만큼 줄어듦)
+ *
+ * 레코드 형식:
+ * [entryId:8][userId:UTF][type:1][amount:8][balanceAfter:8][timestamp:8][memo:UTF]
+ */
+public class BalanceLedger {
+
+    private static final LedgerEntryType[] TYPES = LedgerEntryType.values();
+
+    private final File file;
+
+    // 대기열 + 기록 상태 보호 (파일 쓰기는 이 잠금 밖에서 수행)
+    private final Object queueLock = new Object();
+
+    // 아직 기록되지 않은 요청들 (queueLock)
+    private List<PendingWrite> queue = new ArrayList<>();
+
+    // 한 스레드가 묶음을 기록 중인지 (queueLock)
+    private boolean writing;
+
+    // 계속 열어 두는 추가 모드 스트림 (기록 중인 스레드, 또는 기록 중이 아닐 때 queueLock 안에서만 사용)
+    private FileOutputStream out;
+
+    /**
+     * BalanceLedger 생성자
+     * @param filename 원장 파일명 (data 디렉토리 기준)
+     */
+    public BalanceLedger(String filename) {
+        this.file = FileManager.getDataFile(filename);
+    }
+
+    /**
+     * 거래 기록 (같은 시점의 다른 기록과 묶어 한 번에 씀)
+     * 반환 시점에는 이 거래들이 파일에 기록되어 있음
+     *
+     * @param entries 기록할 거래들
+     * @return 이 거래들까지 기록된 원장 크기 (바이트)
+     * @throws RuntimeException 파일 쓰기에 실패했을 때 (이 묶음의 거래는 기록되지 않음)
+     */
+    public long append(List<LedgerEntry> entries) {
+        PendingWrite request = new PendingWrite(encode(entries));
+
+        List<PendingWrite> batch;
+        synchronized (queueLock) {
+            queue.add(request);
+            awaitWriter(request);
+            if (request.done) {
+                return request.result();
+            }
+            // 기록 중인 스레드가 없으면 이 스레드가 대기열 전체를 맡음
+            writing = true;
+            batch = queue;
+            queue = new ArrayList<>();
+        }
+
+        writeBatch(batch);
+
+        synchronized (queueLock) {
+            writing = false;
+            queueLock.notifyAll();
+        }
+        return request.result();
+    }
+
+    /**
+     * 묶음 기록 (기록 중 표시를 가진 스레드 하나만 호출)
+     * 실패하면 이번에 쓴 부분을 잘라내고 묶음 전체를 실패로 완료
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        int total = 0;
+        for (PendingWrite request : batch) {
+            total += request.bytes.length;
+        }
+        byte[] joined = new byte[total];
+        int position = 0;
+        for (PendingWrite request : batch) {
+            System.arraycopy(request.bytes, 0, joined, position, request.bytes.length);
+            position += request.bytes.length;
+        }
+
+        long start = size();
+        RuntimeException failure = null;
+        try {
+            openForAppend().write(joined);
+        } catch (IOException e) {
+            failure = new RuntimeException("잔액 원장 기록 실패: " + e.getMessage(), e);
+            closeQuietly();
+            discardFrom(start);
+        }
+
+        long end = start;
+        synchronized (queueLock) {
+            for (PendingWrite request : batch) {
+                end += request.bytes.length;
+                request.endOffset = end;
+                request.failure = failure;
+                request.done = true;
+            }
+        }
+    }
+
+    private FileOutputStream openForAppend() throws IOException {
+        if (out == null) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            out = new FileOutputStream(file, true);
+        }
+        return out;
+    }
+
+    /**
+     * 실패한 묶음이 일부만 쓰였으면 잘라냄 (다음 기록이 잘린 레코드 뒤에 붙지 않도록)
+     */
+    private void discardFrom(long validLength) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > validLength) {
+                raf.setLength(validLength);
+            }
+        } catch (IOException e) {
+            System.err.println("[BalanceLedger] 실패한 기록 정리 실패: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(List<LedgerEntry> entries) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entries.size() * 64);
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            for (LedgerEntry entry : entries) {
+                data.writeLong(entry.getEntryId());
+                data.writeUTF(entry.getUserId());
+                data.writeByte(entry.getType().ordinal());
+                data.writeDouble(entry.getAmount());
+                data.writeDouble(entry.getBalanceAfter());
+                data.writeLong(entry.getTimestamp());
+                data.writeUTF(entry.getMemo());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("잔액 원장 인코딩 실패: " + e.getMessage(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * queueLock에서 대기 (인터럽트되어도 기다림: 대기열에 넣은 거래는 결국 기록되므로
+     * 결과를 모른 채 돌아가면 안 됨, 인터럽트 상태는 대기가 끝난 뒤 복원)
+     */
+    private void awaitWriter(PendingWrite request) {
+        boolean interrupted = false;
+        while (writing && (request == null || !request.done)) {
+            try {
+                queueLock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 지정 위치부터 끝까지 거래 읽기
+     * @param fromOffset 시작 위치 (바이트, 스냅샷에 기록된 위치)
+     * @param consumer 거래 처리기
+     * @return 마지막으로 완전하게 읽힌 레코드의 끝 위치
+     */
+    public long scan(long fromOffset, Consumer<LedgerEntry> consumer) {
+        if (!file.exists() || file.length() <= fromOffset) {
+            return Math.min(fromOffset, size());
+        }
+
+        long validLength = fromOffset;
+        try (CountingInput counter = new CountingInput(file, fromOffset);
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                long entryId = in.readLong();
+                String userId = in.readUTF();
+                LedgerEntryType type = TYPES[in.readByte()];
+                double amount = in.readDouble();
+                double balanceAfter = in.readDouble();
+                long timestamp = in.readLong();
+                String memo = in.readUTF();
+                validLength = counter.position;
+                consumer.accept(new LedgerEntry(entryId, userId, type, amount, balanceAfter, timestamp, memo));
+            }
+        } catch (EOFException e) {
+            // 파일 끝 (또는 잘린 마지막 레코드)
+        } catch (IOException e) {
+            throw new RuntimeException("잔액 원장 읽기 실패: " + e.getMessage(), e);
+        }
+        return validLength;
+    }
+
+    /**
+     * 잘린 마지막 레코드 제거
+     * @param validLength 완전한 레코드들의 끝 위치 (scan()의 반환값)
+     */
+    public void truncate(long validLength) {
+        synchronized (queueLock) {
+            awaitWriter(null);
+            if (size() <= validLength) {
+                return;
+            }
+            closeQuietly();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            } catch (IOException e) {
+                throw new RuntimeException("잔액 원장 복구 실패: " + e.getMessage(), e);
+            }
+        }
+        System.out.println("[BalanceLedger] 잘린 레코드 제거: " + validLength + " bytes 이후");
+    }
+
+    /**
+     * 열어 둔 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        synchronized (queueLock) {
+            awaitWriter(null);
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("[BalanceLedger] 원장 파일 닫기 실패: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    /**
+     * 원장 파일 크기
+     */
+    public long size() {
+        return file.exists() ? file.length() : 0;
+    }
+
+    /**
+     * 기록 요청 한 건 (상태는 queueLock 안에서 읽고 씀)
+     */
+    private static final class PendingWrite {
+        final byte[] bytes;
+        boolean done;
+        long endOffset;
+        RuntimeException failure;
+
+        PendingWrite(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long result() {
+            if (failure != null) {
+                throw failure;
+            }
+            return endOffset;
+        }
+    }
+}
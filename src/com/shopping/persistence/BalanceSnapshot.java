@@ -0,0 +1,51 @@
+package com.shopping.persistence;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 특정 시점의 사용자별 잔액 스냅샷
+ *
+ * 시작 시 스냅샷을 읽고 ledgerOffset 이후의 원장만 다시 반영하면 되므로
+ * 원장이 길어져도 복구 시간이 일정하게 유지됨
+ */
+public class BalanceSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 사용자 ID → 잔액
+    private final HashMap<String, Double> balances;
+
+    // 스냅샷에 반영된 마지막 거래 번호
+    private final long lastEntryId;
+
+    // 스냅샷 이후 거래가 시작되는 원장 위치 (바이트)
+    private final long ledgerOffset;
+
+    // 스냅샷 생성 시각
+    private final long createdAt;
+
+    public BalanceSnapshot(Map<String, Double> balances, long lastEntryId, long ledgerOffset) {
+        this.balances = new HashMap<>(balances);
+        this.lastEntryId = lastEntryId;
+        this.ledgerOffset = ledgerOffset;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public Map<String, Double> getBalances() {
+        return balances;
+    }
+
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public long getLedgerOffset() {
+        return ledgerOffset;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.shopping.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * 읽은 바이트 수를 세는 버퍼 입력 스트림
+ * 추가 전용 로그에서 마지막으로 완전하게 읽힌 레코드의 끝 위치를 계산할 때 사용
+ */
+class CountingInput extends BufferedInputStream {
+
+    // 지금까지 읽은 바이트 수 (시작 위치 포함)
+    long position;
+
+    CountingInput(File file) throws IOException {
+        super(new FileInputStream(file), 64 * 1024);
+    }
+
+    /**
+     * 지정 위치부터 읽기
+     */
+    CountingInput(File file, long startOffset) throws IOException {
+        this(file);
+        long remaining = startOffset;
+        while (remaining > 0) {
+            long skipped = super.skip(remaining);
+            if (skipped <= 0) {
+                break;
+            }
+            remaining -= skipped;
+        }
+        position = startOffset - remaining;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+}
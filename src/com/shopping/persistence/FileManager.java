@@ -3,6 +3,9 @@ package com.shopping.persistence;
 import com.shopping.model.User;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 /**
@@ -80,6 +83,17 @@ public class FileManager {
         return DATA_DIR + File.separator + filename;
     }
 
+    /**
+     * data 디렉토리 기준 File 객체 반환
+     * 직렬화 리스트가 아닌 자체 포맷 파일을 다룰 때 사용
+     *
+     * @param filename 파일명
+     * @return 정규화된 경로의 File
+     */
+    public static File getDataFile(String filename) {
+        return new File(normalizePath(filename));
+    }
+
     /**
      * 파일에서 객체 리스트 읽기
      * @param <T> 읽을 객체의 타입
@@ -105,9 +119,9 @@ public class FileManager {
             return new ArrayList<>();
         }
 
-        // 파일 읽기 시도
+        // 파일 읽기 시도 (버퍼 없이 읽으면 객체마다 작은 read 호출이 반복되어 느림)
         try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(file))) {
+                new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
 
             List<T> data = (List<T>) ois.readObject();
             System.out.println("[FileManager] 파일 읽기 성공: " + fullPath + " (" + data.size() + "개 항목)");
@@ -142,12 +156,13 @@ public class FileManager {
      * @param <T> 저장할 객체의 타입
      * @param filename 파일명
      * @param data 저장할 데이터
+     * @return 저장 성공 여부
      */
-    public static <T> void writeToFile(String filename, List<T> data) {
+    public static <T> boolean writeToFile(String filename, List<T> data) {
         // null 체크
         if (data == null) {
             System.err.println("[FileManager] 저장할 데이터가 null입니다.");
-            return;
+            return false;
         }
 
         // 파일 경로 정규화
@@ -163,23 +178,121 @@ public class FileManager {
             }
         }
 
-        // 파일 저장 시도
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(file))) {
+        // 파일 저장 시도 (임시 파일에 쓴 뒤 교체 → 읽는 쪽이 쓰다 만 파일을 보지 않음)
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            try (ObjectOutputStream oos = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
 
-            oos.writeObject(data);
-            oos.flush();  // 버퍼 강제 flush
+                oos.writeObject(data);
+                oos.flush();  // 버퍼 강제 flush
+            }
+            replaceFile(temp, file);
 
             System.out.println("[FileManager] 파일 저장 성공: " + fullPath + " (" + data.size() + "개 항목)");
+            return true;
 
         } catch (IOException e) {
             System.err.println("[FileManager] 파일 저장 실패: " + fullPath);
             System.err.println("  오류 내용: " + e.getMessage());
             e.printStackTrace();
+            return false;
 
         } catch (Exception e) {
             System.err.println("[FileManager] 예상치 못한 오류: " + e.getMessage());
             e.printStackTrace();
+            return false;
+
+        } finally {
+            if (temp != null && temp.exists()) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * 임시 파일로 대상 파일 교체 (가능하면 원자적 이동)
+     */
+    private static void replaceFile(File temp, File target) throws IOException {
+        try {
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 파일에서 단일 객체 읽기
+     * 인덱스, 필터처럼 리스트가 아닌 보조 데이터를 읽을 때 사용
+     *
+     * @param <T> 읽을 객체의 타입
+     * @param filename 파일명
+     * @return 읽은 객체 (파일이 없거나 손상되었으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T readObject(String filename) {
+        String fullPath = normalizePath(filename);
+        File file = new File(fullPath);
+
+        if (!file.exists() || file.length() == 0) {
+            return null;
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+
+            return (T) ois.readObject();
+
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("[FileManager] 객체 읽기 실패: " + fullPath + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * 단일 객체를 파일에 저장
+     * @param filename 파일명
+     * @param data 저장할 객체
+     * @return 저장 성공 여부
+     */
+    public static boolean writeObject(String filename, Serializable data) {
+        if (data == null) {
+            System.err.println("[FileManager] 저장할 데이터가 null입니다.");
+            return false;
+        }
+
+        String fullPath = normalizePath(filename);
+        File file = new File(fullPath);
+
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            try (ObjectOutputStream oos = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
+
+                oos.writeObject(data);
+            }
+            replaceFile(temp, file);
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("[FileManager] 객체 저장 실패: " + fullPath);
+            System.err.println("  오류 내용: " + e.getMessage());
+            return false;
+
+        } finally {
+            if (temp != null && temp.exists()) {
+                temp.delete();
+            }
         }
     }
 
@@ -0,0 +1,356 @@
+// ===============================================
+// OffHeapProductTable.java - 힙 밖(direct ByteBuffer)에 두는 상품 테이블
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.Product;
+import com.shopping.util.IntIntMap;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * 상품을 고정 폭 슬롯으로 direct ByteBuffer에 보관하는 테이블 (RecoverableStore의 메모리 상태로 사용)
+ *
+ * 상품 수백만 개를 힙 객체(Product + String)로 들고 있으면 힙이 커지고 GC 멈춤이 길어지므로,
+ * 상품 하나를 32바이트 슬롯 + 이름 UTF-8 바이트로 힙 밖에 저장하고 조회할 때만 Product를 만듦
+ *
+ * 슬롯 배치 (32 bytes):
+ *   [0]  version   int    - 슬롯 쓰기 중이면 홀수 (seqlock, 읽는 쪽은 짝수이고 전후가 같을 때만 채택)
+ *   [4]  stock     int    - 재고 (VarHandle volatile 읽기/쓰기)
+ *   [8]  price     double
+ *   [16] nameAt    long   - 이름 아레나 안의 위치
+ *   [24] nameBytes int    - 이름 UTF-8 길이
+ *   [28] id        int
+ *
+ * - 슬롯과 이름 아레나는 고정 크기 청크로 늘림 (한 번 할당한 버퍼는 옮기지 않음)
+ * - 이름은 추가만 함: 이름이 바뀌면 새 위치에 쓰고 이전 바이트는 버림 (getWastedNameBytes로 확인)
+ * - 변경은 한 스레드씩 (RecoverableStore의 쓰기 락 안), 조회는 락 없이
+ * - 상품 ID → 슬롯 번호 색인만 힙에 둠 (IntIntMap, 조회는 StampedLock 낙관적 읽기)
+ */
+public class OffHeapProductTable implements RecoverableStore.Entries<Integer, Product> {
+
+    private static final int SLOT_BYTES = 32;
+    private static final int VERSION = 0;
+    private static final int STOCK = 4;
+    private static final int PRICE = 8;
+    private static final int NAME_AT = 16;
+    private static final int NAME_BYTES = 24;
+    private static final int ID = 28;
+
+    // 슬롯 청크 하나에 든 슬롯 수 (32K개 = 1MB)
+    private static final int SLOTS_PER_CHUNK = 1 << 15;
+
+    // 이름 아레나 청크 크기 (이름 하나는 한 청크 안에 들어가야 함)
+    private static final int ARENA_CHUNK_BYTES = 1 << 20;
+
+    // direct ByteBuffer 위의 int 원자 접근 (플랫폼 바이트 순서)
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    // 슬롯 청크 (늘어날 때 배열만 새로 만들어 공개, 청크 자체는 그대로)
+    private volatile ByteBuffer[] slotChunks = new ByteBuffer[0];
+
+    // 이름 아레나 청크
+    private volatile ByteBuffer[] arenaChunks = new ByteBuffer[0];
+
+    // 상품 ID → 슬롯 번호 (변경은 indexLock 쓰기 락 안에서)
+    private final IntIntMap slotById = new IntIntMap(-1);
+    private final StampedLock indexLock = new StampedLock();
+
+    // 삭제되어 재사용할 슬롯
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // 사용한 슬롯 수 (재사용 대기 포함)
+    private int slotCount;
+
+    // 아레나에서 다음에 쓸 위치, 버려진 이름 바이트 수
+    private long arenaPosition;
+    private long wastedNameBytes;
+
+    // ===== 조회 (낙관적 읽기, 락 없음) =====
+
+    @Override
+    public Product get(Integer id) {
+        int slot = slotOf(id);
+        return slot >= 0 ? read(slot, id) : null;
+    }
+
+    @Override
+    public boolean containsKey(Integer id) {
+        return slotOf(id) >= 0;
+    }
+
+    @Override
+    public List<Product> values() {
+        int[] ids;
+        int[] slots;
+        long stamp = indexLock.readLock();
+        try {
+            ids = slotById.keys();
+            slots = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                slots[i] = slotById.get(ids[i]);
+            }
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+
+        List<Product> result = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            Product product = read(slots[i], ids[i]);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        long stamp = indexLock.tryOptimisticRead();
+        int size = slotById.size();
+        if (indexLock.validate(stamp)) {
+            return size;
+        }
+        stamp = indexLock.readLock();
+        try {
+            return slotById.size();
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 재고만 조회 (Product를 만들지 않음)
+     * @return 재고 (상품이 없으면 -1)
+     */
+    public int getStock(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return -1;
+        }
+        ByteBuffer chunk = slotChunks[slot / SLOTS_PER_CHUNK];
+        int base = (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+        return (int) INT.getVolatile(chunk, base + STOCK);
+    }
+
+    /**
+     * 상품 ID의 슬롯 번호 (낙관적 읽기가 쓰기와 겹치면 읽기 락으로 다시 조회)
+     * @return 슬롯 번호 (없으면 -1)
+     */
+    private int slotOf(int id) {
+        long stamp = indexLock.tryOptimisticRead();
+        int slot = slotById.get(id);
+        if (indexLock.validate(stamp)) {
+            return slot;
+        }
+        stamp = indexLock.readLock();
+        try {
+            return slotById.get(id);
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 슬롯에서 상품 복원
+     * 읽는 도중 슬롯이 바뀌면 다시 읽고, 그 사이 다른 상품이 슬롯을 차지했으면 null
+     */
+    private Product read(int slot, int expectedId) {
+        ByteBuffer chunk = slotChunks[slot / SLOTS_PER_CHUNK];
+        int base = (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+
+        while (true) {
+            int version = (int) INT.getVolatile(chunk, base + VERSION);
+            if ((version & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int id = chunk.getInt(base + ID);
+            double price = chunk.getDouble(base + PRICE);
+            long nameAt = chunk.getLong(base + NAME_AT);
+            int nameBytes = chunk.getInt(base + NAME_BYTES);
+            int stock = (int) INT.getVolatile(chunk, base + STOCK);
+
+            VarHandle.loadLoadFence();
+            if ((int) INT.getVolatile(chunk, base + VERSION) != version) {
+                continue;
+            }
+            if (id != expectedId) {
+                return null;
+            }
+            // 이름 바이트는 슬롯보다 먼저 쓰이고 이후 바뀌지 않으므로 검증 뒤에 읽어도 됨
+            return new Product(id, readName(nameAt, nameBytes), price, stock);
+        }
+    }
+
+    private String readName(long nameAt, int nameBytes) {
+        ByteBuffer chunk = arenaChunks[(int) (nameAt / ARENA_CHUNK_BYTES)];
+        byte[] bytes = new byte[nameBytes];
+        chunk.get((int) (nameAt % ARENA_CHUNK_BYTES), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ===== 변경 (한 스레드씩) =====
+
+    @Override
+    public void load(Integer id, Product product) {
+        put(id, product, null);
+    }
+
+    @Override
+    public synchronized void put(Integer id, Product product, byte[] serialized) {
+        if (product == null) {
+            product = RecoverableStore.deserialize(serialized);
+        }
+        byte[] name = product.getName() != null
+                ? product.getName().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (name.length > ARENA_CHUNK_BYTES) {
+            throw new IllegalArgumentException("상품명이 너무 깁니다: " + name.length + " bytes");
+        }
+
+        int existing = slotById.get(id);
+        int slot = existing >= 0 ? existing : allocateSlot();
+        ByteBuffer chunk = slotChunks[slot / SLOTS_PER_CHUNK];
+        int base = (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+
+        // 이름이 그대로면 기존 바이트 재사용 (재고만 바뀌는 저장이 대부분)
+        long nameAt;
+        if (existing >= 0 && nameEquals(chunk.getLong(base + NAME_AT), chunk.getInt(base + NAME_BYTES), name)) {
+            nameAt = chunk.getLong(base + NAME_AT);
+        } else {
+            if (existing >= 0) {
+                wastedNameBytes += chunk.getInt(base + NAME_BYTES);
+            }
+            nameAt = appendName(name);
+        }
+
+        int version = (int) INT.getVolatile(chunk, base + VERSION);
+        INT.setVolatile(chunk, base + VERSION, version + 1);
+        VarHandle.storeStoreFence();
+        chunk.putInt(base + ID, id);
+        chunk.putDouble(base + PRICE, product.getPrice());
+        chunk.putLong(base + NAME_AT, nameAt);
+        chunk.putInt(base + NAME_BYTES, name.length);
+        INT.setVolatile(chunk, base + STOCK, product.getStock());
+        INT.setVolatile(chunk, base + VERSION, version + 2);
+
+        if (existing < 0) {
+            long stamp = indexLock.writeLock();
+            try {
+                slotById.put(id, slot);
+            } finally {
+                indexLock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(Integer id) {
+        int slot;
+        long stamp = indexLock.writeLock();
+        try {
+            slot = slotById.remove(id);
+        } finally {
+            indexLock.unlockWrite(stamp);
+        }
+        if (slot < 0) {
+            return;
+        }
+        ByteBuffer chunk = slotChunks[slot / SLOTS_PER_CHUNK];
+        int base = (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+        wastedNameBytes += chunk.getInt(base + NAME_BYTES);
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * 스냅샷용 상태 고정
+     * 상품 파일(products.dat)은 Product 목록 형식이므로 쓰기 락 안에서 한 번에 복원해 둠
+     */
+    @Override
+    public Supplier<List<Product>> capture() {
+        List<Product> products = values();
+        return () -> products;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if (slot / SLOTS_PER_CHUNK == slotChunks.length) {
+            slotChunks = grow(slotChunks, SLOTS_PER_CHUNK * SLOT_BYTES);
+        }
+        return slot;
+    }
+
+    private long appendName(byte[] name) {
+        int offset = (int) (arenaPosition % ARENA_CHUNK_BYTES);
+        if (arenaPosition / ARENA_CHUNK_BYTES == arenaChunks.length) {
+            arenaChunks = grow(arenaChunks, ARENA_CHUNK_BYTES);
+        } else if (offset + name.length > ARENA_CHUNK_BYTES) {
+            // 현재 청크에 안 들어가면 남은 공간은 버리고 다음 청크 처음에 씀
+            wastedNameBytes += ARENA_CHUNK_BYTES - offset;
+            arenaPosition += ARENA_CHUNK_BYTES - offset;
+            offset = 0;
+            arenaChunks = grow(arenaChunks, ARENA_CHUNK_BYTES);
+        }
+
+        long nameAt = arenaPosition;
+        arenaChunks[(int) (nameAt / ARENA_CHUNK_BYTES)].put(offset, name);
+        arenaPosition += name.length;
+        return nameAt;
+    }
+
+    private boolean nameEquals(long nameAt, int nameBytes, byte[] name) {
+        if (nameBytes != name.length) {
+            return false;
+        }
+        ByteBuffer chunk = arenaChunks[(int) (nameAt / ARENA_CHUNK_BYTES)];
+        int offset = (int) (nameAt % ARENA_CHUNK_BYTES);
+        for (int i = 0; i < nameBytes; i++) {
+            if (chunk.get(offset + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 청크 하나 추가 (VarHandle 원자 접근을 위해 8바이트 정렬)
+     */
+    private static ByteBuffer[] grow(ByteBuffer[] chunks, int chunkBytes) {
+        ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = ByteBuffer.allocateDirect(chunkBytes + 8).alignedSlice(8).order(ByteOrder.nativeOrder());
+        return grown;
+    }
+
+    // ===== 통계 =====
+
+    /**
+     * 힙 밖에 할당한 바이트 수 (슬롯 + 이름 아레나)
+     */
+    public synchronized long getOffHeapBytes() {
+        return (long) slotChunks.length * SLOTS_PER_CHUNK * SLOT_BYTES
+                + (long) arenaChunks.length * ARENA_CHUNK_BYTES;
+    }
+
+    /**
+     * 이름 변경/삭제로 버려진 아레나 바이트 수
+     */
+    public synchronized long getWastedNameBytes() {
+        return wastedNameBytes;
+    }
+}
@@ -0,0 +1,388 @@
+// ===============================================
+// OrderCursor.java - 주문 로그 순차 조회 커서
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderStatus;
+import com.shopping.util.UserIdDictionary;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * 주문 로그를 앞에서부터 한 건씩 읽는 커서
+ *
+ * - 고정 크기 버퍼(BUFFER_SIZE)만 사용하므로 주문 수와 관계없이 메모리 사용량이 일정
+ * - 여러 세그먼트를 순서대로 이어서 읽음 (열 때의 세그먼트 목록 기준)
+ * - 마지막 레코드가 중간에 잘려 있으면 (쓰기 도중 종료 등) 그 앞까지만 읽음
+ * - 취소 레코드는 건너뛰고, 취소된 주문은 CANCELLED 상태로 반환
+ * - Iterator + AutoCloseable: for-each와 try-with-resources 모두 사용 가능
+ *
+ * 위치 값은 OrderLog.position(세그먼트 ID, 세그먼트 내 위치) 형식
+ */
+public class OrderCursor implements Iterator<Order>, Iterable<Order>, AutoCloseable {
+
+    // 읽기 버퍼 크기 (64KB)
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 읽을 세그먼트들 (열 때 참조를 잡고, 닫을 때 해제)
+    private final List<OrderLogSegment> segments;
+
+    // 현재 읽는 세그먼트 번호 (segments 내 인덱스)
+    private int segmentIndex;
+
+    // 현재 세그먼트 입력 스트림 (열지 않았으면 null)
+    private DataInputStream in;
+
+    // 읽은 바이트 수 추적용
+    private CountingInputStream counter;
+
+    // 미리 읽어둔 다음 주문의 시작 위치
+    private long nextOffset = -1;
+
+    // 마지막으로 반환한 주문의 시작 위치
+    private long currentOffset = -1;
+
+    // 완전하게 읽힌 레코드들의 끝 위치
+    private long validLength;
+
+    // 미리 읽어둔 다음 주문 / 그 주문의 취소 시각 (병합된 취소 주문이 아니면 0)
+    private Order next;
+    private long nextCancelledAt;
+    private long currentCancelledAt;
+
+    // 끝에 도달했는지 여부
+    private boolean finished;
+
+    // 닫혔는지 여부 (참조 중복 해제 방지)
+    private boolean closed;
+
+    // 취소된 주문 판정 (null이면 상태 반영 안 함)
+    private final IntPredicate cancelled;
+
+    // 사용자 ID 사전 (null이면 읽은 문자열 그대로)
+    private final UserIdDictionary dictionary;
+
+    // 취소 레코드 수신자 (OrderLog.scan()에서만 사용)
+    OrderLog.Visitor cancelListener;
+
+    // 레코드 수신자 (OrderLog 복구 시 세그먼트 메타데이터 구성용)
+    RecordListener recordListener;
+
+    /**
+     * 레코드를 읽을 때마다 호출받는 수신자 (패키지 내부용)
+     */
+    interface RecordListener {
+        void onOrder(OrderLogSegment segment, Order order, long offset);
+
+        void onCancel(OrderLogSegment segment, Order order);
+    }
+
+    /**
+     * OrderCursor 생성자
+     * @param segments 읽을 세그먼트 (참조는 이미 잡혀 있어야 함, 닫을 때 해제)
+     * @param startPosition 읽기 시작할 위치
+     * @param cancelled 취소된 주문 판정 (null 가능)
+     * @param dictionary 사용자 ID 사전 (null 가능)
+     */
+    OrderCursor(List<OrderLogSegment> segments, long startPosition, IntPredicate cancelled,
+                UserIdDictionary dictionary) {
+        this.segments = segments;
+        this.cancelled = cancelled;
+        this.dictionary = dictionary;
+
+        int startSegment = OrderLog.segmentOf(startPosition);
+        long startOffset = OrderLog.offsetOf(startPosition);
+        int index = 0;
+        while (index < segments.size() && segments.get(index).getId() < startSegment) {
+            index++;
+        }
+
+        this.segmentIndex = index;
+        this.validLength = startPosition;
+        if (index < segments.size()) {
+            OrderLogSegment segment = segments.get(index);
+            openSegment(segment, segment.getId() == startSegment ? startOffset : 0);
+        } else {
+            finished = true;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Order order = next;
+        currentOffset = nextOffset;
+        currentCancelledAt = nextCancelledAt;
+        next = null;
+        return order;
+    }
+
+    /**
+     * 마지막으로 반환한 주문 레코드의 로그 위치
+     * @return 위치 (아직 읽지 않았으면 -1)
+     */
+    public long currentOffset() {
+        return currentOffset;
+    }
+
+    /**
+     * 마지막으로 반환한 주문이 병합된 취소 주문이면 그 취소 시각
+     * @return 취소 시각 (epoch 밀리초, 아니면 0)
+     */
+    long currentCancelledAt() {
+        return currentCancelledAt;
+    }
+
+    /**
+     * 지금까지 완전하게 읽힌 레코드들의 끝 위치
+     * 이 위치로 커서를 다시 열면 이후에 추가된 레코드만 읽음
+     * @return 로그 위치
+     */
+    public long validLength() {
+        return validLength;
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return this;
+    }
+
+    /**
+     * 지정한 위치로 앞으로 건너뜀 (사이의 레코드는 읽지 않음)
+     * 인덱스로 찾은 여러 레코드를 커서 하나로 읽을 때 위치 순서대로 호출
+     *
+     * @param position 다음에 읽을 레코드의 로그 위치 (이미 지나간 위치면 예외)
+     * @throws IllegalArgumentException 현재 읽는 위치보다 앞의 위치일 때
+     */
+    public void seek(long position) {
+        if (next != null && nextOffset == position) {
+            return;
+        }
+        if (finished) {
+            return;
+        }
+
+        int targetSegment = OrderLog.segmentOf(position);
+        long targetOffset = OrderLog.offsetOf(position);
+        int index = segmentIndex;
+        while (index < segments.size() && segments.get(index).getId() < targetSegment) {
+            index++;
+        }
+        next = null;
+        if (index >= segments.size()) {
+            finished = true;
+            closeStream();
+            return;
+        }
+
+        OrderLogSegment segment = segments.get(index);
+        if (index != segmentIndex || in == null) {
+            segmentIndex = index;
+            openSegment(segment, segment.getId() == targetSegment ? targetOffset : 0);
+            return;
+        }
+        if (counter.count > targetOffset) {
+            throw new IllegalArgumentException("이미 지나간 위치로 이동할 수 없습니다: " + position);
+        }
+        try {
+            skipTo(targetOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 로그 이동 실패: " + segment.getFile(), e);
+        }
+        validLength = OrderLog.position(segment.getId(), counter.count);
+    }
+
+    /**
+     * 세그먼트 파일 열기
+     */
+    private void openSegment(OrderLogSegment segment, long startOffset) {
+        closeStream();
+        File file = segment.getFile();
+        validLength = OrderLog.position(segment.getId(), startOffset);
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            counter = new CountingInputStream(
+                    new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+            in = new DataInputStream(counter);
+            skipTo(startOffset);
+            validLength = OrderLog.position(segment.getId(), counter.count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 로그 열기 실패: " + file, e);
+        }
+    }
+
+    /**
+     * 다음 레코드 읽기 (세그먼트 끝에 도달하면 다음 세그먼트로 이동)
+     * @return 다음 주문 (끝이면 null)
+     */
+    private Order readNext() {
+        while (true) {
+            Order order = in == null ? null : readFromSegment();
+            if (order != null) {
+                return order;
+            }
+            if (finished || segmentIndex + 1 >= segments.size()) {
+                finished = true;
+                closeStream();
+                return null;
+            }
+            segmentIndex++;
+            openSegment(segments.get(segmentIndex), 0);
+        }
+    }
+
+    /**
+     * 현재 세그먼트에서 다음 주문 읽기
+     * @return 다음 주문 (세그먼트 끝이면 null)
+     */
+    private Order readFromSegment() {
+        OrderLogSegment segment = segments.get(segmentIndex);
+        try {
+            while (true) {
+                long offset = counter.count;
+                int type = in.read();
+                if (type < 0) {
+                    return null;
+                }
+
+                if (type == OrderLog.RECORD_CANCEL) {
+                    Order cancelledOrder = OrderLog.readOrder(in);
+                    long cancelledAt = in.readLong();
+                    validLength = OrderLog.position(segment.getId(), counter.count);
+                    if (recordListener != null) {
+                        recordListener.onCancel(segment, cancelledOrder);
+                    }
+                    if (cancelListener != null) {
+                        cancelListener.onCancel(cancelledOrder, cancelledAt);
+                    }
+                    continue;
+                }
+                if (type != OrderLog.RECORD_ORDER && type != OrderLog.RECORD_CANCELLED_ORDER) {
+                    throw new IOException("알 수 없는 레코드 타입: " + type);
+                }
+
+                Order order = OrderLog.readOrder(in, dictionary);
+                nextCancelledAt = 0;
+                if (type == OrderLog.RECORD_CANCELLED_ORDER) {
+                    // 압축으로 병합된 취소 주문 (취소 레코드 없이 상태를 직접 가짐)
+                    nextCancelledAt = in.readLong();
+                    order = order.withStatus(OrderStatus.CANCELLED);
+                } else if (cancelled != null && cancelled.test(order.getOrderId())) {
+                    order = order.withStatus(OrderStatus.CANCELLED);
+                }
+                nextOffset = OrderLog.position(segment.getId(), offset);
+                validLength = OrderLog.position(segment.getId(), counter.count);
+                if (recordListener != null) {
+                    recordListener.onOrder(segment, order, offset);
+                }
+                return order;
+            }
+
+        } catch (EOFException e) {
+            // 마지막 레코드가 잘린 경우 - 완전한 레코드까지만 사용
+            System.err.println("[OrderCursor] 불완전한 마지막 레코드를 무시합니다.");
+            finished = true;
+            return null;
+
+        } catch (IOException e) {
+            finished = true;
+            throw new UncheckedIOException("주문 로그 읽기 실패", e);
+        }
+    }
+
+    /**
+     * 현재 세그먼트에서 지정한 위치까지 건너뜀 (파일 끝이면 거기서 멈춤)
+     */
+    private void skipTo(long offset) throws IOException {
+        while (counter.count < offset) {
+            if (counter.skip(offset - counter.count) <= 0) {
+                break;
+            }
+        }
+    }
+
+    private void closeStream() {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                System.err.println("[OrderCursor] 닫기 실패: " + e.getMessage());
+            }
+            in = null;
+            counter = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        closeStream();
+        if (!closed) {
+            closed = true;
+            for (OrderLogSegment segment : segments) {
+                segment.release();
+            }
+        }
+    }
+
+    /**
+     * 읽은 바이트 수를 세는 입력 스트림
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+// ===============================================
+// OrderKeyLog.java - 주문 멱등성 키 로그
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.Order;
+import com.shopping.util.IntObjectMap;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * 멱등성 키 → 생성된 주문을 기록하는 추가 전용 로그
+ *
+ * 재시작 후에도 같은 키로 재시도한 요청에 원래 주문을 돌려줄 수 있도록
+ * 주문 내용 전체를 키와 함께 저장 (주문 이력을 다시 조회하지 않음)
+ *
+ * 레코드 형식: [key:UTF][createdAt:8][주문 필드 (OrderLog와 동일)]
+ *
+ * 키 해시 → 레코드 위치 인덱스를 메모리에 두고, 캐시에서 밀려난 키는 find()로 해당 레코드만 읽음
+ * (인덱스는 키 하나당 위치 하나라 주문 내용을 통째로 들고 있는 캐시보다 훨씬 작음)
+ */
+public class OrderKeyLog {
+
+    /**
+     * 로그를 읽으며 레코드마다 호출받는 처리기
+     */
+    public interface Handler {
+
+        /**
+         * @param key 멱등성 키
+         * @param order 해당 키로 생성된 주문
+         * @param createdAt 기록 시각 (epoch 밀리초)
+         */
+        void onKey(String key, Order order, long createdAt);
+    }
+
+    private final File file;
+
+    // 키 해시 → 레코드 시작 위치들 (해시가 겹치면 여러 개, 기록 순)
+    private final IntObjectMap<long[]> offsets = new IntObjectMap<>();
+
+    /**
+     * OrderKeyLog 생성자
+     * @param filename 로그 파일명 (data 디렉토리 기준)
+     */
+    public OrderKeyLog(String filename) {
+        this.file = FileManager.getDataFile(filename);
+    }
+
+    /**
+     * 키 기록 (반환 전에 파일에 기록되므로 재시작 후에도 유지)
+     * @param key 멱등성 키
+     * @param order 생성된 주문
+     * @param createdAt 기록 시각 (epoch 밀리초)
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public synchronized void append(String key, Order order, long createdAt) {
+        long offset = file.length();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true)))) {
+
+            writeRecord(out, key, order, createdAt);
+
+        } catch (IOException e) {
+            throw new RuntimeException("주문 키 기록 실패: " + e.getMessage(), e);
+        }
+        addOffset(key, offset);
+    }
+
+    /**
+     * 키의 레코드 조회 (같은 키가 여러 번 기록되었으면 마지막 레코드)
+     * 인덱스에 해시가 없으면 파일을 읽지 않음
+     *
+     * @param key 멱등성 키
+     * @param handler 찾은 레코드를 받을 처리기
+     * @return 찾았으면 true
+     * @throws RuntimeException 파일 읽기에 실패했을 때
+     */
+    public synchronized boolean find(String key, Handler handler) {
+        long[] candidates = offsets.get(key.hashCode());
+        if (candidates == null) {
+            return false;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                raf.seek(candidates[i]);
+                if (raf.readUTF().equals(key)) {
+                    long createdAt = raf.readLong();
+                    raf.readByte();   // 레코드 타입 (주문)
+                    handler.onKey(key, OrderLog.readOrder(raf), createdAt);
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("주문 키 조회 실패: " + e.getMessage(), e);
+        }
+        return false;
+    }
+
+    /**
+     * 로그 전체 읽기 (키 위치 인덱스도 다시 구성)
+     * 마지막 레코드가 잘려 있으면 완전한 레코드까지만 남기고 잘라냄
+     *
+     * @param handler 레코드 처리기
+     * @return 읽은 레코드 수
+     */
+    public synchronized int load(Handler handler) {
+        offsets.clear();
+        if (!file.exists()) {
+            return 0;
+        }
+
+        int count = 0;
+        long validLength = 0;
+        try (CountingInput counter = new CountingInput(file);
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                long offset = counter.position;
+                String key = in.readUTF();
+                long createdAt = in.readLong();
+                in.readByte();   // 레코드 타입 (주문)
+                Order order = OrderLog.readOrder(in);
+                validLength = counter.position;
+                addOffset(key, offset);
+                handler.onKey(key, order, createdAt);
+                count++;
+            }
+        } catch (EOFException e) {
+            // 파일 끝 (또는 잘린 마지막 레코드)
+        } catch (IOException e) {
+            throw new RuntimeException("주문 키 로그 읽기 실패: " + e.getMessage(), e);
+        }
+
+        if (file.length() > validLength) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            } catch (IOException e) {
+                throw new RuntimeException("주문 키 로그 복구 실패: " + e.getMessage(), e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 오래된 레코드 정리
+     * 기준 시각 이후 레코드만 임시 파일로 옮긴 뒤 원본과 교체
+     *
+     * @param minCreatedAt 남길 레코드의 최소 기록 시각 (epoch 밀리초)
+     * @return 남은 레코드 수
+     */
+    public synchronized int compact(long minCreatedAt) {
+        File temp = new File(file.getPath() + ".tmp");
+        int[] kept = {0};
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            IOException[] failure = {null};
+            load((key, order, createdAt) -> {
+                if (createdAt >= minCreatedAt && failure[0] == null) {
+                    try {
+                        writeRecord(out, key, order, createdAt);
+                        kept[0]++;
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw new RuntimeException("주문 키 로그 정리 실패: " + e.getMessage(), e);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("주문 키 로그 교체 실패: " + e.getMessage(), e);
+        }
+        load((key, order, createdAt) -> { });   // 옮겨진 위치로 인덱스 재구성
+        return kept[0];
+    }
+
+    private void addOffset(String key, long offset) {
+        long[] existing = offsets.get(key.hashCode());
+        long[] updated;
+        if (existing == null) {
+            updated = new long[]{offset};
+        } else {
+            updated = Arrays.copyOf(existing, existing.length + 1);
+            updated[existing.length] = offset;
+        }
+        offsets.put(key.hashCode(), updated);
+    }
+
+    private static void writeRecord(DataOutputStream out, String key, Order order, long createdAt)
+            throws IOException {
+        out.writeUTF(key);
+        out.writeLong(createdAt);
+        OrderLog.writeOrder(out, order);
+    }
+}
@@ -0,0 +1,978 @@
+// ===============================================
+// OrderLog.java - 주문 레코드 추가 전용 로그 파일
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.Order;
+import com.shopping.util.IntObjectMap;
+import com.shopping.util.UserIdDictionary;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 주문을 한 건씩 이어 붙여 저장하는 바이너리 로그 (세그먼트 파일 여러 개로 구성)
+ *
+ * 기존 방식(List 전체 직렬화)과의 차이:
+ * - 저장: 파일 전체를 다시 쓰지 않고 활성 세그먼트 끝에 레코드 하나만 추가
+ * - 조회: OrderCursor로 고정 크기 버퍼를 사용해 순차 스트리밍
+ *         (전체 주문을 메모리에 올리지 않음)
+ *
+ * 세그먼트:
+ * - 활성 세그먼트가 최대 크기를 넘으면 봉인하고 새 세그먼트를 시작 (이후 봉인된 파일은 수정하지 않음)
+ * - 세그먼트마다 주문 ID/시각 범위와 주문 ID 인덱스를 메모리에 유지 (OrderLogSegment)
+ * - 압축: 봉인된 세그먼트의 "주문 + 취소 레코드" 쌍을 취소 상태 주문 레코드 하나로 병합해
+ *         새 세대(generation) 파일로 교체. 활성 세그먼트는 건드리지 않으므로 추가 비용은 그대로
+ *
+ * 기록: 활성 세그먼트 파일은 처음 기록할 때 한 번 열어 계속 사용 (봉인하거나 close() 할 때 닫음)
+ *       추가한 레코드는 append가 반환되기 전에 디스크까지 내려씀(force)
+ *
+ * 위치 값: [세그먼트 ID 상위 비트][세그먼트 내 위치 하위 40비트] (세그먼트 순서대로 증가)
+ *
+ * 레코드 형식:
+ * - 주문: [type=1][orderId:4][userId:UTF][productId:4][quantity:4][totalPrice:8][orderDate:8]
+ * - 취소: [type=2][취소된 주문 필드 (주문 레코드와 동일)][cancelledAt:8]
+ *   (원 주문 내용을 함께 기록하므로 로그를 되짚지 않고도 집계를 되돌릴 수 있음)
+ * - 병합된 취소 주문: [type=3][주문 필드][cancelledAt:8] (압축 결과)
+ */
+public class OrderLog {
+
+    // 레코드 타입 (향후 다른 종류의 레코드를 추가할 수 있도록 구분)
+    static final byte RECORD_ORDER = 1;
+    static final byte RECORD_CANCEL = 2;
+    static final byte RECORD_CANCELLED_ORDER = 3;
+
+    // 위치 값의 세그먼트 내 위치 비트 수
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    /**
+     * 로그 전체를 훑으며 레코드 종류별로 호출받는 방문자
+     * (시작 시 인덱스 구성용)
+     */
+    public interface Visitor {
+
+        /**
+         * 주문 레코드
+         * @param order 주문
+         * @param offset 레코드 위치
+         */
+        void onOrder(Order order, long offset);
+
+        /**
+         * 취소 (취소 레코드 또는 병합된 취소 주문)
+         * 같은 주문에 대해 두 번 호출될 수 있으므로 (압축 도중 종료 시) 중복을 무시해야 함
+         *
+         * @param order 취소된 원 주문
+         * @param cancelledAt 취소 시각 (epoch 밀리초)
+         */
+        void onCancel(Order order, long cancelledAt);
+    }
+
+    private final File directory;
+    private final String prefix;
+    private final String suffix;
+    private final Pattern fileNamePattern;
+    private final long maxSegmentBytes;
+
+    // 세그먼트 목록 (ID 순, 마지막이 활성 세그먼트) - 교체 시 새 리스트로 바꿔 끼움
+    private volatile List<OrderLogSegment> segments = new ArrayList<>();
+
+    // 압축은 한 번에 하나만
+    private final Object compactionLock = new Object();
+
+    // 활성 세그먼트에 계속 열어 두는 추가 모드 스트림 (this로 보호, 없으면 null)
+    private FileOutputStream out;
+    private OrderLogSegment outSegment;
+
+    /**
+     * OrderLog 생성자
+     * 세그먼트 파일 목록만 확인하며, 메타데이터는 recover()에서 구성
+     *
+     * @param prefix 세그먼트 파일명 접두어 (data 디렉토리 기준, 예: "orders-")
+     * @param suffix 세그먼트 파일명 접미어 (예: ".seg")
+     * @param maxSegmentBytes 세그먼트 최대 크기 (넘으면 새 세그먼트 시작)
+     */
+    public OrderLog(String prefix, String suffix, long maxSegmentBytes) {
+        if (maxSegmentBytes <= 0 || maxSegmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("세그먼트 크기는 1 ~ 2GB 사이여야 합니다: " + maxSegmentBytes);
+        }
+        this.directory = FileManager.getDataFile(prefix).getParentFile();
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.fileNamePattern = Pattern.compile(
+                Pattern.quote(prefix) + "(\\d{6})(?:\\.g(\\d+))?" + Pattern.quote(suffix));
+        this.maxSegmentBytes = maxSegmentBytes;
+        discoverSegments();
+    }
+
+    // ===== 위치 값 =====
+
+    /**
+     * 세그먼트 ID와 세그먼트 내 위치로 로그 위치 생성
+     */
+    public static long position(int segmentId, long offset) {
+        return ((long) segmentId << OFFSET_BITS) | offset;
+    }
+
+    /**
+     * 로그 위치의 세그먼트 ID
+     */
+    public static int segmentOf(long position) {
+        return (int) (position >>> OFFSET_BITS);
+    }
+
+    /**
+     * 로그 위치의 세그먼트 내 위치
+     */
+    public static long offsetOf(long position) {
+        return position & OFFSET_MASK;
+    }
+
+    // ===== 쓰기 =====
+
+    /**
+     * 주문 레코드 추가
+     * @param order 추가할 주문
+     * @return 추가된 레코드의 로그 위치
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public synchronized long append(Order order) {
+        return appendAll(Collections.singletonList(order))[0];
+    }
+
+    /**
+     * 주문 레코드 여러 건을 한 번에 추가 (한 번의 write 후 한 번만 force)
+     * 활성 세그먼트가 가득 차면 다음 호출 전에 새 세그먼트로 넘어감
+     *
+     * @param orders 추가할 주문들
+     * @return 각 레코드의 로그 위치
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public synchronized long[] appendAll(List<Order> orders) {
+        OrderLogSegment active = activeSegment();
+        long[] positions = new long[orders.size()];
+        long base = active.getSize();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(orders.size() * 48);
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = position(active.getId(), base + data.size());
+                writeOrder(data, orders.get(i));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("주문 로그 인코딩 실패: " + e.getMessage(), e);
+        }
+        write(active, buffer.toByteArray(), "주문 로그 기록 실패");
+
+        for (int i = 0; i < positions.length; i++) {
+            active.recordOrder(orders.get(i), offsetOf(positions[i]));
+        }
+        rollIfFull(active);
+        return positions;
+    }
+
+    /**
+     * 주문 취소 레코드 추가
+     * @param order 취소할 원 주문
+     * @param cancelledAt 취소 시각 (epoch 밀리초)
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public synchronized void appendCancel(Order order, long cancelledAt) {
+        OrderLogSegment active = activeSegment();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            data.writeByte(RECORD_CANCEL);
+            writeOrderFields(data, order);
+            data.writeLong(cancelledAt);
+        } catch (IOException e) {
+            throw new RuntimeException("주문 취소 인코딩 실패: " + e.getMessage(), e);
+        }
+        write(active, buffer.toByteArray(), "주문 취소 기록 실패");
+
+        active.recordCancel();
+        rollIfFull(active);
+    }
+
+    /**
+     * 활성 세그먼트 끝에 기록하고 디스크까지 내려씀 (this 안에서 호출)
+     * 실패하면 이번에 쓴 부분을 잘라내고 세그먼트 크기는 그대로 둠
+     */
+    private void write(OrderLogSegment active, byte[] records, String failureMessage) {
+        long base = active.getSize();
+        try {
+            if (outSegment != active) {
+                closeQuietly();
+                out = new FileOutputStream(active.getFile(), true);
+                outSegment = active;
+            }
+            out.write(records);
+            out.getChannel().force(false);
+        } catch (IOException e) {
+            closeQuietly();
+            discardFrom(active.getFile(), base);
+            throw new RuntimeException(failureMessage + ": " + e.getMessage(), e);
+        }
+        active.setSize(base + records.length);
+    }
+
+    /**
+     * 실패한 기록이 일부만 쓰였으면 잘라냄 (다음 레코드가 잘린 레코드 뒤에 붙지 않도록)
+     */
+    private static void discardFrom(File file, long validLength) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > validLength) {
+                raf.setLength(validLength);
+            }
+        } catch (IOException e) {
+            System.err.println("[OrderLog] 실패한 기록 정리 실패 (" + file.getName() + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * 열어 둔 활성 세그먼트 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("[OrderLog] 세그먼트 파일 닫기 실패: " + e.getMessage());
+        }
+        out = null;
+        outSegment = null;
+    }
+
+    /**
+     * 활성 세그먼트가 최대 크기를 넘었으면 봉인하고 새 세그먼트 시작
+     */
+    private void rollIfFull(OrderLogSegment active) {
+        if (active.getSize() < maxSegmentBytes) {
+            return;
+        }
+        active.seal();
+        closeQuietly();
+
+        List<OrderLogSegment> updated = new ArrayList<>(segments);
+        int nextId = active.getId() + 1;
+        updated.add(new OrderLogSegment(nextId, 0, segmentFile(nextId, 0)));
+        segments = updated;
+        System.out.println("[OrderLog] 세그먼트 봉인: #" + active.getId() + " (" + active.getSize()
+                + " bytes) → 새 세그먼트 #" + nextId);
+    }
+
+    private OrderLogSegment activeSegment() {
+        List<OrderLogSegment> current = segments;
+        return current.get(current.size() - 1);
+    }
+
+    // ===== 읽기 =====
+
+    /**
+     * 시작 시 복구: 모든 세그먼트를 한 번 읽으며
+     * 세그먼트 메타데이터를 구성하고, 활성 세그먼트의 잘린 꼬리를 잘라내고, 방문자를 호출
+     * (잘린 레코드 뒤에 새 레코드를 덧붙이면 이후 레코드를 읽을 수 없게 되므로)
+     *
+     * 다른 쓰기보다 먼저 한 번만 호출해야 함
+     *
+     * @param visitor 레코드 방문자
+     */
+    public void recover(Visitor visitor) {
+        recover(visitor, 0);
+    }
+
+    /**
+     * 지정 위치부터 복구 (체크포인트 이후 레코드만 읽음)
+     * 그 앞의 세그먼트 메타데이터는 restoreSegments()로 먼저 복원해 두어야 함
+     *
+     * @param visitor 레코드 방문자
+     * @param fromPosition 읽기 시작할 로그 위치 (처음부터면 0)
+     * @return 읽은 레코드 수
+     */
+    public synchronized int recover(Visitor visitor, long fromPosition) {
+        long validLength;
+        int records = 0;
+        try (OrderCursor cursor = openCursor(fromPosition, null)) {
+            cursor.cancelListener = visitor;
+            cursor.recordListener = new OrderCursor.RecordListener() {
+                @Override
+                public void onOrder(OrderLogSegment segment, Order order, long offset) {
+                    segment.recordOrder(order, offset);
+                }
+
+                @Override
+                public void onCancel(OrderLogSegment segment, Order order) {
+                    segment.recordCancel();
+                }
+            };
+            while (cursor.hasNext()) {
+                Order order = cursor.next();
+                visitor.onOrder(order, cursor.currentOffset());
+                if (order.isCancelled()) {
+                    visitor.onCancel(order, cursor.currentCancelledAt());
+                }
+                records++;
+            }
+            validLength = cursor.validLength();
+        }
+
+        OrderLogSegment active = activeSegment();
+        long activeLength = segmentOf(validLength) == active.getId() ? offsetOf(validLength) : 0;
+        long torn = active.getFile().length() - activeLength;
+        if (torn > 0) {
+            closeQuietly();
+            try (RandomAccessFile raf = new RandomAccessFile(active.getFile(), "rw")) {
+                raf.setLength(activeLength);
+            } catch (IOException e) {
+                throw new RuntimeException("주문 로그 복구 실패: " + e.getMessage(), e);
+            }
+            System.out.println("[OrderLog] 잘린 레코드 제거: " + torn + " bytes");
+        }
+        active.setSize(activeLength);
+
+        for (OrderLogSegment segment : segments) {
+            if (segment != active) {
+                segment.seal();
+            }
+        }
+        rollIfFull(active);
+        return records;
+    }
+
+    // ===== 체크포인트 =====
+
+    /**
+     * 모든 세그먼트의 메타데이터 복사본 (체크포인트 저장용)
+     * 호출자가 추가를 멈춘 상태에서 호출해야 getEndPosition()과 맞아떨어짐
+     */
+    public synchronized List<OrderLogSegment.State> captureSegments() {
+        List<OrderLogSegment.State> states = new ArrayList<>(segments.size());
+        for (OrderLogSegment segment : segments) {
+            states.add(segment.captureState());
+        }
+        return states;
+    }
+
+    /**
+     * 현재 로그 끝 위치 (다음 레코드가 기록될 위치)
+     */
+    public synchronized long getEndPosition() {
+        OrderLogSegment active = activeSegment();
+        return position(active.getId(), active.getSize());
+    }
+
+    /**
+     * 체크포인트의 세그먼트 메타데이터 복원
+     * 디스크의 세그먼트 구성이 체크포인트와 맞을 때만 복원 (하나라도 다르면 아무것도 바꾸지 않음):
+     * - 체크포인트의 세그먼트가 모두 같은 세대로 남아 있고 (압축되지 않았고)
+     * - 봉인되었던 세그먼트는 크기가 같고, 활성이었던 세그먼트는 그보다 작지 않으며
+     * - 그 밖의 세그먼트는 체크포인트 이후에 새로 생긴 것(ID가 더 큼)
+     *
+     * recover(visitor, 위치)보다 먼저 호출해야 함
+     *
+     * @param states 체크포인트에 저장된 세그먼트 메타데이터
+     * @return 복원했으면 true (false면 처음부터 복구해야 함)
+     */
+    public synchronized boolean restoreSegments(List<OrderLogSegment.State> states) {
+        if (states.isEmpty()) {
+            return false;
+        }
+
+        IntObjectMap<OrderLogSegment> byId = new IntObjectMap<>(segments.size());
+        for (OrderLogSegment segment : segments) {
+            byId.put(segment.getId(), segment);
+        }
+
+        int lastId = states.get(states.size() - 1).getId();
+        IntObjectMap<OrderLogSegment.State> listed = new IntObjectMap<>(states.size());
+        for (OrderLogSegment.State state : states) {
+            listed.put(state.getId(), state);
+            OrderLogSegment segment = byId.get(state.getId());
+            if (segment == null || segment.getGeneration() != state.getGeneration()) {
+                return false;
+            }
+            long length = segment.getFile().length();
+            if (state.isSealed() ? length != state.getSize() : length < state.getSize()) {
+                return false;
+            }
+        }
+        for (OrderLogSegment segment : segments) {
+            if (segment.getId() <= lastId && !listed.containsKey(segment.getId())) {
+                return false;
+            }
+        }
+
+        for (OrderLogSegment.State state : states) {
+            byId.get(state.getId()).restoreState(state);
+        }
+        return true;
+    }
+
+    /**
+     * 로그 전체를 처음부터 훑으며 방문자 호출
+     * @param visitor 레코드 방문자
+     */
+    public void scan(Visitor visitor) {
+        try (OrderCursor cursor = openCursor(0, null)) {
+            cursor.cancelListener = visitor;
+            while (cursor.hasNext()) {
+                Order order = cursor.next();
+                visitor.onOrder(order, cursor.currentOffset());
+                if (order.isCancelled()) {
+                    visitor.onCancel(order, cursor.currentCancelledAt());
+                }
+            }
+        }
+    }
+
+    /**
+     * 처음부터 순차적으로 읽는 커서 열기
+     * 사용 후 반드시 close() 해야 함 (try-with-resources 권장)
+     *
+     * @return 주문 커서
+     */
+    public OrderCursor openCursor() {
+        return openCursor(0, null);
+    }
+
+    /**
+     * 지정한 위치부터 순차적으로 읽는 커서 열기
+     * @param startOffset 로그 위치 (append()가 반환한 값)
+     * @return 주문 커서
+     */
+    public OrderCursor openCursor(long startOffset) {
+        return openCursor(startOffset, null);
+    }
+
+    /**
+     * 취소 여부를 반영하는 커서 열기
+     * 연 시점의 세그먼트 목록을 읽으므로 도중에 압축되어도 같은 내용을 끝까지 읽음
+     *
+     * @param startOffset 로그 위치
+     * @param cancelled 주문 ID가 취소되었는지 판정 (true면 CANCELLED 상태로 반환)
+     * @return 주문 커서
+     */
+    public OrderCursor openCursor(long startOffset, IntPredicate cancelled) {
+        return openCursor(startOffset, cancelled, null);
+    }
+
+    /**
+     * 취소 여부를 반영하고 사용자 ID를 사전의 공유 문자열/키로 바꾸는 커서 열기
+     *
+     * @param startOffset 로그 위치
+     * @param cancelled 주문 ID가 취소되었는지 판정 (null 가능)
+     * @param dictionary 사용자 ID 사전 (null이면 읽은 문자열 그대로, 사전에 없는 ID도 그대로)
+     * @return 주문 커서
+     */
+    public synchronized OrderCursor openCursor(long startOffset, IntPredicate cancelled,
+                                               UserIdDictionary dictionary) {
+        List<OrderLogSegment> snapshot = segments;
+        for (OrderLogSegment segment : snapshot) {
+            segment.acquire();
+        }
+        return new OrderCursor(snapshot, startOffset, cancelled, dictionary);
+    }
+
+    /**
+     * 주문 ID로 레코드 위치 찾기 (세그먼트 ID 범위로 걸러낸 뒤 인덱스 조회)
+     * @param orderId 주문 ID
+     * @return 로그 위치 (없으면 -1)
+     */
+    public long locate(int orderId) {
+        List<OrderLogSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            OrderLogSegment segment = current.get(i);
+            long offset = segment.locate(orderId);
+            if (offset >= 0) {
+                return position(segment.getId(), offset);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 현재 세그먼트 목록 (메타데이터 조회용, ID 순)
+     */
+    public List<OrderLogSegment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * 봉인된 세그먼트에 남아 있는 (아직 병합되지 않은) 취소 레코드 수
+     */
+    public int getPendingCancelCount() {
+        int total = 0;
+        for (OrderLogSegment segment : segments) {
+            if (segment.isSealed()) {
+                total += segment.getCancelRecordCount();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 로그 존재 여부 (레코드가 하나라도 있는지)
+     */
+    public boolean exists() {
+        return size() > 0;
+    }
+
+    /**
+     * 전체 세그먼트 크기 합
+     */
+    public long size() {
+        long total = 0;
+        for (OrderLogSegment segment : segments) {
+            total += segment.getSize();
+        }
+        return total;
+    }
+
+    /**
+     * 단일 파일 로그(구버전 orders.log)를 첫 세그먼트로 가져옴
+     * 세그먼트가 비어 있을 때만 수행
+     *
+     * @param legacyFilename 구버전 로그 파일명
+     * @return 가져왔으면 true
+     */
+    public synchronized boolean adoptLegacyFile(String legacyFilename) {
+        File legacy = FileManager.getDataFile(legacyFilename);
+        if (exists() || !legacy.exists()) {
+            return false;
+        }
+
+        closeQuietly();
+        try {
+            Files.move(legacy.toPath(), segmentFile(1, 0).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("구버전 주문 로그 이전 실패: " + e.getMessage(), e);
+        }
+        discoverSegments();
+        return true;
+    }
+
+    // ===== 압축 =====
+
+    /**
+     * 압축 실행
+     * 봉인된 세그먼트에서 "주문 + 취소 레코드" 쌍을 찾아 영향받는 세그먼트를 새 세대 파일로 다시 기록한 뒤,
+     * install에 넘겨 교체하게 함 (호출자는 자신의 락 안에서 commit()과 위치 인덱스 갱신을 함께 수행)
+     *
+     * 추가(append)와 동시에 실행 가능 - 활성 세그먼트는 읽지도 쓰지도 않음
+     *
+     * @param install 교체 처리 (commit()을 호출해야 함, 호출하지 않으면 끝난 뒤 자동 교체)
+     * @return 압축 결과 (병합할 쌍이 없으면 null)
+     */
+    public Compaction compact(Consumer<Compaction> install) {
+        synchronized (compactionLock) {
+            Compaction compaction = prepareCompaction();
+            if (compaction != null) {
+                install.accept(compaction);
+                compaction.commit();
+            }
+            return compaction;
+        }
+    }
+
+    /**
+     * 압축 준비 (새 세대 파일 기록까지, 교체는 하지 않음)
+     */
+    private Compaction prepareCompaction() {
+        List<OrderLogSegment> sealed = new ArrayList<>();
+        for (OrderLogSegment segment : segments) {
+            if (segment.isSealed()) {
+                sealed.add(segment);
+            }
+        }
+
+        // 1. 봉인된 세그먼트의 취소 레코드 수집 (취소 레코드가 있는 세그먼트만 읽음)
+        Map<Integer, Long> cancelledAt = new HashMap<>();
+        Set<Integer> cancelSegments = new HashSet<>();
+        for (OrderLogSegment segment : sealed) {
+            if (segment.getCancelRecordCount() == 0) {
+                continue;
+            }
+            cancelSegments.add(segment.getId());
+            forEachRecord(segment, (type, order, extra, offset) -> {
+                if (type == RECORD_CANCEL) {
+                    cancelledAt.put(order.getOrderId(), extra);
+                }
+            });
+        }
+
+        // 2. 원 주문이 봉인된 세그먼트에 있는 쌍만 병합 대상
+        Map<Integer, Long> pairs = new HashMap<>();
+        Set<Integer> orderSegments = new HashSet<>();
+        for (Map.Entry<Integer, Long> entry : cancelledAt.entrySet()) {
+            for (OrderLogSegment segment : sealed) {
+                if (segment.locate(entry.getKey()) >= 0) {
+                    pairs.put(entry.getKey(), entry.getValue());
+                    orderSegments.add(segment.getId());
+                    break;
+                }
+            }
+        }
+        if (pairs.isEmpty()) {
+            return null;
+        }
+
+        // 3. 영향받는 세그먼트를 ID 순으로 새 세대 파일에 기록
+        List<Rewrite> rewrites = new ArrayList<>();
+        for (OrderLogSegment segment : sealed) {
+            if (cancelSegments.contains(segment.getId()) || orderSegments.contains(segment.getId())) {
+                rewrites.add(rewrite(segment, pairs));
+            }
+        }
+
+        // 4. ID 오름차순으로 최종 이름 부여
+        //    (중간에 종료되어도 원 주문 쪽이 먼저 병합되므로 취소가 사라지지 않음)
+        for (Rewrite rewrite : rewrites) {
+            try {
+                Files.move(rewrite.tempFile.toPath(), rewrite.replacement.getFile().toPath(),
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new RuntimeException("세그먼트 교체 실패: " + e.getMessage(), e);
+            }
+        }
+        return new Compaction(rewrites, pairs.size());
+    }
+
+    /**
+     * 세그먼트 하나를 병합 규칙대로 다시 기록
+     */
+    private Rewrite rewrite(OrderLogSegment segment, Map<Integer, Long> pairs) {
+        int generation = segment.getGeneration() + 1;
+        OrderLogSegment replacement = new OrderLogSegment(segment.getId(), generation,
+                segmentFile(segment.getId(), generation));
+        File temp = new File(replacement.getFile().getPath() + ".tmp");
+
+        LongArrayBuilder oldOffsets = new LongArrayBuilder();
+        LongArrayBuilder newOffsets = new LongArrayBuilder();
+        try (FileOutputStream fileOut = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+
+            IOException[] failure = {null};
+            forEachRecord(segment, (type, order, extra, offset) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    Long mergedCancel = pairs.get(order.getOrderId());
+                    if (type == RECORD_CANCEL) {
+                        if (mergedCancel == null) {
+                            out.writeByte(RECORD_CANCEL);
+                            writeOrderFields(out, order);
+                            out.writeLong(extra);
+                            replacement.recordCancel();
+                        }
+                        return;
+                    }
+
+                    long newOffset = out.size();
+                    oldOffsets.add(offset);
+                    newOffsets.add(newOffset);
+                    if (type == RECORD_CANCELLED_ORDER || mergedCancel != null) {
+                        out.writeByte(RECORD_CANCELLED_ORDER);
+                        writeOrderFields(out, order);
+                        out.writeLong(type == RECORD_CANCELLED_ORDER ? extra : mergedCancel);
+                    } else {
+                        writeOrder(out, order);
+                    }
+                    replacement.recordOrder(order, newOffset);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.flush();
+            fileOut.getFD().sync();
+
+        } catch (IOException e) {
+            temp.delete();
+            throw new RuntimeException("세그먼트 압축 실패: " + e.getMessage(), e);
+        }
+
+        replacement.setSize(temp.length());
+        replacement.seal();
+        return new Rewrite(segment, replacement, temp, oldOffsets.toArray(), newOffsets.toArray());
+    }
+
+    /**
+     * 압축 결과 교체 (세그먼트 목록만 바꿔 끼우므로 짧게 끝남)
+     * 교체된 세그먼트 파일은 이를 읽는 커서가 모두 닫힌 뒤 삭제
+     */
+    private synchronized void commit(List<Rewrite> rewrites) {
+        IntObjectMap<OrderLogSegment> replacements = new IntObjectMap<>(rewrites.size());
+        for (Rewrite rewrite : rewrites) {
+            replacements.put(rewrite.original.getId(), rewrite.replacement);
+        }
+
+        List<OrderLogSegment> updated = new ArrayList<>(segments.size());
+        for (OrderLogSegment segment : segments) {
+            updated.add(replacements.getOrDefault(segment.getId(), segment));
+        }
+        segments = updated;
+
+        for (Rewrite rewrite : rewrites) {
+            rewrite.original.release();
+        }
+    }
+
+    /**
+     * 교체 대기 중인 압축 결과
+     * commit() 전후로 호출자가 자신의 위치 인덱스를 remap()으로 갱신
+     */
+    public final class Compaction {
+        private final List<Rewrite> rewrites;
+        private final IntObjectMap<Rewrite> bySegment = new IntObjectMap<>();
+        private final int mergedCount;
+        private boolean committed;
+
+        private Compaction(List<Rewrite> rewrites, int mergedCount) {
+            this.rewrites = rewrites;
+            this.mergedCount = mergedCount;
+            for (Rewrite rewrite : rewrites) {
+                bySegment.put(rewrite.original.getId(), rewrite);
+            }
+        }
+
+        /**
+         * 새 세그먼트로 교체
+         */
+        public void commit() {
+            if (!committed) {
+                committed = true;
+                OrderLog.this.commit(rewrites);
+            }
+        }
+
+        /**
+         * 압축 전 위치 → 압축 후 위치 (다시 기록되지 않은 세그먼트의 위치는 그대로)
+         * @param position 압축 전 로그 위치
+         * @return 압축 후 로그 위치
+         */
+        public long remap(long position) {
+            Rewrite rewrite = bySegment.get(segmentOf(position));
+            if (rewrite == null) {
+                return position;
+            }
+            int index = Arrays.binarySearch(rewrite.oldOffsets, offsetOf(position));
+            if (index < 0) {
+                throw new IllegalStateException("압축 전 위치를 찾을 수 없습니다: " + position);
+            }
+            return position(rewrite.original.getId(), rewrite.newOffsets[index]);
+        }
+
+        /**
+         * 병합한 주문 + 취소 쌍 수
+         */
+        public int getMergedCount() {
+            return mergedCount;
+        }
+
+        /**
+         * 다시 기록한 세그먼트 수
+         */
+        public int getRewrittenSegmentCount() {
+            return rewrites.size();
+        }
+    }
+
+    /**
+     * 세그먼트 하나의 재기록 결과 (압축 전/후 위치 대응표 포함)
+     */
+    private static final class Rewrite {
+        final OrderLogSegment original;
+        final OrderLogSegment replacement;
+        final File tempFile;
+        final long[] oldOffsets;
+        final long[] newOffsets;
+
+        Rewrite(OrderLogSegment original, OrderLogSegment replacement, File tempFile,
+                long[] oldOffsets, long[] newOffsets) {
+            this.original = original;
+            this.replacement = replacement;
+            this.tempFile = tempFile;
+            this.oldOffsets = oldOffsets;
+            this.newOffsets = newOffsets;
+        }
+    }
+
+    /**
+     * 레코드 원형 그대로 읽는 처리기 (압축용)
+     */
+    private interface RawRecordHandler {
+        /**
+         * @param type 레코드 타입
+         * @param order 주문 필드
+         * @param extra 취소 시각 (취소/병합 레코드만, 아니면 0)
+         * @param offset 세그먼트 내 위치
+         */
+        void onRecord(byte type, Order order, long extra, long offset);
+    }
+
+    /**
+     * 봉인된 세그먼트 레코드를 원형 그대로 순회
+     */
+    private static void forEachRecord(OrderLogSegment segment, RawRecordHandler handler) {
+        try (CountingInput counter = new CountingInput(segment.getFile());
+             DataInputStream in = new DataInputStream(counter)) {
+            while (counter.position < segment.getSize()) {
+                long offset = counter.position;
+                byte type = in.readByte();
+                Order order = readOrder(in);
+                long extra = (type == RECORD_ORDER) ? 0 : in.readLong();
+                handler.onRecord(type, order, extra, offset);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("세그먼트 읽기 실패 (#" + segment.getId() + "): " + e.getMessage(), e);
+        }
+    }
+
+    // ===== 세그먼트 파일 =====
+
+    /**
+     * 데이터 디렉토리에서 세그먼트 파일을 찾아 목록 구성
+     * 같은 ID의 세대가 여러 개면 (압축 도중 종료) 최신 세대만 사용하고 나머지는 삭제
+     */
+    private void discoverSegments() {
+        TreeMap<Integer, OrderLogSegment> latest = new TreeMap<>();
+        List<File> stale = new ArrayList<>();
+
+        File[] files = directory == null ? null : directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(".tmp") && file.getName().startsWith(prefix)) {
+                    stale.add(file);   // 압축 도중 남은 임시 파일
+                    continue;
+                }
+                Matcher matcher = fileNamePattern.matcher(file.getName());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int id = Integer.parseInt(matcher.group(1));
+                int generation = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+                OrderLogSegment existing = latest.get(id);
+                if (existing == null || existing.getGeneration() < generation) {
+                    if (existing != null) {
+                        stale.add(existing.getFile());
+                    }
+                    latest.put(id, new OrderLogSegment(id, generation, file));
+                } else {
+                    stale.add(file);
+                }
+            }
+        }
+
+        for (File file : stale) {
+            if (file.delete()) {
+                System.out.println("[OrderLog] 이전 세대 파일 삭제: " + file.getName());
+            }
+        }
+
+        List<OrderLogSegment> found = new ArrayList<>(latest.values());
+        if (found.isEmpty()) {
+            found.add(new OrderLogSegment(1, 0, segmentFile(1, 0)));
+        }
+        segments = found;
+    }
+
+    private File segmentFile(int id, int generation) {
+        String name = generation == 0
+                ? String.format("%s%06d%s", prefix, id, suffix)
+                : String.format("%s%06d.g%d%s", prefix, id, generation, suffix);
+        return FileManager.getDataFile(name);
+    }
+
+    /**
+     * long 값을 모으는 가변 배열 (압축 중 위치 대응표용)
+     */
+    private static final class LongArrayBuilder {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * 주문 레코드 인코딩
+     */
+    static void writeOrder(DataOutput out, Order order) throws IOException {
+        out.writeByte(RECORD_ORDER);
+        writeOrderFields(out, order);
+    }
+
+    /**
+     * 주문 필드 인코딩 (타입 바이트 제외)
+     */
+    static void writeOrderFields(DataOutput out, Order order) throws IOException {
+        out.writeInt(order.getOrderId());
+        out.writeUTF(order.getUserId());
+        out.writeInt(order.getProductId());
+        out.writeInt(order.getQuantity());
+        out.writeDouble(order.getTotalPrice());
+        out.writeLong(order.getOrderTimestamp());
+    }
+
+    /**
+     * 주문 레코드 디코딩 (타입 바이트는 이미 읽은 상태)
+     */
+    static Order readOrder(DataInput in) throws IOException {
+        return readOrder(in, null);
+    }
+
+    /**
+     * 주문 레코드 디코딩 (사전이 있으면 사전에 있는 사용자 ID를 공유 문자열/키로)
+     */
+    static Order readOrder(DataInput in, UserIdDictionary dictionary) throws IOException {
+        int orderId = in.readInt();
+        String userId = in.readUTF();
+        int productId = in.readInt();
+        int quantity = in.readInt();
+        double totalPrice = in.readDouble();
+        long orderTimestamp = in.readLong();
+        return dictionary == null
+                ? new Order(orderId, userId, productId, quantity, totalPrice, orderTimestamp)
+                : new Order(orderId, userId, productId, quantity, totalPrice, orderTimestamp, dictionary);
+    }
+}
@@ -0,0 +1,309 @@
+// ===============================================
+// OrderLogSegment.java - 주문 로그 세그먼트 (파일 하나 + 메타데이터)
+// ===============================================
+package com.shopping.persistence;
+
+import com.shopping.model.Order;
+import java.io.File;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 로그를 구성하는 세그먼트 파일 하나
+ *
+ * 메타데이터 (메모리에만 유지, 시작 시 로그를 읽으며 구성):
+ * - 주문 ID / 주문 시각의 최소·최대값 → 조회 대상이 아닌 세그먼트는 파일을 열지 않고 건너뜀
+ * - 주문 ID → 세그먼트 내 위치 인덱스 → 주문 한 건 조회 시 해당 레코드로 바로 이동
+ * - 병합 대기 중인 취소 레코드 수 → 압축 대상 선정
+ *
+ * 파일 삭제는 참조 수로 관리: 로그가 1개, 열린 커서가 각각 1개씩 참조하며
+ * 압축으로 교체된 세그먼트는 마지막 커서가 닫힐 때 파일을 지움
+ *
+ * 메타데이터는 State로 떠서 체크포인트에 저장할 수 있고,
+ * 시작 시 체크포인트의 State를 복원하면 그 이후 레코드만 읽으면 됨
+ */
+public class OrderLogSegment {
+
+    private final int id;
+    private final int generation;
+    private final File file;
+
+    // 파일 크기 (완전하게 기록된 레코드 끝)
+    private volatile long size;
+
+    private int orderCount;
+    private int cancelRecordCount;
+    private int minOrderId = Integer.MAX_VALUE;
+    private int maxOrderId = Integer.MIN_VALUE;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    // (주문 ID << 32 | 세그먼트 내 위치) 배열, 봉인 후에는 정렬되어 이진 탐색
+    private long[] index = new long[64];
+    private int indexSize;
+    private boolean sorted = true;
+
+    // 봉인 여부 (더 이상 추가되지 않는 세그먼트)
+    private volatile boolean sealed;
+
+    // 참조 수 (로그 1 + 열린 커서 수)
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    OrderLogSegment(int id, int generation, File file) {
+        this.id = id;
+        this.generation = generation;
+        this.file = file;
+        this.size = file.exists() ? file.length() : 0;
+    }
+
+    /**
+     * 주문 레코드 반영
+     * @param order 주문
+     * @param offset 세그먼트 내 레코드 위치
+     */
+    synchronized void recordOrder(Order order, long offset) {
+        orderCount++;
+        minOrderId = Math.min(minOrderId, order.getOrderId());
+        maxOrderId = Math.max(maxOrderId, order.getOrderId());
+        minTimestamp = Math.min(minTimestamp, order.getOrderTimestamp());
+        maxTimestamp = Math.max(maxTimestamp, order.getOrderTimestamp());
+
+        if (indexSize == index.length) {
+            index = Arrays.copyOf(index, indexSize * 2);
+        }
+        long entry = ((long) order.getOrderId() << 32) | (offset & 0xFFFFFFFFL);
+        if (indexSize > 0 && index[indexSize - 1] > entry) {
+            sorted = false;
+        }
+        index[indexSize++] = entry;
+    }
+
+    /**
+     * 병합 전 취소 레코드 반영
+     */
+    synchronized void recordCancel() {
+        cancelRecordCount++;
+    }
+
+    /**
+     * 봉인 (인덱스 정렬, 이후 추가 없음)
+     */
+    synchronized void seal() {
+        if (!sorted) {
+            Arrays.sort(index, 0, indexSize);
+            sorted = true;
+        }
+        sealed = true;
+    }
+
+    /**
+     * 주문 ID의 세그먼트 내 위치
+     * @param orderId 주문 ID
+     * @return 레코드 위치 (없으면 -1)
+     */
+    synchronized long locate(int orderId) {
+        if (orderCount == 0 || orderId < minOrderId || orderId > maxOrderId) {
+            return -1;
+        }
+
+        if (sorted) {
+            int low = 0;
+            int high = indexSize - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = (int) (index[mid] >>> 32);
+                if (midId < orderId) {
+                    low = mid + 1;
+                } else if (midId > orderId) {
+                    high = mid - 1;
+                } else {
+                    return index[mid] & 0xFFFFFFFFL;
+                }
+            }
+            return -1;
+        }
+
+        // 정렬되지 않은 활성 세그먼트: 최근 주문부터 역순 탐색
+        for (int i = indexSize - 1; i >= 0; i--) {
+            if ((int) (index[i] >>> 32) == orderId) {
+                return index[i] & 0xFFFFFFFFL;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 기간이 이 세그먼트의 주문 시각 범위와 겹치는지
+     * @param fromMillis 시작 시각 (포함)
+     * @param toMillis 종료 시각 (미포함)
+     */
+    public synchronized boolean overlaps(long fromMillis, long toMillis) {
+        return orderCount > 0 && minTimestamp < toMillis && maxTimestamp >= fromMillis;
+    }
+
+    // ===== 체크포인트 =====
+
+    /**
+     * 현재 메타데이터 복사본
+     */
+    synchronized State captureState() {
+        return new State(this);
+    }
+
+    /**
+     * 체크포인트의 메타데이터 복원 (파일 크기는 복구 중 읽은 위치로 따로 설정됨)
+     * @param state 같은 ID/세대의 세그먼트에서 뜬 상태
+     */
+    synchronized void restoreState(State state) {
+        if (state.id != id || state.generation != generation) {
+            throw new IllegalArgumentException("다른 세그먼트의 상태입니다: #" + state.id + ".g" + state.generation);
+        }
+        orderCount = state.orderCount;
+        cancelRecordCount = state.cancelRecordCount;
+        minOrderId = state.minOrderId;
+        maxOrderId = state.maxOrderId;
+        minTimestamp = state.minTimestamp;
+        maxTimestamp = state.maxTimestamp;
+        index = Arrays.copyOf(state.index, Math.max(64, state.index.length));
+        indexSize = state.index.length;
+        sorted = state.sorted;
+    }
+
+    /**
+     * 체크포인트에 저장되는 세그먼트 메타데이터
+     */
+    public static final class State implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+        private final int generation;
+        private final long size;
+        private final boolean sealed;
+        private final int orderCount;
+        private final int cancelRecordCount;
+        private final int minOrderId;
+        private final int maxOrderId;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final long[] index;
+        private final boolean sorted;
+
+        private State(OrderLogSegment segment) {
+            this.id = segment.id;
+            this.generation = segment.generation;
+            this.size = segment.size;
+            this.sealed = segment.sealed;
+            this.orderCount = segment.orderCount;
+            this.cancelRecordCount = segment.cancelRecordCount;
+            this.minOrderId = segment.minOrderId;
+            this.maxOrderId = segment.maxOrderId;
+            this.minTimestamp = segment.minTimestamp;
+            this.maxTimestamp = segment.maxTimestamp;
+            this.index = Arrays.copyOf(segment.index, segment.indexSize);
+            this.sorted = segment.sorted;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public boolean isSealed() {
+            return sealed;
+        }
+
+        public int getOrderCount() {
+            return orderCount;
+        }
+
+        public int getMaxOrderId() {
+            return maxOrderId;
+        }
+    }
+
+    // ===== 참조 관리 =====
+
+    /**
+     * 커서가 사용하기 전에 참조 증가
+     */
+    void acquire() {
+        refs.incrementAndGet();
+    }
+
+    /**
+     * 참조 해제 (마지막 참조면 파일 삭제 - 교체된 세그먼트만 해당)
+     */
+    void release() {
+        if (refs.decrementAndGet() == 0) {
+            if (file.exists() && !file.delete()) {
+                System.err.println("[OrderLogSegment] 교체된 세그먼트 삭제 실패: " + file.getName());
+            }
+        }
+    }
+
+    // ===== 조회 =====
+
+    public int getId() {
+        return id;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    void setSize(long size) {
+        this.size = size;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    public synchronized int getOrderCount() {
+        return orderCount;
+    }
+
+    public synchronized int getCancelRecordCount() {
+        return cancelRecordCount;
+    }
+
+    public synchronized int getMinOrderId() {
+        return minOrderId;
+    }
+
+    public synchronized int getMaxOrderId() {
+        return maxOrderId;
+    }
+
+    public synchronized long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public synchronized long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Segment[id=%d, gen=%d, bytes=%d, orders=%d, cancels=%d, ids=%d~%d, sealed=%s]",
+                id, generation, size, getOrderCount(), getCancelRecordCount(),
+                getMinOrderId(), getMaxOrderId(), sealed);
+    }
+}
@@ -0,0 +1,537 @@
+// ===============================================
+// RecoverableStore.java - 스냅샷 + 변경 기록으로 복구하는 메모리 저장소
+// ===============================================
+package com.shopping.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 키 → 값 저장소 (메모리 상태 + 변경 기록 + 주기적 스냅샷)
+ *
+ * 쓰기: 변경 기록(WriteAheadLog)에 레코드 하나를 추가한 뒤 메모리에 반영 → 데이터 파일 전체를 다시 쓰지 않음
+ * 읽기: 메모리에서 조회 (값은 직렬화된 바이트로 보관하고 읽을 때마다 새 객체로 복원
+ *       → 호출자가 받은 객체를 고쳐도 저장된 상태는 update 전까지 바뀌지 않음, 파일에서 읽던 때와 동일)
+ *       스냅샷에서 적재한 값은 밖으로 내주지 않는 객체 그대로 두고, 처음 읽힐 때 바이트로 바꿈
+ *       (시작 시 전체를 다시 직렬화하지 않도록)
+ *
+ * 스냅샷 (snapshotInterval건 변경마다, 또는 snapshot() 호출 시):
+ * 1. 쓰기 락 안에서 현재 상태를 복사하고 변경 기록을 새 세대로 넘김
+ * 2. 락 밖에서 스냅샷 데이터 파일 기록 (그동안 쓰기는 새 세대에 계속 추가됨)
+ * 3. 표식(SnapshotMarker)에 새 세대 번호 기록 후 이전 세대 삭제
+ *
+ * 복구: 스냅샷 데이터 파일 적재 → 표식의 세대부터 변경 기록 재생
+ * 변경 레코드는 "키의 값을 이것으로" / "키 삭제" 형태라 여러 번 적용해도 결과가 같으므로,
+ * 스냅샷 파일을 쓰다가 중단되어 일부만 새 내용이어도 이전 세대부터 재생하면 최신 상태가 됨
+ *
+ * 메모리 상태를 담는 방식은 Entries로 바꿀 수 있음 (기본: 힙의 ConcurrentHashMap).
+ * 변경 기록과 스냅샷 형식은 Entries와 무관하므로 방식을 바꿔도 기존 파일을 그대로 읽음
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public class RecoverableStore<K extends Serializable, V extends Serializable> {
+
+    /**
+     * 스냅샷 데이터 파일 읽기/쓰기 (저장소마다 파일 구성이 다름)
+     */
+    public interface SnapshotFiles<V> {
+
+        /**
+         * 스냅샷 데이터 전체 읽기 (없으면 빈 목록)
+         */
+        List<V> read();
+
+        /**
+         * 스냅샷 데이터 전체 쓰기
+         * @return 모두 성공했으면 true (실패하면 변경 기록을 지우지 않음)
+         */
+        boolean write(List<V> values);
+    }
+
+    /**
+     * 메모리 상태 보관 방식
+     * 변경(put/remove/capture)은 저장소의 쓰기 락 안에서만 호출되고, 조회는 락 없이 동시에 호출됨
+     */
+    public interface Entries<K, V> {
+
+        /**
+         * 값 조회 (호출자가 고쳐도 저장된 상태가 바뀌지 않는 새 객체)
+         */
+        V get(K key);
+
+        boolean containsKey(K key);
+
+        /**
+         * 전체 값 (새 객체, 순서 보장 없음)
+         */
+        List<V> values();
+
+        int size();
+
+        /**
+         * 스냅샷 파일에서 읽은 값 적재 (복구 중, 외부에 노출되지 않은 객체)
+         */
+        void load(K key, V value);
+
+        /**
+         * 값 저장
+         * @param value 저장할 값 (변경 기록 재생 중에는 null → serialized만 있음)
+         * @param serialized 직렬화된 값
+         */
+        void put(K key, V value, byte[] serialized);
+
+        void remove(K key);
+
+        /**
+         * 스냅샷용 상태 고정 (쓰기 락 안에서 호출)
+         * 반환된 Supplier는 락 밖에서 호출되어 스냅샷 파일에 쓸 값 목록을 만듦
+         */
+        Supplier<List<V>> capture();
+    }
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final String name;
+    private final WriteAheadLog wal;
+    private final String markerFile;
+    private final SnapshotFiles<V> snapshotFiles;
+    private final Function<V, K> keyOf;
+    private final int snapshotInterval;
+
+    // 메모리 상태
+    private final Entries<K, V> entries;
+
+    // 복구 중 변경 기록에서 저장(put)된 키를 받는 쪽 (없으면 null)
+    private final Consumer<K> replayedPuts;
+
+    // 변경 기록 추가와 메모리 반영을 한 단위로 묶음 (스냅샷이 그 사이를 보지 않도록)
+    private final Object writeLock = new Object();
+
+    // 마지막 스냅샷 이후 변경 수
+    private int mutationsSinceSnapshot;
+
+    // 스냅샷은 한 번에 하나만
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    // 마지막 복구 정보 (시작 시간 측정용)
+    private long recoveryMillis;
+    private int replayedCount;
+
+    /**
+     * RecoverableStore 생성자 (생성 시 복구 수행, 메모리 상태는 힙에 보관)
+     * @param name 로그용 이름
+     * @param wal 변경 기록
+     * @param markerFile 스냅샷 표식 파일명
+     * @param snapshotFiles 스냅샷 데이터 파일
+     * @param keyOf 값에서 키 추출
+     * @param snapshotInterval 스냅샷 간격 (변경 수)
+     */
+    public RecoverableStore(String name, WriteAheadLog wal, String markerFile,
+                            SnapshotFiles<V> snapshotFiles, Function<V, K> keyOf, int snapshotInterval) {
+        this(name, wal, markerFile, snapshotFiles, keyOf, snapshotInterval, heapEntries());
+    }
+
+    /**
+     * RecoverableStore 생성자 (메모리 상태 보관 방식 지정)
+     * @param entries 메모리 상태 (비어 있어야 함)
+     */
+    public RecoverableStore(String name, WriteAheadLog wal, String markerFile,
+                            SnapshotFiles<V> snapshotFiles, Function<V, K> keyOf, int snapshotInterval,
+                            Entries<K, V> entries) {
+        this(name, wal, markerFile, snapshotFiles, keyOf, snapshotInterval, entries, null);
+    }
+
+    /**
+     * RecoverableStore 생성자 (복구 중 재생된 저장 키 통지)
+     * 스냅샷 파일과 함께 저장한 보조 구조(예: ID 필터)를 스냅샷 이후 변경분만으로 맞출 때 사용
+     *
+     * @param replayedPuts 변경 기록 재생 중 저장(put) 레코드의 키마다 호출됨 (삭제 레코드는 통지하지 않음)
+     */
+    public RecoverableStore(String name, WriteAheadLog wal, String markerFile,
+                            SnapshotFiles<V> snapshotFiles, Function<V, K> keyOf, int snapshotInterval,
+                            Entries<K, V> entries, Consumer<K> replayedPuts) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("스냅샷 간격은 양수여야 합니다: " + snapshotInterval);
+        }
+        this.name = name;
+        this.wal = wal;
+        this.markerFile = markerFile;
+        this.snapshotFiles = snapshotFiles;
+        this.keyOf = keyOf;
+        this.snapshotInterval = snapshotInterval;
+        this.entries = entries;
+        this.replayedPuts = replayedPuts;
+        recover();
+    }
+
+    /**
+     * 스냅샷 적재 + 변경 기록 재생
+     */
+    private void recover() {
+        long start = System.nanoTime();
+
+        SnapshotMarker marker = FileManager.readObject(markerFile);
+        List<V> snapshot = snapshotFiles.read();
+        for (V value : snapshot) {
+            entries.load(keyOf.apply(value), value);
+        }
+
+        long fromGeneration = marker != null ? marker.getWalGeneration() : 0;
+        replayedCount = wal.replay(fromGeneration, this::apply);
+        mutationsSinceSnapshot = replayedCount;
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("[RecoverableStore] " + name + " 복구: 스냅샷 " + snapshot.size()
+                + "건 + 변경 기록 " + replayedCount + "건 재생 → " + entries.size() + "건 ("
+                + recoveryMillis + "ms)");
+    }
+
+    /**
+     * 기본 메모리 상태 (힙의 ConcurrentHashMap)
+     */
+    public static <K, V extends Serializable> Entries<K, V> heapEntries() {
+        return new HeapEntries<>();
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 값 조회
+     * @param key 키
+     * @return 새로 복원한 값 (없으면 null)
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * 전체 값 (순서 보장 없음)
+     */
+    public List<V> values() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ===== 변경 =====
+
+    /**
+     * 값 저장 (같은 키가 있으면 교체)
+     * @param value 저장할 값
+     * @throws RuntimeException 변경 기록에 실패했을 때 (메모리 상태는 그대로)
+     */
+    public void put(V value) {
+        K key = keyOf.apply(value);
+        byte[] bytes = serialize(value);
+        byte[] record = encode(OP_PUT, key, bytes);
+
+        boolean snapshotDue;
+        synchronized (writeLock) {
+            wal.append(record);
+            entries.put(key, value, bytes);
+            snapshotDue = ++mutationsSinceSnapshot >= snapshotInterval;
+        }
+        if (snapshotDue) {
+            snapshot();
+        }
+    }
+
+    /**
+     * 여러 값을 한 번에 저장 (변경 기록 파일을 한 번만 엶)
+     * @param values 저장할 값들
+     */
+    public void putAll(Collection<V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<V> ordered = new ArrayList<>(values);
+        List<K> keys = new ArrayList<>(ordered.size());
+        List<byte[]> serialized = new ArrayList<>(ordered.size());
+        List<byte[]> records = new ArrayList<>(ordered.size());
+        for (V value : ordered) {
+            K key = keyOf.apply(value);
+            byte[] bytes = serialize(value);
+            keys.add(key);
+            serialized.add(bytes);
+            records.add(encode(OP_PUT, key, bytes));
+        }
+
+        boolean snapshotDue;
+        synchronized (writeLock) {
+            wal.appendAll(records);
+            for (int i = 0; i < keys.size(); i++) {
+                entries.put(keys.get(i), ordered.get(i), serialized.get(i));
+            }
+            mutationsSinceSnapshot += records.size();
+            snapshotDue = mutationsSinceSnapshot >= snapshotInterval;
+        }
+        if (snapshotDue) {
+            snapshot();
+        }
+    }
+
+    /**
+     * 값 삭제
+     * @param key 키
+     * @return 삭제했으면 true
+     */
+    public boolean remove(K key) {
+        boolean snapshotDue;
+        synchronized (writeLock) {
+            if (!entries.containsKey(key)) {
+                return false;
+            }
+            wal.append(encode(OP_REMOVE, key, new byte[0]));
+            entries.remove(key);
+            snapshotDue = ++mutationsSinceSnapshot >= snapshotInterval;
+        }
+        if (snapshotDue) {
+            snapshot();
+        }
+        return true;
+    }
+
+    // ===== 스냅샷 =====
+
+    /**
+     * 스냅샷 저장 후 반영된 변경 기록 삭제
+     * 다른 스냅샷이 진행 중이면 건너뜀
+     *
+     * @return 저장했으면 true
+     */
+    public boolean snapshot() {
+        if (!snapshotting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            Supplier<List<V>> captured;
+            long nextGeneration;
+            synchronized (writeLock) {
+                captured = entries.capture();
+                nextGeneration = wal.rotate();
+                mutationsSinceSnapshot = 0;
+            }
+            List<V> values = captured.get();
+
+            // 데이터 파일 → 표식 순서로 기록, 둘 다 성공해야 이전 변경 기록 삭제
+            if (!snapshotFiles.write(values)
+                    || !FileManager.writeObject(markerFile, new SnapshotMarker(nextGeneration, values.size()))) {
+                System.err.println("[RecoverableStore] " + name + " 스냅샷 저장 실패 (변경 기록 유지)");
+                return false;
+            }
+            wal.deleteBefore(nextGeneration);
+
+            System.out.println("[RecoverableStore] " + name + " 스냅샷 저장: " + values.size() + "건 ("
+                    + (System.nanoTime() - start) / 1_000_000 + "ms)");
+            return true;
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    /**
+     * 열어 둔 변경 기록 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        synchronized (writeLock) {
+            wal.close();
+        }
+    }
+
+    /**
+     * 마지막 복구에 걸린 시간 (밀리초)
+     */
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    /**
+     * 마지막 복구에서 재생한 변경 기록 수
+     */
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * 마지막 스냅샷 이후 변경 수
+     */
+    public int getMutationsSinceSnapshot() {
+        synchronized (writeLock) {
+            return mutationsSinceSnapshot;
+        }
+    }
+
+    // ===== 변경 레코드 =====
+
+    /**
+     * 변경 레코드 인코딩: [op:1][keyLength:4][key][value]
+     */
+    private static byte[] encode(byte op, Serializable key, byte[] value) {
+        byte[] keyBytes = serialize(key);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(5 + keyBytes.length + value.length);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(op);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            out.write(value);
+        } catch (IOException e) {
+            throw new RuntimeException("변경 레코드 인코딩 실패: " + e.getMessage(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 변경 레코드 재생
+     */
+    private void apply(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte op = in.readByte();
+            byte[] keyBytes = new byte[in.readInt()];
+            in.readFully(keyBytes);
+            K key = deserialize(keyBytes);
+
+            if (op == OP_PUT) {
+                byte[] value = new byte[record.length - 5 - keyBytes.length];
+                in.readFully(value);
+                entries.put(key, null, value);
+                if (replayedPuts != null) {
+                    replayedPuts.accept(key);
+                }
+            } else if (op == OP_REMOVE) {
+                entries.remove(key);
+            } else {
+                throw new IllegalStateException("알 수 없는 변경 레코드: " + op);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("변경 레코드 해석 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] serialize(Serializable value) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new RuntimeException("직렬화 실패: " + e.getMessage(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 직렬화된 값 복원 (Entries 구현에서 재생 중 받은 값을 풀 때도 사용)
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("역직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // ===== 기본 메모리 상태 (힙) =====
+
+    /**
+     * 키 → 직렬화된 값(byte[]) 또는 스냅샷에서 적재한 값(V, 외부에 노출하지 않음)
+     * 스냅샷에서 적재한 값은 처음 읽힐 때 바이트로 바꿈 (시작 시 전체를 다시 직렬화하지 않도록)
+     */
+    private static class HeapEntries<K, V extends Serializable> implements Entries<K, V> {
+
+        private final Map<K, Object> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public V get(K key) {
+            Object stored = entries.get(key);
+            if (stored == null) {
+                return null;
+            }
+            if (stored instanceof byte[]) {
+                return deserialize((byte[]) stored);
+            }
+
+            // 스냅샷에서 적재한 값: 바이트로 바꿔 두고 복사본 반환 (그 사이 다른 값이 저장됐으면 그대로 둠)
+            byte[] bytes = serialize((Serializable) stored);
+            entries.replace(key, stored, bytes);
+            return deserialize(bytes);
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public List<V> values() {
+            List<V> result = new ArrayList<>(entries.size());
+            for (Object stored : entries.values()) {
+                result.add(stored instanceof byte[]
+                        ? deserialize((byte[]) stored)
+                        : deserialize(serialize((Serializable) stored)));
+            }
+            return result;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void load(K key, V value) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public void put(K key, V value, byte[] serialized) {
+            entries.put(key, serialized);
+        }
+
+        @Override
+        public void remove(K key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public Supplier<List<V>> capture() {
+            List<Object> copy = new ArrayList<>(entries.values());
+
+            // 스냅샷 파일 기록용 (적재 후 손대지 않은 값은 복사 없이 그대로 사용)
+            return () -> {
+                List<V> values = new ArrayList<>(copy.size());
+                for (Object stored : copy) {
+                    values.add(stored instanceof byte[] ? deserialize((byte[]) stored) : cast(stored));
+                }
+                return values;
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private V cast(Object stored) {
+            return (V) stored;
+        }
+    }
+}
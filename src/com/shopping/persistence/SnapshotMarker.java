@@ -0,0 +1,41 @@
+package com.shopping.persistence;
+
+import java.io.Serializable;
+
+/**
+ * 저장소 스냅샷이 어디까지 반영했는지 기록하는 표식
+ *
+ * 스냅샷 데이터 파일을 모두 쓴 뒤에 저장되므로,
+ * 표식이 가리키는 세대부터 변경 기록을 재생하면 항상 최신 상태가 됨
+ */
+public class SnapshotMarker implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 스냅샷 이후 변경분이 시작되는 변경 기록 세대
+    private final long walGeneration;
+
+    // 스냅샷에 담긴 항목 수
+    private final int entryCount;
+
+    // 스냅샷 생성 시각
+    private final long createdAt;
+
+    public SnapshotMarker(long walGeneration, int entryCount) {
+        this.walGeneration = walGeneration;
+        this.entryCount = entryCount;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public long getWalGeneration() {
+        return walGeneration;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
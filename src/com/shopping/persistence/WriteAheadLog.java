@@ -0,0 +1,340 @@
+// ===============================================
+// WriteAheadLog.java - 변경 기록 로그 (스냅샷 이후 변경분)
+// ===============================================
+package com.shopping.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 저장소 변경을 데이터 파일보다 먼저 한 건씩 이어 붙이는 로그 (Write-Ahead Log)
+ *
+ * 세대(generation) 파일로 나뉨: prefix000001.wal, prefix000002.wal, ...
+ * - 스냅샷을 시작할 때 rotate()로 새 세대 파일을 만들고, 스냅샷이 저장되면 이전 세대를 삭제
+ *   (새 세대 파일은 비어 있어도 바로 만듦 → 다시 시작해도 세대 번호가 스냅샷 표식보다 뒤로 가지 않음)
+ * - 시작 시에는 스냅샷이 기록한 세대부터 끝까지만 재생 → 이력이 길어져도 복구 시간이 일정
+ *
+ * 기록 방식:
+ * - 현재 세대 파일은 처음 기록할 때 한 번 열어 계속 사용 (세대를 넘기거나 close() 할 때 닫음)
+ * - 추가한 레코드는 append가 반환되기 전에 디스크까지 내려씀(force) → 반환 후 메모리에 반영된 변경은 유실되지 않음
+ * - 쓰다가 실패하면 이번에 쓴 부분을 잘라냄 (다음 레코드가 깨진 레코드 뒤에 붙어 재생되지 않는 일이 없도록)
+ *
+ * 레코드 형식: [length:4][crc32:4][payload]
+ * - 마지막 레코드가 쓰다 말았거나 CRC가 맞지 않으면 그 앞까지만 유효 (마지막 세대는 잘라냄)
+ * - payload 해석은 사용하는 쪽(RecoverableStore)이 담당
+ */
+public class WriteAheadLog {
+
+    // 레코드 하나의 최대 크기 (길이 필드가 깨졌을 때 거대한 배열 할당 방지)
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final File directory;
+    private final String prefix;
+    private final Pattern fileNamePattern;
+
+    // 현재 기록 중인 세대
+    private long generation;
+
+    // 현재 세대 파일에 계속 열어 두는 추가 모드 스트림 (없으면 null)
+    private FileOutputStream out;
+
+    /**
+     * WriteAheadLog 생성자
+     * 기존 세대 파일 중 가장 큰 번호를 이어서 사용
+     *
+     * @param prefix 파일명 접두어 (data 디렉토리 기준, 예: "users-wal-")
+     */
+    public WriteAheadLog(String prefix) {
+        this.directory = FileManager.getDataFile(prefix).getAbsoluteFile().getParentFile();
+        this.prefix = prefix;
+        this.fileNamePattern = Pattern.compile(Pattern.quote(prefix) + "(\\d{6,})\\.wal");
+
+        List<Long> existing = new ArrayList<>(listGenerations().keySet());
+        this.generation = existing.isEmpty() ? 1 : existing.get(existing.size() - 1);
+    }
+
+    // ===== 쓰기 =====
+
+    /**
+     * 레코드 한 건 추가
+     * @param payload 레코드 내용
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public void append(byte[] payload) {
+        appendAll(Collections.singletonList(payload));
+    }
+
+    /**
+     * 레코드 여러 건을 한 번에 추가 (한 번의 write 후 한 번만 force)
+     * @param payloads 레코드 내용들
+     * @throws RuntimeException 파일 쓰기에 실패했을 때 (이번 레코드는 하나도 남지 않음)
+     */
+    public synchronized void appendAll(List<byte[]> payloads) {
+        byte[] records = encode(payloads);
+        File file = generationFile(generation);
+
+        long start = file.length();
+        try {
+            FileOutputStream stream = openForAppend(file);
+            stream.write(records);
+            stream.getChannel().force(false);
+        } catch (IOException e) {
+            closeQuietly();
+            discardFrom(file, start);
+            throw new RuntimeException("변경 기록 실패 (" + file.getName() + "): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 레코드 인코딩 ([length][crc32][payload] 반복)
+     */
+    private static byte[] encode(List<byte[]> payloads) {
+        int total = 0;
+        for (byte[] payload : payloads) {
+            if (payload.length > MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("변경 기록이 너무 큽니다: " + payload.length + " bytes");
+            }
+            total += 8 + payload.length;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(total);
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            CRC32 crc = new CRC32();
+            for (byte[] payload : payloads) {
+                crc.reset();
+                crc.update(payload);
+                data.writeInt(payload.length);
+                data.writeInt((int) crc.getValue());
+                data.write(payload);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("변경 기록 인코딩 실패: " + e.getMessage(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private FileOutputStream openForAppend(File file) throws IOException {
+        if (out == null) {
+            if (!directory.exists()) {
+                directory.mkdirs();
+            }
+            out = new FileOutputStream(file, true);
+        }
+        return out;
+    }
+
+    /**
+     * 열어 둔 세대 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("[WriteAheadLog] 변경 기록 파일 닫기 실패: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    /**
+     * 새 세대 시작 (빈 세대 파일을 만들고 이후 기록은 그 파일로)
+     * 스냅샷 직전에 호출하면, 반환된 세대부터가 스냅샷 이후의 변경분이 됨
+     *
+     * @return 새로 시작한 세대 번호
+     * @throws RuntimeException 새 세대 파일을 만들지 못했을 때 (세대는 그대로)
+     */
+    public synchronized long rotate() {
+        File file = generationFile(generation + 1);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        try {
+            file.createNewFile();
+        } catch (IOException e) {
+            throw new RuntimeException("변경 기록 세대 생성 실패 (" + file.getName() + "): " + e.getMessage(), e);
+        }
+        closeQuietly();
+        generation++;
+        return generation;
+    }
+
+    /**
+     * 지정 세대보다 오래된 세대 파일 삭제 (스냅샷 저장 후 호출)
+     * @param keepFrom 남길 첫 세대
+     * @return 삭제한 파일 수
+     */
+    public synchronized int deleteBefore(long keepFrom) {
+        int deleted = 0;
+        for (Map.Entry<Long, File> entry : listGenerations().headMap(keepFrom).entrySet()) {
+            if (entry.getValue().delete()) {
+                deleted++;
+            } else {
+                System.err.println("[WriteAheadLog] 이전 세대 삭제 실패: " + entry.getValue().getName());
+            }
+        }
+        return deleted;
+    }
+
+    // ===== 재생 =====
+
+    /**
+     * 지정 세대부터 끝까지 레코드 재생
+     * 마지막 세대의 잘린 꼬리는 잘라내므로 다른 쓰기보다 먼저 호출해야 함
+     *
+     * @param fromGeneration 재생을 시작할 세대 (스냅샷에 기록된 값, 처음이면 0)
+     * @param consumer 레코드 처리기
+     * @return 재생한 레코드 수
+     */
+    public synchronized int replay(long fromGeneration, Consumer<byte[]> consumer) {
+        // 잘린 꼬리를 잘라낼 수 있으므로 열어 둔 파일은 닫고 시작 (세대가 바뀌면 다음 기록 때 새로 열림)
+        closeQuietly();
+
+        // 표식의 세대 파일이 없더라도(이전 버전이 만든 데이터) 이후 기록은 표식 세대 이상에 쓰여야 재생됨
+        generation = Math.max(generation, fromGeneration);
+
+        TreeMap<Long, File> files = listGenerations();
+        int replayed = 0;
+
+        for (Map.Entry<Long, File> entry : files.tailMap(fromGeneration, true).entrySet()) {
+            File file = entry.getValue();
+            long[] validLength = {0};
+            replayed += readFile(file, validLength, consumer);
+
+            if (validLength[0] < file.length()) {
+                boolean last = entry.getKey().equals(files.lastKey());
+                System.err.println("[WriteAheadLog] 손상/잘린 레코드 발견: " + file.getName()
+                        + " (" + (file.length() - validLength[0]) + " bytes)");
+                if (last) {
+                    truncate(file, validLength[0]);
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * 파일 하나의 유효한 레코드를 순서대로 읽음
+     * @param validLength [0]에 마지막으로 온전히 읽힌 레코드의 끝 위치를 기록
+     * @return 읽은 레코드 수
+     */
+    private static int readFile(File file, long[] validLength, Consumer<byte[]> consumer) {
+        int count = 0;
+        long position = 0;
+        long fileLength = file.length();
+        CRC32 crc = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES || position + 8 + length > fileLength) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                position += 8 + length;
+                validLength[0] = position;
+                consumer.accept(payload);
+                count++;
+            }
+        } catch (EOFException e) {
+            // 파일 끝 (또는 잘린 마지막 레코드)
+        } catch (IOException e) {
+            throw new RuntimeException("변경 기록 읽기 실패 (" + file.getName() + "): " + e.getMessage(), e);
+        }
+        return count;
+    }
+
+    /**
+     * 실패한 기록이 일부만 쓰였으면 잘라냄 (잘라내지 못하면 로그만 남김)
+     */
+    private static void discardFrom(File file, long validLength) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > validLength) {
+                raf.setLength(validLength);
+            }
+        } catch (IOException e) {
+            System.err.println("[WriteAheadLog] 실패한 기록 정리 실패 (" + file.getName() + "): " + e.getMessage());
+        }
+    }
+
+    private static void truncate(File file, long validLength) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(validLength);
+        } catch (IOException e) {
+            throw new RuntimeException("변경 기록 복구 실패 (" + file.getName() + "): " + e.getMessage(), e);
+        }
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 현재 기록 중인 세대
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 남아 있는 세대 파일 크기 합 (바이트)
+     */
+    public synchronized long size() {
+        long total = 0;
+        for (File file : listGenerations().values()) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    /**
+     * 디렉토리의 세대 파일 목록 (세대 번호 순)
+     */
+    private TreeMap<Long, File> listGenerations() {
+        TreeMap<Long, File> result = new TreeMap<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = fileNamePattern.matcher(file.getName());
+                if (matcher.matches()) {
+                    result.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        return result;
+    }
+
+    private File generationFile(long generation) {
+        return new File(directory, String.format("%s%06d.wal", prefix, generation));
+    }
+}
@@ -0,0 +1,263 @@
+// ===============================================
+// CatalogSnapshot.java - 상품 카탈로그 불변 스냅샷
+// ===============================================
+package com.shopping.repository;
+
+import com.shopping.model.Product;
+import com.shopping.util.IntIntMap;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * 특정 시점의 상품 카탈로그 (불변, 버전 번호 포함)
+ *
+ * ProductRepository가 변경할 때마다 새 버전을 만들어 AtomicReference로 교체하고,
+ * 조회 쪽은 현재 버전을 잠금 없이 꺼내 읽음 (읽는 도중 바뀌지 않음)
+ *
+ * 구조:
+ * - 상품은 ID 순으로 CHUNK_SIZE개씩 묶은 조각 배열에 보관
+ * - 상품 ID → 위치 맵은 ID 구성이 같은 버전끼리 공유
+ * - 기존 상품만 바뀌면(재고 변경 등) 바뀐 상품이 든 조각과 조각 목록만 복사하고
+ *   나머지 조각은 이전 버전과 공유 (전체 복사 없음)
+ * - 새 ID가 추가되면 전체를 다시 만듦 (대량 등록 등 드문 경우)
+ *
+ * 스냅샷의 Product는 여러 버전과 조회 스레드가 공유하므로 넣을 때 읽기 전용 사본으로 바꿔 보관
+ * (수정하려 하면 예외, 재고를 바꿀 때는 ProductRepository.findById로 받은 복사본을 수정 후 update)
+ */
+public final class CatalogSnapshot {
+
+    // 조각 하나의 상품 수 (2의 거듭제곱)
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final long version;
+    private final int size;
+
+    // ID 순 상품 조각 (마지막 조각만 덜 찰 수 있음)
+    private final Product[][] chunks;
+
+    // 상품 ID → 위치 (공개 후에는 수정하지 않음)
+    private final IntIntMap positions;
+
+    // ID 순 읽기 전용 목록 (조각을 그대로 가리킴)
+    private final List<Product> products = new ProductList();
+
+    private CatalogSnapshot(long version, int size, Product[][] chunks, IntIntMap positions) {
+        this.version = version;
+        this.size = size;
+        this.chunks = chunks;
+        this.positions = positions;
+    }
+
+    /**
+     * 상품 목록으로 새 스냅샷 생성 (같은 ID가 여러 번 있으면 뒤의 것 사용)
+     * @param version 버전 번호
+     * @param source 상품들 (복사해서 보관하므로 이후에 수정해도 영향 없음)
+     */
+    static CatalogSnapshot of(long version, Collection<Product> source) {
+        IntIntMap latest = new IntIntMap(-1, source.size());
+        List<Product> sorted = new ArrayList<>(source.size());
+        for (Product product : source) {
+            int index = latest.get(product.getId());
+            if (index >= 0) {
+                sorted.set(index, product);
+            } else {
+                latest.put(product.getId(), sorted.size());
+                sorted.add(product);
+            }
+        }
+        sorted.sort(Comparator.comparingInt(Product::getId));
+
+        int size = sorted.size();
+        Product[][] chunks = new Product[(size + CHUNK_MASK) >> CHUNK_SHIFT][];
+        IntIntMap positions = new IntIntMap(-1, size);
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = new Product[Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT))];
+        }
+        for (int i = 0; i < size; i++) {
+            Product product = sorted.get(i);
+            chunks[i >> CHUNK_SHIFT][i & CHUNK_MASK] = copyOf(product);
+            positions.put(product.getId(), i);
+        }
+        return new CatalogSnapshot(version, size, chunks, positions);
+    }
+
+    /**
+     * 상품 변경을 반영한 다음 버전
+     * 모두 기존 ID면 바뀐 조각만 복사하고, 새 ID가 있으면 전체를 다시 만듦
+     *
+     * @param changed 저장된 상품들 (복사해서 보관)
+     * @return 다음 버전 스냅샷
+     */
+    CatalogSnapshot with(Collection<Product> changed) {
+        for (Product product : changed) {
+            if (positions.get(product.getId()) < 0) {
+                List<Product> merged = new ArrayList<>(size + changed.size());
+                merged.addAll(products);
+                merged.addAll(changed);
+                return of(version + 1, merged);
+            }
+        }
+
+        Product[][] next = chunks.clone();
+        boolean[] copied = new boolean[chunks.length];
+        for (Product product : changed) {
+            int index = positions.get(product.getId());
+            int c = index >> CHUNK_SHIFT;
+            if (!copied[c]) {
+                next[c] = next[c].clone();
+                copied[c] = true;
+            }
+            next[c][index & CHUNK_MASK] = copyOf(product);
+        }
+        return new CatalogSnapshot(version + 1, size, next, positions);
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 버전 번호 (변경할 때마다 1씩 증가)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * ID로 상품 조회
+     * @return 상품 (없으면 null, 읽기 전용)
+     */
+    public Product get(int id) {
+        int index = positions.get(id);
+        return index >= 0 ? chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK] : null;
+    }
+
+    /**
+     * 모든 상품 (ID 순, 읽기 전용, 복사 없음)
+     */
+    public List<Product> products() {
+        return products;
+    }
+
+    /**
+     * 조건에 맞는 상품 (ID 순)
+     * @param filter 조건
+     * @return 새 목록 (상품은 읽기 전용)
+     */
+    public List<Product> filter(Predicate<Product> filter) {
+        List<Product> result = new ArrayList<>();
+        for (Product[] chunk : chunks) {
+            for (Product product : chunk) {
+                if (filter.test(product)) {
+                    result.add(product);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * afterId 다음 ID부터 조건에 맞는 상품을 최대 limit개 (ID 순)
+     * 시작 위치는 이진 탐색으로 찾고, limit개를 채우면 더 읽지 않음
+     *
+     * @param afterId 이 ID보다 큰 상품부터 (처음부터면 0)
+     * @param limit 최대 개수
+     * @param filter 조건
+     * @return 새 목록 (상품은 읽기 전용)
+     */
+    public List<Product> after(int afterId, int limit, Predicate<Product> filter) {
+        List<Product> result = new ArrayList<>(Math.min(limit, size));
+        for (int i = firstIndexAfter(afterId); i < size && result.size() < limit; i++) {
+            Product product = chunks[i >> CHUNK_SHIFT][i & CHUNK_MASK];
+            if (filter.test(product)) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ID가 afterId보다 큰 첫 상품의 위치 (없으면 size)
+     */
+    private int firstIndexAfter(int afterId) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid >> CHUNK_SHIFT][mid & CHUNK_MASK].getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 스냅샷에 넣을 읽기 전용 사본 (이미 읽기 전용이면 그대로 공유)
+     */
+    private static Product copyOf(Product product) {
+        return product instanceof ReadOnlyProduct ? product : new ReadOnlyProduct(product);
+    }
+
+    /**
+     * 스냅샷이 보관하는 읽기 전용 상품
+     * 여러 버전과 조회 스레드가 같은 객체를 공유하므로, 받은 쪽이 재고를 바꾸려 하면 예외
+     * 직렬화하면 일반 Product로 기록 (저장 파일에 이 클래스가 남지 않도록)
+     */
+    private static final class ReadOnlyProduct extends Product {
+
+        private static final long serialVersionUID = 1L;
+
+        ReadOnlyProduct(Product product) {
+            super(product.getId(), product.getName(), product.getPrice(), product.getStock());
+        }
+
+        @Override
+        public void setStock(int stock) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean decreaseStock(int quantity) {
+            throw readOnly();
+        }
+
+        private IllegalStateException readOnly() {
+            return new IllegalStateException(
+                    "카탈로그 스냅샷의 상품은 수정할 수 없습니다 (findById로 받은 복사본을 수정 후 update): " + getId());
+        }
+
+        private Object writeReplace() {
+            return new Product(getId(), getName(), getPrice(), getStock());
+        }
+    }
+
+    /**
+     * 조각 배열을 그대로 가리키는 읽기 전용 목록
+     */
+    private final class ProductList extends AbstractList<Product> implements RandomAccess {
+
+        @Override
+        public Product get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+            }
+            return chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
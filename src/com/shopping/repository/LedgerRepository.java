@@ -0,0 +1,326 @@
+// ===============================================
+// LedgerRepository.java - 잔액 원장 + 메모리 잔액
+// ===============================================
+package com.shopping.repository;
+
+import com.shopping.model.LedgerEntry;
+import com.shopping.model.LedgerEntryType;
+import com.shopping.persistence.BalanceLedger;
+import com.shopping.persistence.BalanceSnapshot;
+import com.shopping.persistence.FileManager;
+import com.shopping.util.Constants;
+import com.shopping.util.StripedLock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 잔액 원장 Repository
+ *
+ * - 모든 잔액 변경은 BalanceLedger에 거래 레코드로 추가
+ * - 사용자별 현재 잔액은 메모리(ConcurrentHashMap)에 유지 → 조회는 파일을 읽지 않음
+ * - 일정 거래 수마다 잔액 스냅샷을 저장
+ *   시작 시: 스냅샷 적재 → 스냅샷 이후 원장만 재생
+ *
+ * 동시성 (저장소 전체를 잡는 잠금 없음):
+ * - 검증 → 원장 기록 → 메모리 반영은 관련 계좌의 분할 락만 잡음 (같은 계좌만 직렬화)
+ * - 원장 기록은 BalanceLedger의 그룹 커밋으로 다른 계좌의 기록과 묶여 한 번에 씀
+ * - 스냅샷은 진행 중인 기록이 끝날 때까지만 새 기록을 막고(쓰기 잠금) 잔액을 복사,
+ *   파일 저장은 잠금 밖에서 수행
+ */
+public class LedgerRepository {
+
+    private final BalanceLedger ledger;
+    private final String snapshotFile;
+    private final int snapshotInterval;
+
+    // 사용자 ID → 현재 잔액
+    private final Map<String, Double> balances = new ConcurrentHashMap<>();
+
+    // 계좌별 분할 락 (같은 계좌의 검증-기록-반영을 직렬화)
+    private final StripedLock accountLocks = new StripedLock(Constants.USER_LOCK_STRIPES);
+
+    // 기록은 읽기 잠금(여러 스레드 동시), 스냅샷 복사는 쓰기 잠금
+    // → 스냅샷 시점에는 원장에 기록된 거래가 모두 메모리에 반영되어 있음
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    // 스냅샷 파일 저장 중 표시 (한 번에 하나만 저장)
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    // 마지막 거래 번호
+    private final AtomicLong lastEntryId = new AtomicLong();
+
+    // 마지막 스냅샷 이후 기록된 거래 수
+    private final AtomicInteger entriesSinceSnapshot = new AtomicInteger();
+
+    /**
+     * LedgerRepository 생성자 (기본 파일 사용)
+     */
+    public LedgerRepository() {
+        this(new BalanceLedger(Constants.BALANCE_LEDGER_FILE),
+                Constants.BALANCE_SNAPSHOT_FILE, Constants.BALANCE_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * LedgerRepository 생성자
+     * @param ledger 잔액 원장
+     * @param snapshotFile 스냅샷 파일명
+     * @param snapshotInterval 스냅샷 간격 (거래 수)
+     */
+    public LedgerRepository(BalanceLedger ledger, String snapshotFile, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("스냅샷 간격은 양수여야 합니다: " + snapshotInterval);
+        }
+        this.ledger = ledger;
+        this.snapshotFile = snapshotFile;
+        this.snapshotInterval = snapshotInterval;
+        recover();
+    }
+
+    /**
+     * 스냅샷 + 원장 재생으로 메모리 잔액 복구
+     */
+    private void recover() {
+        long startOffset = 0;
+        BalanceSnapshot snapshot = FileManager.readObject(snapshotFile);
+        if (snapshot != null && snapshot.getLedgerOffset() <= ledger.size()) {
+            balances.putAll(snapshot.getBalances());
+            lastEntryId.set(snapshot.getLastEntryId());
+            startOffset = snapshot.getLedgerOffset();
+        }
+
+        int[] replayed = {0};
+        long validLength = ledger.scan(startOffset, entry -> {
+            balances.put(entry.getUserId(), entry.getBalanceAfter());
+            lastEntryId.accumulateAndGet(entry.getEntryId(), Math::max);
+            replayed[0]++;
+        });
+        ledger.truncate(validLength);
+        entriesSinceSnapshot.set(replayed[0]);
+
+        System.out.println("[LedgerRepository] 잔액 복구: 계좌 " + balances.size()
+                + "개, 원장 재생 " + replayed[0] + "건");
+    }
+
+    /**
+     * 계좌 존재 여부
+     */
+    public boolean hasAccount(String userId) {
+        return balances.containsKey(userId);
+    }
+
+    /**
+     * 현재 잔액
+     * @param userId 사용자 ID
+     * @return 잔액 (계좌가 없으면 null)
+     */
+    public Double getBalance(String userId) {
+        return balances.get(userId);
+    }
+
+    /**
+     * 계좌 개설 (이미 있으면 아무 일도 하지 않음)
+     * @param userId 사용자 ID
+     * @param initialBalance 시작 잔액
+     * @param memo 거래 설명
+     * @return 새로 개설했으면 true
+     */
+    public boolean openAccount(String userId, double initialBalance, String memo) {
+        Lock lock = accountLocks.get(userId);
+        lock.lock();
+        try {
+            if (balances.containsKey(userId)) {
+                return false;
+            }
+            postAll(Collections.singletonList(
+                    LedgerEntry.pending(userId, LedgerEntryType.CREDIT, initialBalance, memo)));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 잔액을 지정한 값으로 조정 (차액을 ADJUSTMENT 거래로 기록)
+     * @param userId 사용자 ID
+     * @param newBalance 새 잔액
+     * @param memo 거래 설명
+     * @return 기록된 거래
+     */
+    public LedgerEntry adjustTo(String userId, double newBalance, String memo) {
+        Lock lock = accountLocks.get(userId);
+        lock.lock();
+        try {
+            double current = balances.getOrDefault(userId, 0.0);
+            return post(LedgerEntry.pending(userId, LedgerEntryType.ADJUSTMENT, newBalance - current, memo));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 거래 한 건 기록
+     * @param pending 기록할 거래 (LedgerEntry.pending()으로 생성)
+     * @return 기록된 거래 (일련번호, 거래 후 잔액 포함)
+     * @throws IllegalStateException 잔액이 음수가 될 때
+     */
+    public LedgerEntry post(LedgerEntry pending) {
+        return postAll(Collections.singletonList(pending)).get(0);
+    }
+
+    /**
+     * 거래 여러 건을 한 번에 기록
+     * 모든 거래를 먼저 검증하고, 하나라도 잔액이 음수가 되면 아무것도 기록하지 않음
+     * 관련 계좌의 락만 잡으므로 다른 계좌의 기록과 동시에 진행됨
+     *
+     * @param pendingEntries 기록할 거래들
+     * @return 기록된 거래들 (입력 순서)
+     * @throws IllegalStateException 잔액이 음수가 될 때
+     */
+    public List<LedgerEntry> postAll(List<LedgerEntry> pendingEntries) {
+        Set<String> userIds = new HashSet<>();
+        for (LedgerEntry pending : pendingEntries) {
+            userIds.add(pending.getUserId());
+        }
+
+        List<LedgerEntry> committed;
+        List<Lock> locked = accountLocks.lockAll(userIds);
+        try {
+            snapshotLock.readLock().lock();
+            try {
+                committed = commit(pendingEntries);
+            } finally {
+                snapshotLock.readLock().unlock();
+            }
+        } finally {
+            StripedLock.unlockAll(locked);
+        }
+
+        if (entriesSinceSnapshot.addAndGet(committed.size()) >= snapshotInterval) {
+            snapshotIfIdle();
+        }
+        return committed;
+    }
+
+    /**
+     * 검증 → 원장 기록 → 메모리 반영 (관련 계좌 락 + 읽기 잠금 안에서 호출)
+     */
+    private List<LedgerEntry> commit(List<LedgerEntry> pendingEntries) {
+        Map<String, Double> working = new HashMap<>();
+        double[] afters = new double[pendingEntries.size()];
+        for (int i = 0; i < pendingEntries.size(); i++) {
+            LedgerEntry pending = pendingEntries.get(i);
+            String userId = pending.getUserId();
+            Double current = working.containsKey(userId) ? working.get(userId) : balances.get(userId);
+            double before = current == null ? 0 : current;
+            double after = before + pending.getAmount();
+            if (after < 0) {
+                throw new IllegalStateException(String.format(
+                        "잔액이 부족합니다. 필요 금액: %.0f원, 현재 잔액: %.0f원", -pending.getAmount(), before));
+            }
+            working.put(userId, after);
+            afters[i] = after;
+        }
+
+        // 검증을 통과한 뒤에 번호를 받음 (파일 기록이 실패하면 번호가 비지만, 복구는 최댓값만 사용)
+        long now = System.currentTimeMillis();
+        long entryId = lastEntryId.getAndAdd(pendingEntries.size());
+        List<LedgerEntry> committed = new ArrayList<>(pendingEntries.size());
+        for (int i = 0; i < pendingEntries.size(); i++) {
+            LedgerEntry pending = pendingEntries.get(i);
+            committed.add(new LedgerEntry(++entryId, pending.getUserId(), pending.getType(), pending.getAmount(),
+                    afters[i], now, pending.getMemo()));
+        }
+
+        // 파일에 먼저 기록한 뒤 메모리 반영 (기록 실패 시 잔액은 그대로)
+        ledger.append(committed);
+        balances.putAll(working);
+        return committed;
+    }
+
+    /**
+     * 사용자 거래 이력 (원장 전체를 순차 조회)
+     * @param userId 사용자 ID
+     * @return 거래 목록 (오래된 순)
+     */
+    public List<LedgerEntry> findByUserId(String userId) {
+        List<LedgerEntry> result = new ArrayList<>();
+        ledger.scan(0, entry -> {
+            if (entry.getUserId().equals(userId)) {
+                result.add(entry);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 현재 잔액 스냅샷 저장
+     * 진행 중인 기록이 끝날 때까지만 새 기록을 막고 잔액을 복사한 뒤, 파일은 잠금 밖에서 저장
+     */
+    public void snapshot() {
+        while (!snapshotting.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+        try {
+            writeSnapshot();
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    /**
+     * 다른 스레드가 스냅샷을 저장 중이 아닐 때만 저장 (기록 경로에서 호출, 기다리지 않음)
+     */
+    private void snapshotIfIdle() {
+        if (!snapshotting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (entriesSinceSnapshot.get() >= snapshotInterval) {
+                writeSnapshot();
+            }
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    private void writeSnapshot() {
+        BalanceSnapshot snapshot;
+        snapshotLock.writeLock().lock();
+        try {
+            snapshot = new BalanceSnapshot(balances, lastEntryId.get(), ledger.size());
+            entriesSinceSnapshot.set(0);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        FileManager.writeObject(snapshotFile, snapshot);
+        System.out.println("[LedgerRepository] 잔액 스냅샷 저장: 계좌 " + snapshot.getBalances().size()
+                + "개, 거래 #" + snapshot.getLastEntryId());
+    }
+
+    /**
+     * 마지막 거래 번호
+     */
+    public long getLastEntryId() {
+        return lastEntryId.get();
+    }
+
+    /**
+     * 원장 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        ledger.close();
+    }
+}
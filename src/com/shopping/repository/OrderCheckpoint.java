@@ -0,0 +1,84 @@
+package com.shopping.repository;
+
+import com.shopping.persistence.OrderLogSegment;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문 저장소 메모리 인덱스의 체크포인트
+ *
+ * 주문 로그 자체가 변경 기록 역할을 하므로, 체크포인트에는 로그를 처음부터 읽어야 얻을 수 있는
+ * 인덱스(세그먼트 메타데이터, 일자 인덱스, 사용자별 주문 ID, 취소 주문 ID)와 그 시점의 로그 끝 위치만 저장.
+ * 시작 시 체크포인트를 복원하고 logPosition 이후 레코드만 읽음
+ */
+class OrderCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 체크포인트가 반영한 로그 끝 위치
+    private final long logPosition;
+
+    // 세그먼트별 메타데이터 (ID 순)
+    private final ArrayList<OrderLogSegment.State> segments;
+
+    // 일자 인덱스
+    private final OrderDateIndex.State dateIndex;
+
+    // 사용자별 주문 ID (이 필드가 없던 구버전 체크포인트는 null)
+    private final OrderUserIndex.State userIndex;
+
+    // 취소된 주문 ID
+    private final int[] cancelledOrderIds;
+
+    // 생성 시각
+    private final long createdAt;
+
+    OrderCheckpoint(long logPosition, List<OrderLogSegment.State> segments,
+                    OrderDateIndex.State dateIndex, OrderUserIndex.State userIndex,
+                    int[] cancelledOrderIds) {
+        this.logPosition = logPosition;
+        this.segments = new ArrayList<>(segments);
+        this.dateIndex = dateIndex;
+        this.userIndex = userIndex;
+        this.cancelledOrderIds = cancelledOrderIds;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    long getLogPosition() {
+        return logPosition;
+    }
+
+    List<OrderLogSegment.State> getSegments() {
+        return segments;
+    }
+
+    OrderDateIndex.State getDateIndex() {
+        return dateIndex;
+    }
+
+    OrderUserIndex.State getUserIndex() {
+        return userIndex;
+    }
+
+    int[] getCancelledOrderIds() {
+        return cancelledOrderIds;
+    }
+
+    /**
+     * 체크포인트 시점의 가장 큰 주문 ID
+     */
+    int getMaxOrderId() {
+        int max = 0;
+        for (OrderLogSegment.State state : segments) {
+            if (state.getOrderCount() > 0) {
+                max = Math.max(max, state.getMaxOrderId());
+            }
+        }
+        return max;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+}
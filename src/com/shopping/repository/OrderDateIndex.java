@@ -0,0 +1,219 @@
+// ===============================================
+// OrderDateIndex.java - 주문 일자별 시계열 인덱스
+// ===============================================
+package com.shopping.repository;
+
+import com.shopping.model.DailySales;
+import com.shopping.model.Order;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 주문을 하루 단위 버킷으로 묶는 시계열 인덱스
+ *
+ * 버킷마다 보관하는 정보:
+ * - 해당 날짜 주문들의 로그 내 위치(offset) 목록
+ * - 주문 건수 / 판매 수량 / 매출 합계 (주문 추가·취소 시 증분 갱신)
+ *
+ * 날짜 범위 조회는 TreeMap.subMap()으로 필요한 버킷만 골라내고,
+ * 일별 매출은 버킷의 집계값만 읽으므로 전체 주문을 훑지 않음
+ *
+ * 날짜 경계는 시스템 기본 시간대 기준
+ */
+class OrderDateIndex {
+
+    private final ZoneId zone;
+
+    // epochDay → 버킷 (날짜 순 정렬)
+    private final TreeMap<Long, DayBucket> buckets = new TreeMap<>();
+
+    OrderDateIndex() {
+        this(ZoneId.systemDefault());
+    }
+
+    OrderDateIndex(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * 주문 추가 (집계 증분 갱신)
+     * @param order 추가된 주문
+     * @param offset 로그 내 레코드 위치
+     */
+    synchronized void add(Order order, long offset) {
+        long day = toEpochDay(order.getOrderTimestamp());
+        buckets.computeIfAbsent(day, d -> new DayBucket()).add(order, offset);
+    }
+
+    /**
+     * 주문 취소 반영 (집계에서 차감, 레코드 위치는 유지)
+     * @param order 취소된 주문
+     */
+    synchronized void cancel(Order order) {
+        DayBucket bucket = buckets.get(toEpochDay(order.getOrderTimestamp()));
+        if (bucket != null) {
+            bucket.cancel(order);
+        }
+    }
+
+    /**
+     * 로그 압축 후 레코드 위치 갱신 (위치 순서는 유지되므로 버킷 내 순서도 그대로)
+     * @param remap 압축 전 위치 → 압축 후 위치
+     */
+    synchronized void remap(LongUnaryOperator remap) {
+        for (DayBucket bucket : buckets.values()) {
+            for (int i = 0; i < bucket.size; i++) {
+                bucket.offsets[i] = remap.applyAsLong(bucket.offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * 현재 인덱스 복사본 (체크포인트 저장용)
+     */
+    synchronized State capture() {
+        TreeMap<Long, DayBucket> copy = new TreeMap<>();
+        for (Map.Entry<Long, DayBucket> entry : buckets.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return new State(zone.getId(), copy);
+    }
+
+    /**
+     * 체크포인트의 인덱스를 이 인덱스에 쓸 수 있는지 (시간대가 같아야 날짜 경계가 맞음)
+     */
+    boolean isCompatible(State state) {
+        return zone.getId().equals(state.zoneId);
+    }
+
+    /**
+     * 체크포인트의 인덱스로 교체
+     * @param state capture()로 뜬 상태 (isCompatible()이 true여야 함)
+     */
+    synchronized void restore(State state) {
+        if (!isCompatible(state)) {
+            throw new IllegalArgumentException("시간대가 다른 인덱스입니다: " + state.zoneId);
+        }
+        buckets.clear();
+        for (Map.Entry<Long, DayBucket> entry : state.buckets.entrySet()) {
+            buckets.put(entry.getKey(), entry.getValue().copy());
+        }
+    }
+
+    /**
+     * 기간 내 주문 레코드 위치 조회
+     * @param fromMillis 시작 시각 (포함, epoch 밀리초)
+     * @param toMillis 종료 시각 (미포함, epoch 밀리초)
+     * @return 로그 위치 배열 (오름차순)
+     */
+    synchronized long[] offsetsBetween(long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) {
+            return new long[0];
+        }
+
+        Map<Long, DayBucket> range = buckets.subMap(
+                toEpochDay(fromMillis), true, toEpochDay(toMillis - 1), true);
+
+        int total = 0;
+        for (DayBucket bucket : range.values()) {
+            total += bucket.size;
+        }
+
+        long[] result = new long[total];
+        int pos = 0;
+        for (DayBucket bucket : range.values()) {
+            System.arraycopy(bucket.offsets, 0, result, pos, bucket.size);
+            pos += bucket.size;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 기간 내 일별 매출 집계 조회 (주문이 있는 날만 포함)
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 날짜 순 일별 집계 목록
+     */
+    synchronized List<DailySales> dailySales(LocalDate from, LocalDate to) {
+        List<DailySales> result = new ArrayList<>();
+        for (Map.Entry<Long, DayBucket> entry
+                : buckets.subMap(from.toEpochDay(), true, to.toEpochDay(), true).entrySet()) {
+            DayBucket bucket = entry.getValue();
+            if (bucket.orderCount > 0) {
+                result.add(new DailySales(LocalDate.ofEpochDay(entry.getKey()),
+                        bucket.orderCount, bucket.quantity, bucket.revenue));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * epoch 밀리초 → epochDay (시간대 반영)
+     */
+    long toEpochDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * 체크포인트에 저장되는 인덱스 상태
+     */
+    static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String zoneId;
+        private final TreeMap<Long, DayBucket> buckets;
+
+        private State(String zoneId, TreeMap<Long, DayBucket> buckets) {
+            this.zoneId = zoneId;
+            this.buckets = buckets;
+        }
+    }
+
+    /**
+     * 하루치 주문 버킷
+     */
+    private static class DayBucket implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        long[] offsets = new long[8];
+        int size;
+        long orderCount;
+        long quantity;
+        double revenue;
+
+        void add(Order order, long offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+            orderCount++;
+            quantity += order.getQuantity();
+            revenue += order.getTotalPrice();
+        }
+
+        void cancel(Order order) {
+            orderCount--;
+            quantity -= order.getQuantity();
+            revenue -= order.getTotalPrice();
+        }
+
+        DayBucket copy() {
+            DayBucket copy = new DayBucket();
+            copy.offsets = Arrays.copyOf(offsets, Math.max(8, size));
+            copy.size = size;
+            copy.orderCount = orderCount;
+            copy.quantity = quantity;
+            copy.revenue = revenue;
+            return copy;
+        }
+    }
+}
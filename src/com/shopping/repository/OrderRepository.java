@@ -3,57 +3,367 @@
 // ===============================================
 package com.shopping.repository;
 
+import com.shopping.model.DailySales;
 import com.shopping.model.Order;
+import com.shopping.model.OrderStatus;
 import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderCursor;
+import com.shopping.persistence.OrderLog;
+import com.shopping.persistence.OrderLogSegment;
 import com.shopping.util.Constants;
+import com.shopping.util.IntIntMap;
+import com.shopping.util.UserIdDictionary;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
 
 /**
  * 주문 데이터 접근을 담당하는 Repository 클래스
  * 주문 ID 자동 생성 기능 포함
+ *
+ * 저장 방식:
+ * - 주문은 OrderLog(추가 전용 로그)에 한 건씩 덧붙여 저장
+ *   로그는 크기 제한이 있는 세그먼트 파일들로 나뉘고, 백그라운드 압축기가
+ *   봉인된 세그먼트의 주문 + 취소 레코드를 병합 (활성 세그먼트 추가 비용은 일정)
+ * - 조회는 OrderCursor로 파일을 순차 스트리밍 (전체 목록을 메모리에 올리지 않음)
+ * - 구버전 orders.dat(List 직렬화)가 있으면 최초 생성 시 로그로 이전
+ * - OrderDateIndex로 일자별 버킷과 일별 매출 집계를 메모리에 유지
+ * - 주문 취소는 취소 레코드를 추가로 기록하고, 취소된 주문 ID 집합을 메모리에 유지
+ * - 메모리 인덱스는 주기적으로 체크포인트(OrderCheckpoint)에 저장하고,
+ *   시작 시 체크포인트 복원 후 그 이후 로그만 읽음 (주문 이력이 길어져도 시작 시간이 일정)
  */
 public class OrderRepository {
 
     // 파일명 상수
-    private static final String FILE_NAME = Constants.ORDER_DATA_FILE;
+    private static final String LEGACY_FILE_NAME = Constants.ORDER_DATA_FILE;
+    private static final String LEGACY_LOG_FILE_NAME = Constants.ORDER_LOG_FILE;
 
     // 다음 주문 ID (static으로 관리)
     private static int nextOrderId = 1;
 
+    // 주문 로그 파일
+    private final OrderLog orderLog;
+
+    // 일자별 시계열 인덱스
+    private final OrderDateIndex dateIndex = new OrderDateIndex();
+
+    // 사용자 ID 사전 (UserRepository 소유, 조회 경로에서는 find()만 사용)
+    private final UserIdDictionary userIdDictionary;
+
+    // 사용자별 주문 ID (주문 내역 페이지 조회용)
+    private final OrderUserIndex userIndex;
+
+    // 취소된 주문 ID (취소는 드물기 때문에 전체를 메모리에 보관, 값은 쓰지 않음)
+    // 커서가 레코드마다 조회하므로 박싱 없는 맵 + 낙관적 읽기, 변경은 cancelLock 쓰기 락 안에서
+    private final IntIntMap cancelledOrderIds = new IntIntMap(0);
+    private final StampedLock cancelLock = new StampedLock();
+
+    // 로그 위치를 쓰는 조회(읽기 락)와 압축 후 위치 교체(쓰기 락) 사이의 일관성 보장
+    private final ReentrantReadWriteLock positionLock = new ReentrantReadWriteLock();
+
+    // 압축 횟수 (분석용 저장소가 읽은 위치를 다시 써도 되는지 확인할 때 사용)
+    private final AtomicLong compactionCount = new AtomicLong();
+
+    // 인덱스 체크포인트 파일명 (null이면 체크포인트 사용 안 함)
+    private final String checkpointFile;
+
+    // 마지막 체크포인트 이후 기록된 레코드 수
+    private final AtomicLong recordsSinceCheckpoint = new AtomicLong();
+
+    // 시작 시 인덱스 복구에 걸린 시간 (밀리초)
+    private long recoveryMillis;
+
+    /**
+     * OrderRepository 생성자 (기본 세그먼트 설정)
+     */
+    public OrderRepository() {
+        this(new UserIdDictionary());
+    }
+
+    /**
+     * OrderRepository 생성자 (기본 세그먼트 설정, 사용자 ID 사전 공유)
+     * @param userIdDictionary UserRepository의 사용자 ID 사전
+     */
+    public OrderRepository(UserIdDictionary userIdDictionary) {
+        this(new OrderLog(Constants.ORDER_SEGMENT_PREFIX, Constants.ORDER_SEGMENT_SUFFIX,
+                Constants.ORDER_SEGMENT_MAX_BYTES),
+                Constants.ORDER_CHECKPOINT_FILE, Constants.ORDER_COMPACTION_INTERVAL_MILLIS, userIdDictionary);
+    }
+
+    /**
+     * OrderRepository 생성자 (이 저장소만 쓰는 사용자 ID 사전)
+     *
+     * @param orderLog 주문 로그
+     * @param checkpointFile 인덱스 체크포인트 파일명 (null이면 사용 안 함)
+     * @param maintenanceIntervalMillis 압축/체크포인트 검사 간격 (0 이하면 자동 실행 안 함)
+     */
+    public OrderRepository(OrderLog orderLog, String checkpointFile, long maintenanceIntervalMillis) {
+        this(orderLog, checkpointFile, maintenanceIntervalMillis, new UserIdDictionary());
+    }
+
+    /**
+     * OrderRepository 생성자
+     * 구버전 데이터 이전, 잘린 레코드 복구, 인덱스 및 다음 주문 ID 구성을 수행하고
+     * 압축/체크포인트를 맡는 백그라운드 스레드를 시작
+     *
+     * @param orderLog 주문 로그
+     * @param checkpointFile 인덱스 체크포인트 파일명 (null이면 사용 안 함)
+     * @param maintenanceIntervalMillis 압축/체크포인트 검사 간격 (0 이하면 자동 실행 안 함)
+     * @param userIdDictionary 사용자 ID 사전
+     */
+    public OrderRepository(OrderLog orderLog, String checkpointFile, long maintenanceIntervalMillis,
+                           UserIdDictionary userIdDictionary) {
+        this.orderLog = orderLog;
+        this.checkpointFile = checkpointFile;
+        this.userIdDictionary = Objects.requireNonNull(userIdDictionary, "userIdDictionary는 필수입니다");
+        this.userIndex = new OrderUserIndex(userIdDictionary);
+        if (orderLog.adoptLegacyFile(LEGACY_LOG_FILE_NAME)) {
+            System.out.println("[OrderRepository] 단일 주문 로그를 세그먼트로 이전했습니다");
+        }
+        migrateLegacyFile();
+        loadIndexes();
+        if (maintenanceIntervalMillis > 0) {
+            startMaintenance(maintenanceIntervalMillis);
+        }
+    }
+
     /**
      * 주문 저장
+     * 로그 끝에 레코드 하나만 추가하므로 주문 수와 관계없이 비용이 일정
+     *
      * @param order 저장할 Order 객체
      * @return 저장된 Order 객체
      */
     public Order save(Order order) {
-        List<Order> orders = FileManager.readFromFile(FILE_NAME);
-
-        // 새 주문 추가
-        orders.add(order);
-
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, orders);
+        // 기록과 인덱스 반영 사이에 압축 교체/체크포인트가 끼어들지 않도록 읽기 락
+        positionLock.readLock().lock();
+        try {
+            long offset = orderLog.append(order);
+            dateIndex.add(order, offset);
+            userIndex.add(order);
+            recordsSinceCheckpoint.incrementAndGet();
+        } finally {
+            positionLock.readLock().unlock();
+        }
 
         // 다음 주문 ID 증가
-        nextOrderId++;
+        synchronized (OrderRepository.class) {
+            nextOrderId = Math.max(nextOrderId, order.getOrderId() + 1);
+        }
 
         return order;
     }
 
+    /**
+     * 주문 일괄 저장 (로그 파일에 한 번에 기록)
+     * @param orders 저장할 주문들
+     */
+    public void saveAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        int maxId = 0;
+        positionLock.readLock().lock();
+        try {
+            long[] offsets = orderLog.appendAll(orders);
+            for (int i = 0; i < offsets.length; i++) {
+                Order order = orders.get(i);
+                dateIndex.add(order, offsets[i]);
+                userIndex.add(order);
+                maxId = Math.max(maxId, order.getOrderId());
+            }
+            recordsSinceCheckpoint.addAndGet(offsets.length);
+        } finally {
+            positionLock.readLock().unlock();
+        }
+
+        synchronized (OrderRepository.class) {
+            nextOrderId = Math.max(nextOrderId, maxId + 1);
+        }
+    }
+
+    /**
+     * 주문 취소 기록
+     * 취소 레코드를 로그에 추가하고 일별 집계에서 차감
+     *
+     * @param order 취소할 주문
+     * @return 취소 상태가 반영된 Order
+     * @throws IllegalStateException 이미 취소된 주문일 때
+     */
+    public Order markCancelled(Order order) {
+        positionLock.readLock().lock();
+        try {
+            // 확인 → 기록 → 추가를 쓰기 락 하나로 묶음 (같은 주문의 취소 레코드가 두 번 기록되지 않도록)
+            // StampedLock은 재진입이 안 되므로 락 안에서는 isCancelled/addCancelled 대신 맵을 직접 사용
+            long stamp = cancelLock.writeLock();
+            try {
+                if (cancelledOrderIds.containsKey(order.getOrderId())) {
+                    throw new IllegalStateException("이미 취소된 주문입니다: " + order.getOrderId());
+                }
+                orderLog.appendCancel(order, System.currentTimeMillis());
+                cancelledOrderIds.putIfAbsent(order.getOrderId(), 1);
+            } finally {
+                cancelLock.unlockWrite(stamp);
+            }
+            dateIndex.cancel(order);
+            recordsSinceCheckpoint.incrementAndGet();
+        } finally {
+            positionLock.readLock().unlock();
+        }
+        return order.withStatus(OrderStatus.CANCELLED);
+    }
+
+    /**
+     * 취소된 주문 수
+     * 분석용 저장소가 마지막 적재 이후 취소가 있었는지 확인할 때 사용
+     *
+     * @return 취소 건수
+     */
+    public int getCancelledCount() {
+        long stamp = cancelLock.tryOptimisticRead();
+        int count = cancelledOrderIds.size();
+        if (cancelLock.validate(stamp)) {
+            return count;
+        }
+        stamp = cancelLock.readLock();
+        try {
+            return cancelledOrderIds.size();
+        } finally {
+            cancelLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 취소된 주문인지 확인 (할당 없음, 쓰기와 겹칠 때만 읽기 락)
+     */
+    private boolean isCancelled(int orderId) {
+        long stamp = cancelLock.tryOptimisticRead();
+        boolean cancelled = cancelledOrderIds.containsKey(orderId);
+        if (cancelLock.validate(stamp)) {
+            return cancelled;
+        }
+        stamp = cancelLock.readLock();
+        try {
+            return cancelledOrderIds.containsKey(orderId);
+        } finally {
+            cancelLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 취소된 주문 ID 추가
+     * @return 새로 추가했으면 true
+     */
+    private boolean addCancelled(int orderId) {
+        long stamp = cancelLock.writeLock();
+        try {
+            return cancelledOrderIds.putIfAbsent(orderId, 1);
+        } finally {
+            cancelLock.unlockWrite(stamp);
+        }
+    }
+
     /**
      * 사용자 ID로 주문 조회
      * @param userId 사용자 ID
      * @return 해당 사용자의 주문 목록
      */
     public List<Order> findByUserId(String userId) {
-        List<Order> orders = FileManager.readFromFile(FILE_NAME);
+        // 문자열 비교 대신 사전 키 비교 (키가 없으면 주문도 없음)
+        int userKey = findUserKey(userId);
+        if (userKey == UserIdDictionary.NO_KEY) {
+            return new ArrayList<>();
+        }
+        return findMatching(o -> o.getUserKey() == userKey);
+    }
 
-        // Stream API를 사용한 필터링
-        return orders.stream()
-                .filter(o -> o.getUserId().equals(userId))
-                .collect(Collectors.toList());
+    /**
+     * 사용자의 주문 내역 한 페이지 (최신순)
+     * 사용자별 주문 ID 인덱스에서 구간을 고르고 그 주문의 레코드만 읽으므로
+     * 사용자의 전체 주문 수나 로그 크기와 관계없이 비용이 limit에 비례
+     * (레코드 위치를 로그 순으로 정렬해 커서 하나로 건너뛰며 읽음)
+     *
+     * @param userId 사용자 ID
+     * @param beforeOrderId 이 주문 ID보다 이전 주문부터 (처음부터면 Integer.MAX_VALUE)
+     * @param limit 최대 개수
+     * @return 주문 목록 (주문 ID 내림차순)
+     */
+    public List<Order> findByUserIdBefore(String userId, int beforeOrderId, int limit) {
+        int userKey = findUserKey(userId);
+        if (userKey == UserIdDictionary.NO_KEY) {
+            return new ArrayList<>();
+        }
+        int[] orderIds = userIndex.idsBefore(userKey, beforeOrderId, limit);
+        if (orderIds.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // 위치 목록과 커서(세그먼트 목록)를 같은 압축 세대에서 얻음
+        long[] positions = new long[orderIds.length];
+        int found = 0;
+        OrderCursor opened;
+        positionLock.readLock().lock();
+        try {
+            for (int orderId : orderIds) {
+                long position = orderLog.locate(orderId);
+                if (position >= 0) {
+                    positions[found++] = position;
+                }
+            }
+            if (found == 0) {
+                return new ArrayList<>();
+            }
+            positions = Arrays.copyOf(positions, found);
+            Arrays.sort(positions);
+            opened = openCursor(positions[0]);
+        } finally {
+            positionLock.readLock().unlock();
+        }
+
+        List<Order> result = new ArrayList<>(found);
+        try (OrderCursor cursor = opened) {
+            for (long position : positions) {
+                cursor.seek(position);
+                if (!cursor.hasNext()) {
+                    break;
+                }
+                Order order = cursor.next();
+                if (cursor.currentOffset() == position) {
+                    result.add(order);
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(Order::getOrderId).reversed());
+        return result;
+    }
+
+    /**
+     * 사용자의 주문 수 (인덱스 조회, 로그를 읽지 않음)
+     * @param userId 사용자 ID
+     * @return 취소 주문을 포함한 주문 수
+     */
+    public int countByUserId(String userId) {
+        int userKey = findUserKey(userId);
+        return userKey == UserIdDictionary.NO_KEY ? 0 : userIndex.count(userKey);
+    }
+
+    /**
+     * 사용자 ID의 사전 키 (이 저장소 커서가 읽은 주문의 getUserKey와 비교할 때 사용)
+     * 조회만 하므로 없는 ID로 불러도 사전이 늘어나지 않음
+     *
+     * @param userId 사용자 ID
+     * @return 키 (주문이 없는 사용자거나 null이면 UserIdDictionary.NO_KEY)
+     */
+    public int findUserKey(String userId) {
+        return userIdDictionary.find(userId);
     }
 
     /**
@@ -62,12 +372,28 @@ public class OrderRepository {
      * @return Order 객체 (없으면 null)
      */
     public Order findById(int orderId) {
-        List<Order> orders = FileManager.readFromFile(FILE_NAME);
+        // 세그먼트 메타데이터(ID 범위 + 인덱스)로 위치를 찾아 레코드 하나만 읽음
+        OrderCursor cursor;
+        positionLock.readLock().lock();
+        try {
+            long position = orderLog.locate(orderId);
+            if (position < 0) {
+                return null;
+            }
+            cursor = openCursor(position);
+        } finally {
+            positionLock.readLock().unlock();
+        }
 
-        return orders.stream()
-                .filter(o -> o.getOrderId() == orderId)
-                .findFirst()
-                .orElse(null);
+        try (OrderCursor opened = cursor) {
+            if (opened.hasNext()) {
+                Order order = opened.next();
+                if (order.getOrderId() == orderId) {
+                    return order;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -75,24 +401,312 @@ public class OrderRepository {
      * @return 사용 가능한 다음 주문 ID
      */
     public int getNextOrderId() {
-        List<Order> orders = FileManager.readFromFile(FILE_NAME);
-
-        // 파일에 주문이 있으면 최대값 + 1로 설정
-        if (!orders.isEmpty()) {
-            nextOrderId = orders.stream()
-                    .mapToInt(Order::getOrderId)
-                    .max()
-                    .orElse(0) + 1;
+        synchronized (OrderRepository.class) {
+            return nextOrderId;
         }
+    }
 
-        return nextOrderId;
+    /**
+     * 주문 ID 발급 (발급한 ID는 다른 호출자에게 다시 주지 않음)
+     * @return 새 주문 ID
+     */
+    public int allocateOrderId() {
+        synchronized (OrderRepository.class) {
+            return nextOrderId++;
+        }
     }
 
     /**
      * 모든 주문 조회
+     * 주문 수에 비례하는 메모리가 필요하므로 대량 처리에는 openCursor() 사용 권장
+     *
      * @return 전체 주문 목록
      */
     public List<Order> findAll() {
-        return FileManager.readFromFile(FILE_NAME);
+        return findMatching(o -> true);
+    }
+
+    /**
+     * 기간별 주문 조회
+     * 해당 기간의 일자 버킷에 속한 레코드만 읽음
+     *
+     * @param fromMillis 시작 시각 (포함, epoch 밀리초)
+     * @param toMillis 종료 시각 (미포함, epoch 밀리초)
+     * @return 기간 내 주문 목록 (저장 순)
+     */
+    public List<Order> findByDateRange(long fromMillis, long toMillis) {
+        // 위치 목록과 커서(세그먼트 목록)를 같은 압축 세대에서 얻음
+        long[] offsets;
+        OrderCursor opened;
+        positionLock.readLock().lock();
+        try {
+            offsets = dateIndex.offsetsBetween(fromMillis, toMillis);
+            if (offsets.length == 0) {
+                return new ArrayList<>();
+            }
+            opened = openCursor(offsets[0]);
+        } finally {
+            positionLock.readLock().unlock();
+        }
+
+        // 첫 레코드 위치부터 마지막 레코드 위치까지만 순차 읽기
+        List<Order> result = new ArrayList<>(offsets.length);
+        long lastOffset = offsets[offsets.length - 1];
+        try (OrderCursor cursor = opened) {
+            while (cursor.hasNext()) {
+                Order order = cursor.next();
+                long offset = cursor.currentOffset();
+                if (offset > lastOffset) {
+                    break;
+                }
+                if (Arrays.binarySearch(offsets, offset) >= 0
+                        && order.getOrderTimestamp() >= fromMillis
+                        && order.getOrderTimestamp() < toMillis) {
+                    result.add(order);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 일별 매출 집계 조회
+     * 주문 저장 시 증분 갱신된 집계값을 반환하므로 주문 로그를 읽지 않음
+     *
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 주문이 있는 날의 일별 집계 목록 (날짜 순)
+     */
+    public List<DailySales> getDailySales(LocalDate from, LocalDate to) {
+        return dateIndex.dailySales(from, to);
+    }
+
+    /**
+     * 전체 주문을 순차적으로 읽는 커서 열기
+     * 사용 후 반드시 close() 해야 함 (try-with-resources 권장)
+     *
+     * @return 주문 커서
+     */
+    public OrderCursor openCursor() {
+        return openCursor(0);
+    }
+
+    /**
+     * 지정한 로그 위치부터 읽는 커서 열기
+     * 이전에 읽은 위치(OrderCursor.validLength())부터 새 주문만 읽을 때 사용
+     *
+     * @param startOffset 시작 위치
+     * @return 주문 커서
+     */
+    public OrderCursor openCursor(long startOffset) {
+        return orderLog.openCursor(startOffset, this::isCancelled, userIdDictionary);
+    }
+
+    /**
+     * 주문 로그 압축
+     * 봉인된 세그먼트의 주문 + 취소 레코드를 병합하고, 일자 인덱스의 위치를 새 세그먼트 기준으로 갱신
+     *
+     * @return 병합한 주문 수
+     */
+    public int compact() {
+        OrderLog.Compaction compaction = orderLog.compact(result -> {
+            positionLock.writeLock().lock();
+            try {
+                result.commit();
+                dateIndex.remap(result::remap);
+                compactionCount.incrementAndGet();
+            } finally {
+                positionLock.writeLock().unlock();
+            }
+        });
+        if (compaction == null) {
+            return 0;
+        }
+
+        System.out.println("[OrderRepository] 주문 로그 압축: 취소 " + compaction.getMergedCount()
+                + "건 병합, 세그먼트 " + compaction.getRewrittenSegmentCount() + "개 재기록");
+
+        // 압축 전 체크포인트는 세그먼트 세대가 달라 더 이상 쓸 수 없으므로 바로 새로 저장
+        checkpoint();
+        return compaction.getMergedCount();
+    }
+
+    /**
+     * 인덱스 체크포인트 저장
+     * 쓰기 락 안에서 인덱스를 복사하고(추가가 잠시 멈춤), 파일 기록은 락 밖에서 수행
+     *
+     * @return 저장했으면 true
+     */
+    public boolean checkpoint() {
+        if (checkpointFile == null) {
+            return false;
+        }
+
+        OrderCheckpoint checkpoint;
+        positionLock.writeLock().lock();
+        try {
+            int[] cancelled;
+            long stamp = cancelLock.readLock();
+            try {
+                cancelled = cancelledOrderIds.keys();
+            } finally {
+                cancelLock.unlockRead(stamp);
+            }
+            checkpoint = new OrderCheckpoint(orderLog.getEndPosition(), orderLog.captureSegments(),
+                    dateIndex.capture(), userIndex.capture(), cancelled);
+            recordsSinceCheckpoint.set(0);
+        } finally {
+            positionLock.writeLock().unlock();
+        }
+
+        if (!FileManager.writeObject(checkpointFile, checkpoint)) {
+            System.err.println("[OrderRepository] 체크포인트 저장 실패");
+            return false;
+        }
+        System.out.println("[OrderRepository] 체크포인트 저장: 세그먼트 " + checkpoint.getSegments().size()
+                + "개, 취소 " + checkpoint.getCancelledOrderIds().length + "건");
+        return true;
+    }
+
+    /**
+     * 시작 시 인덱스 복구에 걸린 시간 (밀리초)
+     */
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    /**
+     * 지금까지의 압축 횟수
+     */
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    /**
+     * 주문 로그 세그먼트 목록 (메타데이터 조회용)
+     */
+    public List<OrderLogSegment> getSegments() {
+        return orderLog.getSegments();
+    }
+
+    /**
+     * 열어 둔 주문 로그 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        orderLog.close();
+    }
+
+    /**
+     * 백그라운드 유지보수 스레드 시작 (데몬 스레드)
+     * - 병합 대기 중인 취소 레코드가 기준 이상이면 압축 (압축 후 체크포인트도 저장됨)
+     * - 아니면 체크포인트 이후 레코드가 기준 이상일 때 체크포인트 저장
+     */
+    private void startMaintenance(long intervalMillis) {
+        Thread maintenance = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalMillis);
+                    if (orderLog.getPendingCancelCount() >= Constants.ORDER_COMPACTION_MIN_CANCELS) {
+                        compact();
+                    } else if (recordsSinceCheckpoint.get() >= Constants.ORDER_CHECKPOINT_MIN_RECORDS) {
+                        checkpoint();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    System.err.println("[OrderRepository] 주문 로그 유지보수 실패: " + e.getMessage());
+                }
+            }
+        }, "order-log-maintenance");
+        maintenance.setDaemon(true);
+        maintenance.start();
+    }
+
+    /**
+     * 조건에 맞는 주문만 모아서 반환 (스트리밍 필터링)
+     */
+    private List<Order> findMatching(Predicate<Order> condition) {
+        List<Order> result = new ArrayList<>();
+        try (OrderCursor cursor = openCursor()) {
+            for (Order order : cursor) {
+                if (condition.test(order)) {
+                    result.add(order);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 일자 인덱스 구성 및 다음 주문 ID 계산
+     * 체크포인트가 디스크의 세그먼트와 맞으면 복원 후 그 이후 레코드만 읽고, 아니면 로그 전체를 훑음
+     * (세그먼트 메타데이터 구성과 잘린 레코드 복구도 같은 순회에서 수행)
+     */
+    private void loadIndexes() {
+        long start = System.nanoTime();
+        int[] maxId = {0};
+        long fromPosition = 0;
+
+        OrderCheckpoint checkpoint = checkpointFile == null ? null : FileManager.readObject(checkpointFile);
+        if (checkpoint != null) {
+            // 사용자별 인덱스가 없는 구버전 체크포인트는 처음부터 복구해 인덱스를 채움
+            if (dateIndex.isCompatible(checkpoint.getDateIndex())
+                    && checkpoint.getUserIndex() != null
+                    && orderLog.restoreSegments(checkpoint.getSegments())) {
+                dateIndex.restore(checkpoint.getDateIndex());
+                userIndex.restore(checkpoint.getUserIndex());
+                for (int orderId : checkpoint.getCancelledOrderIds()) {
+                    addCancelled(orderId);
+                }
+                maxId[0] = checkpoint.getMaxOrderId();
+                fromPosition = checkpoint.getLogPosition();
+            } else {
+                System.out.println("[OrderRepository] 체크포인트가 현재 로그와 맞지 않아 처음부터 복구합니다");
+            }
+        }
+
+        int replayed = orderLog.recover(new OrderLog.Visitor() {
+            @Override
+            public void onOrder(Order order, long offset) {
+                maxId[0] = Math.max(maxId[0], order.getOrderId());
+                dateIndex.add(order, offset);
+                userIndex.add(order);
+            }
+
+            @Override
+            public void onCancel(Order order, long cancelledAt) {
+                // 압축 도중 종료되면 같은 취소가 두 번 보일 수 있으므로 처음 한 번만 반영
+                if (addCancelled(order.getOrderId())) {
+                    dateIndex.cancel(order);
+                }
+            }
+        }, fromPosition);
+        recordsSinceCheckpoint.set(replayed);
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("[OrderRepository] 인덱스 복구: " + (fromPosition > 0 ? "체크포인트 + " : "")
+                + "로그의 주문 " + replayed + "건 읽음 (" + recoveryMillis + "ms)");
+
+        synchronized (OrderRepository.class) {
+            nextOrderId = Math.max(nextOrderId, maxId[0] + 1);
+        }
+    }
+
+    /**
+     * 구버전 orders.dat → orders.log 이전
+     * 로그가 비어 있을 때만 수행하고, 이전 후 구버전 파일은 삭제
+     */
+    private void migrateLegacyFile() {
+        if (orderLog.exists() || !FileManager.getDataFile(LEGACY_FILE_NAME).exists()) {
+            return;
+        }
+
+        List<Order> legacyOrders = FileManager.readFromFile(LEGACY_FILE_NAME);
+        for (Order order : legacyOrders) {
+            orderLog.append(order);
+        }
+        FileManager.deleteFile(LEGACY_FILE_NAME);
+
+        System.out.println("[OrderRepository] 구버전 주문 데이터 이전 완료: " + legacyOrders.size() + "건");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+// ===============================================
+// OrderUserIndex.java - 사용자별 주문 ID 인덱스
+// ===============================================
+package com.shopping.repository;
+
+import com.shopping.model.Order;
+import com.shopping.util.IntObjectMap;
+import com.shopping.util.UserIdDictionary;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 사용자별 주문 ID 목록 (오름차순)
+ *
+ * 주문 내역을 페이지 단위로 볼 때 로그 전체를 훑지 않고,
+ * 이 목록에서 요청한 구간의 주문 ID만 골라 해당 레코드만 읽기 위한 인덱스
+ * - 사용자는 UserIdDictionary 키로 구분 (체크포인트에는 사용자 ID 문자열로 저장)
+ *   주문을 추가할 때 그 사용자의 키를 발급하므로, 주문이 있는 사용자는 항상 사전에 키가 있음
+ * - 주문 ID는 압축해도 바뀌지 않으므로 위치 갱신(remap)이 필요 없음
+ * - 취소된 주문도 내역에 보이므로 목록에서 빼지 않음
+ */
+class OrderUserIndex {
+
+    // 사용자 키 → 주문 ID 목록
+    private final IntObjectMap<IdList> byUser = new IntObjectMap<>();
+
+    // 사용자 ID 사전 (OrderRepository와 공유)
+    private final UserIdDictionary dictionary;
+
+    OrderUserIndex(UserIdDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * 주문 추가 (이미 있는 주문 ID면 무시)
+     * @param order 추가된 주문
+     */
+    synchronized void add(Order order) {
+        int userKey = dictionary.keyOf(order.getUserId());
+        IdList ids = byUser.get(userKey);
+        if (ids == null) {
+            ids = new IdList();
+            byUser.put(userKey, ids);
+        }
+        ids.add(order.getOrderId());
+    }
+
+    /**
+     * beforeOrderId보다 작은 주문 ID를 최신순으로 최대 limit개
+     * @param userKey 사용자 키
+     * @param beforeOrderId 이 ID보다 작은 주문부터 (처음부터면 Integer.MAX_VALUE)
+     * @param limit 최대 개수
+     * @return 주문 ID 배열 (내림차순)
+     */
+    synchronized int[] idsBefore(int userKey, int beforeOrderId, int limit) {
+        IdList ids = byUser.get(userKey);
+        if (ids == null) {
+            return new int[0];
+        }
+        int end = ids.indexOf(beforeOrderId);   // beforeOrderId 이상인 첫 위치
+        int count = Math.min(limit, end);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids.ids[end - 1 - i];
+        }
+        return result;
+    }
+
+    /**
+     * 사용자의 주문 수
+     */
+    synchronized int count(int userKey) {
+        IdList ids = byUser.get(userKey);
+        return ids == null ? 0 : ids.size;
+    }
+
+    /**
+     * 현재 인덱스 복사본 (체크포인트 저장용)
+     */
+    synchronized State capture() {
+        HashMap<String, int[]> copy = new HashMap<>(byUser.size() * 2);
+        byUser.forEach((userKey, ids) -> {
+            if (userKey != UserIdDictionary.NO_KEY) {
+                copy.put(dictionary.userIdOf(userKey), Arrays.copyOf(ids.ids, ids.size));
+            }
+        });
+        return new State(copy);
+    }
+
+    /**
+     * 체크포인트의 인덱스로 교체
+     * @param state capture()로 뜬 상태
+     */
+    synchronized void restore(State state) {
+        byUser.clear();
+        for (Map.Entry<String, int[]> entry : state.orderIds.entrySet()) {
+            IdList ids = new IdList();
+            ids.ids = entry.getValue().clone();
+            ids.size = ids.ids.length;
+            byUser.put(dictionary.keyOf(entry.getKey()), ids);
+        }
+    }
+
+    /**
+     * 체크포인트에 저장되는 인덱스 상태
+     */
+    static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // 사용자 ID → 주문 ID (오름차순)
+        private final HashMap<String, int[]> orderIds;
+
+        private State(HashMap<String, int[]> orderIds) {
+            this.orderIds = orderIds;
+        }
+    }
+
+    /**
+     * 정렬된 주문 ID 목록 (대부분 끝에 추가되고, 순서가 어긋난 저장만 중간에 삽입)
+     */
+    private static class IdList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int orderId) {
+            int index = size > 0 && ids[size - 1] < orderId ? size : indexOf(orderId);
+            if (index < size && ids[index] == orderId) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = orderId;
+            size++;
+        }
+
+        /**
+         * orderId 이상인 첫 위치 (없으면 size)
+         */
+        int indexOf(int orderId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] < orderId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -5,22 +5,92 @@ package com.shopping.repository;
 
 import com.shopping.model.Product;
 import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OffHeapProductTable;
+import com.shopping.persistence.RecoverableStore;
+import com.shopping.persistence.WriteAheadLog;
 import com.shopping.util.Constants;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 상품 데이터 접근을 담당하는 Repository 클래스
  * 초기 데이터 생성 기능 포함
+ *
+ * 상품 상태는 메모리에 두고 변경은 변경 기록(products-wal-NNNNNN.wal)에 추가,
+ * 일정 변경 수마다 products.dat에 스냅샷 저장 (RecoverableStore)
+ *
+ * 힙 밖 모드(Constants.PRODUCT_OFF_HEAP_ENABLED)에서는 메모리 상태를 OffHeapProductTable에 둠
+ * (파일 형식은 같으므로 모드를 바꿔도 그대로 이어서 사용)
+ *
+ * 목록/검색용 조회는 불변 카탈로그 스냅샷(CatalogSnapshot)을 잠금 없이 읽음:
+ * - 변경할 때마다 저장 후 다음 버전을 만들어 AtomicReference로 교체 (변경끼리는 catalogLock으로 순서 보장)
+ * - 재고 변경처럼 기존 상품만 바뀌면 바뀐 조각만 복사하고 나머지는 이전 버전과 공유
+ * - 힙 밖 모드에서는 변경할 때 스냅샷을 버리고, 다음 조회에서 한 번만 표에서 만들어 다음 변경까지 재사용
+ * - 스냅샷의 상품은 읽기 전용 사본 (받은 쪽이 고쳐도 다른 조회에 보이지 않음)
  */
 public class ProductRepository {
 
     // 파일명 상수
     private static final String FILE_NAME = Constants.PRODUCT_DATA_FILE;
 
+    // 상품 ID → 상품 (스냅샷 = products.dat)
+    private final RecoverableStore<Integer, Product> store;
+
+    // 힙 밖 모드일 때의 메모리 상태 (힙 모드면 null)
+    private final OffHeapProductTable offHeapTable;
+
+    // 현재 카탈로그 스냅샷 (힙 밖 모드에서는 변경 후 첫 조회 전까지 null)
+    private final AtomicReference<CatalogSnapshot> catalog = new AtomicReference<>();
+
+    // 힙 밖 모드의 카탈로그 버전 (catalogLock 안에서만 사용)
+    private long offHeapCatalogVersion;
+
+    // 저장 + 스냅샷 교체를 한 단위로 묶는 잠금 (읽기에는 쓰지 않음)
+    private final Object catalogLock = new Object();
+
+    /**
+     * ProductRepository 생성자
+     * products.dat 스냅샷 + 변경 기록으로 상품 상태 복구
+     */
+    public ProductRepository() {
+        this(Constants.PRODUCT_OFF_HEAP_ENABLED);
+    }
+
+    /**
+     * ProductRepository 생성자 (메모리 상태 보관 방식 지정)
+     * @param offHeap true면 상품을 힙 밖(direct ByteBuffer)에 보관
+     */
+    public ProductRepository(boolean offHeap) {
+        this.offHeapTable = offHeap ? new OffHeapProductTable() : null;
+        this.store = new RecoverableStore<>("products",
+                new WriteAheadLog(Constants.PRODUCT_WAL_PREFIX),
+                Constants.PRODUCT_SNAPSHOT_MARKER_FILE,
+                new RecoverableStore.SnapshotFiles<Product>() {
+                    @Override
+                    public List<Product> read() {
+                        return FileManager.readFromFile(FILE_NAME);
+                    }
+
+                    @Override
+                    public boolean write(List<Product> products) {
+                        products.sort(Comparator.comparingInt(Product::getId));
+                        return FileManager.writeToFile(FILE_NAME, products);
+                    }
+                },
+                Product::getId,
+                Constants.PRODUCT_SNAPSHOT_INTERVAL,
+                offHeapTable != null ? offHeapTable : RecoverableStore.heapEntries());
+        if (offHeapTable == null) {
+            catalog.set(CatalogSnapshot.of(0, store.values()));
+        }
+    }
+
     /**
      * 초기 상품 데이터 생성
-     * 파일이 없거나 비어있을 때 기본 상품 목록 생성
+     * 상품이 하나도 없을 때 기본 상품 목록 생성
      */
     public void initializeProducts() {
         List<Product> products = new ArrayList<>();
@@ -35,36 +105,70 @@ public class ProductRepository {
         products.add(new Product(7, "USB 메모리", 25000, 80));
         products.add(new Product(8, "외장 하드", 150000, 25));
 
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, products);
+        // 저장 후 바로 스냅샷 (기본 목록은 products.dat에도 남김)
+        saveAll(products);
+        store.snapshot();
     }
 
     /**
-     * 모든 상품 조회
+     * 상품이 하나도 없으면 기본 상품 목록 생성
+     * 시작 시 예열 스레드와 첫 요청이 동시에 불러도 한 번만 생성
+     */
+    public void ensureInitialized() {
+        if (store.size() > 0) {
+            return;
+        }
+        synchronized (this) {
+            if (store.size() == 0) {
+                initializeProducts();
+            }
+        }
+    }
+
+    /**
+     * 모든 상품 조회 (ID 순)
      * @return 상품 목록
      */
     public List<Product> findAll() {
-        List<Product> products = FileManager.readFromFile(FILE_NAME);
-
         // 상품이 없으면 초기화
-        if (products.isEmpty()) {
-            initializeProducts();
-            products = FileManager.readFromFile(FILE_NAME);
-        }
+        ensureInitialized();
 
+        List<Product> products = store.values();
+        products.sort(Comparator.comparingInt(Product::getId));
         return products;
     }
 
     /**
-     * ID로 상품 조회
+     * 현재 카탈로그 스냅샷 (잠금 없음, 목록/검색용)
+     * 받은 스냅샷은 이후 변경이 있어도 바뀌지 않으며, 상품을 수정하면 안 됨
+     * @return 카탈로그 스냅샷
+     */
+    public CatalogSnapshot catalog() {
+        ensureInitialized();
+        CatalogSnapshot current = catalog.get();
+        if (current != null) {
+            return current;
+        }
+
+        // 힙 밖 모드: 마지막 변경 이후 처음 조회할 때만 표에서 만듦 (변경과 겹치지 않도록 catalogLock 안에서)
+        synchronized (catalogLock) {
+            current = catalog.get();
+            if (current == null) {
+                current = CatalogSnapshot.of(offHeapCatalogVersion, store.values());
+                catalog.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * ID로 상품 조회 (수정해도 되는 복사본)
      * @param id 상품 ID
      * @return Product 객체 (없으면 null)
      */
     public Product findById(int id) {
-        return findAll().stream()
-                .filter(p -> p.getId() == id)
-                .findFirst()
-                .orElse(null);
+        ensureInitialized();
+        return store.get(id);
     }
 
     /**
@@ -72,19 +176,10 @@ public class ProductRepository {
      * @param product 업데이트할 Product 객체
      */
     public void update(Product product) {
-        List<Product> products = findAll();
-
-        // 기존 상품 제거
-        products.removeIf(p -> p.getId() == product.getId());
-
-        // 업데이트된 상품 추가
-        products.add(product);
-
-        // ID 순으로 정렬
-        products.sort((p1, p2) -> Integer.compare(p1.getId(), p2.getId()));
-
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, products);
+        synchronized (catalogLock) {
+            store.put(product);
+            publish(List.of(product));
+        }
     }
 
     /**
@@ -93,17 +188,64 @@ public class ProductRepository {
      * @return 저장된 Product 객체
      */
     public Product save(Product product) {
-        List<Product> products = findAll();
+        update(product);
+        return product;
+    }
 
-        // 새 상품 추가
-        products.add(product);
+    /**
+     * 상품 일괄 저장 (대량 등록용)
+     * 같은 ID가 있으면 새 상품으로 덮어쓰고, 변경 기록 파일은 한 번만 엶
+     *
+     * @param newProducts 저장할 상품들
+     * @return 저장 후 전체 상품 수
+     */
+    public int saveAll(Collection<Product> newProducts) {
+        synchronized (catalogLock) {
+            store.putAll(newProducts);
+            publish(newProducts);
+            return store.size();
+        }
+    }
 
-        // ID 순으로 정렬
-        products.sort((p1, p2) -> Integer.compare(p1.getId(), p2.getId()));
+    /**
+     * 변경된 상품을 반영한 다음 카탈로그 버전 공개 (catalogLock 안에서 호출)
+     */
+    private void publish(Collection<Product> changed) {
+        if (offHeapTable == null) {
+            catalog.set(catalog.get().with(changed));
+        } else {
+            offHeapCatalogVersion++;
+            catalog.set(null);
+        }
+    }
 
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, products);
+    /**
+     * products.dat에 스냅샷 저장 (반영된 변경 기록은 삭제)
+     * @return 저장했으면 true
+     */
+    public boolean snapshot() {
+        return store.snapshot();
+    }
 
-        return product;
+    /**
+     * 열어 둔 변경 기록 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * 시작 시 복구에 걸린 시간 (밀리초)
+     */
+    public long getRecoveryMillis() {
+        return store.getRecoveryMillis();
+    }
+
+    /**
+     * 힙 밖에 할당한 바이트 수
+     * @return 바이트 수 (힙 모드면 0)
+     */
+    public long getOffHeapBytes() {
+        return offHeapTable != null ? offHeapTable.getOffHeapBytes() : 0;
     }
 }
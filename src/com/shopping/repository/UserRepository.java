@@ -5,18 +5,111 @@ package com.shopping.repository;
 
 import com.shopping.model.User;
 import com.shopping.persistence.FileManager;
+import com.shopping.persistence.RecoverableStore;
+import com.shopping.persistence.WriteAheadLog;
+import com.shopping.util.BloomFilter;
 import com.shopping.util.Constants;
+import com.shopping.util.UserIdDictionary;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 사용자 데이터 접근을 담당하는 Repository 클래스
  * Data Access Layer의 일부로 CRUD 기능 제공
+ *
+ * 사용자 상태는 메모리에 두고 변경은 변경 기록(users-wal-NNNNNN.wal)에 한 건씩 추가:
+ * - 조회/중복 확인은 파일을 읽지 않음
+ * - 저장/수정은 레코드 하나만 추가 (샤드 파일을 다시 쓰지 않음)
+ * - 일정 변경 수마다 샤드 파일(users-00.dat ~ users-NN.dat)에 스냅샷을 병렬로 기록
+ *   (지난 스냅샷 이후 사용자가 저장/삭제된 샤드만 다시 씀, 나머지 샤드 파일은 그대로 둠)
+ * - 시작 시: 샤드 파일 적재 → 스냅샷 이후 변경 기록만 재생 (RecoverableStore)
+ * - 샤드 수를 바꿀 때는 UserReshardTool로 오프라인 재분배
+ *
+ * ID 조회/중복 확인은 블룸 필터로 먼저 걸러냄:
+ * - 필터가 "없음"이라고 하면 저장소를 보지 않고 바로 없음으로 처리
+ * - "있을 수도 있음"일 때만 실제 저장소를 조회
+ * - 필터는 스냅샷과 함께 users.bloom에 저장하고, 시작 시 저장된 필터에 스냅샷 이후 재생된 ID만 추가
+ * - 삭제는 필터에서 뺄 수 없으므로 삭제가 쌓이면 현재 사용자로 다시 만듦
  */
 public class UserRepository {
 
     // 파일명 상수 (Constants에서 가져옴)
-    private static final String FILE_NAME = Constants.USER_DATA_FILE;
+    private static final String LEGACY_FILE_NAME = Constants.USER_DATA_FILE;
+    private static final String SHARD_META_FILE_NAME = Constants.USER_SHARD_META_FILE;
+    private static final String ID_FILTER_FILE_NAME = Constants.USER_ID_FILTER_FILE;
+
+    // 샤드 수
+    private final int shardCount;
+
+    // 사용자 ID → 사용자 (스냅샷 = 샤드 파일)
+    private final RecoverableStore<String, User> store;
+
+    // 사용자 ID ↔ 정수 키 사전 (등록 시 발급, 주문 저장소와 공유)
+    private final UserIdDictionary userIdDictionary = new UserIdDictionary();
+
+    // 지난 스냅샷 이후 변경된 샤드 번호 (dirtyShards 자체로 동기화)
+    private final BitSet dirtyShards = new BitSet();
+
+    // 진행 중인 스냅샷이 다시 쓸 샤드 (스냅샷은 한 번에 하나이므로 capture → write 사이에만 사용)
+    private BitSet capturedShards = new BitSet();
+
+    // 사용자 ID 블룸 필터 (idFilterLock으로 보호, 복구 중에는 생성자 스레드만 사용)
+    private final Object idFilterLock = new Object();
+    private BloomFilter idFilter;
+
+    // 필터를 만든 뒤 삭제된 사용자 수 (필터에는 오탐으로 남아 있음)
+    private int deletesSinceFilterBuild;
+
+    /**
+     * UserRepository 생성자 (기본 샤드 수)
+     */
+    public UserRepository() {
+        this(Constants.USER_SHARD_COUNT);
+    }
+
+    /**
+     * UserRepository 생성자
+     * 구버전 users.dat가 있으면 샤드로 이전하고, 샤드 스냅샷 + 변경 기록으로 사용자 상태를 복구
+     *
+     * @param shardCount 샤드 수
+     * @throws IllegalStateException 저장된 샤드 수가 설정과 다를 때 (UserReshardTool로 재분배 필요)
+     */
+    public UserRepository(int shardCount) {
+        validateShardCount(shardCount);
+        this.shardCount = shardCount;
+
+        checkShardLayout();
+        this.idFilter = readIdFilter();
+        this.store = new RecoverableStore<>("users",
+                new WriteAheadLog(Constants.USER_WAL_PREFIX),
+                Constants.USER_SNAPSHOT_MARKER_FILE,
+                new RecoverableStore.SnapshotFiles<User>() {
+                    @Override
+                    public List<User> read() {
+                        return readAllShards(shardCount);
+                    }
+
+                    @Override
+                    public boolean write(List<User> users) {
+                        return writeSnapshotFiles(users);
+                    }
+                },
+                User::getId,
+                Constants.USER_SNAPSHOT_INTERVAL,
+                new ShardTrackingEntries(RecoverableStore.heapEntries()),
+                this::addReplayedId);
+
+        // 저장된 필터가 없거나(첫 시작, 이전 버전 데이터) 용량을 넘었으면 복구된 사용자로 다시 만듦
+        if (idFilter == null || idFilter.isSaturated()) {
+            rebuildIdFilter();
+        }
+    }
 
     /**
      * 사용자 저장
@@ -24,16 +117,27 @@ public class UserRepository {
      * @return 저장된 User 객체
      */
     public User save(User user) {
-        // 기존 사용자 목록 조회
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-
-        // 새 사용자 추가
-        users.add(user);
+        store.put(user);
+        addId(user.getId());
+        userIdDictionary.keyOf(user.getId());
+        return user;
+    }
 
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, users);
+    /**
+     * 사용자 ID의 정수 키 (주문의 getUserKey와 비교할 때 사용)
+     * 키는 프로세스 안에서만 유효하므로 파일에 저장하지 말 것 (조회만 하므로 사전이 늘어나지 않음)
+     * @param userId 사용자 ID
+     * @return 키 (키가 없거나 userId가 null이면 UserIdDictionary.NO_KEY)
+     */
+    public int getUserKey(String userId) {
+        return userIdDictionary.find(userId);
+    }
 
-        return user;
+    /**
+     * 사용자 ID 사전 (ApplicationContext가 OrderRepository에 넘김)
+     */
+    public UserIdDictionary getUserIdDictionary() {
+        return userIdDictionary;
     }
 
     /**
@@ -42,13 +146,10 @@ public class UserRepository {
      * @return User 객체 (없으면 null)
      */
     public User findById(String id) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-
-        // Java 8 Stream API를 사용한 검색
-        return users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        if (id == null || !mightContainId(id)) {
+            return null;
+        }
+        return store.get(id);
     }
 
     /**
@@ -56,25 +157,29 @@ public class UserRepository {
      * @param user 업데이트할 User 객체
      */
     public void update(User user) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-
-        // 기존 사용자 제거
-        users.removeIf(u -> u.getId().equals(user.getId()));
-
-        // 업데이트된 사용자 추가
-        users.add(user);
+        store.put(user);
+        addId(user.getId());
+    }
 
-        // 파일에 저장
-        FileManager.writeToFile(FILE_NAME, users);
+    /**
+     * 여러 사용자 정보를 한 번에 업데이트 (변경 기록 파일을 한 번만 엶)
+     * @param updated 업데이트할 User 객체들
+     */
+    public void updateAll(Collection<User> updated) {
+        store.putAll(updated);
+        for (User user : updated) {
+            addId(user.getId());
+        }
     }
 
     /**
-     * ID 중복 확인
+     * ID 중복 확인 (블룸 필터 → 메모리 조회)
      * @param id 확인할 ID
      * @return 존재 여부
      */
     public boolean existsById(String id) {
-        return findById(id) != null;
+        // 필터가 "확실히 없음"이라고 하면 저장소 조회 생략
+        return id != null && mightContainId(id) && store.containsKey(id);
     }
 
     /**
@@ -82,7 +187,7 @@ public class UserRepository {
      * @return 사용자 목록
      */
     public List<User> findAll() {
-        return FileManager.readFromFile(FILE_NAME);
+        return store.values();
     }
 
     /**
@@ -91,16 +196,327 @@ public class UserRepository {
      * @return 삭제 성공 여부
      */
     public boolean deleteById(String id) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
+        if (!store.remove(id)) {
+            return false;
+        }
+
+        // 필터에서는 뺄 수 없으므로, 삭제된 ID가 필터 원소의 절반을 넘으면 다시 만듦 (오탐률 유지)
+        synchronized (idFilterLock) {
+            if (++deletesSinceFilterBuild > idFilter.getInsertions() / 2) {
+                rebuildIdFilter();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 샤드 파일에 스냅샷 저장 (반영된 변경 기록은 삭제)
+     * @return 저장했으면 true
+     */
+    public boolean snapshot() {
+        return store.snapshot();
+    }
+
+    /**
+     * 열어 둔 변경 기록 파일 닫기 (이후 기록하면 다시 열림)
+     */
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * 시작 시 복구에 걸린 시간 (밀리초)
+     */
+    public long getRecoveryMillis() {
+        return store.getRecoveryMillis();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * 저장된 샤드 구성 확인
+     * - 샤드 정보가 없으면: 구버전 users.dat를 샤드로 이전하고 샤드 수를 기록
+     * - 샤드 수가 다르면: 사용자가 엉뚱한 샤드에서 조회되므로 시작을 막음
+     */
+    private void checkShardLayout() {
+        Integer storedCount = FileManager.readObject(SHARD_META_FILE_NAME);
+        if (storedCount == null) {
+            migrateLegacyFile();
+            FileManager.writeObject(SHARD_META_FILE_NAME, shardCount);
+            return;
+        }
+
+        if (storedCount != shardCount) {
+            throw new IllegalStateException(String.format(
+                    "사용자 샤드 수가 설정과 다릅니다 (저장: %d, 설정: %d). UserReshardTool로 재분배하세요",
+                    storedCount, shardCount));
+        }
+    }
+
+    /**
+     * 구버전 users.dat → 샤드 파일 이전
+     * 샤드에 먼저 기록한 뒤 구버전 파일을 삭제
+     */
+    private void migrateLegacyFile() {
+        if (!FileManager.getDataFile(LEGACY_FILE_NAME).exists()) {
+            return;
+        }
+
+        List<User> legacyUsers = FileManager.readFromFile(LEGACY_FILE_NAME);
+        if (!writeAllShards(legacyUsers, shardCount)) {
+            throw new IllegalStateException("구버전 사용자 데이터를 샤드로 옮기지 못했습니다 (users.dat 유지)");
+        }
+        FileManager.deleteFile(LEGACY_FILE_NAME);
+
+        // 샤드만 새로 썼으므로, 남아 있는 필터 파일은 믿지 않고 시작 시 다시 만듦
+        FileManager.deleteFile(ID_FILTER_FILE_NAME);
+
+        System.out.println("[UserRepository] 구버전 사용자 데이터 샤드 이전 완료: "
+                + legacyUsers.size() + "명 → " + shardCount + "개 샤드");
+    }
+
+    // ===== 변경된 샤드만 스냅샷 =====
+
+    /**
+     * 저장/삭제된 사용자의 샤드를 표시하는 메모리 상태
+     * put/remove/capture는 저장소 쓰기 락 안에서 호출되므로, capture 시점의 표시와 상태가 정확히 맞음
+     * (스냅샷 이후 변경은 새 세대 변경 기록에 들어가고 다음 스냅샷의 표시로 넘어감)
+     */
+    private final class ShardTrackingEntries implements RecoverableStore.Entries<String, User> {
+
+        private final RecoverableStore.Entries<String, User> delegate;
+
+        ShardTrackingEntries(RecoverableStore.Entries<String, User> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public User get(String key) {
+            return delegate.get(key);
+        }
 
-        // 사용자 제거
-        boolean removed = users.removeIf(u -> u.getId().equals(id));
+        @Override
+        public boolean containsKey(String key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public List<User> values() {
+            return delegate.values();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public void load(String key, User value) {
+            delegate.load(key, value);
+        }
+
+        @Override
+        public void put(String key, User value, byte[] serialized) {
+            delegate.put(key, value, serialized);
+            markDirty(key);
+        }
+
+        @Override
+        public void remove(String key) {
+            delegate.remove(key);
+            markDirty(key);
+        }
+
+        @Override
+        public Supplier<List<User>> capture() {
+            synchronized (dirtyShards) {
+                capturedShards = (BitSet) dirtyShards.clone();
+                dirtyShards.clear();
+            }
+            return delegate.capture();
+        }
+
+        private void markDirty(String key) {
+            synchronized (dirtyShards) {
+                dirtyShards.set(shardOf(key, shardCount));
+            }
+        }
+    }
+
+    /**
+     * ID 필터 + 변경된 샤드(와 파일이 없는 샤드)만 기록
+     * 필터를 샤드보다 먼저 기록 → 표식이 가리키는 스냅샷보다 오래된 필터가 남지 않음
+     * 실패하면 다음 스냅샷에서 다시 쓰도록 샤드 표시를 되돌림
+     */
+    private boolean writeSnapshotFiles(List<User> users) {
+        BitSet shards = (BitSet) capturedShards.clone();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (!FileManager.getDataFile(shardFileName(shard)).exists()) {
+                shards.set(shard);
+            }
+        }
 
-        if (removed) {
-            // 변경사항 저장
-            FileManager.writeToFile(FILE_NAME, users);
+        boolean written = writeIdFilter(users) && writeShards(users, shardCount, shards);
+        if (!written) {
+            synchronized (dirtyShards) {
+                dirtyShards.or(shards);
+            }
         }
+        System.out.println("[UserRepository] 샤드 스냅샷: " + shards.cardinality() + "/" + shardCount + "개 기록");
+        return written;
+    }
+
+    // ===== ID 블룸 필터 =====
+
+    /**
+     * 필터상 ID가 있을 수도 있는지 (false면 확실히 없음)
+     */
+    private boolean mightContainId(String id) {
+        synchronized (idFilterLock) {
+            return idFilter.mightContain(id);
+        }
+    }
+
+    /**
+     * 저장된 ID를 필터에 추가 (저장소 반영 후 호출, 용량 초과 시 전체 재구성)
+     * 이미 있을 수도 있는 ID는 다시 넣지 않음 → 수정이 잦아도 원소 수가 늘지 않음
+     */
+    private void addId(String id) {
+        synchronized (idFilterLock) {
+            if (idFilter.mightContain(id)) {
+                return;
+            }
+            idFilter.put(id);
+            if (idFilter.isSaturated()) {
+                rebuildIdFilter();
+            }
+        }
+    }
+
+    /**
+     * 복구 중 스냅샷 이후 변경 기록에서 저장된 ID를 저장된 필터에 추가
+     * (저장된 필터가 없으면 복구 후 전체 재구성하므로 무시)
+     */
+    private void addReplayedId(String id) {
+        if (idFilter != null && !idFilter.mightContain(id)) {
+            idFilter.put(id);
+        }
+    }
 
-        return removed;
+    /**
+     * 현재 사용자로 필터 재구성 (메모리만, 파일은 다음 스냅샷에서 기록)
+     * 저장 → 필터 추가 순서이므로, 락 안에서 사용자 목록을 읽으면 그 뒤 저장분은 새 필터에 추가됨
+     */
+    private void rebuildIdFilter() {
+        synchronized (idFilterLock) {
+            idFilter = buildIdFilter(store.values());
+            deletesSinceFilterBuild = 0;
+            System.out.println("[UserRepository] ID 필터 재구성: " + idFilter);
+        }
+    }
+
+    /**
+     * 사용자 수의 2배(최소 Constants 값)를 예상 용량으로 잡아 여유를 둔 필터
+     */
+    private static BloomFilter buildIdFilter(List<User> users) {
+        int capacity = Math.max(Constants.USER_ID_FILTER_MIN_CAPACITY, users.size() * 2);
+        BloomFilter filter = new BloomFilter(capacity, Constants.USER_ID_FILTER_FPP);
+        for (User user : users) {
+            filter.put(user.getId());
+        }
+        return filter;
+    }
+
+    /**
+     * 저장된 필터 읽기 (없거나 읽을 수 없으면 null → 복구 후 재구성)
+     */
+    private static BloomFilter readIdFilter() {
+        Object stored = FileManager.readObject(ID_FILTER_FILE_NAME);
+        return stored instanceof BloomFilter ? (BloomFilter) stored : null;
+    }
+
+    /**
+     * 스냅샷 사용자 목록으로 만든 필터 저장
+     */
+    private static boolean writeIdFilter(List<User> users) {
+        return FileManager.writeObject(ID_FILTER_FILE_NAME, buildIdFilter(users));
+    }
+
+    // ===== 샤드 배치 (UserReshardTool과 공유) =====
+
+    /**
+     * 사용자 ID가 속한 샤드 번호
+     * String.hashCode()는 언어 명세로 고정된 값이므로 재시작해도 같은 샤드로 배치됨
+     *
+     * @param id 사용자 ID
+     * @param shardCount 샤드 수
+     * @return 샤드 번호 (0 ~ shardCount-1)
+     */
+    public static int shardOf(String id, int shardCount) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shardCount);
+    }
+
+    /**
+     * 샤드 파일명 (users-00.dat 형식)
+     * @param shard 샤드 번호
+     */
+    public static String shardFileName(int shard) {
+        return String.format(Constants.USER_SHARD_FILE_FORMAT, shard);
+    }
+
+    /**
+     * 모든 샤드를 병렬로 읽어 합침
+     * @param shardCount 샤드 수
+     * @return 전체 사용자 목록
+     */
+    public static List<User> readAllShards(int shardCount) {
+        return IntStream.range(0, shardCount)
+                .parallel()
+                .mapToObj(shard -> FileManager.<User>readFromFile(shardFileName(shard)))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자 목록을 샤드별로 나눠 모든 샤드 파일을 다시 기록 (빈 샤드도 빈 파일로 기록)
+     * @param users 전체 사용자 목록
+     * @param shardCount 샤드 수
+     * @return 모든 샤드를 기록했으면 true
+     */
+    public static boolean writeAllShards(List<User> users, int shardCount) {
+        validateShardCount(shardCount);
+        BitSet all = new BitSet(shardCount);
+        all.set(0, shardCount);
+        return writeShards(users, shardCount, all);
+    }
+
+    /**
+     * 지정한 샤드 파일만 병렬로 다시 기록 (빈 샤드도 빈 파일로 기록)
+     * @param users 전체 사용자 목록
+     * @param shardCount 샤드 수
+     * @param shards 기록할 샤드 번호
+     * @return 지정한 샤드를 모두 기록했으면 true
+     */
+    private static boolean writeShards(List<User> users, int shardCount, BitSet shards) {
+        Map<Integer, List<User>> byShard = users.stream()
+                .filter(user -> shards.get(shardOf(user.getId(), shardCount)))
+                .collect(Collectors.groupingBy(user -> shardOf(user.getId(), shardCount)));
+
+        long failed = shards.stream()
+                .parallel()
+                .filter(shard -> !FileManager.writeToFile(shardFileName(shard),
+                        byShard.getOrDefault(shard, new ArrayList<>())))
+                .count();
+        return failed == 0;
+    }
+
+    private static void validateShardCount(int shardCount) {
+        if (shardCount <= 0 || shardCount > 100) {
+            throw new IllegalArgumentException("샤드 수는 1 ~ 100 사이여야 합니다: " + shardCount);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,215 @@
+// ===============================================
+// OrderExportService.java - 주문 내역 내보내기
+// ===============================================
+package com.shopping.service;
+
+import com.shopping.model.Order;
+import com.shopping.persistence.OrderCursor;
+import com.shopping.repository.OrderRepository;
+import com.shopping.util.UserIdDictionary;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 주문 내역을 CSV 또는 JSON Lines 형식으로 내보내는 서비스
+ *
+ * OrderRepository의 커서로 한 건씩 읽어 바로 쓰기 때문에
+ * 주문이 아무리 많아도 메모리 사용량이 일정함
+ */
+public class OrderExportService {
+
+    /**
+     * 내보내기 형식
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    // 날짜 출력 형식 (ISO-8601, 시스템 시간대)
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    private final OrderRepository orderRepository;
+
+    /**
+     * OrderExportService 생성자
+     * @param orderRepository 주문 Repository
+     */
+    public OrderExportService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * 주문 내역을 파일로 내보내기
+     *
+     * @param output 저장할 파일 경로
+     * @param format 내보내기 형식
+     * @param userId 사용자 ID 필터 (null이면 전체 사용자)
+     * @param from 시작일 (포함, null이면 제한 없음)
+     * @param to 종료일 (포함, null이면 제한 없음)
+     * @return 내보낸 주문 건수
+     * @throws RuntimeException 파일 쓰기에 실패했을 때
+     */
+    public long exportToFile(Path output, Format format, String userId, LocalDate from, LocalDate to) {
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            long count = export(writer, format, userId, from, to);
+            System.out.printf("[OrderExportService] 주문 %d건 내보내기 완료: %s%n", count, output);
+            return count;
+        } catch (IOException e) {
+            throw new RuntimeException("주문 내보내기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 주문 내역을 Writer로 내보내기
+     *
+     * @param writer 출력 대상
+     * @param format 내보내기 형식
+     * @param userId 사용자 ID 필터 (null이면 전체 사용자)
+     * @param from 시작일 (포함, null이면 제한 없음)
+     * @param to 종료일 (포함, null이면 제한 없음)
+     * @return 내보낸 주문 건수
+     * @throws IOException 쓰기 실패 시
+     */
+    public long export(Writer writer, Format format, String userId,
+                       LocalDate from, LocalDate to) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦을 수 없습니다.");
+        }
+
+        // 날짜 범위를 epoch 밀리초 구간 [fromMillis, toMillis)로 변환
+        ZoneId zone = ZoneId.systemDefault();
+        long fromMillis = from == null ? Long.MIN_VALUE : from.atStartOfDay(zone).toInstant().toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        if (format == Format.CSV) {
+            writer.write("orderId,userId,productId,quantity,totalPrice,orderDate,status\n");
+        }
+
+        // 주문이 없는 사용자면 사전에 키가 없으므로 로그를 읽지 않음
+        int userKey = orderRepository.findUserKey(userId);
+        if (userId != null && userKey == UserIdDictionary.NO_KEY) {
+            writer.flush();
+            return 0;
+        }
+        long count = 0;
+        try (OrderCursor cursor = orderRepository.openCursor()) {
+            for (Order order : cursor) {
+                long orderTime = order.getOrderTimestamp();
+                if (orderTime < fromMillis || orderTime >= toMillis) {
+                    continue;
+                }
+                if (userId != null && order.getUserKey() != userKey) {
+                    continue;
+                }
+
+                if (format == Format.CSV) {
+                    writeCsv(writer, order, orderTime);
+                } else {
+                    writeJsonLine(writer, order, orderTime);
+                }
+                count++;
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * CSV 한 줄 쓰기
+     */
+    private void writeCsv(Writer writer, Order order, long orderTime) throws IOException {
+        writer.write(Integer.toString(order.getOrderId()));
+        writer.write(',');
+        writer.write(csvField(order.getUserId()));
+        writer.write(',');
+        writer.write(Integer.toString(order.getProductId()));
+        writer.write(',');
+        writer.write(Integer.toString(order.getQuantity()));
+        writer.write(',');
+        writer.write(Double.toString(order.getTotalPrice()));
+        writer.write(',');
+        writer.write(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(orderTime)));
+        writer.write(',');
+        writer.write(order.getStatus().name());
+        writer.write('\n');
+    }
+
+    /**
+     * JSON 한 줄 쓰기
+     */
+    private void writeJsonLine(Writer writer, Order order, long orderTime) throws IOException {
+        writer.write("{\"orderId\":");
+        writer.write(Integer.toString(order.getOrderId()));
+        writer.write(",\"userId\":");
+        writer.write(jsonString(order.getUserId()));
+        writer.write(",\"productId\":");
+        writer.write(Integer.toString(order.getProductId()));
+        writer.write(",\"quantity\":");
+        writer.write(Integer.toString(order.getQuantity()));
+        writer.write(",\"totalPrice\":");
+        writer.write(Double.toString(order.getTotalPrice()));
+        writer.write(",\"orderDate\":\"");
+        writer.write(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(orderTime)));
+        writer.write("\",\"status\":\"");
+        writer.write(order.getStatus().name());
+        writer.write("\"}\n");
+    }
+
+    /**
+     * CSV 필드 이스케이프 (쉼표, 따옴표, 줄바꿈 포함 시 큰따옴표로 감쌈)
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * JSON 문자열 이스케이프
+     */
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+}
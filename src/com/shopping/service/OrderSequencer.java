@@ -0,0 +1,503 @@
+// ===============================================
+// OrderSequencer.java - 단일 쓰기 스레드 주문 처리 파이프라인
+// ===============================================
+package com.shopping.service;
+
+import com.shopping.model.Order;
+import com.shopping.model.Product;
+import com.shopping.repository.OrderRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 링 버퍼 기반 주문 처리 파이프라인 (Disruptor 방식)
+ *
+ * 단계:
+ * 1. 요청 스레드: 미리 할당된 링 버퍼 칸을 차지해 주문 명령을 기록하고 게시(publish)
+ * 2. 시퀀서 스레드: 게시 순서대로 명령을 읽어 검증하고,
+ *    메모리상의 재고/잔액을 잠금 없이 갱신 (이 상태는 시퀀서 스레드만 접근)
+ * 3. 저장 스레드: 처리된 명령을 묶음(batch)으로 모아 재고/잔액/주문을 한 번에 저장한 뒤
+ *    요청 스레드에 결과를 전달
+ *
+ * 링 버퍼 칸은 저장 단계가 끝난 뒤에만 재사용되므로 단계 사이에 복사가 없음
+ * 검증 규칙(수량, 재고, 잔액)과 오류 메시지는 OrderService와 동일
+ *
+ * 묶음 저장이 실패하면 한 건씩 다시 저장해 실패한 명령만 실패로 완료하고,
+ * 시퀀서는 적용한 명령이 모두 저장된 뒤에 메모리 상태를 저장소에서 다시 읽음
+ *
+ * 다른 경로의 재고·잔액 변경(잔액 충전, 주문 취소 환불, 재고 추가, 예약 만료)은 메모리 상태에 바로 반영되지 않음:
+ * - 늘어난 경우: 재고/잔액 부족으로 거절하기 전에 앞선 명령의 저장을 기다린 뒤 저장소에서 다시 읽고 판단
+ * - 줄어든 경우: 저장 단계에서 재고 차감/결제가 실패하므로 위의 재동기화로 맞춰짐
+ */
+public class OrderSequencer implements AutoCloseable {
+
+    // 한 번에 저장할 최대 주문 수
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    // 대기 시 바쁜 대기(spin) 횟수 (이후에는 잠깐씩 park)
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    // 접수 종료 표시 (claimed에 기록해 칸 차지와 종료를 하나의 원자적 연산으로 구분)
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final OrderRepository orderRepository;
+    private final ProductService productService;
+    private final UserService userService;
+
+    // ===== 링 버퍼 =====
+    private final OrderCommand[] ring;
+    private final int mask;
+
+    // 칸별 게시된 시퀀스 (칸 재사용 시 이전 값과 구분)
+    private final AtomicLongArray published;
+
+    // 요청 스레드가 차지한 마지막 시퀀스 (종료 후에는 CLOSED)
+    private final AtomicLong claimed = new AtomicLong(CLOSED);
+
+    // 시퀀서 단계가 처리를 끝낸 마지막 시퀀스
+    private final AtomicLong sequenced = new AtomicLong(-1);
+
+    // 저장 단계가 끝난 마지막 시퀀스 (이 시퀀스까지의 칸은 재사용 가능)
+    private final AtomicLong persisted = new AtomicLong(-1);
+
+    // ===== 시퀀서 스레드 전용 상태 (잠금 없음) =====
+    private final Map<Integer, StockState> stocks = new HashMap<>();
+    private final Map<String, double[]> balances = new HashMap<>();
+
+    // 저장 실패 시 시퀀서에게 메모리 상태를 다시 읽도록 요청
+    private volatile boolean resyncRequested;
+
+    private volatile boolean running;
+    private Thread sequencerThread;
+    private Thread persisterThread;
+
+    /**
+     * OrderSequencer 생성자
+     * @param orderRepository 주문 Repository
+     * @param productService 상품 서비스
+     * @param userService 사용자 서비스
+     * @param bufferSize 링 버퍼 크기 (2의 거듭제곱으로 올림)
+     */
+    public OrderSequencer(OrderRepository orderRepository, ProductService productService,
+                          UserService userService, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("버퍼 크기는 양수여야 합니다: " + bufferSize);
+        }
+
+        int size = 1;
+        while (size < bufferSize) {
+            size <<= 1;
+        }
+
+        this.orderRepository = orderRepository;
+        this.productService = productService;
+        this.userService = userService;
+        this.ring = new OrderCommand[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new OrderCommand();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 시퀀서/저장 스레드 시작
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        claimed.set(persisted.get());
+
+        sequencerThread = new Thread(this::runSequencer, "order-sequencer");
+        persisterThread = new Thread(this::runPersister, "order-persister");
+        sequencerThread.setDaemon(true);
+        persisterThread.setDaemon(true);
+        sequencerThread.start();
+        persisterThread.start();
+
+        System.out.println("[OrderSequencer] 시작 (버퍼 " + ring.length + "칸)");
+    }
+
+    /**
+     * 주문 명령 게시
+     * 버퍼가 가득 차 있으면 저장 단계가 칸을 비울 때까지 대기
+     *
+     * @param userId 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 주문 수량
+     * @return 저장까지 끝나면 완료되는 주문 결과
+     * @throws IllegalStateException 시퀀서가 시작되지 않았거나 종료 중일 때
+     */
+    public CompletableFuture<Order> submit(String userId, int productId, int quantity) {
+        // 종료와 경쟁해도 칸을 차지했으면 close()가 그 명령까지 저장을 기다림
+        long sequence;
+        while (true) {
+            long last = claimed.get();
+            if (last == CLOSED) {
+                throw new IllegalStateException("주문 시퀀서가 실행 중이 아닙니다.");
+            }
+            if (claimed.compareAndSet(last, last + 1)) {
+                sequence = last + 1;
+                break;
+            }
+        }
+
+        // 한 바퀴 전 명령이 저장될 때까지 대기 (칸 재사용 방지)
+        long wrapPoint = sequence - ring.length;
+        for (int tries = 0; persisted.get() < wrapPoint; tries++) {
+            backoff(tries);
+        }
+
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        OrderCommand command = ring[(int) (sequence & mask)];
+        command.userId = userId;
+        command.productId = productId;
+        command.quantity = quantity;
+        command.result = result;
+        command.order = null;
+        command.error = null;
+
+        // 게시: 이 쓰기 이후 시퀀서가 명령 내용을 볼 수 있음
+        published.set((int) (sequence & mask), sequence);
+        return result;
+    }
+
+    /**
+     * 주문 명령 게시 후 저장 완료까지 대기
+     * @return 생성된 주문
+     * @throws RuntimeException 주문 실패 시 (OrderService.createOrder와 같은 메시지)
+     */
+    public Order submitAndWait(String userId, int productId, int quantity) {
+        try {
+            return submit(userId, productId, quantity).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 새 명령 접수를 멈추고, 이미 게시된 명령을 모두 저장한 뒤 스레드 종료
+     */
+    @Override
+    public void close() {
+        Thread sequencer;
+        Thread persister;
+        long lastClaimed;
+        synchronized (this) {
+            if (!running || claimed.get() == CLOSED) {
+                return;
+            }
+            lastClaimed = claimed.getAndSet(CLOSED);
+            sequencer = sequencerThread;
+            persister = persisterThread;
+        }
+
+        for (int tries = 0; persisted.get() < lastClaimed; tries++) {
+            backoff(tries);
+        }
+
+        running = false;
+        try {
+            sequencer.join();
+            persister.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("[OrderSequencer] 종료 (처리 " + (persisted.get() + 1) + "건)");
+    }
+
+    /**
+     * 처리 완료된(저장까지 끝난) 명령 수
+     */
+    public long getProcessedCount() {
+        return persisted.get() + 1;
+    }
+
+    // ===== 시퀀서 단계 =====
+
+    private void runSequencer() {
+        int idle = 0;
+        while (running) {
+            long next = sequenced.get() + 1;
+
+            // 연속으로 게시된 구간의 끝 찾기
+            long last = next - 1;
+            while (published.get((int) ((last + 1) & mask)) == last + 1) {
+                last++;
+            }
+
+            if (last < next) {
+                backoff(idle++);
+                continue;
+            }
+            idle = 0;
+
+            if (resyncRequested) {
+                // 적용했지만 아직 저장되지 않은 명령의 차감분이 사라지지 않도록 저장 단계가 따라올 때까지 대기
+                awaitPersisted(sequenced.get());
+                resyncRequested = false;
+                stocks.clear();
+                balances.clear();
+            }
+
+            for (long sequence = next; sequence <= last; sequence++) {
+                apply(ring[(int) (sequence & mask)], sequence);
+            }
+            sequenced.set(last);
+        }
+    }
+
+    /**
+     * 명령 한 건 검증 및 메모리 상태 반영
+     * @param sequence 명령의 시퀀스 (거절 전 재확인 시 앞선 명령의 저장을 기다리는 기준)
+     */
+    private void apply(OrderCommand command, long sequence) {
+        try {
+            OrderService.validateQuantity(command.quantity);
+
+            StockState stock = stocks.get(command.productId);
+            if (stock == null) {
+                stock = loadStock(command.productId);
+            }
+            if (stock.available < command.quantity) {
+                // 재고 추가/주문 취소/예약 만료로 늘었을 수 있으므로 저장소 기준으로 다시 확인
+                awaitPersisted(sequence - 1);
+                stock = loadStock(command.productId);
+                if (stock.available < command.quantity) {
+                    throw OrderService.insufficientStock(stock.available);
+                }
+            }
+
+            double totalPrice = stock.price * command.quantity;
+            double[] balance = balances.get(command.userId);
+            if (balance == null) {
+                balance = loadBalance(command.userId);
+            }
+            if (balance[0] < totalPrice) {
+                // 잔액 충전/환불로 늘었을 수 있으므로 저장소 기준으로 다시 확인
+                awaitPersisted(sequence - 1);
+                balance = loadBalance(command.userId);
+                if (balance[0] < totalPrice) {
+                    throw OrderService.insufficientBalance(totalPrice, balance[0]);
+                }
+            }
+
+            stock.available -= command.quantity;
+            balance[0] -= totalPrice;
+            command.order = new Order(orderRepository.allocateOrderId(), command.userId,
+                    command.productId, command.quantity, totalPrice);
+
+        } catch (RuntimeException e) {
+            command.error = e;
+        }
+    }
+
+    /**
+     * 저장소에서 상품 가격과 판매 가능 재고를 읽어 메모리 상태 교체
+     */
+    private StockState loadStock(int productId) {
+        Product product = productService.getProduct(productId);
+        StockState stock = new StockState(product.getPrice(), productService.getAvailableStock(productId));
+        stocks.put(productId, stock);
+        return stock;
+    }
+
+    /**
+     * 저장소에서 잔액을 읽어 메모리 상태 교체
+     */
+    private double[] loadBalance(String userId) {
+        double[] balance = {userService.getBalance(userId)};
+        balances.put(userId, balance);
+        return balance;
+    }
+
+    /**
+     * 지정한 시퀀스까지 저장이 끝날 때까지 대기 (시퀀서 스레드에서 호출)
+     * 그 앞의 명령은 모두 적용했으므로 처리 완료로 표시해 저장 단계가 가져가게 함
+     * → 이후 저장소에서 읽은 값에는 메모리 상태에만 있던 차감분이 모두 들어 있음
+     */
+    private void awaitPersisted(long sequence) {
+        sequenced.set(sequence);
+        for (int tries = 0; persisted.get() < sequence; tries++) {
+            backoff(tries);
+        }
+    }
+
+    // ===== 저장 단계 =====
+
+    private void runPersister() {
+        List<Order> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        int idle = 0;
+        while (running || persisted.get() < sequenced.get()) {
+            long from = persisted.get() + 1;
+            long to = Math.min(sequenced.get(), from + MAX_BATCH_SIZE - 1);
+            if (to < from) {
+                backoff(idle++);
+                continue;
+            }
+            idle = 0;
+
+            batch.clear();
+            for (long sequence = from; sequence <= to; sequence++) {
+                OrderCommand command = ring[(int) (sequence & mask)];
+                if (command.order != null) {
+                    batch.add(command.order);
+                }
+            }
+
+            RuntimeException[] failures = persistBatch(batch);
+
+            int index = 0;
+            for (long sequence = from; sequence <= to; sequence++) {
+                OrderCommand command = ring[(int) (sequence & mask)];
+                CompletableFuture<Order> result = command.result;
+                if (command.order == null) {
+                    result.completeExceptionally(command.error);
+                } else if (failures[index++] != null) {
+                    result.completeExceptionally(new RuntimeException(
+                            "주문 처리 중 오류가 발생했습니다: " + failures[index - 1].getMessage()));
+                } else {
+                    result.complete(command.order);
+                }
+                command.clear();
+            }
+            persisted.set(to);
+        }
+    }
+
+    /**
+     * 묶음 저장
+     * 한 번에 저장하다 실패하면 되돌린 뒤 한 건씩 다시 저장해 실패한 주문만 골라냄
+     * (실패한 주문이 있으면 시퀀서에게 메모리 상태를 다시 읽도록 요청)
+     *
+     * @return 주문별 실패 원인 (batch와 같은 순서, 성공하면 null)
+     */
+    private RuntimeException[] persistBatch(List<Order> batch) {
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        if (batch.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            persist(batch);
+            return failures;
+        } catch (RuntimeException e) {
+            System.err.println("[OrderSequencer] 묶음 저장 실패 (" + batch.size() + "건), 한 건씩 다시 저장: "
+                    + e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                persist(List.of(batch.get(i)));
+            } catch (RuntimeException e) {
+                System.err.println("[OrderSequencer] 주문 저장 실패: " + batch.get(i).getOrderId()
+                        + " - " + e.getMessage());
+                failures[i] = e;
+                resyncRequested = true;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 재고 → 결제 → 주문 순서로 저장, 실패하면 앞 단계를 되돌리고 예외
+     */
+    private void persist(List<Order> orders) {
+        Map<Integer, Integer> deductions = new HashMap<>();
+        for (Order order : orders) {
+            deductions.merge(order.getProductId(), order.getQuantity(), Integer::sum);
+        }
+
+        boolean stockDeducted = false;
+        boolean charged = false;
+        try {
+            productService.deductStock(deductions);
+            stockDeducted = true;
+
+            userService.chargeForOrders(orders);
+            charged = true;
+
+            orderRepository.saveAll(orders);
+
+        } catch (RuntimeException e) {
+            rollback(orders, deductions, stockDeducted, charged);
+            throw e;
+        }
+    }
+
+    private void rollback(List<Order> batch, Map<Integer, Integer> deductions,
+                          boolean stockDeducted, boolean charged) {
+        try {
+            if (charged) {
+                for (Order order : batch) {
+                    userService.refundOrder(order);
+                }
+            }
+            if (stockDeducted) {
+                for (Map.Entry<Integer, Integer> entry : deductions.entrySet()) {
+                    productService.addStock(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[OrderSequencer] 롤백 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 대기 전략: 잠깐 바쁜 대기 후 짧게 park
+     */
+    private static void backoff(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * 링 버퍼 한 칸 (재사용되는 가변 객체)
+     */
+    private static final class OrderCommand {
+        String userId;
+        int productId;
+        int quantity;
+        CompletableFuture<Order> result;
+
+        // 시퀀서 단계 결과 (둘 중 하나만 설정)
+        Order order;
+        RuntimeException error;
+
+        void clear() {
+            userId = null;
+            result = null;
+            order = null;
+            error = null;
+        }
+    }
+
+    /**
+     * 시퀀서가 보는 상품 상태 (가격 + 판매 가능 재고)
+     */
+    private static final class StockState {
+        final double price;
+        int available;
+
+        StockState(double price, int available) {
+            this.price = price;
+            this.available = available;
+        }
+    }
+}
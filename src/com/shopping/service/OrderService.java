@@ -3,14 +3,34 @@
 // ===============================================
 package com.shopping.service;
 
+import com.shopping.model.DailySales;
 import com.shopping.model.Order;
+import com.shopping.model.Page;
 import com.shopping.model.Product;
+import com.shopping.model.Reservation;
+import com.shopping.model.UserOrderSummary;
+import com.shopping.persistence.OrderKeyLog;
 import com.shopping.repository.OrderRepository;
+import com.shopping.util.Constants;
+import com.shopping.util.ExpiringCache;
+import com.shopping.util.ValidationUtils;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * 주문 관련 비즈니스 로직을 처리하는 서비스 클래스
  * 여러 서비스를 조합하여 복잡한 비즈니스 로직 처리
+ *
+ * 멱등성 키를 받는 createOrder는 같은 키로 재시도된 요청에 원래 주문을 돌려줌
+ * - 키 → 주문 결과를 만료 시간이 있는 캐시에 보관 (처리 중인 요청은 결과를 기다림)
+ * - 키는 OrderKeyLog에 기록되어 재시작 후에도 유지
+ * - 캐시는 크기 제한이 있으므로, 캐시에 없는 키는 주문하기 전에 OrderKeyLog에서 한 번 더 확인
+ *
+ * 선택적으로 시퀀서 모드(enableSequencer)를 켜면 submitOrder()와 예약 없는 멱등성 키 주문이
+ * 링 버퍼 + 단일 쓰기 스레드(OrderSequencer)로 처리됨 (예약 주문은 사용할 수 없음)
  */
 public class OrderService {
 
@@ -19,13 +39,257 @@ public class OrderService {
     private ProductService productService;
     private UserService userService;
 
+    // 멱등성 키 → 주문 결과 (처리 중이면 미완료 상태)
+    private final ExpiringCache<String, CompletableFuture<Order>> orderKeys =
+            new ExpiringCache<>(Constants.ORDER_KEY_CACHE_MAX_SIZE, Constants.ORDER_KEY_TTL_MILLIS);
+    private final OrderKeyLog orderKeyLog;
+
+    // 시퀀서 모드일 때만 설정됨
+    private volatile OrderSequencer sequencer;
+
+    /**
+     * OrderService 생성자 (의존성 주입)
+     * ApplicationContext에서 공유 인스턴스를 넘겨받아 사용
+     *
+     * @param orderRepository 주문 Repository
+     * @param productService 상품 서비스
+     * @param userService 사용자 서비스
+     */
+    public OrderService(OrderRepository orderRepository,
+                        ProductService productService,
+                        UserService userService) {
+        this(orderRepository, productService, userService, new OrderKeyLog(Constants.ORDER_KEY_LOG_FILE));
+    }
+
+    /**
+     * OrderService 생성자 (멱등성 키 로그 지정)
+     *
+     * @param orderRepository 주문 Repository
+     * @param productService 상품 서비스
+     * @param userService 사용자 서비스
+     * @param orderKeyLog 멱등성 키 로그
+     */
+    public OrderService(OrderRepository orderRepository,
+                        ProductService productService,
+                        UserService userService,
+                        OrderKeyLog orderKeyLog) {
+        this.orderRepository = orderRepository;
+        this.productService = productService;
+        this.userService = userService;
+        this.orderKeyLog = orderKeyLog;
+        loadOrderKeys();
+    }
+
+    /**
+     * 만료되지 않은 멱등성 키를 캐시에 적재
+     * 만료된 키가 절반 이상이면 로그를 정리
+     */
+    private void loadOrderKeys() {
+        long minCreatedAt = System.currentTimeMillis() - Constants.ORDER_KEY_TTL_MILLIS;
+        int[] expired = {0};
+        int total = orderKeyLog.load((key, order, createdAt) -> {
+            if (createdAt < minCreatedAt) {
+                expired[0]++;
+            } else {
+                orderKeys.putIfAbsent(key, CompletableFuture.completedFuture(order), createdAt);
+            }
+        });
+
+        if (expired[0] > 0 && expired[0] * 2 >= total) {
+            int kept = orderKeyLog.compact(minCreatedAt);
+            System.out.println("[OrderService] 만료된 주문 키 정리: " + (total - kept) + "건");
+        }
+    }
+
+    /**
+     * 시퀀서 모드 켜기
+     * 이후 submitOrder()는 링 버퍼에 게시되어 단일 쓰기 스레드에서 처리됨
+     */
+    public synchronized void enableSequencer() {
+        if (sequencer == null) {
+            OrderSequencer created = new OrderSequencer(orderRepository, productService, userService,
+                    Constants.ORDER_SEQUENCER_BUFFER_SIZE);
+            created.start();
+            sequencer = created;
+        }
+    }
+
+    /**
+     * 시퀀서 모드 끄기 (이미 게시된 주문은 모두 저장한 뒤 종료)
+     */
+    public synchronized void disableSequencer() {
+        OrderSequencer current = sequencer;
+        sequencer = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isSequencerEnabled() {
+        return sequencer != null;
+    }
+
+    /**
+     * 주문 접수
+     * 시퀀서 모드면 링 버퍼에 게시하고, 아니면 createOrder()로 바로 처리
+     *
+     * @param userId 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 주문 수량
+     * @return 주문 결과 (실패 시 예외로 완료)
+     */
+    public CompletableFuture<Order> submitOrder(String userId, int productId, int quantity) {
+        OrderSequencer current = sequencer;
+        if (current != null) {
+            return current.submit(userId, productId, quantity);
+        }
+
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        try {
+            result.complete(createOrder(userId, productId, quantity));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * 멱등성 키를 사용한 주문 생성
+     * 같은 키로 다시 호출하면 새 주문을 만들지 않고 처음 생성된 주문을 반환
+     * (동시에 같은 키로 들어온 요청은 먼저 들어온 요청의 결과를 기다림)
+     * 시퀀서 모드면 주문 처리는 시퀀서를 거침
+     *
+     * @param idempotencyKey 클라이언트가 요청마다 발급한 고유 키
+     * @param userId 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 주문 수량
+     * @return 생성된(또는 이전에 생성된) Order 객체
+     * @throws IllegalArgumentException 키가 비어 있거나 너무 길 때
+     * @throws IllegalStateException 키가 다른 주문 요청에 이미 사용되었을 때
+     * @throws RuntimeException 주문 실패 시
+     */
+    public Order createOrder(String idempotencyKey, String userId, int productId, int quantity) {
+        return createOrderOnce(idempotencyKey, userId, productId, quantity, null);
+    }
+
+    /**
+     * 재고 예약을 확정하며 주문 생성 (멱등성 키 사용)
+     * 예약으로 잡아둔 수량을 사용하므로 확인 화면 이후 재고가 사라지지 않음
+     *
+     * @param idempotencyKey 클라이언트가 요청마다 발급한 고유 키
+     * @param userId 사용자 ID
+     * @param reservation ProductService.reserveStock()으로 받은 예약
+     * @return 생성된(또는 이전에 생성된) Order 객체
+     * @throws IllegalStateException 예약이 만료되었거나 키가 다른 주문에 사용되었을 때, 시퀀서 모드일 때
+     * @throws RuntimeException 주문 실패 시
+     */
+    public Order createOrder(String idempotencyKey, String userId, Reservation reservation) {
+        // 예약 확정은 시퀀서의 메모리 재고를 거치지 않으므로 함께 쓰면 초과 판매될 수 있음
+        if (sequencer != null) {
+            throw new IllegalStateException("시퀀서 모드에서는 예약 주문을 사용할 수 없습니다.");
+        }
+        return createOrderOnce(idempotencyKey, userId,
+                reservation.getProductId(), reservation.getQuantity(), reservation);
+    }
+
     /**
-     * OrderService 생성자
+     * 멱등성 키 처리 공통 로직
      */
-    public OrderService() {
-        this.orderRepository = new OrderRepository();
-        this.productService = new ProductService();
-        this.userService = new UserService();
+    private Order createOrderOnce(String idempotencyKey, String userId, int productId, int quantity,
+                                  Reservation reservation) {
+        ValidationUtils.requireNonEmpty(idempotencyKey, "주문 키를 입력해주세요");
+        if (idempotencyKey.length() > Constants.ORDER_KEY_MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "주문 키는 " + Constants.ORDER_KEY_MAX_LENGTH + "자 이하여야 합니다");
+        }
+
+        CompletableFuture<Order> pending = new CompletableFuture<>();
+        CompletableFuture<Order> existing = orderKeys.putIfAbsent(idempotencyKey, pending);
+
+        if (existing != null) {
+            // 재시도 요청: 원래 주문(또는 처리 중인 주문의 결과) 반환
+            return retriedOrder(awaitOrder(existing), idempotencyKey, userId, productId, quantity);
+        }
+
+        // 캐시에서 밀려난 키일 수 있으므로 로그 확인 (키를 선점한 뒤라 같은 키의 동시 요청은 여기서 기다림)
+        Order logged;
+        try {
+            logged = findLoggedOrder(idempotencyKey);
+        } catch (RuntimeException e) {
+            orderKeys.remove(idempotencyKey);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        if (logged != null) {
+            pending.complete(logged);
+            return retriedOrder(logged, idempotencyKey, userId, productId, quantity);
+        }
+
+        Order order;
+        try {
+            // 예약 없는 주문은 시퀀서 모드면 시퀀서로 게시
+            order = reservation == null
+                    ? awaitOrder(submitOrder(userId, productId, quantity))
+                    : placeOrder(userId, productId, quantity, reservation);
+        } catch (RuntimeException e) {
+            // 실패한 요청은 키를 남기지 않음 (같은 키로 다시 시도 가능)
+            orderKeys.remove(idempotencyKey);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+
+        // 주문은 이미 확정되었으므로 키 기록 실패는 재시작 전까지 캐시로만 보호
+        try {
+            orderKeyLog.append(idempotencyKey, order, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            System.err.println("[OrderService] 주문 키 기록 실패: " + idempotencyKey + " - " + e.getMessage());
+        }
+        pending.complete(order);
+        return order;
+    }
+
+    /**
+     * 재시도 요청 확인 후 원래 주문 반환
+     * @throws IllegalStateException 원래 주문과 요청 내용이 다를 때
+     */
+    private Order retriedOrder(Order original, String idempotencyKey, String userId, int productId, int quantity) {
+        if (!original.getUserId().equals(userId)
+                || original.getProductId() != productId
+                || original.getQuantity() != quantity) {
+            throw new IllegalStateException("이미 다른 주문에 사용된 키입니다: " + idempotencyKey);
+        }
+        System.out.println("[OrderService] 중복 주문 요청 → 기존 주문 반환: " + original.getOrderId());
+        return original;
+    }
+
+    /**
+     * 키 로그에서 만료되지 않은 주문 조회
+     * @return 주문 (없거나 만료되었으면 null)
+     */
+    private Order findLoggedOrder(String idempotencyKey) {
+        long minCreatedAt = System.currentTimeMillis() - Constants.ORDER_KEY_TTL_MILLIS;
+        Order[] found = {null};
+        orderKeyLog.find(idempotencyKey, (key, order, createdAt) -> {
+            if (createdAt >= minCreatedAt) {
+                found[0] = order;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * 처리 중이거나 완료된 주문 결과 대기
+     */
+    private Order awaitOrder(CompletableFuture<Order> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
     }
 
     /**
@@ -39,54 +303,105 @@ public class OrderService {
      * @throws RuntimeException 주문 실패 시
      */
     public Order createOrder(String userId, int productId, int quantity) {
+        return placeOrder(userId, productId, quantity, null);
+    }
+
+    /**
+     * 주문 생성 본체
+     * @param reservation 재고 예약 (null이면 재고를 바로 차감)
+     */
+    private Order placeOrder(String userId, int productId, int quantity, Reservation reservation) {
         // 1단계: 상품 정보 확인
         Product product = productService.getProduct(productId);
 
         // 2단계: 주문 수량 유효성 검증
-        if (quantity <= 0) {
-            throw new RuntimeException("주문 수량은 1개 이상이어야 합니다.");
-        }
+        validateQuantity(quantity);
 
-        // 3단계: 재고 확인
-        if (!productService.checkStock(productId, quantity)) {
-            throw new RuntimeException(
-                    String.format("재고가 부족합니다. 현재 재고: %d개",
-                            product.getStock())
-            );
+        // 3단계: 재고 확인 (예약 주문은 수량이 이미 확보되어 있음)
+        if (reservation == null && !productService.checkStock(productId, quantity)) {
+            throw insufficientStock(product.getStock());
         }
 
         // 4단계: 총 가격 계산
         double totalPrice = product.getPrice() * quantity;
 
-        // 5단계: 사용자 잔액 확인
+        // 5단계: 사용자 잔액 확인 (결제 시 다시 확인)
         double userBalance = userService.getBalance(userId);
         if (userBalance < totalPrice) {
-            throw new RuntimeException(
-                    String.format("잔액이 부족합니다. 필요 금액: %.0f원, 현재 잔액: %.0f원",
-                            totalPrice, userBalance)
-            );
+            throw insufficientBalance(totalPrice, userBalance);
         }
 
         // 6단계: 주문 ID 생성
-        int orderId = orderRepository.getNextOrderId();
+        int orderId = orderRepository.allocateOrderId();
 
         // 7단계: 주문 객체 생성
         Order order = new Order(orderId, userId, productId, quantity, totalPrice);
 
-        // 8단계: 트랜잭션 처리 (실제로는 트랜잭션 매니저가 필요하지만 간단히 구현)
+        // 8단계: 트랜잭션 처리 (실패한 단계 이전까지를 보상 작업으로 되돌림)
+        boolean stockDeducted = false;
+        boolean charged = false;
         try {
-            // 8-1: 재고 차감
-            productService.updateStock(productId, quantity);
+            // 8-1: 재고 차감 (예약 주문은 예약 확정)
+            if (reservation == null) {
+                productService.updateStock(productId, quantity);
+            } else {
+                productService.confirmReservation(reservation.getReservationId(), userId);
+            }
+            stockDeducted = true;
 
-            // 8-2: 잔액 차감
-            userService.updateBalance(userId, userBalance - totalPrice);
+            // 8-2: 잔액 차감 + 주문 요약 갱신
+            userService.chargeForOrder(order);
+            charged = true;
 
             // 8-3: 주문 저장
             return orderRepository.save(order);
 
         } catch (Exception e) {
-            // 트랜잭션 롤백이 필요하지만, 파일 기반이므로 생략
-            throw new RuntimeException("주문 처리 중 오류가 발생했습니다: " + e.getMessage());
+            rollbackOrder(order, stockDeducted, charged);
+            throw new RuntimeException("주문 처리 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // ===== 주문 검증 규칙 (OrderSequencer와 공유) =====
+
+    /**
+     * 주문 수량 검증
+     * @throws RuntimeException 수량이 1 미만일 때
+     */
+    static void validateQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("주문 수량은 1개 이상이어야 합니다.");
+        }
+    }
+
+    /**
+     * 재고 부족 예외
+     */
+    static RuntimeException insufficientStock(int stock) {
+        return new RuntimeException(String.format("재고가 부족합니다. 현재 재고: %d개", stock));
+    }
+
+    /**
+     * 잔액 부족 예외
+     */
+    static RuntimeException insufficientBalance(double totalPrice, double balance) {
+        return new RuntimeException(
+                String.format("잔액이 부족합니다. 필요 금액: %.0f원, 현재 잔액: %.0f원", totalPrice, balance));
+    }
+
+    /**
+     * 주문 생성 실패 시 보상 처리
+     */
+    private void rollbackOrder(Order order, boolean stockDeducted, boolean charged) {
+        try {
+            if (charged) {
+                userService.refundOrder(order);
+            }
+            if (stockDeducted) {
+                productService.addStock(order.getProductId(), order.getQuantity());
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderService] 주문 롤백 실패: " + order.getOrderId() + " - " + e.getMessage());
         }
     }
 
@@ -100,18 +415,110 @@ public class OrderService {
     }
 
     /**
-     * 주문 취소 (향후 구현)
+     * 특정 사용자의 주문 내역 한 페이지 조회 (최신순)
+     * 사용자별 주문 인덱스에서 요청한 구간의 주문만 읽음
+     *
+     * @param userId 사용자 ID
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지면 null)
+     * @param pageSize 페이지 크기 (1 ~ Constants.MAX_PAGE_SIZE)
+     * @return 주문 페이지 (커서는 페이지 마지막 주문 ID)
+     * @throws IllegalArgumentException 페이지 크기가 범위를 벗어날 때
+     */
+    public Page<Order> getUserOrders(String userId, Integer cursor, int pageSize) {
+        if (pageSize <= 0 || pageSize > Constants.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "페이지 크기는 1 ~ " + Constants.MAX_PAGE_SIZE + " 사이여야 합니다: " + pageSize);
+        }
+
+        // 한 건을 더 읽어 다음 페이지가 있는지 판단
+        List<Order> orders = orderRepository.findByUserIdBefore(
+                userId, cursor == null ? Integer.MAX_VALUE : cursor, pageSize + 1);
+        if (orders.size() <= pageSize) {
+            return new Page<>(orders, null);
+        }
+        orders = orders.subList(0, pageSize);
+        return new Page<>(orders, orders.get(pageSize - 1).getOrderId());
+    }
+
+    /**
+     * 기간별 주문 조회
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 기간 내 주문 목록
+     */
+    public List<Order> getOrdersByDateRange(LocalDate from, LocalDate to) {
+        validateDateRange(from, to);
+
+        ZoneId zone = ZoneId.systemDefault();
+        long fromMillis = from.atStartOfDay(zone).toInstant().toEpochMilli();
+        long toMillis = to.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return orderRepository.findByDateRange(fromMillis, toMillis);
+    }
+
+    /**
+     * 일별 매출 집계 조회 (주문 건수, 판매 수량, 매출)
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 일별 집계 목록
+     */
+    public List<DailySales> getDailySales(LocalDate from, LocalDate to) {
+        validateDateRange(from, to);
+        return orderRepository.getDailySales(from, to);
+    }
+
+    /**
+     * 조회 기간 유효성 검증
+     */
+    private void validateDateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("조회 기간을 입력해주세요.");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦을 수 없습니다.");
+        }
+    }
+
+    /**
+     * 사용자 주문 요약 조회 (주문 건수, 누적 결제 금액, 마지막 주문 시각, 최다 구매 상품)
+     * @param userId 사용자 ID
+     * @return 주문 요약
+     */
+    public UserOrderSummary getOrderSummary(String userId) {
+        return userService.getOrderSummary(userId);
+    }
+
+    /**
+     * 주문 취소
      * @param orderId 주문 ID
      * @param userId 사용자 ID
      * @return 취소 성공 여부
+     * @throws IllegalStateException 주문이 없거나, 본인 주문이 아니거나, 이미 취소된 경우
      */
     public boolean cancelOrder(int orderId, String userId) {
-        // 향후 구현 예정
         // 1. 주문 조회
-        // 2. 주문 상태 확인 (배송 전인지)
-        // 3. 재고 복구
-        // 4. 잔액 복구
-        // 5. 주문 상태 변경
-        return false;
+        Order order = orderRepository.findById(orderId);
+        if (order == null) {
+            throw new IllegalStateException("주문을 찾을 수 없습니다: " + orderId);
+        }
+        if (!order.getUserId().equals(userId)) {
+            throw new IllegalStateException("본인의 주문만 취소할 수 있습니다.");
+        }
+
+        // 2. 주문 상태 확인
+        if (order.isCancelled()) {
+            throw new IllegalStateException("이미 취소된 주문입니다: " + orderId);
+        }
+
+        // 3. 주문 상태 변경 (취소 기록이 먼저 남아야 중복 환불이 없음)
+        orderRepository.markCancelled(order);
+
+        // 4. 재고 복구
+        productService.addStock(order.getProductId(), order.getQuantity());
+
+        // 5. 잔액 복구 + 주문 요약 차감
+        userService.refundOrder(order);
+
+        System.out.println("[OrderService] 주문 취소: " + orderId);
+        return true;
     }
 }
\ No newline at end of file
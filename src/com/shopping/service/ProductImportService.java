@@ -0,0 +1,384 @@
+// ===============================================
+// ProductImportService.java - 상품 일괄 등록
+// ===============================================
+package com.shopping.service;
+
+import com.shopping.model.Product;
+import com.shopping.repository.ProductRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CSV / TSV 파일로 상품을 대량 등록하는 서비스
+ *
+ * 처리 흐름:
+ * 1. 파일을 줄 단위로 스트리밍하며 일정 크기의 묶음(chunk)으로 나눔
+ * 2. 각 묶음을 ForkJoinPool에서 병렬로 파싱 + 검증
+ * 3. 파일 순서대로 결과를 병합하며 ID 중복 제거 (뒤에 나온 행이 우선)
+ * 4. ProductRepository.saveAll()로 한 번에 저장
+ *
+ * 파일 형식: id, name, price, stock
+ * 첫 줄의 컬럼 이름이 HEADER_COLUMNS와 같으면 헤더로 건너뛰고, 아니면 데이터 행으로 처리
+ * (형식이 틀린 첫 줄도 다른 행처럼 오류로 집계됨)
+ */
+public class ProductImportService {
+
+    // 한 번에 읽어 파싱 작업으로 넘길 줄 수
+    private static final int CHUNK_SIZE = 20_000;
+
+    // 파싱 작업을 더 이상 쪼개지 않는 최소 줄 수
+    private static final int SPLIT_THRESHOLD = 2_000;
+
+    // 오류 메시지는 앞쪽 일부만 보관 (대용량 파일에서 메모리 폭주 방지)
+    private static final int MAX_ERROR_MESSAGES = 20;
+
+    // 헤더 행의 컬럼 이름 (대소문자 무시)
+    private static final List<String> HEADER_COLUMNS = List.of("id", "name", "price", "stock");
+
+    private final ProductRepository productRepository;
+    private final ForkJoinPool pool;
+
+    /**
+     * ProductImportService 생성자
+     * @param productRepository 상품 Repository
+     */
+    public ProductImportService(ProductRepository productRepository) {
+        this(productRepository, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ProductImportService 생성자 (파싱용 풀 지정)
+     * @param productRepository 상품 Repository
+     * @param pool 파싱 작업을 실행할 ForkJoinPool
+     */
+    public ProductImportService(ProductRepository productRepository, ForkJoinPool pool) {
+        this.productRepository = productRepository;
+        this.pool = pool;
+    }
+
+    /**
+     * 상품 파일 일괄 등록
+     *
+     * @param file CSV(.csv) 또는 TSV(.tsv) 파일 경로
+     * @return 등록 결과 요약
+     * @throws IllegalArgumentException 파일이 없을 때
+     * @throws RuntimeException 파일 읽기에 실패했을 때
+     */
+    public ImportResult importFile(Path file) {
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("파일을 찾을 수 없습니다: " + file);
+        }
+
+        long startTime = System.nanoTime();
+        ImportResult result = new ImportResult();
+
+        // ID 기준 중복 제거 (파일 순서대로 병합하므로 마지막 행이 남음)
+        Map<Integer, Product> products = new HashMap<>();
+
+        // 진행 중인 파싱 작업 (순서 보존을 위해 FIFO로 관리)
+        ArrayDeque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+        int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            char delimiter = file.toString().toLowerCase().endsWith(".tsv") ? '\t' : ',';
+            List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 0;
+            long chunkStartLine = 1;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                // 첫 줄: BOM 제거, 탭이 있으면 TSV로 판단, 헤더면 건너뜀
+                if (lineNumber == 1) {
+                    if (line.startsWith("\uFEFF")) {
+                        line = line.substring(1);
+                    }
+                    if (line.indexOf('\t') >= 0) {
+                        delimiter = '\t';
+                    }
+                    if (isHeader(line, delimiter)) {
+                        chunkStartLine = 2;
+                        continue;
+                    }
+                }
+
+                chunk.add(line);
+                if (chunk.size() == CHUNK_SIZE) {
+                    inFlight.add(pool.submit(new ParseTask(chunk, 0, chunk.size(), chunkStartLine, delimiter)));
+                    chunkStartLine = lineNumber + 1;
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+
+                    // 작업이 너무 많이 쌓이면 가장 오래된 것부터 병합
+                    while (inFlight.size() >= maxInFlight) {
+                        merge(inFlight.poll().join(), products, result);
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                inFlight.add(pool.submit(new ParseTask(chunk, 0, chunk.size(), chunkStartLine, delimiter)));
+            }
+            while (!inFlight.isEmpty()) {
+                merge(inFlight.poll().join(), products, result);
+            }
+
+        } catch (IOException e) {
+            throw new RuntimeException("상품 파일 읽기 실패: " + e.getMessage(), e);
+        }
+
+        // 한 번에 저장
+        result.imported = products.size();
+        result.catalogSize = productRepository.saveAll(products.values());
+        result.elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.println("[ProductImportService] 일괄 등록 완료: " + result);
+        return result;
+    }
+
+    /**
+     * 파싱 결과를 전체 결과에 병합
+     */
+    private void merge(ChunkResult chunk, Map<Integer, Product> products, ImportResult result) {
+        for (Product product : chunk.products) {
+            if (products.put(product.getId(), product) != null) {
+                result.duplicates++;
+            }
+        }
+        result.totalLines += chunk.lines;
+        result.rejected += chunk.rejected;
+        for (String error : chunk.errors) {
+            if (result.errors.size() < MAX_ERROR_MESSAGES) {
+                result.errors.add(error);
+            }
+        }
+    }
+
+    /**
+     * 헤더 행 판단 (컬럼 이름이 id, name, price, stock 순서일 때만)
+     */
+    static boolean isHeader(String line, char delimiter) {
+        List<String> fields = splitLine(line, delimiter);
+        if (fields.size() < HEADER_COLUMNS.size()) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_COLUMNS.size(); i++) {
+            if (!fields.get(i).equalsIgnoreCase(HEADER_COLUMNS.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 한 줄을 필드로 분리
+     * CSV의 큰따옴표("...") 필드와 이스케이프("")를 지원
+     */
+    static List<String> splitLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    /**
+     * 한 줄을 Product로 변환 + 검증
+     * @throws IllegalArgumentException 형식이나 값이 올바르지 않을 때
+     */
+    static Product parseProduct(String line, char delimiter) {
+        List<String> fields = splitLine(line, delimiter);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("컬럼 수가 부족합니다 (id, name, price, stock)");
+        }
+
+        int id;
+        double price;
+        int stock;
+        try {
+            id = Integer.parseInt(fields.get(0));
+            price = Double.parseDouble(fields.get(2));
+            stock = Integer.parseInt(fields.get(3));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("숫자 형식 오류: " + e.getMessage());
+        }
+
+        String name = fields.get(1);
+        if (id <= 0) {
+            throw new IllegalArgumentException("상품 ID는 양수여야 합니다: " + id);
+        }
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("상품명이 비어 있습니다");
+        }
+        if (!(price > 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("가격은 양수여야 합니다: " + fields.get(2));
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("재고는 0 이상이어야 합니다: " + stock);
+        }
+
+        return new Product(id, name, price, stock);
+    }
+
+    /**
+     * 묶음 단위 파싱 작업
+     * 줄 수가 많으면 반으로 나눠 병렬 처리 후 순서대로 합침
+     */
+    private static class ParseTask extends RecursiveTask<ChunkResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> lines;
+        private final int from;
+        private final int to;
+        private final long firstLineNumber;
+        private final char delimiter;
+
+        ParseTask(List<String> lines, int from, int to, long firstLineNumber, char delimiter) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.firstLineNumber = firstLineNumber;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                ParseTask left = new ParseTask(lines, from, mid, firstLineNumber, delimiter);
+                ParseTask right = new ParseTask(lines, mid, to, firstLineNumber, delimiter);
+                left.fork();
+                ChunkResult rightResult = right.compute();
+                return left.join().append(rightResult);
+            }
+
+            ChunkResult result = new ChunkResult(to - from);
+            for (int i = from; i < to; i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    result.products.add(parseProduct(line, delimiter));
+                } catch (IllegalArgumentException e) {
+                    result.rejected++;
+                    if (result.errors.size() < MAX_ERROR_MESSAGES) {
+                        result.errors.add((firstLineNumber + i) + "행: " + e.getMessage());
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 묶음 파싱 결과 (순서를 유지한 채 합칠 수 있음)
+     */
+    private static class ChunkResult {
+        final List<Product> products;
+        final List<String> errors = new ArrayList<>();
+        long lines;
+        long rejected;
+
+        ChunkResult(int lines) {
+            this.lines = lines;
+            this.products = new ArrayList<>(lines);
+        }
+
+        ChunkResult append(ChunkResult other) {
+            products.addAll(other.products);
+            for (String error : other.errors) {
+                if (errors.size() < MAX_ERROR_MESSAGES) {
+                    errors.add(error);
+                }
+            }
+            lines += other.lines;
+            rejected += other.rejected;
+            return this;
+        }
+    }
+
+    /**
+     * 일괄 등록 결과 요약
+     */
+    public static class ImportResult {
+        private long totalLines;
+        private int imported;
+        private long duplicates;
+        private long rejected;
+        private int catalogSize;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        public long getTotalLines() {
+            return totalLines;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public int getCatalogSize() {
+            return catalogSize;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "ImportResult[lines=%d, imported=%d, duplicates=%d, rejected=%d, catalog=%d, %dms]",
+                totalLines, imported, duplicates, rejected, catalogSize, elapsedMillis
+            );
+        }
+    }
+}
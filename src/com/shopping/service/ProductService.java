@@ -3,9 +3,20 @@
 // ===============================================
 package com.shopping.service;
 
+import com.shopping.model.Page;
 import com.shopping.model.Product;
+import com.shopping.model.Reservation;
+import com.shopping.repository.CatalogSnapshot;
 import com.shopping.repository.ProductRepository;
+import com.shopping.util.Constants;
+import com.shopping.util.TimingWheel;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -16,27 +27,62 @@ import java.util.stream.Collectors;
  * - 상품 조회 로직
  * - 재고 관리
  * - 상품 검색 및 필터링
+ * - 재고 예약 (결제 확인 전까지 수량을 잡아두고, 확정/해제/자동 만료)
+ *
+ * 목록/검색 조회는 저장소의 불변 카탈로그 스냅샷을 잠금 없이 읽음 (재고 변경과 경쟁하지 않음)
+ * → 반환된 상품은 조회용이며 수정하면 안 됨
+ *
+ * 예약 수량은 메모리에만 보관하고 실제 재고에서는 확정 시점에 차감
+ * → 판매 가능 재고 = 저장된 재고 - 예약 중인 수량 (재고 기준 목록/필터도 이 값을 사용)
+ * → 예약은 예약한 사용자만 확정/해제할 수 있음
+ * (재시작하면 예약은 모두 사라지고 재고는 그대로 남음)
  */
 public class ProductService {
 
     // 데이터 접근을 위한 Repository
     private ProductRepository productRepository;
 
+    // 재고 읽기-수정-쓰기와 예약 수량 변경을 묶는 잠금
+    private final Object stockLock = new Object();
+
+    // 예약 ID → 예약 (확정/해제/만료 중 먼저 remove()한 쪽이 처리)
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+
+    // 상품 ID → 예약 중인 수량 (stockLock 안에서만 변경)
+    private final Map<Integer, Integer> heldStock = new ConcurrentHashMap<>();
+
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    // 예약 만료 스케줄러 (스레드 하나, 첫 예약 시 시작)
+    private final TimingWheel<Long> reservationExpiry = new TimingWheel<>(
+            "reservation-expiry",
+            Constants.RESERVATION_TICK_MILLIS,
+            Constants.RESERVATION_WHEEL_SIZE,
+            this::expireReservation);
+
     /**
      * ProductService 생성자
      * Repository 인스턴스 생성
      */
     public ProductService() {
-        this.productRepository = new ProductRepository();
+        this(new ProductRepository());
+    }
+
+    /**
+     * ProductService 생성자 (Repository 주입)
+     * @param productRepository 공유할 ProductRepository
+     */
+    public ProductService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
     }
 
     /**
      * 모든 상품 조회
-     * @return 전체 상품 목록
+     * @return 전체 상품 목록 (ID 순, 재고는 판매 가능 수량, 읽기 전용)
      */
     public List<Product> getAllProducts() {
-        // Repository에서 모든 상품 조회
-        List<Product> products = productRepository.findAll();
+        // 현재 카탈로그 스냅샷 (예약 중인 상품만 판매 가능 재고로 바꾼 복사본, 나머지는 복사 없이)
+        List<Product> products = withAvailableStock(productRepository.catalog().products());
 
         // 로깅
         System.out.println("[ProductService] 전체 상품 조회: " + products.size() + "개");
@@ -44,6 +90,22 @@ public class ProductService {
         return products;
     }
 
+    /**
+     * 상품 목록 한 페이지 조회 (ID 순)
+     * 카탈로그 스냅샷에서 커서 위치를 이진 탐색하고 요청한 개수만큼만 읽음
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지면 null)
+     * @param pageSize 페이지 크기 (1 ~ Constants.MAX_PAGE_SIZE)
+     * @return 상품 페이지 (재고는 판매 가능 수량, 상품은 읽기 전용)
+     * @throws RuntimeException 페이지 크기가 범위를 벗어날 때
+     */
+    public Page<Product> getAllProducts(Integer cursor, int pageSize) {
+        Page<Product> page = pageOf(cursor, pageSize, product -> true);
+        page = new Page<>(withAvailableStock(page.getItems()), page.getNextCursor());
+        System.out.println("[ProductService] 상품 목록 페이지 조회: " + page.getItems().size() + "개");
+        return page;
+    }
+
     /**
      * 특정 상품 조회
      * @param productId 상품 ID
@@ -90,12 +152,13 @@ public class ProductService {
                 return false;
             }
 
-            // 재고와 요청 수량 비교
-            boolean hasStock = product.getStock() >= quantity;
+            // 판매 가능 재고(예약분 제외)와 요청 수량 비교
+            int available = product.getStock() - getHeldStock(productId);
+            boolean hasStock = available >= quantity;
 
             System.out.println(String.format(
-                    "[ProductService] 재고 확인: 상품ID=%d, 현재재고=%d, 요청수량=%d, 결과=%s",
-                    productId, product.getStock(), quantity, hasStock ? "가능" : "부족"
+                    "[ProductService] 재고 확인: 상품ID=%d, 판매가능=%d, 요청수량=%d, 결과=%s",
+                    productId, available, quantity, hasStock ? "가능" : "부족"
             ));
 
             return hasStock;
@@ -115,38 +178,53 @@ public class ProductService {
      * @throws RuntimeException 재고 부족 또는 상품을 찾을 수 없을 때
      */
     public void updateStock(int productId, int quantity) {
+        deductStock(productId, quantity, 0);
+    }
+
+    /**
+     * 재고 차감 (확정하는 예약의 수량은 판매 가능 재고로 봄)
+     *
+     * @param productId 상품 ID
+     * @param quantity 차감할 수량
+     * @param ownHeld 이 차감으로 확정되는 예약 수량 (예약 확정이 아니면 0)
+     * @throws RuntimeException 재고 부족 또는 상품을 찾을 수 없을 때
+     */
+    private void deductStock(int productId, int quantity, int ownHeld) {
         // 수량 유효성 검증
         if (quantity <= 0) {
             throw new RuntimeException("차감 수량은 양수여야 합니다: " + quantity);
         }
 
-        // 상품 조회
-        Product product = productRepository.findById(productId);
+        synchronized (stockLock) {
+            // 상품 조회
+            Product product = productRepository.findById(productId);
 
-        if (product == null) {
-            throw new RuntimeException("상품을 찾을 수 없습니다. (ID: " + productId + ")");
-        }
+            if (product == null) {
+                throw new RuntimeException("상품을 찾을 수 없습니다. (ID: " + productId + ")");
+            }
 
-        // 비즈니스 규칙: 재고 확인
-        if (product.getStock() < quantity) {
-            throw new RuntimeException(
-                    String.format("재고가 부족합니다. (현재 재고: %d개, 요청: %d개)",
-                            product.getStock(), quantity)
-            );
-        }
+            // 비즈니스 규칙: 재고 확인 (다른 사용자가 예약한 수량은 제외)
+            int available = product.getStock() - (getHeldStock(productId) - ownHeld);
+            if (available < quantity) {
+                throw new RuntimeException(
+                        String.format("재고가 부족합니다. (현재 재고: %d개, 요청: %d개)",
+                                available, quantity)
+                );
+            }
 
-        // 재고 차감
-        int oldStock = product.getStock();
-        product.setStock(oldStock - quantity);
+            // 재고 차감
+            int oldStock = product.getStock();
+            product.setStock(oldStock - quantity);
 
-        // 변경사항 영속화
-        productRepository.update(product);
+            // 변경사항 영속화
+            productRepository.update(product);
 
-        // 로깅
-        System.out.println(String.format(
-                "[ProductService] 재고 차감: 상품ID=%d, %s (%d → %d)",
-                productId, product.getName(), oldStock, product.getStock()
-        ));
+            // 로깅
+            System.out.println(String.format(
+                    "[ProductService] 재고 차감: 상품ID=%d, %s (%d → %d)",
+                    productId, product.getName(), oldStock, product.getStock()
+            ));
+        }
     }
 
     /**
@@ -159,43 +237,314 @@ public class ProductService {
             throw new RuntimeException("추가 수량은 양수여야 합니다: " + quantity);
         }
 
-        Product product = productRepository.findById(productId);
+        synchronized (stockLock) {
+            Product product = productRepository.findById(productId);
 
-        if (product == null) {
-            throw new RuntimeException("상품을 찾을 수 없습니다. (ID: " + productId + ")");
+            if (product == null) {
+                throw new RuntimeException("상품을 찾을 수 없습니다. (ID: " + productId + ")");
+            }
+
+            int oldStock = product.getStock();
+            product.setStock(oldStock + quantity);
+
+            productRepository.update(product);
+
+            System.out.println(String.format(
+                    "[ProductService] 재고 추가: 상품ID=%d, %s (%d → %d)",
+                    productId, product.getName(), oldStock, product.getStock()
+            ));
+        }
+    }
+
+    /**
+     * 여러 상품 재고 일괄 차감 (차감할 상품만 조회하고, 변경은 saveAll 한 번으로 기록)
+     * 한 상품이라도 재고가 부족하면 아무것도 저장하지 않음
+     *
+     * @param deductions 상품 ID → 차감 수량
+     * @throws RuntimeException 상품이 없거나 재고가 부족할 때
+     */
+    public void deductStock(Map<Integer, Integer> deductions) {
+        synchronized (stockLock) {
+            Map<Integer, Product> products = new HashMap<>(deductions.size() * 2);
+            for (Integer productId : deductions.keySet()) {
+                products.put(productId, productRepository.findById(productId));
+            }
+
+            for (Map.Entry<Integer, Integer> entry : deductions.entrySet()) {
+                Product product = products.get(entry.getKey());
+                if (product == null) {
+                    throw new RuntimeException("상품을 찾을 수 없습니다. (ID: " + entry.getKey() + ")");
+                }
+                int available = product.getStock() - getHeldStock(product.getId());
+                if (available < entry.getValue()) {
+                    throw new RuntimeException(
+                            String.format("재고가 부족합니다. (상품ID: %d, 현재 재고: %d개, 요청: %d개)",
+                                    product.getId(), available, entry.getValue()));
+                }
+            }
+
+            List<Product> changed = new ArrayList<>(deductions.size());
+            for (Map.Entry<Integer, Integer> entry : deductions.entrySet()) {
+                Product product = products.get(entry.getKey());
+                product.setStock(product.getStock() - entry.getValue());
+                changed.add(product);
+            }
+            productRepository.saveAll(changed);
+
+            System.out.println("[ProductService] 재고 일괄 차감: " + changed.size() + "개 상품");
+        }
+    }
+
+    /**
+     * 재고 예약
+     * 지정한 시간 동안 수량을 잡아두며, 그 안에 확정하지 않으면 자동으로 해제됨
+     *
+     * @param ownerId 예약하는 사용자 ID
+     * @param productId 상품 ID
+     * @param quantity 예약 수량
+     * @param holdSeconds 예약 유지 시간 (초)
+     * @return 예약 정보
+     * @throws RuntimeException 상품이 없거나 판매 가능 재고가 부족할 때
+     */
+    public Reservation reserveStock(String ownerId, int productId, int quantity, int holdSeconds) {
+        if (ownerId == null || ownerId.isEmpty()) {
+            throw new RuntimeException("예약하는 사용자 ID가 필요합니다.");
+        }
+        if (quantity <= 0) {
+            throw new RuntimeException("예약 수량은 양수여야 합니다: " + quantity);
+        }
+        if (holdSeconds <= 0 || holdSeconds > Constants.RESERVATION_MAX_HOLD_SECONDS) {
+            throw new RuntimeException(String.format(
+                    "예약 시간은 1 ~ %d초 사이여야 합니다: %d",
+                    Constants.RESERVATION_MAX_HOLD_SECONDS, holdSeconds));
         }
 
-        int oldStock = product.getStock();
-        product.setStock(oldStock + quantity);
+        Reservation reservation;
+        synchronized (stockLock) {
+            Product product = getProduct(productId);
+            int available = product.getStock() - getHeldStock(productId);
+            if (available < quantity) {
+                throw new RuntimeException(
+                        String.format("재고가 부족합니다. (판매 가능: %d개, 요청: %d개)", available, quantity));
+            }
 
-        productRepository.update(product);
+            long now = System.currentTimeMillis();
+            reservation = new Reservation(reservationIds.incrementAndGet(), ownerId, productId, quantity,
+                    now, now + holdSeconds * 1000L);
+            heldStock.merge(productId, quantity, Integer::sum);
+            reservations.put(reservation.getReservationId(), reservation);
+        }
+
+        reservationExpiry.schedule(reservation.getReservationId(), holdSeconds * 1000L);
 
         System.out.println(String.format(
-                "[ProductService] 재고 추가: 상품ID=%d, %s (%d → %d)",
-                productId, product.getName(), oldStock, product.getStock()
-        ));
+                "[ProductService] 재고 예약: 예약ID=%d, 사용자=%s, 상품ID=%d, 수량=%d, %d초",
+                reservation.getReservationId(), ownerId, productId, quantity, holdSeconds));
+        return reservation;
     }
 
     /**
-     * 재고가 있는 상품만 조회
-     * @return 재고가 있는 상품 목록
+     * 예약 확정: 예약 수량을 실제 재고에서 차감
+     * 차감에 성공한 뒤에만 예약을 지우고 잡아둔 수량을 반납함
+     * (차감이 실패하면 예약은 그대로 남아 만료 또는 해제로 정리됨)
+     *
+     * @param reservationId 예약 ID
+     * @param ownerId 확정하는 사용자 ID (예약한 사용자여야 함)
+     * @return 확정된 예약
+     * @throws IllegalStateException 예약이 없거나 이미 만료/해제되었거나, 다른 사용자의 예약일 때
      */
-    public List<Product> getAvailableProducts() {
-        List<Product> allProducts = productRepository.findAll();
+    public Reservation confirmReservation(long reservationId, String ownerId) {
+        synchronized (stockLock) {
+            Reservation reservation = ownedReservation(reservationId, ownerId);
+            if (reservation == null) {
+                throw new IllegalStateException("예약이 만료되었거나 존재하지 않습니다: " + reservationId);
+            }
 
-        // Stream API를 사용한 필터링
-        List<Product> availableProducts = allProducts.stream()
-                .filter(product -> product.getStock() > 0)
-                .collect(Collectors.toList());
+            deductStock(reservation.getProductId(), reservation.getQuantity(), reservation.getQuantity());
+            reservations.remove(reservationId);
+            unhold(reservation);
+            return reservation;
+        }
+    }
+
+    /**
+     * 예약 해제 (사용자가 주문을 취소했을 때)
+     *
+     * @param reservationId 예약 ID
+     * @param ownerId 해제하는 사용자 ID (예약한 사용자여야 함)
+     * @return 해제 여부 (이미 확정/만료된 예약이면 false)
+     * @throws IllegalStateException 다른 사용자의 예약일 때
+     */
+    public boolean releaseReservation(long reservationId, String ownerId) {
+        synchronized (stockLock) {
+            Reservation reservation = takeReservation(reservationId, ownerId);
+            if (reservation == null) {
+                return false;
+            }
+            unhold(reservation);
+        }
+
+        System.out.println("[ProductService] 예약 해제: 예약ID=" + reservationId);
+        return true;
+    }
+
+    /**
+     * 소유자 확인 후 예약을 맵에서 꺼냄 (stockLock 안에서 호출)
+     * 다른 사용자의 예약이면 꺼내지 않고 예외
+     *
+     * @return 예약 (없으면 null)
+     */
+    private Reservation takeReservation(long reservationId, String ownerId) {
+        Reservation reservation = ownedReservation(reservationId, ownerId);
+        if (reservation != null) {
+            reservations.remove(reservationId);
+        }
+        return reservation;
+    }
+
+    /**
+     * 소유자 확인 후 예약 조회 (맵에서 꺼내지 않음, stockLock 안에서 호출)
+     *
+     * @return 예약 (없으면 null)
+     * @throws IllegalStateException 다른 사용자의 예약일 때
+     */
+    private Reservation ownedReservation(long reservationId, String ownerId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null && !reservation.getOwnerId().equals(ownerId)) {
+            throw new IllegalStateException("다른 사용자의 예약입니다: " + reservationId);
+        }
+        return reservation;
+    }
+
+    /**
+     * 판매 가능 재고 (저장된 재고 - 예약 중인 수량)
+     * @param productId 상품 ID
+     * @return 판매 가능 수량
+     */
+    public int getAvailableStock(int productId) {
+        synchronized (stockLock) {
+            return getProduct(productId).getStock() - getHeldStock(productId);
+        }
+    }
+
+    /**
+     * 현재 유지 중인 예약 수
+     */
+    public int getReservationCount() {
+        return reservations.size();
+    }
+
+    /**
+     * 예약 중인 수량 조회
+     */
+    private int getHeldStock(int productId) {
+        return heldStock.getOrDefault(productId, 0);
+    }
+
+    /**
+     * 판매 가능 재고를 반영한 상품 (예약 중인 수량이 없으면 그대로, 있으면 재고를 줄인 복사본)
+     * 목록 조회에서 보이는 재고가 실제로 주문 가능한 수량과 같도록 사용
+     */
+    private Product withAvailableStock(Product product) {
+        int held = getHeldStock(product.getId());
+        if (held == 0) {
+            return product;
+        }
+        return new Product(product.getId(), product.getName(), product.getPrice(),
+                Math.max(0, product.getStock() - held));
+    }
+
+    private List<Product> withAvailableStock(List<Product> products) {
+        if (heldStock.isEmpty()) {
+            return products;
+        }
+        List<Product> adjusted = new ArrayList<>(products.size());
+        for (Product product : products) {
+            adjusted.add(withAvailableStock(product));
+        }
+        return adjusted;
+    }
+
+    /**
+     * 예약 수량 반납 (stockLock 안에서 호출)
+     */
+    private void unhold(Reservation reservation) {
+        heldStock.computeIfPresent(reservation.getProductId(), (id, held) -> {
+            int remaining = held - reservation.getQuantity();
+            return remaining > 0 ? remaining : null;
+        });
+    }
+
+    /**
+     * 만료 스케줄러 콜백
+     * 이미 확정/해제된 예약은 맵에 없으므로 그냥 무시됨
+     */
+    private void expireReservation(Long reservationId) {
+        synchronized (stockLock) {
+            Reservation reservation = reservations.remove(reservationId);
+            if (reservation == null) {
+                return;
+            }
+            unhold(reservation);
+        }
+        System.out.println("[ProductService] 예약 만료: 예약ID=" + reservationId);
+    }
+
+    /**
+     * 판매 가능한(예약분을 빼고도 재고가 남은) 상품만 조회
+     * @return 판매 가능한 상품 목록 (재고는 판매 가능 수량)
+     */
+    public List<Product> getAvailableProducts() {
+        CatalogSnapshot catalog = productRepository.catalog();
+        List<Product> availableProducts = withAvailableStock(catalog.filter(this::isAvailable));
 
         System.out.println(String.format(
                 "[ProductService] 재고 있는 상품: %d개 / 전체: %d개",
-                availableProducts.size(), allProducts.size()
+                availableProducts.size(), catalog.size()
         ));
 
         return availableProducts;
     }
 
+    /**
+     * 판매 가능한 상품 한 페이지 조회 (ID 순)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지면 null)
+     * @param pageSize 페이지 크기 (1 ~ Constants.MAX_PAGE_SIZE)
+     * @return 판매 가능한 상품 페이지 (재고는 판매 가능 수량, 상품은 읽기 전용)
+     * @throws RuntimeException 페이지 크기가 범위를 벗어날 때
+     */
+    public Page<Product> getAvailableProducts(Integer cursor, int pageSize) {
+        Page<Product> page = pageOf(cursor, pageSize, this::isAvailable);
+        page = new Page<>(withAvailableStock(page.getItems()), page.getNextCursor());
+        System.out.println("[ProductService] 재고 있는 상품 페이지 조회: " + page.getItems().size() + "개");
+        return page;
+    }
+
+    /**
+     * 예약분을 빼고도 재고가 남아 있는지
+     */
+    private boolean isAvailable(Product product) {
+        return product.getStock() - getHeldStock(product.getId()) > 0;
+    }
+
+    /**
+     * 커서 다음부터 조건에 맞는 상품 한 페이지
+     * 한 개를 더 읽어 다음 페이지가 있는지 판단하고, 커서는 페이지 마지막 상품 ID
+     */
+    private Page<Product> pageOf(Integer cursor, int pageSize, Predicate<Product> filter) {
+        if (pageSize <= 0 || pageSize > Constants.MAX_PAGE_SIZE) {
+            throw new RuntimeException("페이지 크기는 1 ~ " + Constants.MAX_PAGE_SIZE + " 사이여야 합니다: " + pageSize);
+        }
+
+        List<Product> items = productRepository.catalog()
+                .after(cursor == null ? 0 : cursor, pageSize + 1, filter);
+        if (items.size() <= pageSize) {
+            return new Page<>(items, null);
+        }
+        items = items.subList(0, pageSize);
+        return new Page<>(items, items.get(pageSize - 1).getId());
+    }
+
     /**
      * 상품 가격 조회
      * @param productId 상품 ID
@@ -222,12 +571,9 @@ public class ProductService {
             throw new RuntimeException("최소 가격이 최대 가격보다 클 수 없습니다.");
         }
 
-        List<Product> allProducts = productRepository.findAll();
-
         // 가격 범위로 필터링
-        List<Product> filteredProducts = allProducts.stream()
-                .filter(product -> product.getPrice() >= minPrice && product.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        List<Product> filteredProducts = productRepository.catalog()
+                .filter(product -> product.getPrice() >= minPrice && product.getPrice() <= maxPrice);
 
         System.out.println(String.format(
                 "[ProductService] 가격 범위 검색: %.0f원 ~ %.0f원, 결과: %d개",
@@ -248,12 +594,10 @@ public class ProductService {
         }
 
         String searchKeyword = keyword.trim().toLowerCase();
-        List<Product> allProducts = productRepository.findAll();
 
         // 상품명에 키워드가 포함된 상품 검색
-        List<Product> searchResults = allProducts.stream()
-                .filter(product -> product.getName().toLowerCase().contains(searchKeyword))
-                .collect(Collectors.toList());
+        List<Product> searchResults = productRepository.catalog()
+                .filter(product -> product.getName().toLowerCase().contains(searchKeyword));
 
         System.out.println(String.format(
                 "[ProductService] 상품명 검색: '%s', 결과: %d개",
@@ -266,19 +610,16 @@ public class ProductService {
     /**
      * 재고 부족 상품 조회 (관리자 기능)
      * @param threshold 재고 임계값
-     * @return 재고가 임계값 이하인 상품 목록
+     * @return 판매 가능 재고가 임계값 이하인 상품 목록 (재고는 판매 가능 수량)
      */
     public List<Product> getLowStockProducts(int threshold) {
         if (threshold < 0) {
             throw new RuntimeException("임계값은 0 이상이어야 합니다.");
         }
 
-        List<Product> allProducts = productRepository.findAll();
-
         // 재고가 임계값 이하인 상품 필터링
-        List<Product> lowStockProducts = allProducts.stream()
-                .filter(product -> product.getStock() <= threshold)
-                .collect(Collectors.toList());
+        List<Product> lowStockProducts = withAvailableStock(productRepository.catalog()
+                .filter(product -> product.getStock() - getHeldStock(product.getId()) <= threshold));
 
         System.out.println(String.format(
                 "[ProductService] 재고 부족 상품 조회 (임계값: %d개): %d개 상품",
@@ -298,7 +639,7 @@ public class ProductService {
     public List<Product> getBestSellerProducts(int limit) {
         // TODO: OrderRepository와 연동하여 판매량 기준 정렬
         // 현재는 전체 상품 중 일부만 반환
-        List<Product> allProducts = productRepository.findAll();
+        List<Product> allProducts = productRepository.catalog().products();
 
         return allProducts.stream()
                 .limit(limit)
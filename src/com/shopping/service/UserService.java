@@ -1,9 +1,30 @@
 package com.shopping.service;
 
+import com.shopping.model.LedgerEntry;
+import com.shopping.model.LedgerEntryType;
+import com.shopping.model.Order;
 import com.shopping.model.User;
+import com.shopping.model.UserOrderSummary;
+import com.shopping.repository.LedgerRepository;
 import com.shopping.repository.UserRepository;
+import com.shopping.util.Constants;
+import com.shopping.util.PasswordHasher;
+import com.shopping.util.RateLimiter;
+import com.shopping.util.StripedLock;
 import com.shopping.util.ValidationUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
 
 /**
  * 사용자 관련 비즈니스 로직을 처리하는 서비스 클래스
@@ -13,13 +34,48 @@ import java.util.Objects;
  * 2. Objects.requireNonNull() 활용
  * 3. 메서드 분리로 가독성 향상
  * 4. 명확한 예외 타입 사용
+ * 5. 변경 메서드는 사용자별 분할 락으로 보호 (같은 사용자만 직렬화)
+ * 6. 패스워드는 PBKDF2 해시로 저장, 해시 계산은 전용 스레드 풀에서 실행
  */
 public class UserService {
 
     private final UserRepository userRepository;
 
-    public UserService() {
-        this.userRepository = new UserRepository();
+    // 잔액은 원장(추가 전용 거래 기록)이 기준, User의 balance 필드는 표시용 사본
+    private final LedgerRepository ledgerRepository;
+
+    // 사용자 ID별 분할 락: 같은 사용자의 변경은 직렬화, 다른 사용자끼리는 동시에 진행
+    private final StripedLock userLocks = new StripedLock(Constants.USER_LOCK_STRIPES);
+
+    // 패스워드 해시 (저장 시 PBKDF2, 검증 시 저장된 반복 횟수 사용)
+    private final PasswordHasher passwordHasher;
+
+    // 해시 계산 전용 스레드 풀 (생성한 쪽이 종료를 책임짐, UserService는 종료하지 않음)
+    private final ExecutorService hashExecutor;
+
+    // 없는 사용자로 로그인할 때 비교할 해시 (실제 사용자와 같은 반복 횟수)
+    private final String dummyPasswordHash;
+
+    // 로그인 시도 제한 (사용자 ID별, 클라이언트 주소별)
+    private final RateLimiter userLoginLimiter = new RateLimiter("login-user",
+            Constants.LOGIN_USER_BURST, Constants.LOGIN_USER_REFILL_MILLIS, Constants.LOGIN_LIMITER_MAX_KEYS);
+    private final RateLimiter clientLoginLimiter = new RateLimiter("login-client",
+            Constants.LOGIN_CLIENT_BURST, Constants.LOGIN_CLIENT_REFILL_MILLIS, Constants.LOGIN_LIMITER_MAX_KEYS);
+
+    /**
+     * UserService 생성자 (ApplicationContext에서 공유 인스턴스와 해시 계산 풀을 넘겨받아 사용)
+     * @param userRepository 공유할 UserRepository
+     * @param ledgerRepository 공유할 LedgerRepository
+     * @param passwordHasher 패스워드 해시 (반복 횟수 설정)
+     * @param hashExecutor 해시 계산 풀 (종료는 호출한 쪽에서)
+     */
+    public UserService(UserRepository userRepository, LedgerRepository ledgerRepository,
+                       PasswordHasher passwordHasher, ExecutorService hashExecutor) {
+        this.userRepository = Objects.requireNonNull(userRepository, "userRepository는 필수입니다");
+        this.ledgerRepository = Objects.requireNonNull(ledgerRepository, "ledgerRepository는 필수입니다");
+        this.passwordHasher = Objects.requireNonNull(passwordHasher, "passwordHasher는 필수입니다");
+        this.hashExecutor = Objects.requireNonNull(hashExecutor, "hashExecutor는 필수입니다");
+        this.dummyPasswordHash = passwordHasher.hash("dummy-password");
     }
 
     /**
@@ -36,17 +92,35 @@ public class UserService {
         // 1. 입력값 검증 (한 곳에 모아서 처리)
         validateRegistrationInput(id, password, name);
 
-        // 2. 비즈니스 규칙 검증 (중복 체크)
+        // 2. 비즈니스 규칙 검증 (중복 체크) - 해시 계산 전에 거절해 이미 있는 ID로 해시 풀을 쓰지 않음
+        requireNewId(id);
+        String passwordHash = runHashTask(() -> passwordHasher.hash(password));
+
+        Lock lock = userLocks.get(id);
+        lock.lock();
+        try {
+            // 해시 계산 중에 같은 ID로 먼저 가입했을 수 있으므로 락 안에서 다시 확인
+            requireNewId(id);
+
+            // 3. User 생성 및 저장
+            User user = new User(id, passwordHash, name.trim());
+            User savedUser = userRepository.save(user);
+            ledgerRepository.adjustTo(savedUser.getId(), savedUser.getBalance(), "초기 잔액");
+
+            System.out.println("[UserService] 새 사용자 등록: " + savedUser.getId());
+            return savedUser;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 이미 있는 ID면 예외
+     */
+    private void requireNewId(String id) {
         if (userRepository.existsById(id)) {
             throw new IllegalStateException("이미 존재하는 ID입니다: " + id);
         }
-
-        // 3. User 생성 및 저장
-        User user = new User(id, password, name.trim());
-        User savedUser = userRepository.save(user);
-
-        System.out.println("[UserService] 새 사용자 등록: " + savedUser.getId());
-        return savedUser;
     }
 
     /**
@@ -61,29 +135,130 @@ public class UserService {
     }
 
     /**
-     * 로그인 처리
+     * 로그인 처리 (콘솔 클라이언트)
      *
      * @param id 사용자 ID
      * @param password 비밀번호
      * @return 로그인된 User 객체
      * @throws IllegalArgumentException 입력값이 유효하지 않을 때
-     * @throws IllegalStateException 인증 실패 시
+     * @throws IllegalStateException 인증 실패 또는 시도 횟수 초과 시
      */
     public User login(String id, String password) {
+        return login(id, password, Constants.LOCAL_CLIENT_ADDRESS);
+    }
+
+    /**
+     * 로그인 처리
+     * 시도 횟수 제한을 먼저 확인하므로 초과한 요청은 파일을 읽지 않고 바로 거부됨
+     *
+     * @param id 사용자 ID
+     * @param password 비밀번호
+     * @param clientAddress 접속한 클라이언트 주소
+     * @return 로그인된 User 객체
+     * @throws IllegalArgumentException 입력값이 유효하지 않을 때
+     * @throws IllegalStateException 인증 실패 또는 시도 횟수 초과 시
+     */
+    public User login(String id, String password, String clientAddress) {
         // 입력값 검증
         ValidationUtils.requireNonEmpty(id, "ID를 입력해주세요");
         ValidationUtils.requireNonEmpty(password, "패스워드를 입력해주세요");
 
+        // 시도 횟수 제한 (클라이언트 → 사용자 순)
+        checkLoginRate(clientLoginLimiter, clientAddress);
+        checkLoginRate(userLoginLimiter, id);
+
         // 사용자 조회
-        User user = findUserById(id);
+        // 없는 ID도 더미 해시로 같은 계산을 거친 뒤 거부 (응답 시간으로 ID 존재 여부를 알 수 없게)
+        User user = userRepository.findById(id);
+        if (user == null) {
+            runHashTask(() -> PasswordHasher.matches(password, dummyPasswordHash));
+            throw new IllegalStateException("사용자를 찾을 수 없습니다: " + id);
+        }
 
-        // 패스워드 검증
-        if (!user.getPassword().equals(password)) {
+        // 패스워드 검증 (해시 계산 전용 풀에서 실행)
+        String stored = user.getPassword();
+        if (!runHashTask(() -> PasswordHasher.matches(password, stored))) {
             throw new IllegalStateException("패스워드가 일치하지 않습니다");
         }
 
+        // 평문이거나 이전 반복 횟수로 만든 해시면 이번 로그인에서 교체
+        if (passwordHasher.needsRehash(stored)) {
+            upgradePassword(user, stored, password);
+        }
+
+        // 성공하면 사용자 ID의 시도 횟수는 초기화 (클라이언트 쪽은 유지)
+        userLoginLimiter.reset(id);
+
         System.out.println("[UserService] 로그인 성공: " + user.getId());
-        return user;
+        return withLedgerBalance(user);
+    }
+
+    /**
+     * 로그인 시도 제한 확인
+     * @throws IllegalStateException 허용 횟수를 넘었을 때
+     */
+    private void checkLoginRate(RateLimiter limiter, String key) {
+        if (!limiter.tryAcquire(key)) {
+            long waitSeconds = Math.max(1, (limiter.getWaitMillis(key) + 999) / 1000);
+            throw new IllegalStateException("로그인 시도가 너무 많습니다. " + waitSeconds + "초 후 다시 시도해주세요");
+        }
+    }
+
+    /**
+     * 저장된 패스워드를 현재 설정의 해시로 교체
+     * 실패해도 로그인은 성공시킴 (다음 로그인에서 다시 시도)
+     */
+    private void upgradePassword(User user, String verifiedStored, String password) {
+        try {
+            String upgraded = runHashTask(() -> passwordHasher.hash(password));
+
+            Lock lock = userLocks.get(user.getId());
+            lock.lock();
+            try {
+                // 검증 이후 패스워드가 바뀌었으면 교체하지 않음
+                User current = findUserById(user.getId());
+                if (!current.getPassword().equals(verifiedStored)) {
+                    return;
+                }
+                current.setPassword(upgraded);
+                userRepository.update(current);
+                user.setPassword(upgraded);
+            } finally {
+                lock.unlock();
+            }
+
+            System.out.println("[UserService] 패스워드 해시 갱신: " + user.getId());
+        } catch (RuntimeException e) {
+            System.err.println("[UserService] 패스워드 해시 갱신 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 해시 계산 작업을 전용 풀에서 실행하고 결과를 기다림
+     *
+     * @throws IllegalStateException 대기열이 가득 찼거나 대기 중 인터럽트되었을 때
+     */
+    private <T> T runHashTask(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("패스워드 확인이 중단되었습니다", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("패스워드 확인 실패: " + cause.getMessage(), cause);
+        }
     }
 
     /**
@@ -104,15 +279,37 @@ public class UserService {
     }
 
     /**
-     * 사용자 잔액 조회
+     * 원장 계좌 확보
+     * 원장 도입 이전에 가입한 사용자는 User에 저장된 잔액으로 계좌를 개설 (최초 1회)
+     */
+    private void ensureAccount(User user) {
+        if (!ledgerRepository.hasAccount(user.getId())) {
+            ledgerRepository.openAccount(user.getId(), user.getBalance(), "기존 잔액 이관");
+        }
+    }
+
+    /**
+     * User 객체의 잔액 필드를 원장 잔액으로 맞춤 (화면 표시용, 저장하지 않음)
+     */
+    private User withLedgerBalance(User user) {
+        ensureAccount(user);
+        user.setBalance(ledgerRepository.getBalance(user.getId()));
+        return user;
+    }
+
+    /**
+     * 사용자 잔액 조회 (원장의 메모리 잔액, 파일을 읽지 않음)
      */
     public double getBalance(String userId) {
-        User user = findUserById(userId);
-        return user.getBalance();
+        Double balance = ledgerRepository.getBalance(userId);
+        if (balance != null) {
+            return balance;
+        }
+        return withLedgerBalance(findUserById(userId)).getBalance();
     }
 
     /**
-     * 사용자 잔액 업데이트
+     * 사용자 잔액 업데이트 (차액을 조정 거래로 기록)
      */
     public void updateBalance(String userId, double newBalance) {
         // 비즈니스 규칙: 잔액은 음수가 될 수 없음
@@ -120,13 +317,17 @@ public class UserService {
             throw new IllegalArgumentException("잔액은 음수가 될 수 없습니다: " + newBalance);
         }
 
-        User user = findUserById(userId);
-        double oldBalance = user.getBalance();
-        user.setBalance(newBalance);
-        userRepository.update(user);
+        Lock lock = userLocks.get(userId);
+        lock.lock();
+        try {
+            ensureAccount(findUserById(userId));
+            LedgerEntry entry = ledgerRepository.adjustTo(userId, newBalance, "잔액 조정");
 
-        System.out.printf("[UserService] 잔액 변경: %s (%.0f → %.0f)%n",
-                userId, oldBalance, newBalance);
+            System.out.printf("[UserService] 잔액 변경: %s (%.0f → %.0f)%n",
+                    userId, entry.getBalanceAfter() - entry.getAmount(), newBalance);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -137,24 +338,22 @@ public class UserService {
     public boolean deductBalance(String userId, double amount) {
         validateAmount(amount, "차감");
 
+        Lock lock = userLocks.get(userId);
+        lock.lock();
         try {
-            User user = findUserById(userId);
-
-            // 잔액 부족 체크
-            if (user.getBalance() < amount) {
-                return false;
-            }
+            ensureAccount(findUserById(userId));
 
-            // 잔액 차감
-            user.setBalance(user.getBalance() - amount);
-            userRepository.update(user);
+            // 잔액 부족이면 원장이 IllegalStateException을 던짐
+            ledgerRepository.post(LedgerEntry.pending(userId, LedgerEntryType.DEBIT, -amount, "잔액 차감"));
 
             System.out.printf("[UserService] 잔액 차감: %s (-%.0f)%n", userId, amount);
             return true;
 
         } catch (IllegalStateException e) {
-            // 사용자를 찾을 수 없는 경우
+            // 사용자를 찾을 수 없거나 잔액이 부족한 경우
             return false;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -164,11 +363,143 @@ public class UserService {
     public void addBalance(String userId, double amount) {
         validateAmount(amount, "충전");
 
-        User user = findUserById(userId);
-        user.setBalance(user.getBalance() + amount);
-        userRepository.update(user);
+        Lock lock = userLocks.get(userId);
+        lock.lock();
+        try {
+            ensureAccount(findUserById(userId));
+            ledgerRepository.post(LedgerEntry.pending(userId, LedgerEntryType.CREDIT, amount, "잔액 충전"));
+
+            System.out.printf("[UserService] 잔액 충전: %s (+%.0f)%n", userId, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주문 결제: 원장에 출금 기록 후 주문 요약 갱신
+     * 요약 저장에 실패하면 환불 거래로 되돌림
+     *
+     * @param order 결제할 주문
+     * @throws IllegalStateException 사용자가 없거나 잔액이 부족할 때
+     */
+    public void chargeForOrder(Order order) {
+        Lock lock = userLocks.get(order.getUserId());
+        lock.lock();
+        try {
+            User user = findUserById(order.getUserId());
+            ensureAccount(user);
+
+            LedgerEntry entry = ledgerRepository.post(LedgerEntry.pending(user.getId(), LedgerEntryType.DEBIT,
+                    -order.getTotalPrice(), "주문 #" + order.getOrderId()));
+            try {
+                user.setBalance(entry.getBalanceAfter());
+                user.getOrderSummary().apply(order);
+                userRepository.update(user);
+            } catch (RuntimeException e) {
+                ledgerRepository.post(LedgerEntry.pending(user.getId(), LedgerEntryType.REFUND,
+                        order.getTotalPrice(), "주문 #" + order.getOrderId() + " 결제 취소"));
+                throw e;
+            }
 
-        System.out.printf("[UserService] 잔액 충전: %s (+%.0f)%n", userId, amount);
+            System.out.printf("[UserService] 주문 결제: %s (-%.0f)%n", user.getId(), order.getTotalPrice());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주문 여러 건 일괄 결제 (원장에 한 번에 기록, 사용자 파일은 한 번만 저장)
+     * 한 건이라도 결제할 수 없으면 아무것도 기록하지 않음
+     *
+     * @param orders 결제할 주문들
+     * @throws IllegalStateException 사용자가 없거나 잔액이 부족할 때
+     */
+    public void chargeForOrders(List<Order> orders) {
+        Set<String> userIds = new HashSet<>();
+        for (Order order : orders) {
+            userIds.add(order.getUserId());
+        }
+
+        // 관련 사용자 락을 모두 잡음 (락 번호 순서로 잠가 교착 상태 방지)
+        List<Lock> locked = userLocks.lockAll(userIds);
+        try {
+            Map<String, User> users = new HashMap<>();
+            List<LedgerEntry> debits = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                User user = users.get(order.getUserId());
+                if (user == null) {
+                    user = findUserById(order.getUserId());
+                    ensureAccount(user);
+                    users.put(user.getId(), user);
+                }
+                debits.add(LedgerEntry.pending(user.getId(), LedgerEntryType.DEBIT,
+                        -order.getTotalPrice(), "주문 #" + order.getOrderId()));
+            }
+
+            List<LedgerEntry> committed = ledgerRepository.postAll(debits);
+            try {
+                for (int i = 0; i < orders.size(); i++) {
+                    User user = users.get(orders.get(i).getUserId());
+                    user.setBalance(committed.get(i).getBalanceAfter());
+                    user.getOrderSummary().apply(orders.get(i));
+                }
+                userRepository.updateAll(users.values());
+            } catch (RuntimeException e) {
+                List<LedgerEntry> refunds = new ArrayList<>(orders.size());
+                for (Order order : orders) {
+                    refunds.add(LedgerEntry.pending(order.getUserId(), LedgerEntryType.REFUND,
+                            order.getTotalPrice(), "주문 #" + order.getOrderId() + " 결제 취소"));
+                }
+                ledgerRepository.postAll(refunds);
+                throw e;
+            }
+
+            System.out.printf("[UserService] 일괄 결제: 주문 %d건, 사용자 %d명%n", orders.size(), users.size());
+        } finally {
+            StripedLock.unlockAll(locked);
+        }
+    }
+
+    /**
+     * 주문 환불: 원장에 환불 기록 후 주문 요약 차감
+     *
+     * @param order 환불할 주문
+     * @throws IllegalStateException 사용자를 찾을 수 없을 때
+     */
+    public void refundOrder(Order order) {
+        Lock lock = userLocks.get(order.getUserId());
+        lock.lock();
+        try {
+            User user = findUserById(order.getUserId());
+            ensureAccount(user);
+
+            LedgerEntry entry = ledgerRepository.post(LedgerEntry.pending(user.getId(), LedgerEntryType.REFUND,
+                    order.getTotalPrice(), "주문 #" + order.getOrderId() + " 환불"));
+            user.setBalance(entry.getBalanceAfter());
+            user.getOrderSummary().revert(order);
+            userRepository.update(user);
+
+            System.out.printf("[UserService] 주문 환불: %s (+%.0f)%n", user.getId(), order.getTotalPrice());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 사용자 주문 요약 조회 (주문 목록을 읽지 않음)
+     */
+    public UserOrderSummary getOrderSummary(String userId) {
+        return findUserById(userId).getOrderSummary();
+    }
+
+    /**
+     * 잔액 거래 이력 조회
+     * @param userId 사용자 ID
+     * @return 거래 목록 (오래된 순)
+     */
+    public List<LedgerEntry> getBalanceHistory(String userId) {
+        findUserById(userId);
+        return ledgerRepository.findByUserId(userId);
     }
 
     /**
@@ -184,7 +515,7 @@ public class UserService {
      * 사용자 정보 조회
      */
     public User getUser(String userId) {
-        return findUserById(userId);
+        return withLedgerBalance(findUserById(userId));
     }
 
     /**
@@ -194,18 +525,26 @@ public class UserService {
         // 입력값 검증
         ValidationUtils.requireNonEmpty(oldPassword, "현재 패스워드를 입력해주세요");
         ValidationUtils.requireMinLength(newPassword, 4, "새 패스워드는 최소 4자리 이상이어야 합니다");
+        String newHash = runHashTask(() -> passwordHasher.hash(newPassword));
 
-        User user = findUserById(userId);
+        Lock lock = userLocks.get(userId);
+        lock.lock();
+        try {
+            User user = findUserById(userId);
 
-        // 현재 패스워드 확인
-        if (!user.getPassword().equals(oldPassword)) {
-            throw new IllegalStateException("현재 패스워드가 일치하지 않습니다");
-        }
+            // 현재 패스워드 확인
+            String stored = user.getPassword();
+            if (!runHashTask(() -> PasswordHasher.matches(oldPassword, stored))) {
+                throw new IllegalStateException("현재 패스워드가 일치하지 않습니다");
+            }
 
-        // 패스워드 변경
-        user.setPassword(newPassword);
-        userRepository.update(user);
+            // 패스워드 변경 (해시로 저장)
+            user.setPassword(newHash);
+            userRepository.update(user);
 
-        System.out.println("[UserService] 패스워드 변경 완료: " + userId);
+            System.out.println("[UserService] 패스워드 변경 완료: " + userId);
+        } finally {
+            lock.unlock();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+// ===============================================
+// IntMapBenchmark.java - int 키 맵 vs HashMap<Integer, ...> 비교
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.util.IntIntMap;
+import com.shopping.util.IntObjectMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 항목 N개(기본 100만)에서 IntIntMap / IntObjectMap과 HashMap<Integer, ...>의
+ * 적재 시간, 조회 시간(있는 키 / 없는 키), 유지 힙 크기를 비교
+ *
+ * 키는 상품/주문 ID처럼 1부터 연속된 값, 조회 순서는 무작위
+ * 각 측정은 ROUNDS번 반복해 가장 짧은 값 사용 (앞의 반복이 JIT 예열 역할)
+ *
+ * 실행: java com.shopping.test.IntMapBenchmark [항목 수]
+ */
+public class IntMapBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    // 결과를 사용해 JIT가 조회를 없애지 못하게 함
+    private static long sink;
+
+    // 항목 수
+    private static int count;
+
+    public static void main(String[] args) {
+        count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = i + 1;
+        }
+        int[] lookups = shuffled(keys, new Random(42));
+        int[] misses = new int[count];
+        for (int i = 0; i < count; i++) {
+            misses[i] = -lookups[i];
+        }
+
+        System.out.println("\n=== int → int (" + count + "개) ===");
+        printHeader();
+        benchmarkBoxedInt(keys, lookups, misses);
+        benchmarkIntInt(keys, lookups, misses);
+
+        System.out.println("\n=== int → 객체 (" + count + "개) ===");
+        printHeader();
+        benchmarkBoxedObject(keys, lookups, misses);
+        benchmarkIntObject(keys, lookups, misses);
+
+        System.out.println("(sink=" + sink + ")");
+    }
+
+    private static void benchmarkBoxedInt(int[] keys, int[] lookups, int[] misses) {
+        long put = Long.MAX_VALUE;
+        long hit = Long.MAX_VALUE;
+        long miss = Long.MAX_VALUE;
+        long retained = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int key : keys) {
+                map.put(key, key * 2);
+            }
+            put = Math.min(put, System.nanoTime() - start);
+            retained = usedHeap() - before;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int key : lookups) {
+                sum += map.get(key);
+            }
+            hit = Math.min(hit, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : misses) {
+                if (map.get(key) != null) {
+                    sum++;
+                }
+            }
+            miss = Math.min(miss, System.nanoTime() - start);
+            sink += sum + map.size();
+        }
+        printRow("HashMap<Integer,Integer>", put, hit, miss, retained);
+    }
+
+    private static void benchmarkIntInt(int[] keys, int[] lookups, int[] misses) {
+        long put = Long.MAX_VALUE;
+        long hit = Long.MAX_VALUE;
+        long miss = Long.MAX_VALUE;
+        long retained = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            IntIntMap map = new IntIntMap(-1);
+            for (int key : keys) {
+                map.put(key, key * 2);
+            }
+            put = Math.min(put, System.nanoTime() - start);
+            retained = usedHeap() - before;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int key : lookups) {
+                sum += map.get(key);
+            }
+            hit = Math.min(hit, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : misses) {
+                if (map.get(key) != -1) {
+                    sum++;
+                }
+            }
+            miss = Math.min(miss, System.nanoTime() - start);
+            sink += sum + map.size();
+        }
+        printRow("IntIntMap", put, hit, miss, retained);
+    }
+
+    private static void benchmarkBoxedObject(int[] keys, int[] lookups, int[] misses) {
+        String[] values = values(keys.length);
+        long put = Long.MAX_VALUE;
+        long hit = Long.MAX_VALUE;
+        long miss = Long.MAX_VALUE;
+        long retained = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            Map<Integer, String> map = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], values[i]);
+            }
+            put = Math.min(put, System.nanoTime() - start);
+            retained = usedHeap() - before;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int key : lookups) {
+                sum += map.get(key).length();
+            }
+            hit = Math.min(hit, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : misses) {
+                if (map.get(key) != null) {
+                    sum++;
+                }
+            }
+            miss = Math.min(miss, System.nanoTime() - start);
+            sink += sum + map.size();
+        }
+        printRow("HashMap<Integer,V>", put, hit, miss, retained);
+    }
+
+    private static void benchmarkIntObject(int[] keys, int[] lookups, int[] misses) {
+        String[] values = values(keys.length);
+        long put = Long.MAX_VALUE;
+        long hit = Long.MAX_VALUE;
+        long miss = Long.MAX_VALUE;
+        long retained = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            IntObjectMap<String> map = new IntObjectMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], values[i]);
+            }
+            put = Math.min(put, System.nanoTime() - start);
+            retained = usedHeap() - before;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int key : lookups) {
+                sum += map.get(key).length();
+            }
+            hit = Math.min(hit, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : misses) {
+                if (map.get(key) != null) {
+                    sum++;
+                }
+            }
+            miss = Math.min(miss, System.nanoTime() - start);
+            sink += sum + map.size();
+        }
+        printRow("IntObjectMap<V>", put, hit, miss, retained);
+    }
+
+    // ===== 도우미 =====
+
+    private static int[] shuffled(int[] source, Random random) {
+        int[] result = source.clone();
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+
+    private static String[] values(int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = "v" + i;
+        }
+        return values;
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-26s %10s %12s %12s %12s%n", "구현", "적재(ms)", "조회(ns/건)", "없는 키(ns/건)", "유지 힙(MB)");
+    }
+
+    private static void printRow(String name, long putNanos, long hitNanos, long missNanos, long retainedBytes) {
+        System.out.printf("%-26s %10d %12.1f %12.1f %12d%n", name, putNanos / 1_000_000,
+                (double) hitNanos / count, (double) missNanos / count, retainedBytes >> 20);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
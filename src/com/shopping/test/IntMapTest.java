@@ -0,0 +1,372 @@
+// ===============================================
+// IntMapTest.java - IntIntMap / IntObjectMap 동작 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.util.IntIntMap;
+import com.shopping.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * int 키 오픈 어드레싱 맵 테스트 (HashMap과 결과 비교)
+ *
+ * 테스트 범위:
+ * 1. 기본 동작: 키 0, 음수 키/값, noValue, null 값 거부
+ * 2. 확장(resize): 작은 용량에서 시작해 많이 넣어도 모든 키가 조회되는지
+ * 3. 삭제: 삭제 표시(tombstone) 없이 뒤 항목을 당겨 채우므로,
+ *    충돌이 많은 좁은 키 범위에서 넣고 지우기를 반복해도 조회가 HashMap과 같은지
+ * 4. 순회: keys()/forEach()/values()가 남아 있는 항목과 정확히 같은지
+ *
+ * 무작위 테스트는 시드를 고정해 실패를 재현할 수 있게 함
+ */
+public class IntMapTest {
+
+    private static final int NO_VALUE = -1;
+    private static final long SEED = 20240301L;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=========================================");
+        System.out.println("        IntIntMap / IntObjectMap 테스트");
+        System.out.println("=========================================\n");
+
+        System.out.println("[SECTION 1] 기본 동작");
+        System.out.println("-----------------------------------------");
+        testIntIntBasics();
+        testIntIntEdgeKeys();
+        testIntObjectBasics();
+
+        System.out.println("\n[SECTION 2] 확장");
+        System.out.println("-----------------------------------------");
+        testIntIntResize();
+        testIntObjectResize();
+
+        System.out.println("\n[SECTION 3] 삭제 (당겨 채우기)");
+        System.out.println("-----------------------------------------");
+        testIntIntRandomOps();
+        testIntObjectRandomOps();
+        testSlidingWindow();
+        testRemoveAllThenReuse();
+
+        System.out.println("\n[SECTION 4] 순회");
+        System.out.println("-----------------------------------------");
+        testIteration();
+
+        printTestResults();
+    }
+
+    /**
+     * put/get/remove 반환값과 noValue
+     */
+    private static void testIntIntBasics() {
+        String testName = "IntIntMap 기본";
+        totalTests++;
+
+        IntIntMap map = new IntIntMap(NO_VALUE);
+        boolean success = map.get(7) == NO_VALUE
+                && map.put(7, 70) == NO_VALUE
+                && map.put(7, 71) == 70
+                && map.get(7) == 71
+                && !map.putIfAbsent(7, 72)
+                && map.putIfAbsent(8, 80)
+                && map.size() == 2
+                && map.remove(7) == 71
+                && map.remove(7) == NO_VALUE
+                && !map.containsKey(7)
+                && map.size() == 1;
+        printTestResult(testName, success, success ? "" : "size=" + map.size());
+    }
+
+    /**
+     * 키 0(배열 밖 보관), 음수 키/값, 최솟값/최댓값
+     */
+    private static void testIntIntEdgeKeys() {
+        String testName = "IntIntMap 경계 키";
+        totalTests++;
+
+        IntIntMap map = new IntIntMap(0);
+        int[] keys = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 1};
+        int[] values = {-5, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+
+        boolean success = map.size() == keys.length;
+        for (int i = 0; success && i < keys.length; i++) {
+            success = map.containsKey(keys[i]) && map.get(keys[i]) == values[i];
+        }
+        // 값이 noValue(0)와 같아도 containsKey로 구분됨
+        success = success && map.containsKey(Integer.MAX_VALUE) && map.remove(0) == -5
+                && !map.containsKey(0) && map.size() == keys.length - 1;
+        printTestResult(testName, success, success ? "" : "size=" + map.size());
+    }
+
+    /**
+     * IntObjectMap 기본 동작과 null 값 거부
+     */
+    private static void testIntObjectBasics() {
+        String testName = "IntObjectMap 기본";
+        totalTests++;
+
+        IntObjectMap<String> map = new IntObjectMap<>();
+        boolean rejected = false;
+        try {
+            map.put(1, null);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+
+        boolean success = rejected
+                && map.put(0, "zero") == null
+                && map.put(-3, "minus") == null
+                && "zero".equals(map.put(0, "zero2"))
+                && "zero2".equals(map.get(0))
+                && "기본".equals(map.getOrDefault(99, "기본"))
+                && "minus".equals(map.remove(-3))
+                && map.remove(-3) == null
+                && map.size() == 1;
+        printTestResult(testName, success, success ? "" : "rejected=" + rejected + ", size=" + map.size());
+    }
+
+    /**
+     * 최소 용량에서 10만 개까지 여러 번 확장
+     */
+    private static void testIntIntResize() {
+        String testName = "IntIntMap 확장";
+        totalTests++;
+
+        IntIntMap map = new IntIntMap(NO_VALUE, 0);
+        int count = 100_000;
+        for (int i = 1; i <= count; i++) {
+            map.put(i * 31, i);
+        }
+        boolean success = map.size() == count;
+        for (int i = 1; success && i <= count; i++) {
+            success = map.get(i * 31) == i && !map.containsKey(i * 31 + 1);
+        }
+        printTestResult(testName, success, success ? "" : "size=" + map.size());
+    }
+
+    private static void testIntObjectResize() {
+        String testName = "IntObjectMap 확장";
+        totalTests++;
+
+        IntObjectMap<Integer> map = new IntObjectMap<>(0);
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            map.put(-i, i);
+        }
+        boolean success = map.size() == count;
+        for (int i = 0; success && i < count; i++) {
+            success = Integer.valueOf(i).equals(map.get(-i)) && !map.containsKey(i + count);
+        }
+        printTestResult(testName, success, success ? "" : "size=" + map.size());
+    }
+
+    /**
+     * 좁은 키 범위(충돌 많음)에서 무작위 put/remove/get을 HashMap과 비교
+     */
+    private static void testIntIntRandomOps() {
+        String testName = "IntIntMap 무작위";
+        totalTests++;
+
+        Random random = new Random(SEED);
+        IntIntMap map = new IntIntMap(NO_VALUE);
+        Map<Integer, Integer> expected = new HashMap<>();
+        String detail = "";
+        boolean success = true;
+
+        for (int op = 0; op < 500_000 && success; op++) {
+            int key = random.nextInt(2_000) - 1_000;
+            int choice = random.nextInt(10);
+            if (choice < 4) {
+                int value = random.nextInt(1_000_000);
+                Integer previous = expected.put(key, value);
+                success = map.put(key, value) == (previous != null ? previous : NO_VALUE);
+            } else if (choice < 8) {
+                Integer previous = expected.remove(key);
+                success = map.remove(key) == (previous != null ? previous : NO_VALUE);
+            } else {
+                Integer value = expected.get(key);
+                success = map.get(key) == (value != null ? value : NO_VALUE)
+                        && map.containsKey(key) == (value != null);
+            }
+            if (!success) {
+                detail = op + "번째 연산, 키 " + key;
+            }
+        }
+        success = success && map.size() == expected.size() && sameKeys(map.keys(), expected);
+        printTestResult(testName, success, success ? "" : detail + ", size " + map.size() + "/" + expected.size());
+    }
+
+    private static void testIntObjectRandomOps() {
+        String testName = "IntObjectMap 무작위";
+        totalTests++;
+
+        Random random = new Random(SEED + 1);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        String detail = "";
+        boolean success = true;
+
+        for (int op = 0; op < 500_000 && success; op++) {
+            int key = random.nextInt(2_000) - 1_000;
+            int choice = random.nextInt(10);
+            if (choice < 4) {
+                Integer value = random.nextInt(1_000_000);
+                success = equal(map.put(key, value), expected.put(key, value));
+            } else if (choice < 8) {
+                success = equal(map.remove(key), expected.remove(key));
+            } else {
+                success = equal(map.get(key), expected.get(key)) && map.containsKey(key) == expected.containsKey(key);
+            }
+            if (!success) {
+                detail = op + "번째 연산, 키 " + key;
+            }
+        }
+        success = success && map.size() == expected.size();
+        printTestResult(testName, success, success ? "" : detail + ", size " + map.size() + "/" + expected.size());
+    }
+
+    /**
+     * 앞에서 지우고 뒤에 넣기를 계속 반복 (주문 키 만료처럼)
+     * 삭제 표시가 남는 방식이면 빈 칸이 사라져 없는 키 조회가 끝나지 않거나 느려짐
+     */
+    private static void testSlidingWindow() {
+        String testName = "밀어내기 반복";
+        totalTests++;
+
+        int window = 1_000;
+        IntIntMap ints = new IntIntMap(NO_VALUE);
+        IntObjectMap<String> objects = new IntObjectMap<>();
+        long start = System.nanoTime();
+        for (int key = 1; key <= 1_000_000; key++) {
+            ints.put(key, key);
+            objects.put(key, "v");
+            if (key > window) {
+                ints.remove(key - window);
+                objects.remove(key - window);
+            }
+        }
+
+        boolean success = ints.size() == window && objects.size() == window;
+        for (int key = 1_000_000 - window + 1; success && key <= 1_000_000; key++) {
+            success = ints.get(key) == key && objects.containsKey(key);
+        }
+        for (int key = 1; success && key <= 1_000_000 - window; key += 997) {
+            success = !ints.containsKey(key) && objects.get(key) == null;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        success = success && elapsedMillis < 10_000;
+        printTestResult(testName, success, success ? "" : "size " + ints.size() + "/" + objects.size()
+                + ", " + elapsedMillis + "ms");
+    }
+
+    /**
+     * 전부 지운 뒤 다시 넣어도 이전 항목이 보이지 않음
+     */
+    private static void testRemoveAllThenReuse() {
+        String testName = "전부 삭제 후 재사용";
+        totalTests++;
+
+        IntIntMap map = new IntIntMap(NO_VALUE);
+        for (int i = 0; i < 5_000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 4_999; i >= 0; i--) {
+            map.remove(i);
+        }
+        boolean emptied = map.isEmpty() && map.keys().length == 0;
+        for (int i = 0; i < 5_000; i += 2) {
+            map.put(i, -i);
+        }
+
+        boolean success = emptied && map.size() == 2_500;
+        for (int i = 0; success && i < 5_000; i++) {
+            success = i % 2 == 0 ? map.get(i) == -i : !map.containsKey(i);
+        }
+        map.clear();
+        success = success && map.isEmpty() && !map.containsKey(0) && map.get(2) == NO_VALUE;
+        printTestResult(testName, success, success ? "" : "emptied=" + emptied + ", size=" + map.size());
+    }
+
+    /**
+     * keys()/forEach()/values()가 남은 항목과 같음
+     */
+    private static void testIteration() {
+        String testName = "순회";
+        totalTests++;
+
+        IntIntMap ints = new IntIntMap(NO_VALUE);
+        IntObjectMap<Integer> objects = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = -50; i <= 50; i++) {
+            ints.put(i, i * 2);
+            objects.put(i, i * 2);
+            expected.put(i, i * 2);
+        }
+        for (int i = -50; i <= 50; i += 3) {
+            ints.remove(i);
+            objects.remove(i);
+            expected.remove(i);
+        }
+
+        Map<Integer, Integer> fromInts = new HashMap<>();
+        ints.forEach(fromInts::put);
+        Map<Integer, Integer> fromObjects = new HashMap<>();
+        objects.forEach(fromObjects::put);
+        List<Integer> values = new ArrayList<>(objects.values());
+        List<Integer> expectedValues = new ArrayList<>(expected.values());
+        values.sort(null);
+        expectedValues.sort(null);
+
+        boolean success = fromInts.equals(expected) && fromObjects.equals(expected)
+                && sameKeys(ints.keys(), expected) && values.equals(expectedValues);
+        printTestResult(testName, success, success ? "" : "forEach " + fromInts.size() + "/" + fromObjects.size()
+                + ", 기대 " + expected.size());
+    }
+
+    private static boolean sameKeys(int[] keys, Map<Integer, Integer> expected) {
+        if (keys.length != expected.size()) {
+            return false;
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int[] expectedKeys = expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        return Arrays.equals(sorted, expectedKeys);
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
@@ -0,0 +1,179 @@
+// ===============================================
+// LegacyOrderMigrationTest.java - 구버전 orders.dat 이전 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.DailySales;
+import com.shopping.model.Order;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderLog;
+import com.shopping.repository.OrderRepository;
+import com.shopping.util.Constants;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 구버전(Date orderDate 필드) 형식의 orders.dat를 주문 로그로 이전하는 테스트
+ *
+ * 테스트 범위:
+ * 1. 이전 후 주문 일시가 구버전 orderDate와 같은지 (1970년으로 바뀌지 않는지)
+ * 2. 일별 매출이 원래 날짜로 집계되는지
+ * 3. 다시 시작해도 이전된 주문이 그대로인지, orders.dat가 지워졌는지
+ *
+ * 이전 대상 파일명이 data/orders.dat로 고정이므로, 이미 주문 데이터가 있으면 실행하지 않음
+ * (주문 로그는 legacy-test- 로 시작하는 파일만 만들고 끝나면 지움)
+ */
+public class LegacyOrderMigrationTest {
+
+    private static final String ORDER_PREFIX = "legacy-test-orders-";
+
+    // 구버전 Order(serialVersionUID 1L, Date orderDate)로 직렬화한 ArrayList<Order> 3건
+    // 1: alice, 상품 10, 1개, 1000원, 2024-03-01T01:00:00Z
+    // 2: alice, 상품 11, 2개, 2000원, 2024-03-02T01:00:00Z
+    // 3: bob,   상품 12, 3개, 3000원, 2024-03-03T01:00:00Z
+    private static final String LEGACY_ORDERS_DAT =
+        "rO0ABXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAADdwQAAAAD" +
+        "c3IAGGNvbS5zaG9wcGluZy5tb2RlbC5PcmRlcgAAAAAAAAABAgAGSQAHb3JkZXJJZEkACXByb2R1" +
+        "Y3RJZEkACHF1YW50aXR5RAAKdG90YWxQcmljZUwACW9yZGVyRGF0ZXQAEExqYXZhL3V0aWwvRGF0" +
+        "ZTtMAAZ1c2VySWR0ABJMamF2YS9sYW5nL1N0cmluZzt4cAAAAAEAAAAKAAAAAUCPQAAAAAAAc3IA" +
+        "DmphdmEudXRpbC5EYXRlaGqBAUtZdBkDAAB4cHcIAAABjfeGcoB4dAAFYWxpY2VzcQB+AAIAAAAC" +
+        "AAAACwAAAAJAn0AAAAAAAHNxAH4ABncIAAABjfyszoB4cQB+AAhzcQB+AAIAAAADAAAADAAAAANA" +
+        "p3AAAAAAAHNxAH4ABncIAAABjgHTKoB4dAADYm9ieA==";
+
+    private static final long[] ORDER_TIMES = {1709254800000L, 1709341200000L, 1709427600000L};
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=========================================");
+        System.out.println("     구버전 주문 데이터 이전 테스트");
+        System.out.println("=========================================\n");
+
+        if (FileManager.getDataFile(Constants.ORDER_DATA_FILE).exists() || testFiles().length > 0) {
+            System.out.println("data 디렉토리에 주문 데이터가 있어 실행하지 않습니다 (빈 디렉토리에서 실행하세요)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        Files.write(FileManager.getDataFile(Constants.ORDER_DATA_FILE).toPath(),
+                Base64.getDecoder().decode(LEGACY_ORDERS_DAT));
+        try {
+            System.out.println("[SECTION 1] 이전");
+            System.out.println("-----------------------------------------");
+            OrderRepository repository = open();
+            testOrderTimestamps(repository);
+            testOrderFields(repository);
+            testDailySales(repository);
+
+            System.out.println("\n[SECTION 2] 다시 시작");
+            System.out.println("-----------------------------------------");
+            testLegacyFileDeleted();
+            testOrderTimestamps(open());
+        } finally {
+            FileManager.deleteFile(Constants.ORDER_DATA_FILE);
+            for (File file : testFiles()) {
+                file.delete();
+            }
+        }
+
+        printTestResults();
+    }
+
+    private static OrderRepository open() {
+        return new OrderRepository(new OrderLog(ORDER_PREFIX, ".seg", 16L * 1024 * 1024), null, 0);
+    }
+
+    /**
+     * 주문 일시가 구버전 orderDate 그대로인지
+     */
+    private static void testOrderTimestamps(OrderRepository repository) {
+        String testName = "주문 일시 보존";
+        totalTests++;
+
+        List<Order> orders = repository.findAll();
+        boolean success = orders.size() == ORDER_TIMES.length;
+        String detail = "주문 수 " + orders.size();
+        for (int i = 0; success && i < ORDER_TIMES.length; i++) {
+            Order order = repository.findById(i + 1);
+            success = order != null && order.getOrderTimestamp() == ORDER_TIMES[i];
+            detail = "주문 " + (i + 1) + ": " + (order == null ? "없음" : Instant.ofEpochMilli(order.getOrderTimestamp()));
+        }
+        printTestResult(testName, success, success ? "" : detail);
+    }
+
+    /**
+     * 나머지 필드와 상태 (구버전에는 상태가 없으므로 ORDERED)
+     */
+    private static void testOrderFields(OrderRepository repository) {
+        String testName = "주문 필드";
+        totalTests++;
+
+        Order order = repository.findById(3);
+        boolean success = order != null
+                && "bob".equals(order.getUserId())
+                && order.getProductId() == 12
+                && order.getQuantity() == 3
+                && order.getTotalPrice() == 3000.0
+                && !order.isCancelled()
+                && repository.countByUserId("alice") == 2;
+        printTestResult(testName, success, success ? "" : String.valueOf(order));
+    }
+
+    /**
+     * 일별 매출이 원래 날짜로 집계되는지
+     */
+    private static void testDailySales(OrderRepository repository) {
+        String testName = "일별 매출 날짜";
+        totalTests++;
+
+        LocalDate first = Instant.ofEpochMilli(ORDER_TIMES[0]).atZone(ZoneId.systemDefault()).toLocalDate();
+        List<DailySales> sales = repository.getDailySales(first, first.plusDays(2));
+        boolean success = sales.size() == 3;
+        for (int i = 0; success && i < sales.size(); i++) {
+            success = sales.get(i).getDate().equals(first.plusDays(i)) && sales.get(i).getOrderCount() == 1;
+        }
+        printTestResult(testName, success, success ? "" : sales.toString());
+    }
+
+    private static void testLegacyFileDeleted() {
+        String testName = "orders.dat 삭제";
+        totalTests++;
+        boolean success = !FileManager.getDataFile(Constants.ORDER_DATA_FILE).exists();
+        printTestResult(testName, success, success ? "" : "파일이 남아 있음");
+    }
+
+    private static File[] testFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("legacy-test-"));
+        return files != null ? files : new File[0];
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
@@ -0,0 +1,85 @@
+// ===============================================
+// OffHeapCatalogBenchmark.java - 상품 보관 방식별 힙 사용량 측정
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.Product;
+import com.shopping.persistence.OffHeapProductTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 상품 N개를 힙 객체 목록과 OffHeapProductTable에 각각 적재했을 때
+ * 힙 사용량, 힙 밖 사용량, 적재/전체 조회 시간을 비교
+ *
+ * 실행: java -Xmx2g com.shopping.test.OffHeapCatalogBenchmark [상품 수]
+ */
+public class OffHeapCatalogBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+
+        // 1. 힙 객체 목록
+        long start = System.nanoTime();
+        List<Product> heap = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            heap.add(product(i));
+        }
+        long heapLoadMillis = elapsedMillis(start);
+        long heapUsed = usedHeap() - baseline;
+
+        start = System.nanoTime();
+        long heapStock = 0;
+        for (Product product : heap) {
+            heapStock += product.getStock();
+        }
+        long heapScanMillis = elapsedMillis(start);
+        heap = null;
+
+        // 2. 힙 밖 테이블
+        baseline = usedHeap();
+        start = System.nanoTime();
+        OffHeapProductTable table = new OffHeapProductTable();
+        for (int i = 1; i <= count; i++) {
+            table.load(i, product(i));
+        }
+        long tableLoadMillis = elapsedMillis(start);
+        long tableUsed = usedHeap() - baseline;
+
+        start = System.nanoTime();
+        long tableStock = 0;
+        for (int i = 1; i <= count; i++) {
+            tableStock += table.getStock(i);
+        }
+        long tableScanMillis = elapsedMillis(start);
+
+        if (heapStock != tableStock) {
+            throw new IllegalStateException("재고 합계 불일치: " + heapStock + " != " + tableStock);
+        }
+
+        System.out.println("\n=== 상품 " + count + "개 ===");
+        System.out.printf("%-14s %12s %14s %12s %14s%n", "방식", "힙(MB)", "힙 밖(MB)", "적재(ms)", "재고 합계(ms)");
+        System.out.printf("%-14s %12d %14d %12d %14d%n", "List<Product>", heapUsed >> 20, 0, heapLoadMillis, heapScanMillis);
+        System.out.printf("%-14s %12d %14d %12d %14d%n", "OffHeapTable", tableUsed >> 20,
+                table.getOffHeapBytes() >> 20, tableLoadMillis, tableScanMillis);
+        System.out.println("(힙 밖 테이블의 힙 사용량은 상품 ID → 슬롯 색인)");
+    }
+
+    private static Product product(int id) {
+        return new Product(id, "상품-" + id, 1000.0 + id % 1000, id % 500);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
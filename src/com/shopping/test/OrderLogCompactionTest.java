@@ -0,0 +1,275 @@
+// ===============================================
+// OrderLogCompactionTest.java - 주문 로그 압축 및 체크포인트 재시작 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.DailySales;
+import com.shopping.model.Order;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderLog;
+import com.shopping.persistence.OrderLogSegment;
+import com.shopping.repository.OrderRepository;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문 로그 압축과 체크포인트 재시작 테스트
+ *
+ * 테스트 범위:
+ * 1. 압축: 봉인된 세그먼트의 주문 + 취소 레코드가 병합되고, 조회 결과와 일별 매출은 그대로인지
+ * 2. 재시작: 압축 후 체크포인트 / 체크포인트 이후 꼬리 / 체크포인트 없이 전체 재생이 모두 같은 상태인지
+ * 3. 압축 전에 저장된(세대가 맞지 않는) 체크포인트로 시작해도 상태가 맞는지
+ *
+ * 세그먼트를 작게(4KB) 잡아 봉인된 세그먼트가 여러 개 생기도록 함
+ * data 디렉토리에 compaction-test- 로 시작하는 파일만 만들고 끝나면 지움
+ */
+public class OrderLogCompactionTest {
+
+    private static final String FILE_PREFIX = "compaction-test-";
+    private static final String ORDER_PREFIX = FILE_PREFIX + "orders-";
+    private static final String CHECKPOINT_FILE = FILE_PREFIX + "orders.checkpoint";
+    private static final long SEGMENT_BYTES = 4 * 1024;
+
+    // 2024-03-01T00:00:00Z부터 주문마다 1시간씩
+    private static final long BASE_TIME = 1709251200000L;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=========================================");
+        System.out.println("     주문 로그 압축 / 체크포인트 테스트");
+        System.out.println("=========================================\n");
+
+        if (testFiles().length > 0) {
+            System.out.println("data 디렉토리에 이전 테스트 파일이 있어 실행하지 않습니다 (" + FILE_PREFIX + "*)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        try {
+            OrderRepository repository = open(CHECKPOINT_FILE);
+            saveOrders(repository, 1, 200);
+            for (int id = 3; id <= 60; id += 3) {
+                repository.markCancelled(repository.findById(id));
+            }
+            // 취소 레코드가 들어간 세그먼트도 봉인되도록 주문을 더 추가
+            saveOrders(repository, 201, 200);
+            repository.markCancelled(repository.findById(390));
+
+            System.out.println("[SECTION 1] 압축");
+            System.out.println("-----------------------------------------");
+            String before = describe(repository);
+            testCompactionMerges(repository);
+            testStateAfterCompaction(repository, before);
+            testDailySales(repository);
+
+            System.out.println("\n[SECTION 2] 재시작");
+            System.out.println("-----------------------------------------");
+            testRestart("체크포인트 재시작", open(CHECKPOINT_FILE), before);
+
+            // 체크포인트 이후 꼬리: 주문 추가 + 취소
+            saveOrders(repository, 401, 20);
+            repository.markCancelled(repository.findById(405));
+            repository.markCancelled(repository.findById(100));
+            String withTail = describe(repository);
+            testRestart("체크포인트 + 꼬리", open(CHECKPOINT_FILE), withTail);
+            testRestart("전체 재생", open(null), withTail);
+
+            System.out.println("\n[SECTION 3] 압축 전 체크포인트");
+            System.out.println("-----------------------------------------");
+            testStaleCheckpoint(repository);
+        } finally {
+            for (File file : testFiles()) {
+                file.delete();
+            }
+        }
+
+        printTestResults();
+    }
+
+    private static OrderRepository open(String checkpointFile) {
+        return new OrderRepository(new OrderLog(ORDER_PREFIX, ".seg", SEGMENT_BYTES), checkpointFile, 0);
+    }
+
+    private static void saveOrders(OrderRepository repository, int firstId, int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            orders.add(new Order(id, "user" + (id % 7), id % 13, 1 + id % 3, 1000.0 * (1 + id % 5),
+                    BASE_TIME + id * 3_600_000L));
+        }
+        repository.saveAll(orders);
+    }
+
+    /**
+     * 압축하면 봉인된 세그먼트의 취소 레코드가 병합되고 파일이 새 세대로 바뀜
+     */
+    private static void testCompactionMerges(OrderRepository repository) {
+        String testName = "취소 레코드 병합";
+        totalTests++;
+
+        long sizeBefore = totalSize(repository);
+        int pendingBefore = pendingCancels(repository);
+        int merged = repository.compact();
+        int pendingAfter = pendingCancels(repository);
+        boolean rewritten = repository.getSegments().stream().anyMatch(segment -> segment.getGeneration() > 0);
+
+        boolean success = pendingBefore > 0 && merged > 0 && pendingAfter == 0 && rewritten
+                && totalSize(repository) < sizeBefore && repository.getCompactionCount() == 1;
+        printTestResult(testName, success, success ? "" : String.format(
+                "대기 %d → %d, 병합 %d, 새 세대 %s, 크기 %d → %d",
+                pendingBefore, pendingAfter, merged, rewritten, sizeBefore, totalSize(repository)));
+    }
+
+    /**
+     * 압축 전후 주문 목록(취소 상태 포함)과 사용자별 주문 수가 같음
+     */
+    private static void testStateAfterCompaction(OrderRepository repository, String before) {
+        String testName = "압축 후 조회";
+        totalTests++;
+
+        String after = describe(repository);
+        boolean success = after.equals(before) && repository.findById(390).isCancelled()
+                && !repository.findById(391).isCancelled();
+        printTestResult(testName, success, success ? "" : firstDifference(before, after));
+    }
+
+    /**
+     * 일별 매출은 취소를 뺀 주문만 집계
+     */
+    private static void testDailySales(OrderRepository repository) {
+        String testName = "일별 매출";
+        totalTests++;
+
+        long expected = 0;
+        for (Order order : repository.findAll()) {
+            if (!order.isCancelled()) {
+                expected++;
+            }
+        }
+        LocalDate from = Instant.ofEpochMilli(BASE_TIME).atZone(ZoneId.systemDefault()).toLocalDate();
+        long counted = 0;
+        for (DailySales sales : repository.getDailySales(from, from.plusDays(30))) {
+            counted += sales.getOrderCount();
+        }
+        boolean success = counted == expected;
+        printTestResult(testName, success, success ? "" : "집계 " + counted + "건, 기대 " + expected + "건");
+    }
+
+    /**
+     * 다시 연 저장소가 기대 상태와 같은지
+     */
+    private static void testRestart(String testName, OrderRepository reopened, String expected) {
+        totalTests++;
+        String actual = describe(reopened);
+        boolean success = actual.equals(expected);
+        printTestResult(testName, success, success ? "" : firstDifference(expected, actual));
+    }
+
+    /**
+     * 압축 전에 저장된 체크포인트는 세그먼트 세대가 맞지 않으므로 버리고 로그를 재생해야 함
+     */
+    private static void testStaleCheckpoint(OrderRepository repository) throws IOException {
+        String testName = "세대 불일치 체크포인트";
+        totalTests++;
+
+        // 압축할 취소 레코드를 만들고 세그먼트를 봉인
+        repository.markCancelled(repository.findById(410));
+        saveOrders(repository, 421, 200);
+        repository.checkpoint();
+
+        File checkpoint = FileManager.getDataFile(CHECKPOINT_FILE);
+        File stale = FileManager.getDataFile(FILE_PREFIX + "stale.checkpoint");
+        Files.copy(checkpoint.toPath(), stale.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        int merged = repository.compact();
+        String expected = describe(repository);
+        Files.copy(stale.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        String actual = describe(open(CHECKPOINT_FILE));
+        boolean success = merged > 0 && actual.equals(expected);
+        printTestResult(testName, success, success ? "" : "병합 " + merged + ", " + firstDifference(expected, actual));
+    }
+
+    /**
+     * 비교용 상태 문자열: 주문별 ID/사용자/취소 여부 + 사용자별 주문 수 + 다음 주문 ID
+     */
+    private static String describe(OrderRepository repository) {
+        StringBuilder state = new StringBuilder();
+        for (Order order : repository.findAll()) {
+            state.append(order.getOrderId()).append(':').append(order.getUserId())
+                    .append(':').append(order.getOrderTimestamp())
+                    .append(order.isCancelled() ? ":C" : "").append('\n');
+        }
+        for (int user = 0; user < 7; user++) {
+            state.append("user").append(user).append('=').append(repository.countByUserId("user" + user)).append('\n');
+        }
+        state.append("cancelled=").append(repository.getCancelledCount()).append('\n');
+        state.append("next=").append(repository.getNextOrderId()).append('\n');
+        return state.toString();
+    }
+
+    private static String firstDifference(String expected, String actual) {
+        String[] e = expected.split("\n");
+        String[] a = actual.split("\n");
+        for (int i = 0; i < Math.min(e.length, a.length); i++) {
+            if (!e[i].equals(a[i])) {
+                return "기대 " + e[i] + ", 실제 " + a[i];
+            }
+        }
+        return "줄 수 " + e.length + " vs " + a.length;
+    }
+
+    private static int pendingCancels(OrderRepository repository) {
+        int total = 0;
+        for (OrderLogSegment segment : repository.getSegments()) {
+            if (segment.isSealed()) {
+                total += segment.getCancelRecordCount();
+            }
+        }
+        return total;
+    }
+
+    private static long totalSize(OrderRepository repository) {
+        long total = 0;
+        for (OrderLogSegment segment : repository.getSegments()) {
+            total += segment.getSize();
+        }
+        return total;
+    }
+
+    private static File[] testFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith(FILE_PREFIX));
+        return files != null ? files : new File[0];
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
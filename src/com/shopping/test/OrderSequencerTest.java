@@ -0,0 +1,243 @@
+// ===============================================
+// OrderSequencerTest.java - 시퀀서 모드와 다른 경로의 재고/잔액 변경 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.Order;
+import com.shopping.model.User;
+import com.shopping.persistence.BalanceLedger;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderKeyLog;
+import com.shopping.persistence.OrderLog;
+import com.shopping.repository.LedgerRepository;
+import com.shopping.repository.OrderRepository;
+import com.shopping.repository.ProductRepository;
+import com.shopping.repository.UserRepository;
+import com.shopping.service.OrderService;
+import com.shopping.service.ProductService;
+import com.shopping.service.UserService;
+import com.shopping.util.PasswordHasher;
+import java.io.File;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 시퀀서 모드(OrderSequencer)에서 다른 경로로 바뀐 재고/잔액이 주문에 반영되는지 테스트
+ *
+ * 테스트 범위:
+ * 1. 잔액 부족으로 거절된 뒤 잔액을 충전하면 다음 주문이 성공하는지
+ * 2. 재고 부족으로 거절된 뒤 재고를 추가하면 다음 주문이 성공하는지
+ * 3. 주문 취소(재고 복구 + 환불) 뒤 같은 금액의 주문이 성공하는지
+ * 4. 다른 경로로 잔액이 줄었을 때 초과 결제 없이 실패하고, 이후 주문은 정상 처리되는지
+ * 5. 위 과정을 거친 뒤 재고/잔액이 성공한 주문 기준으로 맞는지
+ *
+ * 사용자/상품 저장소는 data/users*, data/products* 파일을 쓰므로 data 디렉토리가 비어 있을 때만 실행
+ * (주문/원장은 sequencer-test- 로 시작하는 파일 사용, 끝나면 만든 파일을 모두 지움)
+ */
+public class OrderSequencerTest {
+
+    private static final String FILE_PREFIX = "sequencer-test-";
+    private static final String ORDER_PREFIX = FILE_PREFIX + "orders-";
+
+    private static final String USER_ID = "seq-user";
+
+    private static UserService userService;
+    private static ProductService productService;
+    private static OrderService orderService;
+
+    // 마지막으로 실패한 주문의 오류 메시지
+    private static String lastError = "";
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=========================================");
+        System.out.println("     시퀀서 모드 재고/잔액 동기화 테스트");
+        System.out.println("=========================================\n");
+
+        File[] existing = new File("data").listFiles();
+        if (existing != null && existing.length > 0) {
+            System.out.println("data 디렉토리에 파일이 있어 실행하지 않습니다 (빈 디렉토리에서 실행하세요)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        ThreadPoolExecutor hashExecutor = PasswordHasher.newExecutor(1, 8);
+        LedgerRepository ledgerRepository = new LedgerRepository(
+                new BalanceLedger(FILE_PREFIX + "balance.ledger"), FILE_PREFIX + "balance.snapshot", 10_000);
+        try {
+            PasswordHasher hasher = new PasswordHasher(1_000);
+            UserRepository userRepository = new UserRepository();
+            userRepository.save(new User(USER_ID, hasher.hash("password1"), "시퀀서"));
+            userService = new UserService(userRepository, ledgerRepository, hasher, hashExecutor);
+
+            ProductRepository productRepository = new ProductRepository();
+            productRepository.ensureInitialized();
+            productService = new ProductService(productRepository);
+
+            orderService = new OrderService(
+                    new OrderRepository(new OrderLog(ORDER_PREFIX, ".seg", 16L * 1024 * 1024), null, 0),
+                    productService, userService, new OrderKeyLog(FILE_PREFIX + "order-keys.log"));
+            orderService.enableSequencer();
+
+            System.out.println("[SECTION 1] 다른 경로로 늘어난 잔액/재고");
+            System.out.println("-----------------------------------------");
+            testOrderAfterTopUp();
+            testOrderAfterAddStock();
+            testOrderAfterCancel();
+
+            System.out.println("\n[SECTION 2] 다른 경로로 줄어든 잔액");
+            System.out.println("-----------------------------------------");
+            testOrderAfterExternalDeduct();
+        } finally {
+            if (orderService != null) {
+                orderService.disableSequencer();
+            }
+            hashExecutor.shutdownNow();
+            ledgerRepository.close();
+            deleteTestFiles();
+        }
+
+        printTestResults();
+    }
+
+    /**
+     * 잔액이 한 원 모자라 거절된 뒤 충전하면 같은 주문이 성공
+     * (시퀀서가 거절할 때 읽어 둔 잔액을 계속 쓰면 충전 후에도 거절됨)
+     */
+    private static void testOrderAfterTopUp() {
+        String testName = "충전 후 주문";
+        totalTests++;
+
+        double price = productService.getProduct(1).getPrice();
+        userService.updateBalance(USER_ID, price - 1);
+        String rejected = tryOrder(1, 1) == null ? lastError : "";
+
+        userService.addBalance(USER_ID, 1);
+        Order order = tryOrder(1, 1);
+
+        boolean success = rejected.startsWith("잔액이 부족합니다") && order != null
+                && userService.getBalance(USER_ID) == 0;
+        printTestResult(testName, success, success ? "" : "첫 주문: " + rejected + ", 충전 후: " + lastError);
+    }
+
+    /**
+     * 판매 가능 재고를 모두 주문한 뒤 재고를 추가하면 다음 주문이 성공
+     */
+    private static void testOrderAfterAddStock() {
+        String testName = "재고 추가 후 주문";
+        totalTests++;
+
+        int productId = 2;
+        int stock = productService.getAvailableStock(productId);
+        double price = productService.getProduct(productId).getPrice();
+        userService.updateBalance(USER_ID, price * (stock + 1));
+
+        Order all = tryOrder(productId, stock);
+        String rejected = tryOrder(productId, 1) == null ? lastError : "";
+        productService.addStock(productId, 1);
+        Order order = tryOrder(productId, 1);
+
+        boolean success = all != null && rejected.startsWith("재고가 부족합니다") && order != null
+                && productService.getAvailableStock(productId) == 0;
+        printTestResult(testName, success, success ? "" : "거절: " + rejected + ", 추가 후: " + lastError);
+    }
+
+    /**
+     * 잔액을 모두 쓴 주문을 취소하면 환불된 잔액으로 같은 주문을 다시 할 수 있음
+     */
+    private static void testOrderAfterCancel() {
+        String testName = "취소 후 주문";
+        totalTests++;
+
+        int productId = 3;
+        double price = productService.getProduct(productId).getPrice();
+        int stock = productService.getAvailableStock(productId);
+        userService.updateBalance(USER_ID, price);
+
+        Order first = tryOrder(productId, 1);
+        boolean cancelled = first != null && orderService.cancelOrder(first.getOrderId(), USER_ID);
+        Order again = tryOrder(productId, 1);
+
+        boolean success = cancelled && again != null && userService.getBalance(USER_ID) == 0
+                && productService.getAvailableStock(productId) == stock - 1;
+        printTestResult(testName, success, success ? "" : "취소 " + cancelled + ", 재주문: " + lastError);
+    }
+
+    /**
+     * 시퀀서가 잔액을 읽어 둔 뒤 다른 경로로 잔액이 줄면 그 주문은 저장 단계에서 실패하고,
+     * 재고는 되돌려지며, 이후 주문은 저장소 기준 잔액으로 처리됨
+     */
+    private static void testOrderAfterExternalDeduct() {
+        String testName = "다른 경로 차감";
+        totalTests++;
+
+        int productId = 4;
+        double price = productService.getProduct(productId).getPrice();
+        int stock = productService.getAvailableStock(productId);
+        userService.updateBalance(USER_ID, price * 2);
+
+        Order first = tryOrder(productId, 1);
+        userService.deductBalance(USER_ID, price);
+        Order overdrawn = tryOrder(productId, 1);
+        int stockAfterFailure = productService.getAvailableStock(productId);
+
+        userService.addBalance(USER_ID, price);
+        Order order = tryOrder(productId, 1);
+
+        boolean success = first != null && overdrawn == null && stockAfterFailure == stock - 1
+                && order != null && userService.getBalance(USER_ID) == 0
+                && productService.getAvailableStock(productId) == stock - 2;
+        printTestResult(testName, success, success ? "" : String.format(
+                "초과 주문 %s, 실패 후 재고 %d (기대 %d), 이후 주문: %s",
+                overdrawn != null ? "성공" : "실패", stockAfterFailure, stock - 1, lastError));
+    }
+
+    /**
+     * 시퀀서로 주문하고 저장까지 기다림
+     * @return 주문 (실패하면 null, 메시지는 lastError)
+     */
+    private static Order tryOrder(int productId, int quantity) {
+        try {
+            lastError = "";
+            return orderService.submitOrder(USER_ID, productId, quantity).join();
+        } catch (CompletionException e) {
+            lastError = String.valueOf(e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private static void deleteTestFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith(FILE_PREFIX)
+                || name.startsWith("users") || name.startsWith("products"));
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
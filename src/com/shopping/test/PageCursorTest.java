@@ -0,0 +1,412 @@
+// ===============================================
+// PageCursorTest.java - 커서 기반 페이지 조회 경계 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.Order;
+import com.shopping.model.Page;
+import com.shopping.model.Product;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderKeyLog;
+import com.shopping.persistence.OrderLog;
+import com.shopping.repository.OrderRepository;
+import com.shopping.repository.ProductRepository;
+import com.shopping.service.OrderService;
+import com.shopping.service.ProductService;
+import com.shopping.util.Constants;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 상품 목록 / 주문 내역 커서 페이지 경계 테스트
+ *
+ * 테스트 범위:
+ * 1. 모든 페이지를 이어 붙이면 전체 목록과 같은지 (중복/누락 없음)
+ * 2. 항목 수가 페이지 크기의 배수일 때 마지막 페이지에서 끝나는지 (빈 페이지가 더 나오지 않음)
+ * 3. 페이지 크기 1 / 최대, 범위 밖 크기, 마지막 ID 이후 커서, 없는 ID 커서
+ * 4. 페이지 사이에 항목이 추가되어도 앞 페이지 항목이 다시 나오지 않는지
+ * 5. 판매 가능 상품 필터로 건너뛴 상품이 있어도 페이지가 가득 차는지
+ * 6. 주문 내역: 최신순, 다른 사용자 주문 제외, 체크포인트로 다시 시작한 뒤에도 같은 페이지
+ *
+ * 상품 저장소는 data/products* 파일을 쓰므로, 이미 상품 데이터가 있으면 실행하지 않음
+ * (주문은 page-test- 로 시작하는 파일만 사용, 끝나면 만든 파일을 모두 지움)
+ */
+public class PageCursorTest {
+
+    private static final String FILE_PREFIX = "page-test-";
+    private static final String ORDER_PREFIX = FILE_PREFIX + "orders-";
+    private static final String CHECKPOINT_FILE = FILE_PREFIX + "orders.checkpoint";
+    private static final String ORDER_KEY_FILE = FILE_PREFIX + "order-keys.log";
+
+    // 기본 상품 8개(1~8) + 9~25 → 25개
+    private static final int PRODUCT_COUNT = 25;
+
+    // 현재 테스트 중인 상품 저장소 (힙 / 힙 밖)
+    private static ProductRepository productRepository;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=========================================");
+        System.out.println("        커서 페이지 조회 경계 테스트");
+        System.out.println("=========================================\n");
+
+        if (productFiles().length > 0 || testFiles().length > 0) {
+            System.out.println("data 디렉토리에 상품 데이터가 있어 실행하지 않습니다 (빈 디렉토리에서 실행하세요)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        try {
+            for (boolean offHeap : new boolean[]{false, true}) {
+                deleteProductFiles();
+                productRepository = new ProductRepository(offHeap);
+                ProductService productService = new ProductService(productRepository);
+                productRepository.ensureInitialized();
+                String mode = offHeap ? "힙 밖" : "힙";
+
+                System.out.println("[SECTION] 상품 목록 (" + mode + ")");
+                System.out.println("-----------------------------------------");
+                for (int id = 9; id <= PRODUCT_COUNT; id++) {
+                    saveProduct(new Product(id, "상품" + id, 1000 * id, id % 4 == 0 ? 0 : 10));
+                }
+                testProductPagesCoverAll(productService, mode);
+                testProductExactMultiple(productService, mode);
+                testProductPageSizeLimits(productService, mode);
+                testProductCursorPastEnd(productService, mode);
+                testProductCursorGap(productService, mode);
+                testProductInsertBetweenPages(productService, mode);
+                testAvailableProductsFilter(productService, mode);
+                System.out.println();
+            }
+
+            System.out.println("[SECTION] 주문 내역");
+            System.out.println("-----------------------------------------");
+            testOrderPages();
+        } finally {
+            deleteProductFiles();
+            for (File file : testFiles()) {
+                file.delete();
+            }
+        }
+
+        printTestResults();
+    }
+
+    // ===== 상품 =====
+
+    private static void saveProduct(Product product) {
+        productRepository.save(product);
+    }
+
+    /**
+     * 페이지 크기 7: 7 + 7 + 7 + 4, 이어 붙이면 전체 목록과 같음
+     */
+    private static void testProductPagesCoverAll(ProductService productService, String mode) {
+        String testName = "전체 순회 " + mode;
+        totalTests++;
+
+        List<List<Integer>> pages = collectPages(productService::getAllProducts, 7);
+        List<Integer> all = ids(productService.getAllProducts());
+        boolean success = flatten(pages).equals(all) && all.size() == PRODUCT_COUNT
+                && sizes(pages).equals(List.of(7, 7, 7, 4));
+        printTestResult(testName, success, success ? "" : "페이지 " + sizes(pages) + ", 전체 " + all.size());
+    }
+
+    /**
+     * 항목 수(25)가 페이지 크기(5)의 배수면 다섯 번째 페이지가 마지막 (다음 커서 없음)
+     */
+    private static void testProductExactMultiple(ProductService productService, String mode) {
+        String testName = "배수 경계 " + mode;
+        totalTests++;
+
+        List<List<Integer>> pages = collectPages(productService::getAllProducts, 5);
+        Page<Product> fifth = productService.getAllProducts(20, 5);
+        boolean success = sizes(pages).equals(List.of(5, 5, 5, 5, 5)) && !fifth.hasNext()
+                && ids(fifth.getItems()).equals(List.of(21, 22, 23, 24, 25));
+
+        // 한 개 모자라는 경우: 24개 다음 커서에서 마지막 한 개
+        Page<Product> beforeLast = productService.getAllProducts(null, PRODUCT_COUNT - 1);
+        success = success && beforeLast.hasNext() && beforeLast.getNextCursor() == PRODUCT_COUNT - 1
+                && productService.getAllProducts(beforeLast.getNextCursor(), PRODUCT_COUNT - 1).getItems().size() == 1;
+        printTestResult(testName, success, success ? "" : "페이지 " + sizes(pages) + ", 5번째 " + fifth);
+    }
+
+    /**
+     * 크기 1과 최대 크기는 허용, 0 / 음수 / 최대 + 1은 거부
+     */
+    private static void testProductPageSizeLimits(ProductService productService, String mode) {
+        String testName = "페이지 크기 범위 " + mode;
+        totalTests++;
+
+        Page<Product> one = productService.getAllProducts(null, 1);
+        Page<Product> max = productService.getAllProducts(null, Constants.MAX_PAGE_SIZE);
+        boolean success = one.getItems().size() == 1 && one.getNextCursor() == 1
+                && max.getItems().size() == PRODUCT_COUNT && !max.hasNext();
+        for (int size : new int[]{0, -1, Constants.MAX_PAGE_SIZE + 1}) {
+            success = success && rejects(() -> productService.getAllProducts(null, size))
+                    && rejects(() -> productService.getAvailableProducts(null, size));
+        }
+        printTestResult(testName, success, success ? "" : "크기 1: " + one + ", 최대: " + max);
+    }
+
+    /**
+     * 마지막 ID 이후 커서는 빈 마지막 페이지, 음수 커서는 처음부터
+     */
+    private static void testProductCursorPastEnd(ProductService productService, String mode) {
+        String testName = "끝 이후 커서 " + mode;
+        totalTests++;
+
+        Page<Product> last = productService.getAllProducts(PRODUCT_COUNT, 5);
+        Page<Product> far = productService.getAllProducts(Integer.MAX_VALUE, 5);
+        Page<Product> negative = productService.getAllProducts(-10, 5);
+        boolean success = last.isEmpty() && !last.hasNext() && far.isEmpty() && !far.hasNext()
+                && ids(negative.getItems()).equals(List.of(1, 2, 3, 4, 5));
+        printTestResult(testName, success, success ? "" : last + ", " + far + ", " + negative);
+    }
+
+    /**
+     * 커서가 없는 ID(중간이 빈 ID)여도 그 다음 ID부터 이어짐
+     */
+    private static void testProductCursorGap(ProductService productService, String mode) {
+        String testName = "없는 ID 커서 " + mode;
+        totalTests++;
+
+        saveProduct(new Product(40, "상품40", 40_000, 5));
+        saveProduct(new Product(50, "상품50", 50_000, 5));
+        Page<Product> page = productService.getAllProducts(30, 5);
+        boolean success = ids(page.getItems()).equals(List.of(40, 50)) && !page.hasNext();
+        printTestResult(testName, success, success ? "" : page.toString());
+    }
+
+    /**
+     * 첫 페이지를 받은 뒤 앞쪽(커서보다 작은 ID)과 뒤쪽에 상품이 추가되어도
+     * 다음 페이지에 앞 페이지 상품이 다시 나오지 않고, 뒤쪽 상품은 나옴
+     */
+    private static void testProductInsertBetweenPages(ProductService productService, String mode) {
+        String testName = "페이지 사이 추가 " + mode;
+        totalTests++;
+
+        Page<Product> first = productService.getAllProducts(null, 10);
+        saveProduct(new Product(35, "상품35", 35_000, 5));
+        saveProduct(new Product(60, "상품60", 60_000, 5));
+
+        List<Integer> seen = new ArrayList<>(ids(first.getItems()));
+        Integer cursor = first.getNextCursor();
+        while (cursor != null) {
+            Page<Product> page = productService.getAllProducts(cursor, 10);
+            seen.addAll(ids(page.getItems()));
+            cursor = page.getNextCursor();
+        }
+
+        boolean noDuplicates = seen.size() == seen.stream().distinct().count();
+        boolean success = noDuplicates && seen.contains(35) && seen.contains(60)
+                && seen.equals(ids(productService.getAllProducts()));
+        printTestResult(testName, success, success ? "" : "중복 없음=" + noDuplicates + ", " + seen);
+    }
+
+    /**
+     * 재고 0인 상품을 건너뛰어도 페이지는 가득 차고, 커서는 마지막으로 돌려준 상품 ID
+     */
+    private static void testAvailableProductsFilter(ProductService productService, String mode) {
+        String testName = "판매 가능 필터 " + mode;
+        totalTests++;
+
+        List<Integer> expected = productService.getAllProducts().stream()
+                .filter(product -> product.getStock() > 0)
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        List<List<Integer>> pages = collectPages(productService::getAvailableProducts, 4);
+
+        boolean full = true;
+        for (int i = 0; i < pages.size() - 1; i++) {
+            full = full && pages.get(i).size() == 4;
+        }
+        Page<Product> first = productService.getAvailableProducts(null, 4);
+        boolean success = full && flatten(pages).equals(expected)
+                && first.getNextCursor().equals(first.getItems().get(3).getId());
+        printTestResult(testName, success, success ? "" : "페이지 " + pages + ", 기대 " + expected);
+    }
+
+    // ===== 주문 =====
+
+    /**
+     * alice 23건 / bob 10건을 섞어 저장하고 페이지 크기 5로 조회
+     */
+    private static void testOrderPages() {
+        OrderRepository repository = openOrders();
+        List<Order> orders = new ArrayList<>();
+        int orderId = 1000;
+        for (int i = 0; i < 33; i++) {
+            String userId = i % 3 == 2 && orders.stream().filter(o -> o.getUserId().equals("bob")).count() < 10
+                    ? "bob" : "alice";
+            orders.add(new Order(++orderId, userId, 1, 1, 1000.0, System.currentTimeMillis()));
+        }
+        repository.saveAll(orders);
+        repository.markCancelled(repository.findById(1001));
+
+        OrderService orderService = orderService(repository);
+        List<Integer> aliceIds = orderIds(orders, "alice");
+        List<Integer> bobIds = orderIds(orders, "bob");
+
+        String testName = "주문 최신순 순회";
+        totalTests++;
+        List<List<Integer>> alicePages = collectOrderPages(orderService, "alice", 5);
+        boolean success = aliceIds.size() == 23 && flatten(alicePages).equals(aliceIds)
+                && sizes(alicePages).equals(List.of(5, 5, 5, 5, 3));
+        printTestResult(testName, success, success ? "" : "페이지 " + sizes(alicePages));
+
+        testName = "주문 배수 경계";
+        totalTests++;
+        List<List<Integer>> bobPages = collectOrderPages(orderService, "bob", 5);
+        Page<Order> none = orderService.getUserOrders("nobody", null, 5);
+        success = bobIds.size() == 10 && sizes(bobPages).equals(List.of(5, 5)) && flatten(bobPages).equals(bobIds)
+                && none.isEmpty() && !none.hasNext();
+        printTestResult(testName, success, success ? "" : "bob " + sizes(bobPages) + ", 없는 사용자 " + none);
+
+        testName = "주문 커서 경계";
+        totalTests++;
+        Page<Order> fromOldest = orderService.getUserOrders("alice", aliceIds.get(aliceIds.size() - 1), 5);
+        Page<Order> fromFarFuture = orderService.getUserOrders("alice", Integer.MAX_VALUE, 100);
+        Page<Order> first = orderService.getUserOrders("alice", null, 5);
+        success = fromOldest.isEmpty() && !fromOldest.hasNext()
+                && ids(fromFarFuture.getItems()).equals(aliceIds)
+                && aliceIds.get(4).equals(first.getNextCursor())
+                && rejects(() -> orderService.getUserOrders("alice", null, 0))
+                && rejects(() -> orderService.getUserOrders("alice", null, Constants.MAX_PAGE_SIZE + 1));
+        printTestResult(testName, success, success ? "" : fromOldest + ", " + first);
+
+        testName = "주문 사이 추가";
+        totalTests++;
+        repository.save(new Order(++orderId, "alice", 1, 1, 1000.0, System.currentTimeMillis()));
+        List<Integer> seen = new ArrayList<>(ids(first.getItems()));
+        Integer cursor = first.getNextCursor();
+        while (cursor != null) {
+            Page<Order> page = orderService.getUserOrders("alice", cursor, 5);
+            seen.addAll(ids(page.getItems()));
+            cursor = page.getNextCursor();
+        }
+        success = seen.equals(aliceIds);
+        printTestResult(testName, success, success ? "" : seen.toString());
+
+        testName = "체크포인트 재시작";
+        totalTests++;
+        List<List<Integer>> before = collectOrderPages(orderService, "alice", 5);
+        repository.checkpoint();
+        OrderService restarted = orderService(openOrders());
+        List<List<Integer>> after = collectOrderPages(restarted, "alice", 5);
+        success = after.equals(before) && before.get(0).get(0) == orderId;
+        printTestResult(testName, success, success ? "" : before + " → " + after);
+    }
+
+    private static OrderRepository openOrders() {
+        return new OrderRepository(new OrderLog(ORDER_PREFIX, ".seg", 16L * 1024 * 1024), CHECKPOINT_FILE, 0);
+    }
+
+    /**
+     * 주문 내역 조회는 주문 저장소만 사용 (상품/사용자 서비스는 쓰지 않음)
+     */
+    private static OrderService orderService(OrderRepository repository) {
+        return new OrderService(repository, null, null, new OrderKeyLog(ORDER_KEY_FILE));
+    }
+
+    private static List<Integer> orderIds(List<Order> orders, String userId) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            if (orders.get(i).getUserId().equals(userId)) {
+                result.add(orders.get(i).getOrderId());
+            }
+        }
+        return result;
+    }
+
+    private static List<List<Integer>> collectOrderPages(OrderService orderService, String userId, int pageSize) {
+        return collectPages((cursor, size) -> orderService.getUserOrders(userId, cursor, size), pageSize);
+    }
+
+    // ===== 공통 =====
+
+    /**
+     * 첫 페이지부터 다음 커서가 없을 때까지 모든 페이지의 ID 목록
+     */
+    private static <T> List<List<Integer>> collectPages(BiFunction<Integer, Integer, Page<T>> fetch, int pageSize) {
+        List<List<Integer>> pages = new ArrayList<>();
+        Integer cursor = null;
+        do {
+            Page<T> page = fetch.apply(cursor, pageSize);
+            pages.add(ids(page.getItems()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && pages.size() < 1_000);
+        return pages;
+    }
+
+    private static List<Integer> ids(List<?> items) {
+        List<Integer> ids = new ArrayList<>(items.size());
+        for (Object item : items) {
+            ids.add(item instanceof Product ? ((Product) item).getId() : ((Order) item).getOrderId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> flatten(List<List<Integer>> pages) {
+        List<Integer> all = new ArrayList<>();
+        pages.forEach(all::addAll);
+        return all;
+    }
+
+    private static List<Integer> sizes(List<List<Integer>> pages) {
+        return pages.stream().map(List::size).collect(Collectors.toList());
+    }
+
+    private static boolean rejects(Runnable call) {
+        try {
+            call.run();
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static File[] productFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("products"));
+        return files != null ? files : new File[0];
+    }
+
+    private static void deleteProductFiles() {
+        for (File file : productFiles()) {
+            file.delete();
+        }
+    }
+
+    private static File[] testFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith(FILE_PREFIX));
+        return files != null ? files : new File[0];
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
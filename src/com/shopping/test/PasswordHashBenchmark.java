@@ -0,0 +1,91 @@
+// ===============================================
+// PasswordHashBenchmark.java - 패스워드 해시 비용별 로그인 처리량 측정
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.util.Constants;
+import com.shopping.util.PasswordHasher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PBKDF2 반복 횟수별 로그인(패스워드 검증) 처리량 측정
+ *
+ * 로그인 한 번의 비용은 거의 전부 해시 계산이므로
+ * 해시 계산 전용 풀과 같은 스레드 수로 검증을 반복해 초당 처리량을 잰다.
+ *
+ * 실행: java com.shopping.test.PasswordHashBenchmark [측정 시간(초)] [반복 횟수...]
+ */
+public class PasswordHashBenchmark {
+
+    private static final int[] DEFAULT_COSTS = {10_000, 50_000, 100_000, Constants.PASSWORD_HASH_ITERATIONS, 600_000};
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int[] costs = DEFAULT_COSTS;
+        if (args.length > 1) {
+            costs = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                costs[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        int threads = Constants.PASSWORD_VERIFY_THREADS;
+        System.out.println("=== 패스워드 해시 로그인 처리량 ===");
+        System.out.println("CPU 코어: " + Runtime.getRuntime().availableProcessors()
+                + ", 검증 스레드: " + threads + ", 측정 시간: " + seconds + "초\n");
+        System.out.printf("%10s %12s %14s %14s%n", "반복 횟수", "1회(ms)", "로그인/초", "로그인/초/코어");
+
+        for (int cost : costs) {
+            String stored = new PasswordHasher(cost).hash("benchmark-password");
+
+            // 워밍업 (JIT 컴파일)
+            for (int i = 0; i < 3; i++) {
+                PasswordHasher.matches("benchmark-password", stored);
+            }
+
+            long count = measure(stored, threads, seconds * 1000L);
+            double perSecond = count * 1000.0 / (seconds * 1000L);
+            System.out.printf("%10d %12.2f %14.1f %14.1f%n",
+                    cost, threads * 1000.0 / perSecond, perSecond, perSecond / threads);
+        }
+    }
+
+    /**
+     * 여러 스레드에서 정해진 시간 동안 검증을 반복
+     * @return 완료한 검증 수
+     */
+    private static long measure(String stored, int threads, long millis) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];   // 모든 스레드가 준비된 뒤 설정 (start 래치로 공개)
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.currentTimeMillis() < deadline[0]) {
+                    if (!PasswordHasher.matches("benchmark-password", stored)) {
+                        throw new IllegalStateException("검증 실패");
+                    }
+                    completed.incrementAndGet();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        deadline[0] = System.currentTimeMillis() + millis;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return completed.get();
+    }
+}
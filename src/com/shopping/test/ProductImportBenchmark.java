@@ -0,0 +1,85 @@
+// ===============================================
+// ProductImportBenchmark.java - 상품 일괄 등록 시간 측정
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.repository.ProductRepository;
+import com.shopping.service.ProductImportService;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * N행(기본 100만) CSV 파일을 만들어 일괄 등록에 걸리는 시간을 잰다
+ * - 파싱 스레드 1개 vs 공용 ForkJoinPool
+ * - 시간은 파일 읽기 + 파싱/검증 + 저장(변경 기록 기록)까지 포함
+ *
+ * 상품 저장소는 data/products* 파일을 쓰므로, 이미 상품 데이터가 있으면 실행하지 않음
+ * (측정이 끝나면 만든 파일을 지움)
+ *
+ * 실행: java com.shopping.test.ProductImportBenchmark [행 수]
+ */
+public class ProductImportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        if (productFiles().length > 0) {
+            System.out.println("data 디렉토리에 상품 데이터가 있어 측정하지 않습니다 (빈 디렉토리에서 실행하세요)");
+            return;
+        }
+
+        Path csv = Files.createTempFile("product-import-", ".csv");
+        try {
+            writeCsv(csv, rows);
+            System.out.printf("입력 파일: %d행, %d MB%n", rows, Files.size(csv) >> 20);
+
+            ProductImportService.ImportResult single = run(csv, new ForkJoinPool(1));
+            ProductImportService.ImportResult parallel = run(csv, ForkJoinPool.commonPool());
+
+            System.out.println("\n=== 상품 일괄 등록 (" + rows + "행) ===");
+            System.out.printf("%-24s %12s %12s %14s%n", "파싱 풀", "등록 건수", "시간(ms)", "행/초");
+            printRow("스레드 1개", single);
+            printRow("공용 풀 (" + ForkJoinPool.getCommonPoolParallelism() + ")", parallel);
+        } finally {
+            Files.deleteIfExists(csv);
+            deleteProductFiles();
+        }
+    }
+
+    private static ProductImportService.ImportResult run(Path csv, ForkJoinPool pool) {
+        deleteProductFiles();
+        ProductRepository repository = new ProductRepository(false);
+        return new ProductImportService(repository, pool).importFile(csv);
+    }
+
+    private static void writeCsv(Path csv, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("id,name,price,stock\n");
+            for (int id = 1; id <= rows; id++) {
+                writer.write(id + ",\"상품, " + id + "\"," + (1000 + id % 9000) + "," + id % 500 + "\n");
+            }
+        }
+    }
+
+    private static void printRow(String name, ProductImportService.ImportResult result) {
+        long millis = Math.max(1, result.getElapsedMillis());
+        System.out.printf("%-24s %12d %12d %14d%n", name, result.getImported(), millis,
+                result.getImported() * 1000L / millis);
+    }
+
+    private static File[] productFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("products"));
+        return files != null ? files : new File[0];
+    }
+
+    private static void deleteProductFiles() {
+        for (File file : productFiles()) {
+            file.delete();
+        }
+    }
+}
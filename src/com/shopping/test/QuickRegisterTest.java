@@ -3,6 +3,7 @@
 // ===============================================
 package com.shopping.test;
 
+import com.shopping.config.ApplicationContext;
 import com.shopping.model.User;
 import com.shopping.service.UserService;
 import java.io.File;
@@ -18,7 +19,8 @@ public class QuickRegisterTest {
 
         // 초기화
         new File("data").mkdir();
-        UserService userService = new UserService();
+        ApplicationContext context = new ApplicationContext();
+        UserService userService = context.getUserService();
 
         // 테스트 1: 정상 회원가입
         System.out.println("1. 정상 회원가입 테스트");
@@ -67,6 +69,7 @@ public class QuickRegisterTest {
             }
         }
 
+        context.close();
         System.out.println("\n=== 테스트 완료 ===");
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+// ===============================================
+// RateLimiterTest.java - 토큰 버킷 요청 제한 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.util.RateLimiter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RateLimiter 토큰 버킷 동작 테스트
+ *
+ * 테스트 범위:
+ * 1. capacity개까지 연속 허용, 그 다음은 거부
+ * 2. refill 간격마다 1개씩 회복, 오래 쉬어도 capacity를 넘게 쌓이지 않음
+ * 3. 대기 시간 안내, 키별 독립, reset()
+ * 4. 버킷 수 상한(LRU), 여러 스레드가 같은 키를 동시에 요청
+ *
+ * 회복 테스트는 시간에 의존하므로 간격을 넉넉히 둠 (refill 200ms)
+ */
+public class RateLimiterTest {
+
+    private static final long REFILL_MILLIS = 200;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=========================================");
+        System.out.println("        RateLimiter 요청 제한 테스트");
+        System.out.println("=========================================\n");
+
+        System.out.println("[SECTION 1] 연속 허용");
+        System.out.println("-----------------------------------------");
+        testBurst();
+        testKeysIndependent();
+        testReset();
+
+        System.out.println("\n[SECTION 2] 회복");
+        System.out.println("-----------------------------------------");
+        testWaitMillis();
+        testRefillOne();
+        testRefillCapped();
+
+        System.out.println("\n[SECTION 3] 상한 및 동시성");
+        System.out.println("-----------------------------------------");
+        testMaxKeys();
+        testConcurrentAcquire();
+
+        printTestResults();
+    }
+
+    /**
+     * capacity개까지 허용, 다음 요청은 거부
+     */
+    private static void testBurst() {
+        String testName = "연속 허용 한도";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 3, 60_000, 100);
+        int allowed = countAllowed(limiter, "a", 10);
+        boolean success = allowed == 3;
+        printTestResult(testName, success, success ? "" : "허용 " + allowed + "회");
+    }
+
+    /**
+     * 한 키가 한도를 넘어도 다른 키는 영향 없음
+     */
+    private static void testKeysIndependent() {
+        String testName = "키별 독립";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 2, 60_000, 100);
+        countAllowed(limiter, "a", 5);
+        boolean success = !limiter.tryAcquire("a") && countAllowed(limiter, "b", 5) == 2;
+        printTestResult(testName, success, success ? "" : "다른 키가 제한됨");
+    }
+
+    /**
+     * reset() 후에는 다시 capacity개 허용
+     */
+    private static void testReset() {
+        String testName = "reset 후 복원";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 3, 60_000, 100);
+        countAllowed(limiter, "a", 5);
+        limiter.reset("a");
+        int allowed = countAllowed(limiter, "a", 5);
+        boolean success = allowed == 3;
+        printTestResult(testName, success, success ? "" : "허용 " + allowed + "회");
+    }
+
+    /**
+     * 대기 시간: 처음에는 0, 한도를 넘은 뒤에는 refill 간격 이내
+     */
+    private static void testWaitMillis() {
+        String testName = "대기 시간 안내";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 2, REFILL_MILLIS, 100);
+        long before = limiter.getWaitMillis("a");
+        countAllowed(limiter, "a", 5);
+        long after = limiter.getWaitMillis("a");
+        boolean success = before == 0 && after > 0 && after <= REFILL_MILLIS;
+        printTestResult(testName, success, success ? "" : "before=" + before + "ms, after=" + after + "ms");
+    }
+
+    /**
+     * refill 간격이 지나면 정확히 1개만 회복
+     */
+    private static void testRefillOne() throws InterruptedException {
+        String testName = "간격당 1개 회복";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 3, REFILL_MILLIS, 100);
+        countAllowed(limiter, "a", 5);
+        Thread.sleep(REFILL_MILLIS + REFILL_MILLIS / 4);
+        int allowed = countAllowed(limiter, "a", 5);
+        boolean success = allowed == 1;
+        printTestResult(testName, success, success ? "" : "회복 " + allowed + "개");
+    }
+
+    /**
+     * capacity 간격보다 오래 쉬어도 capacity개까지만 회복
+     */
+    private static void testRefillCapped() throws InterruptedException {
+        String testName = "회복 상한";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 2, REFILL_MILLIS, 100);
+        countAllowed(limiter, "a", 5);
+        Thread.sleep(REFILL_MILLIS * 5);
+        int allowed = countAllowed(limiter, "a", 10);
+        boolean success = allowed == 2;
+        printTestResult(testName, success, success ? "" : "회복 " + allowed + "개");
+    }
+
+    /**
+     * 키가 많아도 보관하는 버킷 수는 maxKeys를 넘지 않음
+     */
+    private static void testMaxKeys() {
+        String testName = "버킷 수 상한";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 1, 60_000, 64);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        boolean success = limiter.size() <= 64 && limiter.size() > 0;
+        printTestResult(testName, success, success ? "" : "버킷 " + limiter.size() + "개");
+    }
+
+    /**
+     * 여러 스레드가 같은 키를 동시에 요청해도 허용 횟수는 정확히 capacity
+     */
+    private static void testConcurrentAcquire() throws InterruptedException {
+        String testName = "동시 요청";
+        totalTests++;
+
+        RateLimiter limiter = new RateLimiter("test", 100, 60_000, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                allowed.addAndGet(countAllowed(limiter, "shared", 100));
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        boolean success = allowed.get() == 100;
+        printTestResult(testName, success, success ? "" : "허용 " + allowed.get() + "회");
+    }
+
+    private static int countAllowed(RateLimiter limiter, String key, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAcquire(key)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
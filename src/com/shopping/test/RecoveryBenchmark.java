@@ -0,0 +1,159 @@
+// ===============================================
+// RecoveryBenchmark.java - 시작(복구) 시간 측정: 전체 재생 vs 스냅샷 + 꼬리 재생
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.Order;
+import com.shopping.model.User;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.OrderLog;
+import com.shopping.persistence.RecoverableStore;
+import com.shopping.persistence.WriteAheadLog;
+import com.shopping.repository.OrderRepository;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 이력 크기에 따른 시작 시간 측정
+ *
+ * 저장소마다 두 가지 상태에서 다시 시작하는 시간을 잰다:
+ * - 전체 재생: 스냅샷/체크포인트 없이 변경 기록(주문 로그) 전체를 읽음
+ * - 스냅샷 + 꼬리: 스냅샷 저장 후 1%만 더 변경한 상태에서 시작
+ *
+ * data 디렉토리에 bench- 로 시작하는 파일만 만들고 끝나면 지움
+ *
+ * 실행: java com.shopping.test.RecoveryBenchmark [주문 수] [사용자 수]
+ */
+public class RecoveryBenchmark {
+
+    private static final String ORDER_PREFIX = "bench-orders-";
+    private static final String ORDER_CHECKPOINT = "bench-orders.checkpoint";
+    private static final String USER_WAL_PREFIX = "bench-users-wal-";
+    private static final String USER_SNAPSHOT = "bench-users.dat";
+    private static final String USER_MARKER = "bench-users.snapshot";
+
+    // 시작 시간은 3번 재서 가장 짧은 값 사용 (JIT, 파일 캐시 영향 줄이기)
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        deleteBenchFiles();
+        try {
+            long[] orders = benchmarkOrders(orderCount);
+            long[] users = benchmarkUsers(userCount);
+
+            System.out.println("\n=== 시작(복구) 시간 ===");
+            System.out.printf("%-8s %12s %16s %18s %12s%n", "저장소", "건수", "전체 재생(ms)", "스냅샷+꼬리(ms)", "꼬리 건수");
+            System.out.printf("%-8s %12d %16d %18d %12d%n", "주문", orderCount, orders[0], orders[1], orders[2]);
+            System.out.printf("%-8s %12d %16d %18d %12d%n", "사용자", userCount, users[0], users[1], users[2]);
+        } finally {
+            deleteBenchFiles();
+        }
+    }
+
+    /**
+     * 주문 저장소: 로그 전체 재생 vs 체크포인트 + 이후 로그
+     * @return {전체 재생 ms, 체크포인트 + 꼬리 ms, 꼬리 건수}
+     */
+    private static long[] benchmarkOrders(int orderCount) {
+        OrderRepository repository = openOrders(null);
+        long base = System.currentTimeMillis() - 365L * 24 * 60 * 60 * 1000;
+        appendOrders(repository, 1, orderCount, base);
+
+        long full = measure(() -> openOrders(null).getRecoveryMillis());
+
+        repository = openOrders(ORDER_CHECKPOINT);
+        repository.checkpoint();
+        int tail = Math.max(1, orderCount / 100);
+        appendOrders(repository, orderCount + 1, tail, base);
+
+        long withCheckpoint = measure(() -> openOrders(ORDER_CHECKPOINT).getRecoveryMillis());
+        return new long[]{full, withCheckpoint, tail};
+    }
+
+    private static OrderRepository openOrders(String checkpointFile) {
+        return new OrderRepository(new OrderLog(ORDER_PREFIX, ".seg", 16L * 1024 * 1024), checkpointFile, 0);
+    }
+
+    private static void appendOrders(OrderRepository repository, int firstId, int count, long base) {
+        List<Order> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            int id = firstId + i;
+            batch.add(new Order(id, "user" + (id % 5000), id % 100, 1 + id % 3, 1000.0 * (1 + id % 7),
+                    base + id * 60_000L));
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    /**
+     * 사용자 저장소(RecoverableStore): 변경 기록 전체 재생 vs 스냅샷 + 이후 변경 기록
+     * @return {전체 재생 ms, 스냅샷 + 꼬리 ms, 꼬리 건수}
+     */
+    private static long[] benchmarkUsers(int userCount) {
+        RecoverableStore<String, User> store = openUsers();
+        List<User> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < userCount; i++) {
+            batch.add(new User("user" + i, "pbkdf2$1$c2FsdA==$aGFzaA==", "사용자" + i));
+            if (batch.size() == 10_000) {
+                store.putAll(batch);
+                batch.clear();
+            }
+        }
+        store.putAll(batch);
+
+        long full = measure(() -> openUsers().getRecoveryMillis());
+
+        store = openUsers();
+        store.snapshot();
+        int tail = Math.max(1, userCount / 100);
+        for (int i = 0; i < tail; i++) {
+            User user = store.get("user" + i);
+            user.setName("변경" + i);
+            store.put(user);
+        }
+
+        long withSnapshot = measure(() -> openUsers().getRecoveryMillis());
+        return new long[]{full, withSnapshot, tail};
+    }
+
+    private static RecoverableStore<String, User> openUsers() {
+        return new RecoverableStore<>("bench-users", new WriteAheadLog(USER_WAL_PREFIX), USER_MARKER,
+                new RecoverableStore.SnapshotFiles<User>() {
+                    @Override
+                    public List<User> read() {
+                        return FileManager.readFromFile(USER_SNAPSHOT);
+                    }
+
+                    @Override
+                    public boolean write(List<User> users) {
+                        return FileManager.writeToFile(USER_SNAPSHOT, users);
+                    }
+                },
+                User::getId, Integer.MAX_VALUE);
+    }
+
+    private static long measure(Supplier<Long> run) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            best = Math.min(best, run.get());
+        }
+        return best;
+    }
+
+    private static void deleteBenchFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("bench-"));
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+// ===============================================
+// TimingWheelTest.java - 타이밍 휠 만료 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.util.TimingWheel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * TimingWheel 만료 동작 테스트
+ *
+ * 테스트 범위:
+ * 1. 예약 시각 전에는 호출되지 않고, 지난 뒤 1 tick 안팎에 호출되는지
+ * 2. 한 바퀴보다 먼 예약(rounds)이 첫 바퀴에 만료되지 않는지
+ * 3. 지연 0, 콜백 예외, stop() 이후 동작
+ *
+ * 시간에 의존하므로 여유를 크게 둠 (tick 10ms, 허용 오차 수백 ms)
+ */
+public class TimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=========================================");
+        System.out.println("        TimingWheel 만료 테스트");
+        System.out.println("=========================================\n");
+
+        System.out.println("[SECTION 1] 만료 시각");
+        System.out.println("-----------------------------------------");
+        testExpiresAfterDelay();
+        testExpiryOrder();
+        testZeroDelay();
+
+        System.out.println("\n[SECTION 2] 한 바퀴보다 먼 예약");
+        System.out.println("-----------------------------------------");
+        testMultipleRounds();
+
+        System.out.println("\n[SECTION 3] 예외 및 종료");
+        System.out.println("-----------------------------------------");
+        testCallbackException();
+        testStop();
+
+        printTestResults();
+    }
+
+    /**
+     * 예약 시각 전에는 호출되지 않고, 지난 뒤에는 호출됨
+     */
+    private static void testExpiresAfterDelay() throws InterruptedException {
+        String testName = "지연 후 만료";
+        totalTests++;
+
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        TimingWheel<String> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 64,
+                item -> expiredAt.put(item, System.nanoTime()));
+        long start = System.nanoTime();
+        wheel.schedule("a", 200);
+
+        Thread.sleep(100);
+        boolean early = expiredAt.containsKey("a");
+        Thread.sleep(400);
+        wheel.stop();
+
+        Long at = expiredAt.get("a");
+        long elapsedMillis = at == null ? -1 : (at - start) / 1_000_000;
+        boolean success = !early && at != null && elapsedMillis >= 200;
+        printTestResult(testName, success, success ? "" : "early=" + early + ", elapsed=" + elapsedMillis + "ms");
+    }
+
+    /**
+     * 서로 다른 칸에 들어간 예약이 시각 순으로 만료됨
+     */
+    private static void testExpiryOrder() throws InterruptedException {
+        String testName = "만료 순서";
+        totalTests++;
+
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        TimingWheel<Integer> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 64, order::add);
+        wheel.schedule(3, 150);
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 100);
+
+        Thread.sleep(500);
+        wheel.stop();
+
+        boolean success = order.equals(List.of(1, 2, 3));
+        printTestResult(testName, success, success ? "" : order.toString());
+    }
+
+    /**
+     * 지연 0 (또는 음수)은 다음 tick에 바로 만료
+     */
+    private static void testZeroDelay() throws InterruptedException {
+        String testName = "지연 0";
+        totalTests++;
+
+        List<String> expired = new CopyOnWriteArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 64, expired::add);
+        wheel.schedule("now", 0);
+        wheel.schedule("past", -1000);
+
+        Thread.sleep(200);
+        wheel.stop();
+
+        boolean success = expired.size() == 2 && expired.containsAll(List.of("now", "past"));
+        printTestResult(testName, success, success ? "" : expired.toString());
+    }
+
+    /**
+     * 칸 4개(40ms) 바퀴에 300ms 예약: 여러 바퀴를 돈 뒤에 만료
+     */
+    private static void testMultipleRounds() throws InterruptedException {
+        String testName = "여러 바퀴 예약";
+        totalTests++;
+
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        TimingWheel<String> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 4,
+                item -> expiredAt.put(item, System.nanoTime()));
+        long start = System.nanoTime();
+        wheel.schedule("far", 300);
+        wheel.schedule("near", 20);
+
+        Thread.sleep(150);
+        boolean nearExpired = expiredAt.containsKey("near");
+        boolean farEarly = expiredAt.containsKey("far");
+        Thread.sleep(450);
+        wheel.stop();
+
+        Long at = expiredAt.get("far");
+        long elapsedMillis = at == null ? -1 : (at - start) / 1_000_000;
+        boolean success = nearExpired && !farEarly && at != null && elapsedMillis >= 300;
+        printTestResult(testName, success, success ? "" : String.format(
+                "near=%s, farEarly=%s, far=%dms", nearExpired, farEarly, elapsedMillis));
+    }
+
+    /**
+     * 콜백이 예외를 던져도 작업 스레드는 계속 동작
+     */
+    private static void testCallbackException() throws InterruptedException {
+        String testName = "콜백 예외";
+        totalTests++;
+
+        List<String> expired = new CopyOnWriteArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 64, item -> {
+            if (item.equals("bad")) {
+                throw new IllegalStateException("테스트 예외");
+            }
+            expired.add(item);
+        });
+        wheel.schedule("bad", 20);
+        wheel.schedule("good", 80);
+
+        Thread.sleep(300);
+        wheel.stop();
+
+        boolean success = expired.equals(List.of("good"));
+        printTestResult(testName, success, success ? "" : expired.toString());
+    }
+
+    /**
+     * stop() 이후에는 남은 예약의 콜백이 호출되지 않음
+     */
+    private static void testStop() throws InterruptedException {
+        String testName = "종료 후 무시";
+        totalTests++;
+
+        List<String> expired = new CopyOnWriteArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>("test-wheel", TICK_MILLIS, 64, expired::add);
+        wheel.schedule("late", 200);
+        Thread.sleep(50);
+        wheel.stop();
+
+        Thread.sleep(300);
+        boolean success = expired.isEmpty();
+        printTestResult(testName, success, success ? "" : expired.toString());
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
@@ -1,5 +1,6 @@
 package com.shopping.test;
 
+import com.shopping.config.ApplicationContext;
 import com.shopping.model.User;
 import com.shopping.service.UserService;
 import java.io.File;
@@ -16,6 +17,7 @@ import java.io.File;
  */
 public class UserServiceTest {
 
+    private static ApplicationContext context;
     private static UserService userService;
     private static int totalTests = 0;
     private static int passedTests = 0;
@@ -63,8 +65,9 @@ public class UserServiceTest {
         // 기존 테스트 데이터 삭제
         clearTestData();
 
-        // UserService 인스턴스 생성
-        userService = new UserService();
+        // UserService 인스턴스 생성 (해시 계산 풀은 컨테이너가 만들고 tearDown에서 종료)
+        context = new ApplicationContext();
+        userService = context.getUserService();
 
         System.out.println("[환경설정] 테스트 준비 완료\n");
     }
@@ -75,6 +78,7 @@ public class UserServiceTest {
     private static void tearDown() {
         // 테스트 후 데이터 정리 (선택적)
         // clearTestData();
+        context.close();
         System.out.println("\n[환경정리] 테스트 종료");
     }
 
@@ -488,9 +492,14 @@ public class UserServiceTest {
      */
     private static void clearTestData() {
         try {
-            File file = new File("data/users.dat");
-            if (file.exists()) {
-                file.delete();
+            // 구버전 단일 파일, 샤드 파일(users-NN.dat), 변경 기록과 스냅샷 표식 모두 삭제
+            File[] files = new File("data").listFiles(
+                    (dir, name) -> name.equals("users.dat") || name.matches("users-\\d+\\.dat")
+                            || name.matches("users-wal-\\d+\\.wal") || name.equals("users.snapshot"));
+            if (files != null && files.length > 0) {
+                for (File file : files) {
+                    file.delete();
+                }
                 System.out.println("[초기화] 기존 데이터 삭제");
             }
         } catch (Exception e) {
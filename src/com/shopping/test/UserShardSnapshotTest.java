@@ -0,0 +1,204 @@
+// ===============================================
+// UserShardSnapshotTest.java - 변경된 샤드만 다시 쓰는 스냅샷 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.User;
+import com.shopping.persistence.FileManager;
+import com.shopping.repository.UserRepository;
+import java.io.File;
+
+/**
+ * UserRepository 스냅샷이 변경된 샤드 파일만 다시 쓰는지 테스트
+ *
+ * 테스트 범위:
+ * 1. 사용자 한 명을 수정하면 그 사용자의 샤드 파일만 다시 기록되는지
+ * 2. 삭제도 해당 샤드만 다시 기록되는지
+ * 3. 파일이 없어진 샤드는 변경이 없어도 다시 기록되는지
+ * 4. 재시작 후 모든 사용자가 최신 상태로 복구되는지
+ *
+ * 기록 여부는 샤드 파일의 수정 시각을 과거로 돌려 놓고 스냅샷 뒤 바뀌었는지로 확인
+ * 사용자 저장소는 data/users* 파일을 쓰므로 data 디렉토리가 비어 있을 때만 실행 (끝나면 만든 파일을 모두 지움)
+ */
+public class UserShardSnapshotTest {
+
+    private static final int SHARD_COUNT = 8;
+    private static final int USER_COUNT = 80;
+
+    // 스냅샷 전에 샤드 파일 수정 시각을 돌려 놓을 값
+    private static final long OLD_MODIFIED = 1_000_000_000_000L;
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) {
+        System.out.println("=========================================");
+        System.out.println("     변경 샤드 스냅샷 테스트");
+        System.out.println("=========================================\n");
+
+        File[] existing = new File("data").listFiles();
+        if (existing != null && existing.length > 0) {
+            System.out.println("data 디렉토리에 파일이 있어 실행하지 않습니다 (빈 디렉토리에서 실행하세요)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        try {
+            UserRepository repository = new UserRepository(SHARD_COUNT);
+            for (int i = 0; i < USER_COUNT; i++) {
+                repository.save(newUser("user" + i, "처음" + i));
+            }
+            repository.snapshot();
+
+            System.out.println("[SECTION 1] 변경된 샤드만 기록");
+            System.out.println("-----------------------------------------");
+            testUpdateRewritesOneShard(repository);
+            testDeleteRewritesOneShard(repository);
+            testMissingShardRewritten(repository);
+            repository.close();
+
+            System.out.println("\n[SECTION 2] 재시작");
+            System.out.println("-----------------------------------------");
+            testRestart();
+        } finally {
+            deleteTestFiles();
+        }
+
+        printTestResults();
+    }
+
+    /**
+     * 한 명을 수정하고 스냅샷하면 그 샤드 파일만 수정 시각이 바뀜
+     */
+    private static void testUpdateRewritesOneShard(UserRepository repository) {
+        String testName = "수정 → 한 샤드";
+        totalTests++;
+
+        ageShardFiles();
+        User user = repository.findById("user7");
+        user.setName("변경됨");
+        repository.update(user);
+        repository.snapshot();
+
+        int shard = UserRepository.shardOf("user7", SHARD_COUNT);
+        String rewritten = rewrittenShards();
+        boolean success = rewritten.equals("[" + shard + "]");
+        printTestResult(testName, success, success ? "" : "기대 [" + shard + "], 실제 " + rewritten);
+    }
+
+    /**
+     * 한 명을 삭제하고 스냅샷하면 그 샤드 파일만 다시 기록
+     */
+    private static void testDeleteRewritesOneShard(UserRepository repository) {
+        String testName = "삭제 → 한 샤드";
+        totalTests++;
+
+        ageShardFiles();
+        repository.deleteById("user12");
+        repository.snapshot();
+
+        int shard = UserRepository.shardOf("user12", SHARD_COUNT);
+        String rewritten = rewrittenShards();
+        boolean success = rewritten.equals("[" + shard + "]");
+        printTestResult(testName, success, success ? "" : "기대 [" + shard + "], 실제 " + rewritten);
+    }
+
+    /**
+     * 샤드 파일이 없어졌으면 그 샤드에 변경이 없어도 다음 스냅샷에서 다시 기록
+     */
+    private static void testMissingShardRewritten(UserRepository repository) {
+        String testName = "없는 샤드 파일";
+        totalTests++;
+
+        int changed = UserRepository.shardOf("user3", SHARD_COUNT);
+        int missing = (changed + 1) % SHARD_COUNT;
+        ageShardFiles();
+        FileManager.getDataFile(UserRepository.shardFileName(missing)).delete();
+
+        User user = repository.findById("user3");
+        user.setName("변경됨");
+        repository.update(user);
+        repository.snapshot();
+
+        String expected = "[" + Math.min(changed, missing) + ", " + Math.max(changed, missing) + "]";
+        String rewritten = rewrittenShards();
+        boolean success = rewritten.equals(expected);
+        printTestResult(testName, success, success ? "" : "기대 " + expected + ", 실제 " + rewritten);
+    }
+
+    /**
+     * 다시 연 저장소에 수정/삭제가 반영되어 있고 나머지 사용자도 그대로 있음
+     */
+    private static void testRestart() {
+        String testName = "재시작 후 조회";
+        totalTests++;
+
+        UserRepository reopened = new UserRepository(SHARD_COUNT);
+        boolean success = reopened.findAll().size() == USER_COUNT - 1
+                && "변경됨".equals(reopened.findById("user7").getName())
+                && "변경됨".equals(reopened.findById("user3").getName())
+                && reopened.findById("user12") == null
+                && "처음50".equals(reopened.findById("user50").getName());
+        reopened.close();
+        printTestResult(testName, success, success ? "" : "사용자 수 " + reopened.findAll().size());
+    }
+
+    private static User newUser(String id, String name) {
+        return new User(id, "pbkdf2$1$c2FsdA==$aGFzaA==", name);
+    }
+
+    /**
+     * 모든 샤드 파일의 수정 시각을 과거로 돌림
+     */
+    private static void ageShardFiles() {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            FileManager.getDataFile(UserRepository.shardFileName(shard)).setLastModified(OLD_MODIFIED);
+        }
+    }
+
+    /**
+     * 수정 시각이 바뀐(다시 기록된) 샤드 번호 목록
+     */
+    private static String rewrittenShards() {
+        StringBuilder shards = new StringBuilder("[");
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            File file = FileManager.getDataFile(UserRepository.shardFileName(shard));
+            if (file.lastModified() != OLD_MODIFIED) {
+                shards.append(shards.length() > 1 ? ", " : "").append(shard);
+            }
+        }
+        return shards.append("]").toString();
+    }
+
+    private static void deleteTestFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("users"));
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
@@ -0,0 +1,234 @@
+// ===============================================
+// WriteAheadLogRestartTest.java - 스냅샷 + 변경 기록 재시작 테스트
+// ===============================================
+package com.shopping.test;
+
+import com.shopping.model.User;
+import com.shopping.persistence.FileManager;
+import com.shopping.persistence.RecoverableStore;
+import com.shopping.persistence.WriteAheadLog;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RecoverableStore(스냅샷 + WriteAheadLog) 재시작 테스트
+ *
+ * 테스트 범위:
+ * 1. 스냅샷 → 재시작 → 기록 → 재시작 → 조회: 스냅샷 이후 기록이 사라지지 않는지
+ * 2. 스냅샷을 여러 번 반복해도 세대 번호가 표식보다 뒤로 가지 않는지
+ * 3. 표식의 세대 파일이 없는 상태(이전 버전 데이터)에서 시작해도 이후 기록이 재생되는지
+ * 4. 마지막 레코드가 잘린 변경 기록에서 앞부분만 복구되는지
+ *
+ * data 디렉토리에 wal-test- 로 시작하는 파일만 만들고 끝나면 지움
+ */
+public class WriteAheadLogRestartTest {
+
+    private static final String FILE_PREFIX = "wal-test-";
+    private static final String WAL_PREFIX = FILE_PREFIX + "users-wal-";
+    private static final String SNAPSHOT_FILE = FILE_PREFIX + "users.dat";
+    private static final String MARKER_FILE = FILE_PREFIX + "users.snapshot";
+
+    private static int totalTests = 0;
+    private static int passedTests = 0;
+    private static int failedTests = 0;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=========================================");
+        System.out.println("     스냅샷 + 변경 기록 재시작 테스트");
+        System.out.println("=========================================\n");
+
+        if (testFiles().length > 0) {
+            System.out.println("data 디렉토리에 이전 테스트 파일이 있어 실행하지 않습니다 (" + FILE_PREFIX + "*)");
+            return;
+        }
+
+        FileManager.createDataDirectory();
+        try {
+            System.out.println("[SECTION 1] 스냅샷 후 재시작");
+            System.out.println("-----------------------------------------");
+            testWriteAfterSnapshotRestart();
+            testRepeatedSnapshots();
+
+            System.out.println("\n[SECTION 2] 비정상 파일 상태");
+            System.out.println("-----------------------------------------");
+            testMissingMarkerGeneration();
+            testTornTail();
+        } finally {
+            deleteTestFiles();
+        }
+
+        printTestResults();
+    }
+
+    /**
+     * 스냅샷 → 재시작 → 기록 → 재시작 → 조회
+     * 스냅샷 직후 재시작하면 세대 번호가 표식보다 앞으로 돌아가 이후 기록이 재생에서 빠지던 문제
+     */
+    private static void testWriteAfterSnapshotRestart() {
+        String testName = "스냅샷 후 기록";
+        totalTests++;
+
+        RecoverableStore<String, User> store = open();
+        putUsers(store, 0, 10, "처음");
+        store.snapshot();
+
+        store = open();
+        putUsers(store, 10, 5, "재시작 후");
+        store.put(renamed(store.get("user0"), "변경됨"));
+
+        store = open();
+        boolean success = store.size() == 15
+                && store.get("user12") != null
+                && "변경됨".equals(store.get("user0").getName())
+                && store.getReplayedCount() == 6;
+        printTestResult(testName, success, success ? "" : describe(store));
+        deleteTestFiles();
+    }
+
+    /**
+     * 스냅샷 → 재시작을 여러 번 반복해도 매번 이후 기록이 남음
+     */
+    private static void testRepeatedSnapshots() {
+        String testName = "스냅샷 반복";
+        totalTests++;
+
+        boolean success = true;
+        String detail = "";
+        for (int round = 0; round < 5 && success; round++) {
+            RecoverableStore<String, User> store = open();
+            store.snapshot();
+            store = open();
+            putUsers(store, round * 3, 3, "회차" + round);
+            store = open();
+            success = store.size() == (round + 1) * 3 && store.getReplayedCount() == 3;
+            detail = round + "회차: " + describe(store);
+        }
+        printTestResult(testName, success, success ? "" : detail);
+        deleteTestFiles();
+    }
+
+    /**
+     * 표식은 있는데 그 세대 파일이 없는 상태 (새 세대 파일을 만들지 않던 이전 버전이 남긴 데이터)
+     */
+    private static void testMissingMarkerGeneration() {
+        String testName = "표식 세대 파일 없음";
+        totalTests++;
+
+        RecoverableStore<String, User> store = open();
+        putUsers(store, 0, 4, "처음");
+        store.snapshot();
+        for (File file : walFiles()) {
+            file.delete();
+        }
+
+        store = open();
+        putUsers(store, 4, 2, "재시작 후");
+
+        store = open();
+        boolean success = store.size() == 6 && store.get("user5") != null;
+        printTestResult(testName, success, success ? "" : describe(store));
+        deleteTestFiles();
+    }
+
+    /**
+     * 마지막 레코드가 쓰다 만 상태면 그 앞까지만 복구하고, 이후 기록은 정상적으로 이어짐
+     */
+    private static void testTornTail() throws IOException {
+        String testName = "잘린 마지막 레코드";
+        totalTests++;
+
+        RecoverableStore<String, User> store = open();
+        store.snapshot();
+        putUsers(store, 0, 3, "처음");
+
+        File[] files = walFiles();
+        File last = files[files.length - 1];
+        try (FileOutputStream out = new FileOutputStream(last, true)) {
+            out.write(new byte[]{0, 0, 1, 0, 7, 7});
+        }
+
+        store = open();
+        putUsers(store, 3, 1, "복구 후");
+
+        store = open();
+        boolean success = store.size() == 4 && store.get("user3") != null && store.getReplayedCount() == 4;
+        printTestResult(testName, success, success ? "" : describe(store));
+        deleteTestFiles();
+    }
+
+    private static RecoverableStore<String, User> open() {
+        return new RecoverableStore<>("wal-test-users", new WriteAheadLog(WAL_PREFIX), MARKER_FILE,
+                new RecoverableStore.SnapshotFiles<User>() {
+                    @Override
+                    public List<User> read() {
+                        return FileManager.readFromFile(SNAPSHOT_FILE);
+                    }
+
+                    @Override
+                    public boolean write(List<User> users) {
+                        return FileManager.writeToFile(SNAPSHOT_FILE, users);
+                    }
+                },
+                User::getId, Integer.MAX_VALUE);
+    }
+
+    private static void putUsers(RecoverableStore<String, User> store, int first, int count, String name) {
+        for (int i = first; i < first + count; i++) {
+            store.put(new User("user" + i, "pbkdf2$1$c2FsdA==$aGFzaA==", name + i));
+        }
+    }
+
+    private static User renamed(User user, String name) {
+        user.setName(name);
+        return user;
+    }
+
+    private static String describe(RecoverableStore<String, User> store) {
+        return "건수 " + store.size() + ", 재생 " + store.getReplayedCount() + ", 세대 파일 " + walFiles().length;
+    }
+
+    private static File[] walFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith(WAL_PREFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static File[] testFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith(FILE_PREFIX));
+        return files != null ? files : new File[0];
+    }
+
+    private static void deleteTestFiles() {
+        for (File file : testFiles()) {
+            file.delete();
+        }
+    }
+
+    // ============== 유틸리티 메서드 ==============
+
+    private static void printTestResult(String testName, boolean success, String detail) {
+        if (success) {
+            passedTests++;
+            System.out.printf("  ✅ %-20s : PASS\n", testName);
+        } else {
+            failedTests++;
+            System.out.printf("  ❌ %-20s : FAIL", testName);
+            if (!detail.isEmpty()) {
+                System.out.printf(" (%s)", detail);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printTestResults() {
+        System.out.println("\n=========================================");
+        System.out.printf("총 테스트: %d개, 성공: %d개, 실패: %d개\n", totalTests, passedTests, failedTests);
+        System.out.println("=========================================");
+    }
+}
@@ -0,0 +1,99 @@
+// ===============================================
+// UserReshardTool.java - 사용자 샤드 수 변경 도구 (오프라인)
+// ===============================================
+package com.shopping.tool;
+
+import com.shopping.model.User;
+import com.shopping.persistence.FileManager;
+import com.shopping.repository.UserRepository;
+import com.shopping.util.Constants;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 사용자 샤드 파일을 새 샤드 수에 맞게 재분배하는 도구
+ * 애플리케이션이 실행 중이지 않을 때만 사용해야 함
+ *
+ * 절차:
+ * 0. 변경 기록에만 남아 있는 변경분을 기존 샤드에 반영 (스냅샷)
+ * 1. 기존 샤드(또는 구버전 users.dat) 전체를 백업 파일 하나에 기록
+ * 2. 새 샤드 수로 모든 샤드 파일을 다시 기록하고 남는 샤드 파일은 삭제
+ * 3. 샤드 수를 기록하고 백업 파일 삭제
+ *
+ * 도중에 중단되면 다시 실행: 백업 파일이 남아 있으면 그 내용으로 2단계부터 재개
+ *
+ * 실행: java com.shopping.tool.UserReshardTool <새 샤드 수>
+ * 적용 후 Constants.USER_SHARD_COUNT도 같은 값으로 바꿔야 함
+ */
+public class UserReshardTool {
+
+    private static final String BACKUP_FILE_NAME = "users.reshard.bak";
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("사용법: java com.shopping.tool.UserReshardTool <새 샤드 수>");
+            return;
+        }
+
+        try {
+            int newCount = Integer.parseInt(args[0]);
+            int users = reshard(newCount);
+            System.out.println("✅ 재분배 완료: 사용자 " + users + "명 → " + newCount + "개 샤드");
+            if (newCount != Constants.USER_SHARD_COUNT) {
+                System.out.println("⚠️  Constants.USER_SHARD_COUNT(" + Constants.USER_SHARD_COUNT
+                        + ")를 " + newCount + "(으)로 바꿔야 애플리케이션이 시작됩니다.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("❌ 샤드 수는 숫자여야 합니다: " + args[0]);
+        } catch (RuntimeException e) {
+            System.out.println("❌ 재분배 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 사용자 샤드 재분배
+     * @param newCount 새 샤드 수
+     * @return 재분배한 사용자 수
+     */
+    public static int reshard(int newCount) {
+        Integer storedCount = FileManager.readObject(Constants.USER_SHARD_META_FILE);
+        int oldCount = storedCount != null ? storedCount : 0;
+
+        // 1. 백업 (이전 실행이 남긴 백업이 있으면 그대로 사용)
+        List<User> users;
+        if (FileManager.getDataFile(BACKUP_FILE_NAME).exists()) {
+            users = FileManager.readFromFile(BACKUP_FILE_NAME);
+            System.out.println("[UserReshardTool] 이전 백업에서 재개: " + users.size() + "명");
+        } else {
+            users = new ArrayList<>();
+            if (oldCount > 0) {
+                // 0. 기존 샤드 수로 복구한 뒤 스냅샷 (변경 기록 → 샤드 파일)
+                if (!new UserRepository(oldCount).snapshot()) {
+                    throw new IllegalStateException("변경 기록을 샤드 파일에 반영하지 못했습니다");
+                }
+                users.addAll(UserRepository.readAllShards(oldCount));
+            }
+            if (FileManager.getDataFile(Constants.USER_DATA_FILE).exists()) {
+                users.addAll(FileManager.readFromFile(Constants.USER_DATA_FILE));
+            }
+            FileManager.writeToFile(BACKUP_FILE_NAME, users);
+            System.out.println("[UserReshardTool] 백업 완료: " + users.size() + "명 (샤드 " + oldCount + "개)");
+        }
+
+        // 2. 새 샤드로 기록, 남는 샤드와 구버전 파일 삭제
+        if (!UserRepository.writeAllShards(users, newCount)) {
+            throw new IllegalStateException("새 샤드 파일 기록 실패 (다시 실행하면 백업에서 재개)");
+        }
+        for (int shard = newCount; shard < oldCount; shard++) {
+            FileManager.deleteFile(UserRepository.shardFileName(shard));
+        }
+        if (FileManager.getDataFile(Constants.USER_DATA_FILE).exists()) {
+            FileManager.deleteFile(Constants.USER_DATA_FILE);
+        }
+
+        // 3. 샤드 수 기록, 백업 삭제
+        FileManager.writeObject(Constants.USER_SHARD_META_FILE, newCount);
+        FileManager.deleteFile(BACKUP_FILE_NAME);
+        return users.size();
+    }
+}
@@ -0,0 +1,139 @@
+// ===============================================
+// BloomFilter.java - 문자열 키용 블룸 필터
+// ===============================================
+package com.shopping.util;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 문자열 키 존재 여부를 빠르게 판정하는 블룸 필터
+ *
+ * 특징:
+ * - mightContain()이 false면 "확실히 없음" (False Negative 없음)
+ * - true면 "있을 수도 있음" → 실제 저장소에서 다시 확인해야 함
+ * - 삭제는 지원하지 않음 (삭제된 키는 오탐으로만 남음)
+ *
+ * Serializable을 구현하여 FileManager로 파일 저장이 가능하도록 함
+ */
+public class BloomFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 비트 배열 (long 하나당 64비트)
+    private final long[] bits;
+
+    // 전체 비트 수
+    private final int bitSize;
+
+    // 키 하나당 세팅할 비트 수 (해시 함수 개수)
+    private final int hashCount;
+
+    // 설계 시 예상한 최대 원소 수
+    private final int expectedInsertions;
+
+    // 지금까지 추가된 원소 수 (중복 포함 근사치)
+    private int insertions;
+
+    /**
+     * BloomFilter 생성자
+     * @param expectedInsertions 예상 원소 수
+     * @param falsePositiveRate 허용 오탐률 (0 < fpp < 1)
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("예상 원소 수는 양수여야 합니다: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("오탐률은 0과 1 사이여야 합니다: " + falsePositiveRate);
+        }
+
+        // 최적 비트 수: m = -n * ln(p) / (ln 2)^2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+
+        // 최적 해시 수: k = m / n * ln 2
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+
+        this.bits = new long[(bitSize + 63) >>> 6];
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * 키 추가
+     * @param key 추가할 키
+     */
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        // Kirsch-Mitzenmacher 이중 해싱: g_i(x) = h1 + i * h2
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            int index = (combined & Integer.MAX_VALUE) % bitSize;
+            bits[index >>> 6] |= 1L << index;
+        }
+        insertions++;
+    }
+
+    /**
+     * 키가 존재할 가능성 확인
+     * @param key 확인할 키
+     * @return false면 확실히 없음, true면 있을 수도 있음
+     */
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            int index = (combined & Integer.MAX_VALUE) % bitSize;
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 예상 용량 초과 여부 (초과 시 오탐률이 올라가므로 재구성 필요)
+     * @return 용량 초과 여부
+     */
+    public boolean isSaturated() {
+        return insertions > expectedInsertions;
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public int getInsertions() {
+        return insertions;
+    }
+
+    /**
+     * 64비트 해시 (FNV-1a 후 MurmurHash3 fmix64로 비트 확산)
+     */
+    private static long hash64(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BloomFilter[bits=%d, hashes=%d, insertions=%d/%d]",
+                bitSize, hashCount, insertions, expectedInsertions);
+    }
+}
@@ -6,6 +6,8 @@ package com.shopping.util;
 import com.shopping.model.User;
 import com.shopping.persistence.FileManager;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,9 +20,87 @@ import java.util.List;
 public class Constants {
 
     // 파일 이름만 정의 (경로는 FileManager에서 처리)
-    public static final String USER_DATA_FILE = "users.dat";
-    public static final String PRODUCT_DATA_FILE = "products.dat";
-    public static final String ORDER_DATA_FILE = "orders.dat";
+    public static final String USER_DATA_FILE = "users.dat";        // 구버전 (샤드 이전 전 단일 파일)
+    public static final String USER_SHARD_FILE_FORMAT = "users-%02d.dat";  // 사용자 샤드 파일
+    public static final String USER_SHARD_META_FILE = "users.shards";      // 저장된 샤드 수
+    public static final String USER_WAL_PREFIX = "users-wal-";             // 사용자 변경 기록 (users-wal-000001.wal)
+    public static final String USER_SNAPSHOT_MARKER_FILE = "users.snapshot";  // 샤드 스냅샷 표식
+    public static final String USER_ID_FILTER_FILE = "users.bloom";        // 사용자 ID 블룸 필터 (스냅샷과 함께 저장)
+    public static final String PRODUCT_DATA_FILE = "products.dat";  // 상품 스냅샷
+    public static final String PRODUCT_WAL_PREFIX = "products-wal-";       // 상품 변경 기록
+    public static final String PRODUCT_SNAPSHOT_MARKER_FILE = "products.snapshot";
+    public static final String ORDER_DATA_FILE = "orders.dat";      // 구버전 (List 직렬화)
+    public static final String ORDER_LOG_FILE = "orders.log";       // 구버전 (세그먼트 이전 전 단일 로그)
+    public static final String ORDER_SEGMENT_PREFIX = "orders-";    // 주문 로그 세그먼트 (orders-000001.seg)
+    public static final String ORDER_SEGMENT_SUFFIX = ".seg";
+    public static final String ORDER_KEY_LOG_FILE = "order-keys.log";  // 주문 멱등성 키 로그
+    public static final String BALANCE_LEDGER_FILE = "balance.ledger";    // 잔액 거래 원장 (추가 전용)
+    public static final String BALANCE_SNAPSHOT_FILE = "balance.snapshot"; // 잔액 스냅샷
+    public static final String ORDER_CHECKPOINT_FILE = "orders.checkpoint"; // 주문 인덱스 체크포인트
+
+    // 주문 로그 세그먼트 설정
+    public static final long ORDER_SEGMENT_MAX_BYTES = 16L * 1024 * 1024;   // 세그먼트 최대 크기 (16MB)
+    public static final long ORDER_COMPACTION_INTERVAL_MILLIS = 60_000;     // 압축 검사 간격
+    public static final int ORDER_COMPACTION_MIN_CANCELS = 100;             // 압축을 시작할 최소 취소 레코드 수
+    public static final int ORDER_CHECKPOINT_MIN_RECORDS = 10_000;          // 체크포인트 이후 이만큼 쌓이면 새 체크포인트
+
+    // 스냅샷 간격 (변경 수, 시작 시 재생할 변경 기록의 상한)
+    public static final int USER_SNAPSHOT_INTERVAL = 10_000;
+    public static final int PRODUCT_SNAPSHOT_INTERVAL = 10_000;
+
+    // 상품을 힙 밖(direct ByteBuffer)에 보관할지 여부 (상품이 수백만 개일 때 힙/GC 부담 감소)
+    public static final boolean PRODUCT_OFF_HEAP_ENABLED = false;
+
+    // 페이지 조회 설정 (상품 목록, 주문 내역)
+    public static final int PAGE_SIZE = 10;        // 화면에 한 번에 보여줄 항목 수
+    public static final int MAX_PAGE_SIZE = 100;   // 한 번에 요청할 수 있는 최대 항목 수
+
+    // 사용자 샤드 수 (바꾸려면 UserReshardTool로 기존 데이터를 재분배)
+    public static final int USER_SHARD_COUNT = 16;
+
+    // 사용자 ID 블룸 필터 설정 (중복 확인/조회에서 확실히 없는 ID를 바로 걸러냄)
+    public static final int USER_ID_FILTER_MIN_CAPACITY = 1024;   // 최소 예상 원소 수 (사용자 수의 2배와 비교해 큰 값)
+    public static final double USER_ID_FILTER_FPP = 0.01;         // 허용 오탐률
+
+    // 주문 멱등성 키 설정
+    public static final long ORDER_KEY_TTL_MILLIS = 24L * 60 * 60 * 1000;  // 키 유지 시간 (24시간)
+    public static final int ORDER_KEY_CACHE_MAX_SIZE = 100_000;           // 메모리에 보관할 최대 키 수
+    public static final int ORDER_KEY_MAX_LENGTH = 128;                   // 키 최대 길이
+
+    // 잔액 원장 설정
+    public static final int BALANCE_SNAPSHOT_INTERVAL = 10_000;    // 스냅샷 간격 (거래 수)
+
+    // 패스워드 해시 설정
+    public static final int PASSWORD_HASH_ITERATIONS = 310_000;     // PBKDF2 반복 횟수 (클수록 느리고 안전)
+    public static final int PASSWORD_VERIFY_THREADS =
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2);  // 해시 계산 전용 스레드 수
+    public static final int PASSWORD_VERIFY_QUEUE_SIZE = 1024;     // 대기할 수 있는 해시 계산 요청 수
+    public static final long PASSWORD_HASH_SHUTDOWN_SECONDS = 5;   // 종료 시 진행 중인 해시 계산을 기다릴 최대 시간
+
+    // 로그인 시도 제한 (토큰 버킷)
+    public static final int LOGIN_USER_BURST = 5;                  // 사용자 ID당 연속 허용 시도 수
+    public static final long LOGIN_USER_REFILL_MILLIS = 12_000;    // 사용자 ID당 시도 1회 회복 시간 (분당 5회)
+    public static final int LOGIN_CLIENT_BURST = 20;               // 클라이언트당 연속 허용 시도 수
+    public static final long LOGIN_CLIENT_REFILL_MILLIS = 1_000;   // 클라이언트당 시도 1회 회복 시간 (초당 1회)
+    public static final int LOGIN_LIMITER_MAX_KEYS = 100_000;      // 메모리에 유지할 최대 버킷 수
+    public static final String LOCAL_CLIENT_ADDRESS = "local";     // 콘솔에서 접속한 클라이언트 주소
+
+    // 사용자별 분할 락 수 (동시에 서로 다른 사용자를 처리할 수 있는 최대 갈래)
+    public static final int USER_LOCK_STRIPES = 256;
+
+    // 재고 예약 설정
+    public static final int RESERVATION_HOLD_SECONDS = 120;        // 주문 확인 화면의 기본 예약 시간
+    public static final int RESERVATION_MAX_HOLD_SECONDS = 3600;   // 최대 예약 시간
+    public static final long RESERVATION_TICK_MILLIS = 100;        // 만료 스케줄러 tick 간격
+    public static final int RESERVATION_WHEEL_SIZE = 1024;         // 만료 스케줄러 칸 수
+
+    // 주문 시퀀서 (단일 쓰기 스레드 주문 처리) 설정
+    public static final boolean ORDER_SEQUENCER_ENABLED = false;   // 시작 시 시퀀서 모드 사용 여부
+    public static final int ORDER_SEQUENCER_BUFFER_SIZE = 16384;   // 링 버퍼 칸 수
+
+    // 시작 시 저장소 예열 (백그라운드에서 병렬 적재)
+    public static final boolean STARTUP_WARM_UP_ENABLED = true;    // 시작 시 저장소를 미리 적재할지 여부
+    public static final int STARTUP_WARM_UP_THREADS = 4;           // 예열 스레드 수 (사용자/상품/주문/잔액 원장)
 
     // 비즈니스 규칙 상수
     public static final double INITIAL_BALANCE = 10000.0;  // 초기 잔액
@@ -36,6 +116,9 @@ public class Constants {
 
     // 포맷 상수
     public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    // DATE_FORMAT 포매터 (스레드 안전, epoch 밀리초는 Instant.ofEpochMilli로 감싸 format)
+    public static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern(DATE_FORMAT).withZone(ZoneId.systemDefault());
     public static final String CURRENCY_FORMAT = "###,###원";
 
     // 시스템 설정 상수
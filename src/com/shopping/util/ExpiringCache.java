@@ -0,0 +1,189 @@
+// ===============================================
+// ExpiringCache.java - 크기 제한 + 만료 시간이 있는 동시성 캐시
+// ===============================================
+package com.shopping.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 항목마다 만료 시각을 가지며 최대 크기를 넘지 않는 스레드 안전 캐시
+ *
+ * - 조회/저장은 ConcurrentHashMap 기반 (잠금 없이 동시 접근)
+ * - 모든 항목의 TTL이 같으므로 삽입 순서 = 만료 순서
+ *   → 삽입 순서 큐의 앞쪽부터 지우면 만료 정리와 크기 제한을 한 번에 처리
+ * - 만료 정리는 별도 스레드 없이 put() 시점에 조금씩 수행
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    // 삽입 순서 (가장 오래된 항목이 맨 앞)
+    private final ConcurrentLinkedQueue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    // 현재 항목 수 (ConcurrentHashMap.size()보다 저렴)
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    /**
+     * ExpiringCache 생성자 (시스템 시계 사용)
+     * @param maxSize 최대 항목 수
+     * @param ttlMillis 항목 유지 시간 (밀리초)
+     */
+    public ExpiringCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * ExpiringCache 생성자
+     * @param maxSize 최대 항목 수
+     * @param ttlMillis 항목 유지 시간 (밀리초)
+     * @param clock 현재 시각 (epoch 밀리초) 공급자
+     */
+    public ExpiringCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("최대 크기는 양수여야 합니다: " + maxSize);
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("유지 시간은 양수여야 합니다: " + ttlMillis);
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 값 조회
+     * @param key 키
+     * @return 값 (없거나 만료되었으면 null)
+     */
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(clock.getAsLong())) {
+            remove(entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 키가 없을 때만 저장 (생성 시각 = 현재)
+     * @param key 키
+     * @param value 값
+     * @return 이미 있던 값 (새로 저장했으면 null)
+     */
+    public V putIfAbsent(K key, V value) {
+        return putIfAbsent(key, value, clock.getAsLong());
+    }
+
+    /**
+     * 키가 없을 때만 저장 (생성 시각 지정, 저장소에서 다시 적재할 때 사용)
+     * @param key 키
+     * @param value 값
+     * @param createdAt 원래 생성 시각 (epoch 밀리초)
+     * @return 이미 있던 값 (새로 저장했으면 null, 이미 만료된 시각이면 저장하지 않고 null)
+     */
+    public V putIfAbsent(K key, V value, long createdAt) {
+        long now = clock.getAsLong();
+        Entry<K, V> fresh = new Entry<>(key, value, createdAt + ttlMillis);
+        if (fresh.isExpired(now)) {
+            return null;
+        }
+
+        while (true) {
+            Entry<K, V> existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                insertionOrder.add(fresh);
+                size.incrementAndGet();
+                evict(now);
+                return null;
+            }
+            if (!existing.isExpired(now)) {
+                return existing.value;
+            }
+            // 만료된 항목이 자리를 차지하고 있으면 치우고 다시 시도
+            remove(existing);
+        }
+    }
+
+    /**
+     * 항목 제거
+     * @param key 키
+     * @return 제거 여부
+     */
+    public boolean remove(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null && remove(entry);
+    }
+
+    /**
+     * 현재 항목 수 (만료되었지만 아직 치우지 않은 항목 포함)
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * 만료된 항목 정리 + 크기 제한 유지
+     * 큐 앞쪽(가장 오래된 항목)부터 만료되었거나 크기를 넘은 만큼 제거
+     * (이미 제거/교체된 항목의 큐 노드는 그냥 버림)
+     */
+    private void evict(long now) {
+        synchronized (insertionOrder) {
+            Entry<K, V> oldest;
+            while ((oldest = insertionOrder.peek()) != null) {
+                boolean live = entries.get(oldest.key) == oldest;
+                if (live && size.get() <= maxSize && !oldest.isExpired(now)) {
+                    return;
+                }
+                insertionOrder.poll();
+                if (live) {
+                    remove(oldest);
+                }
+            }
+        }
+    }
+
+    private boolean remove(Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExpiringCache[size=%d, max=%d, ttl=%dms]", size.get(), maxSize, ttlMillis);
+    }
+
+    /**
+     * 키 + 값 + 만료 시각
+     */
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final long expiresAt;
+
+        Entry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+// ===============================================
+// IntIntMap.java - int → int 해시 맵 (박싱 없음)
+// ===============================================
+package com.shopping.util;
+
+import java.util.Arrays;
+
+/**
+ * int 키 → int 값 오픈 어드레싱 해시 맵 (선형 탐사)
+ *
+ * HashMap<Integer, Integer>는 항목마다 Entry 객체와 Integer 박싱이 붙지만,
+ * 이 맵은 (키 << 32 | 값)을 long 배열 한 칸에 담으므로 조회/갱신 시 객체를 만들지 않음
+ * - 빈 칸은 0L, 키 0은 배열 밖 필드에 따로 보관 (배열의 칸은 항상 0이 아님)
+ * - 삭제는 뒤 항목을 당겨 채움 (삭제 표시가 쌓이지 않음)
+ * - 항목 수가 용량의 절반을 넘으면 두 배로 늘림
+ *
+ * 스레드 안전하지 않음. 다만 get/containsKey는 동시에 수정되어도 예외나 무한 반복 없이
+ * 끝나므로(결과는 틀릴 수 있음) StampedLock 낙관적 읽기와 함께 쓸 수 있음
+ */
+public class IntIntMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // 키가 없을 때 반환할 값
+    private final int noValue;
+
+    // (키 << 32 | 값), 0L이면 빈 칸
+    private long[] table;
+    private int size;
+
+    // 키 0 항목
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /**
+     * IntIntMap 생성자
+     * @param noValue 키가 없을 때 get/put/remove가 반환할 값
+     */
+    public IntIntMap(int noValue) {
+        this(noValue, MIN_CAPACITY);
+    }
+
+    /**
+     * IntIntMap 생성자 (예상 항목 수 지정)
+     * @param noValue 키가 없을 때 get/put/remove가 반환할 값
+     * @param expectedSize 예상 항목 수 (이만큼은 늘리지 않고 저장)
+     */
+    public IntIntMap(int noValue, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("예상 항목 수는 0 이상이어야 합니다: " + expectedSize);
+        }
+        this.noValue = noValue;
+        this.table = new long[capacityFor(expectedSize)];
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 값 조회
+     * @param key 키
+     * @return 값 (없으면 noValue)
+     */
+    public int get(int key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : noValue;
+        }
+        long[] table = this.table;
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            long entry = table[index];
+            if (entry == 0) {
+                return noValue;
+            }
+            if (keyOf(entry) == key) {
+                return (int) entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return noValue;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        long[] table = this.table;
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            long entry = table[index];
+            if (entry == 0) {
+                return false;
+            }
+            if (keyOf(entry) == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 모든 키 (순서 보장 없음)
+     */
+    public int[] keys() {
+        int[] keys = new int[size];
+        int count = 0;
+        if (hasZeroKey) {
+            keys[count++] = 0;
+        }
+        for (long entry : table) {
+            if (entry != 0) {
+                keys[count++] = keyOf(entry);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 모든 항목 순회 (순서 보장 없음, 순회 중 수정 불가)
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (long entry : table) {
+            if (entry != 0) {
+                consumer.accept(keyOf(entry), (int) entry);
+            }
+        }
+    }
+
+    // ===== 변경 =====
+
+    /**
+     * 값 저장 (같은 키가 있으면 교체)
+     * @return 이전 값 (없었으면 noValue)
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int previous = hasZeroKey ? zeroValue : noValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long entry = table[index];
+            if (entry == 0) {
+                table[index] = pack(key, value);
+                if (++size * 2 > table.length) {
+                    resize(table.length * 2);
+                }
+                return noValue;
+            }
+            if (keyOf(entry) == key) {
+                table[index] = pack(key, value);
+                return (int) entry;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 키가 없을 때만 저장
+     * @return 저장했으면 true
+     */
+    public boolean putIfAbsent(int key, int value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * 키 삭제
+     * @return 삭제된 값 (없었으면 noValue)
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long entry = table[index];
+            if (entry == 0) {
+                return noValue;
+            }
+            if (keyOf(entry) == key) {
+                shiftBack(index);
+                size--;
+                return (int) entry;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * 빈 칸(gap) 뒤에 이어진 항목 중 gap 자리로 와도 되는 것을 당겨 채움
+     */
+    private void shiftBack(int gap) {
+        int mask = table.length - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long entry = table[index];
+            if (entry == 0) {
+                break;
+            }
+            int ideal = hash(keyOf(entry)) & mask;
+            // gap이 원래 자리(ideal)와 현재 자리(index) 사이에 있으면 당길 수 있음
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                table[gap] = entry;
+                gap = index;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        long[] grown = new long[capacity];
+        int mask = capacity - 1;
+        for (long entry : old) {
+            if (entry != 0) {
+                int index = hash(keyOf(entry)) & mask;
+                while (grown[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                grown[index] = entry;
+            }
+        }
+        // 다 채운 배열을 한 번에 교체 (낙관적 읽기는 이전 배열이나 새 배열 중 하나만 봄)
+        table = grown;
+    }
+
+    // ===== 내부 =====
+
+    private static long pack(int key, int value) {
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    private static int keyOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * 항목 순회용 콜백 (박싱 없음)
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
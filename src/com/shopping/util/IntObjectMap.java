@@ -0,0 +1,216 @@
+// ===============================================
+// IntObjectMap.java - int → 객체 해시 맵 (키 박싱 없음)
+// ===============================================
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * int 키 → 객체 값 오픈 어드레싱 해시 맵 (선형 탐사)
+ *
+ * HashMap<Integer, V>와 달리 키를 int 배열에 그대로 두고 Entry 객체를 만들지 않으므로
+ * 조회 시 할당이 없음. 해시/용량/삭제 방식은 IntIntMap과 같음
+ * - 빈 칸은 값이 null인 칸 (null 값은 저장할 수 없음)
+ *
+ * 스레드 안전하지 않음 (HashMap과 같은 용도)
+ *
+ * @param <V> 값 타입
+ */
+public class IntObjectMap<V> {
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    public IntObjectMap() {
+        this(0);
+    }
+
+    /**
+     * IntObjectMap 생성자 (예상 항목 수 지정)
+     * @param expectedSize 예상 항목 수 (이만큼은 늘리지 않고 저장)
+     */
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("예상 항목 수는 0 이상이어야 합니다: " + expectedSize);
+        }
+        int capacity = IntIntMap.capacityFor(expectedSize);
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 값 조회
+     * @param key 키
+     * @return 값 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * 값 조회 (없으면 기본값)
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 모든 값 (순서 보장 없음)
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 모든 항목 순회 (순서 보장 없음, 순회 중 수정 불가)
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    // ===== 변경 =====
+
+    /**
+     * 값 저장 (같은 키가 있으면 교체)
+     * @return 이전 값 (없었으면 null)
+     * @throws IllegalArgumentException 값이 null일 때
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null 값은 저장할 수 없습니다");
+        }
+        int mask = keys.length - 1;
+        int index = IntIntMap.hash(key) & mask;
+        while (true) {
+            Object existing = values[index];
+            if (existing == null) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                return null;
+            }
+            if (keys[index] == key) {
+                values[index] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 키 삭제
+     * @return 삭제된 값 (없었으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V removed = (V) values[index];
+        shiftBack(index);
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // ===== 내부 =====
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = IntIntMap.hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 빈 칸(gap) 뒤에 이어진 항목 중 gap 자리로 와도 되는 것을 당겨 채움
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (values[index] == null) {
+                break;
+            }
+            int ideal = IntIntMap.hash(keys[index]) & mask;
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = IntIntMap.hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 항목 순회용 콜백 (키 박싱 없음)
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+}
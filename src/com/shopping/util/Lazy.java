@@ -0,0 +1,64 @@
+// ===============================================
+// Lazy.java - 지연 초기화 홀더
+// ===============================================
+package com.shopping.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 최초 요청 시점에 한 번만 값을 생성하는 지연 초기화 홀더
+ * - 생성 비용이 큰 컴포넌트(Repository, Service 등)를 필요할 때까지 미룸
+ * - Double-Checked Locking으로 여러 스레드에서도 단 한 번만 생성
+ *
+ * @param <T> 보관할 값의 타입
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    // 값을 생성하는 팩토리 (생성 후에는 null로 비워 참조 해제)
+    private Supplier<? extends T> factory;
+
+    // 생성된 값 (volatile로 다른 스레드에 즉시 공개)
+    private volatile T value;
+
+    private Lazy(Supplier<? extends T> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory는 필수입니다");
+    }
+
+    /**
+     * 지연 초기화 홀더 생성
+     * @param factory 값을 생성할 팩토리
+     * @return Lazy 인스턴스
+     */
+    public static <T> Lazy<T> of(Supplier<? extends T> factory) {
+        return new Lazy<>(factory);
+    }
+
+    /**
+     * 값 조회 (최초 호출 시 생성)
+     * @return 생성된 값
+     */
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = Objects.requireNonNull(factory.get(), "factory가 null을 반환했습니다");
+                    value = result;
+                    factory = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 이미 생성되었는지 확인
+     * @return 생성 여부
+     */
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
@@ -0,0 +1,154 @@
+// ===============================================
+// PasswordHasher.java - PBKDF2 패스워드 해시
+// ===============================================
+package com.shopping.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * 솔트를 붙인 PBKDF2 패스워드 해시 (JDK SecretKeyFactory 사용)
+ *
+ * 저장 형식: pbkdf2$<반복 횟수>$<솔트 Base64>$<해시 Base64>
+ * - 반복 횟수를 해시와 함께 저장하므로 비용을 바꿔도 기존 해시는 그대로 검증 가능
+ * - 이 형식이 아닌 값은 이전 버전의 평문 패스워드로 간주
+ *   → needsRehash()가 true를 반환하므로 다음 로그인 때 해시로 교체
+ *
+ * 해시 계산은 의도적으로 CPU를 많이 쓰므로 호출하는 쪽에서 스레드 수를 제한해야 함
+ */
+public class PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    /**
+     * PasswordHasher 생성자
+     * @param iterations PBKDF2 반복 횟수 (클수록 느리고 안전)
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("반복 횟수는 양수여야 합니다: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * 새 솔트로 패스워드 해시 생성
+     * @param password 평문 패스워드
+     * @return 저장용 해시 문자열
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * 저장된 값이 현재 설정으로 만든 해시가 아닌지 (평문이거나 반복 횟수가 다름)
+     * @param stored 저장된 패스워드 값
+     * @return 다시 해시해야 하면 true
+     */
+    public boolean needsRehash(String stored) {
+        String[] parts = split(stored);
+        return parts == null || Integer.parseInt(parts[1]) != iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * 해시 계산 전용 스레드 풀 생성 (스레드 수와 대기열 크기 고정, 가득 차면 거부)
+     * 로그인이 몰려도 이 풀만 붐비고 주문 처리 등 다른 작업의 CPU는 남겨둠
+     * 풀을 만든 쪽이 종료(shutdown)까지 책임짐
+     *
+     * @param threads 스레드 수
+     * @param queueSize 대기할 수 있는 요청 수
+     * @return 데몬 스레드로 동작하는 풀
+     */
+    public static ThreadPoolExecutor newExecutor(int threads, int queueSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 패스워드 검증 (저장된 반복 횟수와 솔트로 다시 계산해 비교)
+     * @param password 입력된 평문 패스워드
+     * @param stored 저장된 값 (해시 문자열 또는 이전 버전의 평문)
+     * @return 일치 여부
+     */
+    public static boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+
+        String[] parts = split(stored);
+        if (parts == null) {
+            // 이전 버전 평문 (비교 시간이 내용에 따라 달라지지 않도록 MessageDigest.isEqual 사용)
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] salt = decoder.decode(parts[2]);
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = pbkdf2(password, salt, Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * 해시 문자열 분리
+     * @return [접두어, 반복 횟수, 솔트, 해시] (해시 형식이 아니면 null)
+     */
+    private static String[] split(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX + "$")) {
+            return null;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !parts[1].chars().allMatch(Character::isDigit) || parts[1].isEmpty()) {
+            return null;
+        }
+        return parts;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("패스워드 해시 계산 실패: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// ===============================================
+// RateLimiter.java - 키별 토큰 버킷 요청 제한
+// ===============================================
+package com.shopping.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키(사용자 ID, 클라이언트 주소 등)마다 토큰 버킷을 두는 요청 제한기
+ *
+ * 버킷:
+ * - 최대 capacity개까지 연속 허용, 이후에는 refillMillis마다 1개씩 회복
+ * - 상태를 long 하나(다음 토큰 기준 시각)로 표현하고 CAS로 갱신 → 락 없음
+ *   (GCRA 방식: 토큰 수 대신 "버킷이 가득 차는 시각"을 저장)
+ *
+ * 버킷 보관:
+ * - 키 해시로 나눈 구역(stripe)마다 접근 순서 LinkedHashMap(LRU)
+ * - 구역당 최대 개수를 넘으면 가장 오래 쓰지 않은 버킷을 버림 → 키가 아무리 많아도 메모리 일정
+ * - 구역 락은 버킷을 찾는 동안만 잡고, 토큰 차감은 락 밖에서 CAS로 처리
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final long intervalNanos;     // 토큰 1개 회복 시간
+    private final long burstNanos;        // capacity개를 모으는 데 걸리는 시간
+    private final Segment[] segments;
+    private final int mask;
+
+    /**
+     * RateLimiter 생성자
+     * @param name 로그용 이름
+     * @param capacity 연속으로 허용할 최대 요청 수
+     * @param refillMillis 토큰 1개 회복 시간 (밀리초)
+     * @param maxKeys 메모리에 유지할 최대 버킷 수
+     */
+    public RateLimiter(String name, int capacity, long refillMillis, int maxKeys) {
+        if (capacity <= 0 || refillMillis <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refillMillis, maxKeys는 양수여야 합니다");
+        }
+
+        int segmentCount = 1;
+        while (segmentCount < 64 && segmentCount * 2 <= maxKeys) {
+            segmentCount <<= 1;
+        }
+
+        this.name = name;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(refillMillis);
+        this.burstNanos = intervalNanos * capacity;
+        this.segments = new Segment[segmentCount];
+        this.mask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(Math.max(1, maxKeys / segmentCount));
+        }
+    }
+
+    /**
+     * 요청 1건 허용 여부 (허용되면 토큰 1개 차감)
+     * @param key 제한 키
+     * @return 허용되면 true
+     */
+    public boolean tryAcquire(String key) {
+        return bucketFor(key).tryAcquire(System.nanoTime(), intervalNanos, burstNanos);
+    }
+
+    /**
+     * 다음 요청이 허용될 때까지 남은 시간 (밀리초, 지금 허용되면 0)
+     * @param key 제한 키
+     */
+    public long getWaitMillis(String key) {
+        long wait = bucketFor(key).waitNanos(System.nanoTime(), intervalNanos, burstNanos);
+        return TimeUnit.NANOSECONDS.toMillis(wait + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * 키의 버킷을 가득 찬 상태로 되돌림 (예: 로그인 성공 후 사용자 버킷 초기화)
+     * @param key 제한 키
+     */
+    public void reset(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * 현재 보관 중인 버킷 수
+     */
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                total += segment.size();
+            }
+        }
+        return total;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Bucket bucketFor(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.computeIfAbsent(key, k -> new Bucket());
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        Objects.requireNonNull(key, "제한 키는 필수입니다");
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & mask];
+    }
+
+    /**
+     * 버킷 하나 (다음 토큰 기준 시각만 저장)
+     * tat: 이 시각이 되면 버킷이 가득 참. 요청마다 interval만큼 미래로 밀림
+     */
+    private static final class Bucket {
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+        boolean tryAcquire(long now, long interval, long burst) {
+            while (true) {
+                long current = tat.get();
+                long base = (current == Long.MIN_VALUE || current < now) ? now : current;
+                long next = base + interval;
+                if (next - now > burst) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        long waitNanos(long now, long interval, long burst) {
+            long current = tat.get();
+            if (current == Long.MIN_VALUE) {
+                return 0;
+            }
+            return Math.max(0, current + interval - burst - now);
+        }
+    }
+
+    /**
+     * 접근 순서 LRU 구역 (최대 개수를 넘으면 가장 오래된 버킷 제거)
+     */
+    private static final class Segment extends LinkedHashMap<String, Bucket> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
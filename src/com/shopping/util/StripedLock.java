@@ -0,0 +1,104 @@
+// ===============================================
+// StripedLock.java - 키 해시 기반 분할 락
+// ===============================================
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키(사용자 ID 등)의 해시로 고른 락 하나만 잡는 분할(striped) 락
+ *
+ * - 같은 키는 항상 같은 락 → 같은 사용자에 대한 작업은 직렬화
+ * - 다른 키는 대부분 다른 락 → 서로 다른 사용자 작업은 동시에 진행
+ * - 락 수가 고정이라 키가 아무리 많아도 메모리는 일정
+ *
+ * 여러 키를 함께 잠글 때는 lockAll()을 사용 (항상 같은 순서로 잠가 교착 상태 방지)
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * StripedLock 생성자
+     * @param stripeCount 락 수 (2의 거듭제곱으로 올림)
+     */
+    public StripedLock(int stripeCount) {
+        if (stripeCount <= 0 || stripeCount > (1 << 16)) {
+            throw new IllegalArgumentException("락 수는 1 ~ 65536 사이여야 합니다: " + stripeCount);
+        }
+
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 키에 해당하는 락
+     * @param key 잠글 키
+     * @return 키가 속한 락 (잠그지는 않음)
+     */
+    public Lock get(Object key) {
+        return stripes[indexOf(key)];
+    }
+
+    /**
+     * 여러 키에 해당하는 락을 모두 잠금
+     * 락 번호 순서로 잠그므로 다른 스레드의 lockAll()과 교착 상태가 생기지 않음
+     *
+     * @param keys 잠글 키들
+     * @return 잠근 락 목록 (unlockAll()에 그대로 넘김)
+     */
+    public List<Lock> lockAll(Collection<?> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Object key : keys) {
+            indexes.add(indexOf(key));
+        }
+
+        List<Lock> locked = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            locked.add(stripes[index]);
+        }
+        return locked;
+    }
+
+    /**
+     * lockAll()로 잠근 락을 역순으로 해제
+     * @param locked lockAll()이 반환한 락 목록
+     */
+    public static void unlockAll(List<Lock> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+
+    /**
+     * 락 수
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    private int indexOf(Object key) {
+        Objects.requireNonNull(key, "락 키는 필수입니다");
+
+        // 해시 상위 비트를 섞어 하위 비트만 쓰는 마스크에서도 고르게 분산
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+}
@@ -0,0 +1,199 @@
+// ===============================================
+// TimingWheel.java - 해시 타이밍 휠 (만료 스케줄러)
+// ===============================================
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 많은 수의 만료 예약을 스레드 하나로 처리하는 해시 타이밍 휠
+ *
+ * 구조:
+ * - 바퀴(wheel)는 tick 간격의 칸(bucket) wheelSize개로 구성
+ * - 만료 시각에 해당하는 칸에 넣고, 한 바퀴보다 먼 항목은 남은 바퀴 수(rounds)를 기록
+ * - 작업 스레드가 tick마다 한 칸만 훑어 만료된 항목의 콜백을 호출
+ *
+ * 등록과 만료 처리 모두 항목당 O(1) (정렬 구조가 없음)
+ * 취소는 지원하지 않음: 콜백 쪽에서 이미 처리된 항목을 무시하는 방식(지연 취소)으로 사용
+ *
+ * 만료 정밀도는 tick 간격 (예약 시각보다 최대 1 tick 늦게 호출될 수 있음)
+ *
+ * @param <T> 만료 시 콜백에 넘길 항목 타입
+ */
+public class TimingWheel<T> {
+
+    private final String name;
+    private final long tickMillis;
+    private final int mask;
+    private final Consumer<T> onExpire;
+
+    // 칸 배열 (작업 스레드만 접근)
+    private final List<List<Timeout<T>>> wheel;
+
+    // 다른 스레드가 등록한 항목 (작업 스레드가 tick마다 칸으로 옮김)
+    private final ConcurrentLinkedQueue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private long startTime;
+    private long tick;
+
+    /**
+     * TimingWheel 생성자
+     * @param name 작업 스레드 이름
+     * @param tickMillis 칸 하나의 시간 간격 (밀리초)
+     * @param wheelSize 칸 수 (2의 거듭제곱으로 올림)
+     * @param onExpire 만료 콜백 (작업 스레드에서 호출되므로 오래 걸리면 안 됨)
+     */
+    public TimingWheel(String name, long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tick 간격은 양수여야 합니다: " + tickMillis);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("칸 수는 1 ~ 2^20 사이여야 합니다: " + wheelSize);
+        }
+
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.name = name;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.onExpire = onExpire;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 만료 예약
+     * 첫 호출 시 작업 스레드를 시작
+     *
+     * @param item 만료 시 콜백에 넘길 항목
+     * @param delayMillis 지금부터 만료까지의 시간 (밀리초)
+     */
+    public void schedule(T item, long delayMillis) {
+        start();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        pending.add(new Timeout<>(item, deadline));
+    }
+
+    /**
+     * 작업 스레드 시작 (이미 시작했으면 무시)
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startTime = System.nanoTime();
+        tick = 0;
+
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * 작업 스레드 종료 (남은 예약은 버림)
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = worker;
+            worker = null;
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 작업 스레드 본체: tick마다 대기 항목을 칸에 넣고 현재 칸을 처리
+     */
+    private void run() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            transferPending(tickNanos);
+            expireBucket(wheel.get((int) (tick & mask)), deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * 대기 큐 → 칸 배치
+     * 이미 지난 예약은 현재 칸에 넣어 이번 tick에 바로 처리
+     */
+    private void transferPending(long tickNanos) {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            long ticks = Math.max(tick, (timeout.deadline - startTime) / tickNanos);
+            timeout.rounds = (ticks - tick) / wheel.size();
+            wheel.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    /**
+     * 한 칸 처리: 남은 바퀴가 없는 항목은 만료, 나머지는 바퀴 수만 줄임
+     */
+    private void expireBucket(List<Timeout<T>> bucket, long now) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout<T> timeout = bucket.get(i);
+            if (timeout.rounds <= 0 && timeout.deadline <= now) {
+                try {
+                    onExpire.accept(timeout.item);
+                } catch (RuntimeException e) {
+                    System.err.println("[TimingWheel] 만료 처리 오류 (" + name + "): " + e.getMessage());
+                }
+            } else {
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                }
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * 등록된 만료 예약 한 건
+     */
+    private static final class Timeout<T> {
+        final T item;
+        final long deadline;
+        long rounds;
+
+        Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+// ===============================================
+// UserIdDictionary.java - 사용자 ID 사전 (문자열 ↔ 정수 키)
+// ===============================================
+package com.shopping.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자 ID 문자열에 프로세스 안에서만 쓰는 정수 키를 붙이는 사전
+ *
+ * 주문마다 사용자 ID 문자열을 따로 들고 있으면 같은 ID가 주문 수만큼 힙에 복제되므로,
+ * 주문은 사전의 문자열 하나를 공유하고 사용자별 비교/그룹핑은 정수 키로 함
+ * - UserRepository가 하나를 만들어 소유하고, ApplicationContext가 OrderRepository에 같은 사전을 넘김
+ * - 키는 처음 본 순서대로 0부터 발급: 사용자 등록(UserRepository), 주문 저장/인덱스 구성(OrderRepository)
+ * - 조회 경로는 find()만 사용 (임의의 문자열로 조회해도 사전이 늘어나지 않음)
+ * - 키는 재시작하면 달라지므로 파일에 저장하지 않음 (디스크에는 항상 문자열 ID)
+ * - 발급된 키는 지워지지 않음 (사용자 수만큼만 늘어남)
+ */
+public final class UserIdDictionary {
+
+    // 키가 없음 (사용자 ID가 null인 주문 등)
+    public static final int NO_KEY = -1;
+
+    // 사용자 ID → 키
+    private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+
+    // 키 → 사용자 ID (발급 시 배열을 채운 뒤 keys에 공개)
+    private volatile String[] ids = new String[1024];
+    private int size;
+
+    /**
+     * 사용자 ID의 키 (처음 보는 ID면 새로 발급)
+     * @param userId 사용자 ID
+     * @return 키 (userId가 null이면 NO_KEY)
+     */
+    public int keyOf(String userId) {
+        if (userId == null) {
+            return NO_KEY;
+        }
+        Integer key = keys.get(userId);
+        return key != null ? key : assign(userId);
+    }
+
+    /**
+     * 이미 발급된 키 조회 (발급하지 않음)
+     * @return 키 (없으면 NO_KEY)
+     */
+    public int find(String userId) {
+        if (userId == null) {
+            return NO_KEY;
+        }
+        Integer key = keys.get(userId);
+        return key != null ? key : NO_KEY;
+    }
+
+    /**
+     * 키의 사용자 ID (사전이 보관한 공유 문자열)
+     * @throws IllegalArgumentException 발급되지 않은 키일 때
+     */
+    public String userIdOf(int key) {
+        String[] ids = this.ids;
+        String userId = key >= 0 && key < ids.length ? ids[key] : null;
+        if (userId == null) {
+            throw new IllegalArgumentException("발급되지 않은 사용자 키입니다: " + key);
+        }
+        return userId;
+    }
+
+    /**
+     * 발급된 키 수
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int assign(String userId) {
+        Integer existing = keys.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        int key = size;
+        if (key == ids.length) {
+            ids = Arrays.copyOf(ids, key * 2);
+        }
+        ids[key] = userId;
+        size = key + 1;
+        keys.put(userId, key);
+        return key;
+    }
+}